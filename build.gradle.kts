@@ -101,6 +101,9 @@ subprojects {
     tasks.withType<Test>().configureEach {
         reports.html.outputLocation.set(file("${reporting.baseDirectory}/${name}"))
 
+        // Tests downloading via URLDownload must not fill the HTTP cache of the user
+        systemProperty("jabref.httpCacheDirectory", temporaryDir.resolve("http-cache").absolutePath)
+
         // Enable parallel tests (on desktop).
         // See https://docs.gradle.org/8.1/userguide/performance.html#execute_tests_in_parallel for details.
         if (!providers.environmentVariable("CI").isPresent) {
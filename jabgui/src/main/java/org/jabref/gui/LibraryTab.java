@@ -60,6 +60,7 @@ import org.jabref.gui.util.OptionalObjectProperty;
 import org.jabref.gui.util.UiTaskExecutor;
 import org.jabref.logic.ai.AiService;
 import org.jabref.logic.citationstyle.CitationStyleCache;
+import org.jabref.logic.exporter.BibFileLayout;
 import org.jabref.logic.importer.FetcherClientException;
 import org.jabref.logic.importer.FetcherException;
 import org.jabref.logic.importer.FetcherServerException;
@@ -141,6 +142,9 @@ public class LibraryTab extends Tab {
 
     private Optional<DatabaseChangeMonitor> changeMonitor = Optional.empty();
 
+    // Layout of the library file written by the last save, used to save incrementally
+    private Optional<BibFileLayout> savedFileLayout = Optional.empty();
+
     private BackgroundTask<ParserResult> dataLoadingTask;
 
     private final ClipBoardManager clipBoardManager;
@@ -924,6 +928,14 @@ public class LibraryTab extends Tab {
         this.changedProperty.setValue(true);
     }
 
+    public Optional<BibFileLayout> getSavedFileLayout() {
+        return savedFileLayout;
+    }
+
+    public void setSavedFileLayout(Optional<BibFileLayout> savedFileLayout) {
+        this.savedFileLayout = savedFileLayout;
+    }
+
     public void resetChangedProperties() {
         this.nonUndoableChangeProperty.setValue(false);
         this.changedProperty.setValue(false);
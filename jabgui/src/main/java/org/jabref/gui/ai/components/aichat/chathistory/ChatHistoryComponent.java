@@ -3,18 +3,28 @@ package org.jabref.gui.ai.components.aichat.chathistory;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.VBox;
 
 import org.jabref.gui.ai.components.aichat.chatmessage.ChatMessageComponent;
 import org.jabref.gui.util.UiTaskExecutor;
+import org.jabref.logic.l10n.Localization;
 
 import com.airhacks.afterburner.views.ViewLoader;
 import dev.langchain4j.data.message.ChatMessage;
 
+/**
+ * Shows the most recent messages of a chat history. Older messages are shown page by page on request, so that opening
+ * a long chat history does not create a component for every message.
+ */
 public class ChatHistoryComponent extends ScrollPane {
+    private static final int MESSAGES_PER_PAGE = 20;
+
     @FXML private VBox vBox;
 
+    private int shownPages = 1;
+
     public ChatHistoryComponent() {
         ViewLoader.view(this)
                   .root(this)
@@ -38,11 +48,19 @@ public class ChatHistoryComponent extends ScrollPane {
     private void fill(ObservableList<ChatMessage> items) {
         UiTaskExecutor.runInJavaFXThread(() -> {
             vBox.getChildren().clear();
-            items.forEach(chatMessage ->
-                    vBox.getChildren().add(new ChatMessageComponent(chatMessage, chatMessageComponent -> {
-                        int index = vBox.getChildren().indexOf(chatMessageComponent);
-                        items.remove(index);
-                    })));
+            int firstShownMessage = Math.max(0, items.size() - shownPages * MESSAGES_PER_PAGE);
+            if (firstShownMessage > 0) {
+                Button showOlderMessages = new Button(Localization.lang("Show older messages"));
+                showOlderMessages.setOnAction(_ -> {
+                    shownPages++;
+                    fill(items);
+                });
+                vBox.getChildren().add(showOlderMessages);
+            }
+            for (int i = firstShownMessage; i < items.size(); i++) {
+                int index = i;
+                vBox.getChildren().add(new ChatMessageComponent(items.get(index), _ -> items.remove(index)));
+            }
         });
     }
 
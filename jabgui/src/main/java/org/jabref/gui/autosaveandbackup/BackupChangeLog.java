@@ -0,0 +1,302 @@
+package org.jabref.gui.autosaveandbackup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.jabref.logic.exporter.BibFileLayout.EntryRegion;
+import org.jabref.logic.util.io.BackupFileUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-ahead log of the changes made to a library since its last full backup (the "checkpoint").
+ * <p>
+ * The log starts with a header naming the checkpoint and the byte regions of the entries in it. Afterwards, one
+ * record is appended for each changed, added, or removed entry. The current state of the library is obtained by
+ * replaying the records on top of the checkpoint (see {@link #replay(Path, Path)}). A record which was not written
+ * completely (e.g., because JabRef was killed) is ignored.
+ * <p>
+ * Entries are identified by {@link org.jabref.model.entry.BibEntry#getId()}, which is only valid as long as the
+ * library is open. This is fine, because a log always belongs to a single session of the {@link BackupManager}.
+ */
+class BackupChangeLog implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackupChangeLog.class);
+
+    private static final String FORMAT = "JabRef backup change log 1";
+
+    private static final byte ENTRY_CHANGED = 1;
+    private static final byte ENTRY_REMOVED = 2;
+
+    private final FileChannel channel;
+    private final DataOutputStream output;
+
+    private BackupChangeLog(FileChannel channel) {
+        this.channel = channel;
+        this.output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+    }
+
+    static Path getChangeLogPath(Path originalPath, Path backupDir) {
+        return backupDir.resolve(BackupFileUtil.getUniqueFilePrefix(originalPath) + "--" + originalPath.getFileName() + "--changes.log");
+    }
+
+    /**
+     * Starts a new (empty) log for the given checkpoint. An existing log is replaced.
+     *
+     * @param entryRegions the regions of the entries in the checkpoint
+     */
+    static BackupChangeLog create(Path logPath, Path checkpoint, Charset encoding, String newLineSeparator, Map<String, EntryRegion> entryRegions) throws IOException {
+        FileChannel channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        BackupChangeLog changeLog = new BackupChangeLog(channel);
+        try {
+            DataOutputStream output = changeLog.output;
+            output.writeUTF(FORMAT);
+            output.writeUTF(checkpoint.getFileName().toString());
+            output.writeUTF(encoding.name());
+            output.writeUTF(newLineSeparator);
+            output.writeInt(entryRegions.size());
+            for (Map.Entry<String, EntryRegion> region : entryRegions.entrySet()) {
+                output.writeUTF(region.getKey());
+                output.writeLong(region.getValue().offset());
+                output.writeLong(region.getValue().length());
+            }
+            changeLog.flush();
+        } catch (IOException e) {
+            changeLog.close();
+            throw e;
+        }
+        return changeLog;
+    }
+
+    /**
+     * @param serializedEntry the serialization of the entry, finished by a line break
+     */
+    void entryChanged(String id, String serializedEntry) throws IOException {
+        byte[] text = serializedEntry.getBytes(StandardCharsets.UTF_8);
+        output.writeByte(ENTRY_CHANGED);
+        output.writeUTF(id);
+        output.writeInt(text.length);
+        output.write(text);
+    }
+
+    void entryRemoved(String id) throws IOException {
+        output.writeByte(ENTRY_REMOVED);
+        output.writeUTF(id);
+    }
+
+    /**
+     * Writes all appended records to the disk
+     */
+    void flush() throws IOException {
+        output.flush();
+        channel.force(false);
+    }
+
+    long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+
+    /**
+     * Reads the changes of the given log.
+     *
+     * @param latestBackup the most recent full backup
+     * @return the changes to apply on top of the backup. Empty if the log does not contain any changes or does not
+     * belong to the given backup (both cases mean that the backup is up-to-date).
+     */
+    static Optional<Replay> replay(Path logPath, Path latestBackup) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(logPath)))) {
+            Header header;
+            try {
+                header = readHeader(input);
+            } catch (EOFException e) {
+                LOGGER.debug("Header of change log {} is incomplete", logPath, e);
+                return Optional.empty();
+            }
+            if (!latestBackup.getFileName().toString().equals(header.checkpoint())) {
+                // A newer checkpoint was written, but the new log could not be started
+                LOGGER.debug("Change log {} belongs to an outdated backup", logPath);
+                return Optional.empty();
+            }
+
+            Map<String, String> changedEntries = new LinkedHashMap<>();
+            Set<String> removedEntries = new HashSet<>();
+            try {
+                while (true) {
+                    byte type = input.readByte();
+                    String id = input.readUTF();
+                    if (type == ENTRY_CHANGED) {
+                        byte[] text = new byte[input.readInt()];
+                        input.readFully(text);
+                        changedEntries.put(id, new String(text, StandardCharsets.UTF_8));
+                        removedEntries.remove(id);
+                    } else if (type == ENTRY_REMOVED) {
+                        changedEntries.remove(id);
+                        removedEntries.add(id);
+                    } else {
+                        throw new IOException("Unknown record type " + type + " in " + logPath);
+                    }
+                }
+            } catch (EOFException e) {
+                // End of the log (or a record which was not written completely)
+            }
+            if (changedEntries.isEmpty() && removedEntries.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(new Replay(latestBackup, header, changedEntries, removedEntries));
+        }
+    }
+
+    private static Header readHeader(DataInputStream input) throws IOException {
+        String format = input.readUTF();
+        if (!FORMAT.equals(format)) {
+            throw new IOException("Unsupported change log format " + format);
+        }
+        String checkpoint = input.readUTF();
+        Charset encoding = Charset.forName(input.readUTF());
+        String newLineSeparator = input.readUTF();
+        int regionCount = input.readInt();
+        Map<String, Region> entryRegions = new LinkedHashMap<>();
+        for (int i = 0; i < regionCount; i++) {
+            String id = input.readUTF();
+            long offset = input.readLong();
+            long length = input.readLong();
+            entryRegions.put(id, new Region(offset, length));
+        }
+        return new Header(checkpoint, encoding, newLineSeparator, entryRegions);
+    }
+
+    /**
+     * The changes of a log, applied on top of its checkpoint while writing. The checkpoint is streamed, thus its size
+     * is not limited by the size of an array.
+     */
+    static class Replay {
+        private final Path checkpoint;
+        private final Header header;
+        private final Map<String, String> changedEntries;
+        private final Set<String> removedEntries;
+
+        private Replay(Path checkpoint, Header header, Map<String, String> changedEntries, Set<String> removedEntries) {
+            this.checkpoint = checkpoint;
+            this.header = header;
+            this.changedEntries = changedEntries;
+            this.removedEntries = removedEntries;
+        }
+
+        /**
+         * Writes the content of the library after applying all changes of the log
+         */
+        void writeTo(OutputStream output) throws IOException {
+            byte[] separator = header.newLineSeparator().getBytes(header.encoding());
+            Map<String, String> addedEntries = new LinkedHashMap<>(changedEntries);
+            WritableByteChannel outputChannel = Channels.newChannel(output);
+
+            try (FileChannel input = FileChannel.open(checkpoint, StandardOpenOption.READ)) {
+                long size = input.size();
+                List<Map.Entry<String, Region>> regions = header.entryRegions().entrySet().stream()
+                                                                .sorted(Comparator.comparingLong(region -> region.getValue().offset()))
+                                                                .toList();
+                long position = 0;
+                for (Map.Entry<String, Region> region : regions) {
+                    long start = region.getValue().offset();
+                    long end = start + region.getValue().length();
+                    if ((start < position) || (end > size)) {
+                        throw new IOException("Change log does not match backup " + checkpoint);
+                    }
+                    copy(input, position, start, outputChannel);
+                    position = end;
+
+                    String id = region.getKey();
+                    if (removedEntries.contains(id)) {
+                        continue;
+                    }
+                    String changedEntry = addedEntries.remove(id);
+                    if (changedEntry == null) {
+                        copy(input, start, end, outputChannel);
+                        continue;
+                    }
+                    // The region includes the line break separating the entry from the preceding block (if there is one)
+                    if (startsWith(input, start, end, separator)) {
+                        output.write(separator);
+                    }
+                    output.write(changedEntry.getBytes(header.encoding()));
+                }
+
+                // The remaining entries were added after the checkpoint. We put them after the last entry.
+                if (regions.isEmpty()) {
+                    copy(input, 0, size, outputChannel);
+                    position = size;
+                }
+                for (String addedEntry : addedEntries.values()) {
+                    if (position > 0) {
+                        output.write(separator);
+                    }
+                    output.write(addedEntry.getBytes(header.encoding()));
+                }
+                copy(input, position, size, outputChannel);
+            }
+        }
+
+        private static void copy(FileChannel input, long from, long to, WritableByteChannel output) throws IOException {
+            long position = from;
+            while (position < to) {
+                long transferred = input.transferTo(position, to - position, output);
+                if (transferred <= 0) {
+                    throw new EOFException("Unexpected end of backup at position " + position);
+                }
+                position += transferred;
+            }
+        }
+
+        private static boolean startsWith(FileChannel input, long start, long end, byte[] prefix) throws IOException {
+            if (end - start < prefix.length) {
+                return false;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(prefix.length);
+            while (buffer.hasRemaining()) {
+                if (input.read(buffer, start + buffer.position()) < 0) {
+                    return false;
+                }
+            }
+            return Arrays.equals(buffer.array(), prefix);
+        }
+    }
+
+    private record Header(
+            String checkpoint,
+            Charset encoding,
+            String newLineSeparator,
+            Map<String, Region> entryRegions) {
+    }
+
+    private record Region(long offset, long length) {
+    }
+}
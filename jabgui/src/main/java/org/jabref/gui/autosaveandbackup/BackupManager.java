@@ -1,15 +1,18 @@
 package org.jabref.gui.autosaveandbackup;
 
 import java.io.IOException;
-import java.io.Writer;
+import java.io.StringWriter;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
@@ -24,10 +27,15 @@ import javafx.scene.control.TableColumn;
 import org.jabref.gui.LibraryTab;
 import org.jabref.gui.maintable.BibEntryTableViewModel;
 import org.jabref.gui.maintable.columns.MainTableColumn;
+import org.jabref.logic.bibtex.BibEntryWriter;
+import org.jabref.logic.bibtex.FieldWriter;
 import org.jabref.logic.bibtex.InvalidFieldValueException;
-import org.jabref.logic.exporter.AtomicFileWriter;
+import org.jabref.logic.exporter.AtomicFileOutputStream;
+import org.jabref.logic.exporter.BibDatabaseWriter;
+import org.jabref.logic.exporter.BibFileLayout;
 import org.jabref.logic.exporter.BibWriter;
 import org.jabref.logic.exporter.BibtexDatabaseWriter;
+import org.jabref.logic.exporter.IncrementalBibFileWriter;
 import org.jabref.logic.exporter.SelfContainedSaveConfiguration;
 import org.jabref.logic.preferences.CliPreferences;
 import org.jabref.logic.util.BackupFileType;
@@ -36,9 +44,13 @@ import org.jabref.logic.util.io.BackupFileUtil;
 import org.jabref.model.database.BibDatabase;
 import org.jabref.model.database.BibDatabaseContext;
 import org.jabref.model.database.event.BibDatabaseContextChangedEvent;
+import org.jabref.model.database.event.EntriesRemovedEvent;
 import org.jabref.model.entry.BibEntry;
 import org.jabref.model.entry.BibEntryTypesManager;
 import org.jabref.model.entry.BibtexString;
+import org.jabref.model.entry.event.EntriesEvent;
+import org.jabref.model.entry.event.FieldChangedEvent;
+import org.jabref.model.entry.field.InternalField;
 import org.jabref.model.metadata.SaveOrder;
 import org.jabref.model.metadata.SelfContainedSaveOrder;
 
@@ -51,6 +63,10 @@ import org.slf4j.LoggerFactory;
  * An intelligent {@link ExecutorService} with a {@link BlockingQueue} prevents a high load while making backups and
  * rejects all redundant backup tasks. This class does not manage the .bak file which is created when opening a
  * database.
+ * <p>
+ * A full backup (checkpoint) is written only from time to time. In between, the changed entries are appended to a
+ * {@link BackupChangeLog}. Before a backup is compared with or restored to the library file, the log is replayed
+ * into a new full backup (see {@link #compactChangeLog(Path, Path)}).
  */
 public class BackupManager {
 
@@ -62,6 +78,11 @@ public class BackupManager {
 
     private static final Set<BackupManager> RUNNING_INSTANCES = new HashSet<>();
 
+    /**
+     * A new full backup is written as soon as the change log gets larger than this fraction of the last full backup
+     */
+    private static final double MAXIMUM_CHANGE_LOG_TO_CHECKPOINT_SIZE = 0.5;
+
     private final BibDatabaseContext bibDatabaseContext;
     private final CliPreferences preferences;
     private final ScheduledThreadPoolExecutor executor;
@@ -74,6 +95,17 @@ public class BackupManager {
     private final Queue<Path> backupFilesQueue = new LinkedBlockingQueue<>();
     private boolean needsBackup = false;
 
+    // Changes since the last backup, entries identified by their id
+    private final Map<String, BibEntry> changedEntries = new HashMap<>();
+    private final Set<String> removedEntries = new HashSet<>();
+    private boolean needsCheckpoint = true;
+
+    // Log of the changes since the last checkpoint (null if there is no checkpoint yet)
+    private final Object writeLock = new Object();
+    private BackupChangeLog changeLog;
+    private long checkpointSize;
+    private int nonEntryContentHash;
+
     BackupManager(LibraryTab libraryTab, BibDatabaseContext bibDatabaseContext, BibEntryTypesManager entryTypesManager, CliPreferences preferences) {
         this.bibDatabaseContext = bibDatabaseContext;
         this.entryTypesManager = entryTypesManager;
@@ -158,6 +190,7 @@ public class BackupManager {
             }
             return false;
         }
+        compactChangeLog(originalPath, backupDir);
         return getLatestBackupPath(originalPath, backupDir).map(latestBackupPath -> {
             FileTime latestBackupFileLastModifiedTime;
             try {
@@ -200,6 +233,7 @@ public class BackupManager {
      * @param originalPath Path to the file which should be equalized to the backup file.
      */
     public static void restoreBackup(Path originalPath, Path backupDir) {
+        compactChangeLog(originalPath, backupDir);
         Optional<Path> backupPath = getLatestBackupPath(originalPath, backupDir);
         if (backupPath.isEmpty()) {
             LOGGER.error("There is no backup file");
@@ -212,6 +246,46 @@ public class BackupManager {
         }
     }
 
+    /**
+     * Replays the change log of the given library (if there is one) into a new full backup. Afterwards, the most recent
+     * backup file contains all changes. The log of a library which is currently open is left untouched.
+     */
+    static void compactChangeLog(Path originalPath, Path backupDir) {
+        Path logPath = BackupChangeLog.getChangeLogPath(originalPath, backupDir);
+        if (!Files.exists(logPath) || isRunningFor(originalPath)) {
+            return;
+        }
+        try {
+            Optional<Path> latestBackupPath = getLatestBackupPath(originalPath, backupDir);
+            Optional<BackupChangeLog.Replay> replay = Optional.empty();
+            if (latestBackupPath.isPresent()) {
+                replay = BackupChangeLog.replay(logPath, latestBackupPath.get());
+            }
+            if (replay.isPresent()) {
+                Path backupPath = getBackupPathForNewBackup(originalPath, backupDir);
+                try (AtomicFileOutputStream outputStream = new AtomicFileOutputStream(backupPath, false)) {
+                    try {
+                        replay.get().writeTo(outputStream);
+                    } catch (IOException e) {
+                        // Keep the previous backup instead of an incomplete one
+                        outputStream.abort();
+                        throw e;
+                    }
+                }
+                // The backup is as recent as the last logged change
+                Files.setLastModifiedTime(backupPath, Files.getLastModifiedTime(logPath));
+                LOGGER.debug("Replayed change log {} into {}", logPath, backupPath);
+            }
+            Files.delete(logPath);
+        } catch (IOException e) {
+            LOGGER.error("Could not replay backup change log {}", logPath, e);
+        }
+    }
+
+    private static boolean isRunningFor(Path originalPath) {
+        return RUNNING_INSTANCES.stream().anyMatch(instance -> instance.bibDatabaseContext.getDatabasePath().filter(originalPath::equals).isPresent());
+    }
+
     Optional<Path> determineBackupPathForNewBackup(Path backupDir) {
         return bibDatabaseContext.getDatabasePath().map(path -> BackupManager.getBackupPathForNewBackup(path, backupDir));
     }
@@ -219,15 +293,54 @@ public class BackupManager {
     /**
      * This method is called as soon as the scheduler says: "Do the backup"
      *
-     * <em>SIDE EFFECT: Deletes oldest backup file</em>
+     * Appends the changed entries to the change log. A full backup is written to the given path if there is no
+     * change log yet, something besides the entries changed, or the change log got too large.
+     *
+     * <em>SIDE EFFECT: Deletes oldest backup file when writing a full backup</em>
      *
      * @param backupPath the full path to the file where the library should be backed up to
      */
     void performBackup(Path backupPath) {
-        if (!needsBackup) {
+        Optional<PendingChanges> pendingChanges = takePendingChanges();
+        if (pendingChanges.isEmpty()) {
             return;
         }
 
+        synchronized (writeLock) {
+            try {
+                boolean checkpointRequired = pendingChanges.get().needsCheckpoint()
+                        || (changeLog == null)
+                        || (changeLog.size() > checkpointSize * MAXIMUM_CHANGE_LOG_TO_CHECKPOINT_SIZE)
+                        || (nonEntryContentHash != hashNonEntryContent());
+                if (checkpointRequired) {
+                    writeCheckpoint(backupPath);
+                } else {
+                    appendToChangeLog(pendingChanges.get());
+                }
+            } catch (IOException e) {
+                logIfCritical(backupPath, e);
+                // The next full backup includes all changes
+                synchronized (this) {
+                    needsBackup = true;
+                    needsCheckpoint = true;
+                }
+            }
+        }
+    }
+
+    private synchronized Optional<PendingChanges> takePendingChanges() {
+        if (!needsBackup) {
+            return Optional.empty();
+        }
+        PendingChanges pendingChanges = new PendingChanges(List.copyOf(changedEntries.values()), Set.copyOf(removedEntries), needsCheckpoint);
+        changedEntries.clear();
+        removedEntries.clear();
+        needsBackup = false;
+        needsCheckpoint = false;
+        return Optional.of(pendingChanges);
+    }
+
+    private void writeCheckpoint(Path backupPath) throws IOException {
         // We opted for "while" to delete backups in case there are more than 10
         while (backupFilesQueue.size() >= MAXIMUM_BACKUP_FILE_COUNT) {
             Path oldestBackupFile = backupFilesQueue.poll();
@@ -262,11 +375,18 @@ public class BackupManager {
                 .withSaveOrder(saveOrder)
                 .withReformatOnSave(preferences.getLibraryPreferences().shouldAlwaysReformatOnSave());
 
+        int contentHash = hashNonEntryContent();
+
         // "Clone" the database context
         // We "know" that "only" the BibEntries might be changed during writing (see [org.jabref.logic.exporter.BibDatabaseWriter.savePartOfDatabase])
+        // The change log refers to the original entries, thus we remember which clone belongs to which entry
+        Map<String, String> originalIds = new HashMap<>();
         List<BibEntry> list = bibDatabaseContext.getDatabase().getEntries().stream()
-                                                .map(BibEntry::clone)
-                                                .map(BibEntry.class::cast)
+                                                .map(entry -> {
+                                                    BibEntry clone = (BibEntry) entry.clone();
+                                                    originalIds.put(clone.getId(), entry.getId());
+                                                    return clone;
+                                                })
                                                 .toList();
         BibDatabase bibDatabaseClone = new BibDatabase(list);
         bibDatabaseContext.getDatabase().getStringValues().stream().map(BibtexString::clone)
@@ -275,12 +395,15 @@ public class BackupManager {
         BibDatabaseContext bibDatabaseContextClone = new BibDatabaseContext(bibDatabaseClone, bibDatabaseContext.getMetaData());
 
         Charset encoding = bibDatabaseContext.getMetaData().getEncoding().orElse(StandardCharsets.UTF_8);
+        String newLineSeparator = bibDatabaseContext.getDatabase().getNewLineSeparator();
         // We want to have successful backups only
-        // Thus, we do not use a plain "FileWriter", but the "AtomicFileWriter"
+        // Thus, we do not use a plain "FileWriter", but a writer based on the "AtomicFileOutputStream"
         // Example: What happens if one hard powers off the machine (or kills the jabref process) during writing of the backup?
         //          This MUST NOT create a broken backup file that then jabref wants to "restore" from?
-        try (Writer writer = new AtomicFileWriter(backupPath, encoding, false)) {
-            BibWriter bibWriter = new BibWriter(writer, bibDatabaseContext.getDatabase().getNewLineSeparator());
+        // The incremental writer is used for the locations of the entries, which are needed for the change log
+        IncrementalBibFileWriter fileWriter = new IncrementalBibFileWriter(backupPath, encoding, false, Optional.empty());
+        try (fileWriter) {
+            BibWriter bibWriter = fileWriter.createBibWriter(newLineSeparator);
             new BibtexDatabaseWriter(
                     bibWriter,
                     saveConfiguration,
@@ -289,14 +412,72 @@ public class BackupManager {
                     entryTypesManager)
                     // we save the clone to prevent the original database (and thus the UI) from being changed
                     .saveDatabase(bibDatabaseContextClone);
-            backupFilesQueue.add(backupPath);
+        }
+        backupFilesQueue.add(backupPath);
+
+        // Start a new change log for the new checkpoint
+        closeChangeLog();
+        BibFileLayout layout = fileWriter.getLayout().orElseThrow(() -> new IOException("Backup file " + backupPath + " was not written"));
+        Map<String, BibFileLayout.EntryRegion> entryRegions = new HashMap<>();
+        layout.entryRegions().forEach((cloneId, region) -> entryRegions.put(originalIds.get(cloneId), region));
+        Path logPath = BackupChangeLog.getChangeLogPath(bibDatabaseContext.getDatabasePath().orElseThrow(), backupPath.getParent());
+        changeLog = BackupChangeLog.create(logPath, backupPath, encoding, newLineSeparator, entryRegions);
+        checkpointSize = layout.size();
+        nonEntryContentHash = contentHash;
+    }
+
+    /**
+     * Appends the serialization of the changed entries to the change log. The serialization is the same as in
+     * {@link BibtexDatabaseWriter}, except that no citation keys are generated.
+     */
+    private void appendToChangeLog(PendingChanges pendingChanges) throws IOException {
+        BibEntryWriter entryWriter = new BibEntryWriter(new FieldWriter(preferences.getFieldPreferences()), entryTypesManager);
+        boolean reformat = preferences.getLibraryPreferences().shouldAlwaysReformatOnSave();
+        String newLineSeparator = bibDatabaseContext.getDatabase().getNewLineSeparator();
+
+        for (String id : pendingChanges.removedEntries()) {
+            changeLog.entryRemoved(id);
+        }
+        for (BibEntry entry : pendingChanges.changedEntries()) {
+            // Empty entries are not written to the library file
+            if (entry.isEmpty()) {
+                changeLog.entryRemoved(entry.getId());
+                continue;
+            }
+            // Save actions modify the entry, thus we work on a clone
+            BibEntry clone = (BibEntry) entry.clone();
+            BibDatabaseWriter.applySaveActions(clone, bibDatabaseContext.getMetaData(), preferences.getFieldPreferences());
+            StringWriter serialization = new StringWriter();
+            BibWriter bibWriter = new BibWriter(serialization, newLineSeparator);
+            entryWriter.write(clone, bibWriter, bibDatabaseContext.getMode(), reformat);
+            bibWriter.finishBlock();
+            changeLog.entryChanged(entry.getId(), serialization.toString());
+        }
+        changeLog.flush();
+    }
 
-            // We wrote the file successfully
-            // Thus, we currently do not need any new backup
-            this.needsBackup = false;
+    /**
+     * Hash of the parts of the library which are not tracked by change events
+     */
+    private int hashNonEntryContent() {
+        BibDatabase database = bibDatabaseContext.getDatabase();
+        List<String> strings = database.getStringValues().stream()
+                                       .map(string -> string.getName() + "=" + string.getContent())
+                                       .sorted()
+                                       .toList();
+        return Objects.hash(database.getPreamble(), database.getEpilog(), strings);
+    }
+
+    private void closeChangeLog() {
+        if (changeLog == null) {
+            return;
+        }
+        try {
+            changeLog.close();
         } catch (IOException e) {
-            logIfCritical(backupPath, e);
+            LOGGER.debug("Could not close backup change log", e);
         }
+        changeLog = null;
     }
 
     private static Path determineDiscardedFile(Path file, Path backupDir) {
@@ -332,13 +513,33 @@ public class BackupManager {
     }
 
     @Subscribe
-    public synchronized void listen(@SuppressWarnings("unused") BibDatabaseContextChangedEvent event) {
+    public synchronized void listen(BibDatabaseContextChangedEvent event) {
+        // Filtered out events do not trigger a backup, but the changed entries have to be included in the next one
+        if (event instanceof FieldChangedEvent fieldChange && fieldChange.getField() == InternalField.INTERNAL_ID_FIELD) {
+            // The change log identifies entries by their id
+            needsCheckpoint = true;
+        } else if (event instanceof EntriesRemovedEvent removedEvent) {
+            for (BibEntry entry : removedEvent.getBibEntries()) {
+                changedEntries.remove(entry.getId());
+                removedEntries.add(entry.getId());
+            }
+        } else if (event instanceof EntriesEvent entriesEvent) {
+            for (BibEntry entry : entriesEvent.getBibEntries()) {
+                changedEntries.put(entry.getId(), entry);
+                removedEntries.remove(entry.getId());
+            }
+        } else {
+            needsCheckpoint = true;
+        }
+
         if (!event.isFilteredOut()) {
             this.needsBackup = true;
         }
     }
 
     private void startBackupTask(Path backupDir) {
+        // A change log left over from an earlier session is turned into a full backup first
+        bibDatabaseContext.getDatabasePath().ifPresent(databasePath -> compactChangeLog(databasePath, backupDir));
         fillQueue(backupDir);
 
         executor.scheduleAtFixedRate(
@@ -356,10 +557,13 @@ public class BackupManager {
         bibDatabaseContext.getDatabasePath().ifPresent(databasePath -> {
             // code similar to {@link org.jabref.logic.util.io.BackupFileUtil.getPathOfLatestExisingBackupFile}
             final String prefix = BackupFileUtil.getUniqueFilePrefix(databasePath) + "--" + databasePath.getFileName();
+            final String extension = "." + BackupFileType.BACKUP.getExtensions().getFirst();
             try {
                 List<Path> allSavFiles = Files.list(backupDir)
                                               // just list the .sav belonging to the given targetFile
                                               .filter(p -> p.getFileName().toString().startsWith(prefix))
+                                              // the change log is not a backup file
+                                              .filter(p -> p.getFileName().toString().endsWith(extension))
                                               .sorted().toList();
                 backupFilesQueue.addAll(allSavFiles);
             } catch (IOException e) {
@@ -384,5 +588,14 @@ public class BackupManager {
             // Ensure that backup is a recent one
             determineBackupPathForNewBackup(backupDir).ifPresent(this::performBackup);
         }
+        synchronized (writeLock) {
+            closeChangeLog();
+        }
+    }
+
+    private record PendingChanges(
+            List<BibEntry> changedEntries,
+            Set<String> removedEntries,
+            boolean needsCheckpoint) {
     }
 }
@@ -27,10 +27,10 @@ import org.jabref.gui.maintable.BibEntryTableViewModel;
 import org.jabref.gui.maintable.columns.MainTableColumn;
 import org.jabref.gui.preferences.GuiPreferences;
 import org.jabref.gui.util.FileDialogConfiguration;
-import org.jabref.logic.exporter.AtomicFileWriter;
 import org.jabref.logic.exporter.BibDatabaseWriter;
 import org.jabref.logic.exporter.BibWriter;
 import org.jabref.logic.exporter.BibtexDatabaseWriter;
+import org.jabref.logic.exporter.IncrementalBibFileWriter;
 import org.jabref.logic.exporter.SaveException;
 import org.jabref.logic.exporter.SelfContainedSaveConfiguration;
 import org.jabref.logic.l10n.Encodings;
@@ -261,26 +261,31 @@ public class SaveDatabaseAction {
                 = new SelfContainedSaveConfiguration(saveOrder, false, saveType, preferences.getLibraryPreferences().shouldAlwaysReformatOnSave());
         BibDatabaseContext bibDatabaseContext = libraryTab.getBibDatabaseContext();
         synchronized (bibDatabaseContext) {
-            try (AtomicFileWriter fileWriter = new AtomicFileWriter(file, encoding, saveConfiguration.shouldMakeBackup())) {
-                BibWriter bibWriter = new BibWriter(fileWriter, bibDatabaseContext.getDatabase().getNewLineSeparator());
-                BibtexDatabaseWriter databaseWriter = new BibtexDatabaseWriter(
-                        bibWriter,
-                        saveConfiguration,
-                        preferences.getFieldPreferences(),
-                        preferences.getCitationKeyPatternPreferences(),
-                        entryTypesManager);
-
-                if (selectedOnly) {
-                    databaseWriter.savePartOfDatabase(bibDatabaseContext, libraryTab.getSelectedEntries());
-                } else {
-                    databaseWriter.saveDatabase(bibDatabaseContext);
-                }
+            try {
+                // Unchanged entries are copied from the previous version of the file (if it was written by us)
+                IncrementalBibFileWriter fileWriter = new IncrementalBibFileWriter(file, encoding, saveConfiguration.shouldMakeBackup(), libraryTab.getSavedFileLayout());
+                try (fileWriter) {
+                    BibWriter bibWriter = fileWriter.createBibWriter(bibDatabaseContext.getDatabase().getNewLineSeparator());
+                    BibtexDatabaseWriter databaseWriter = new BibtexDatabaseWriter(
+                            bibWriter,
+                            saveConfiguration,
+                            preferences.getFieldPreferences(),
+                            preferences.getCitationKeyPatternPreferences(),
+                            entryTypesManager);
+
+                    if (selectedOnly) {
+                        databaseWriter.savePartOfDatabase(bibDatabaseContext, libraryTab.getSelectedEntries());
+                    } else {
+                        databaseWriter.saveDatabase(bibDatabaseContext);
+                    }
 
-                libraryTab.registerUndoableChanges(databaseWriter.getSaveActionsFieldChanges());
+                    libraryTab.registerUndoableChanges(databaseWriter.getSaveActionsFieldChanges());
 
-                if (fileWriter.hasEncodingProblems()) {
-                    saveWithDifferentEncoding(file, selectedOnly, encoding, fileWriter.getEncodingProblems(), saveType, saveOrder);
+                    if (fileWriter.hasEncodingProblems()) {
+                        saveWithDifferentEncoding(file, selectedOnly, encoding, fileWriter.getEncodingProblems(), saveType, saveOrder);
+                    }
                 }
+                libraryTab.setSavedFileLayout(fileWriter.getLayout());
             } catch (UnsupportedCharsetException ex) {
                 throw new SaveException(Localization.lang("Character encoding '%0' is not supported.", encoding.displayName()), ex);
             } catch (IOException ex) {
@@ -10,6 +10,7 @@ import org.jabref.gui.StateManager;
 import org.jabref.gui.actions.ActionHelper;
 import org.jabref.gui.actions.SimpleCommand;
 import org.jabref.gui.importer.actions.OpenDatabaseAction;
+import org.jabref.gui.util.UiTaskExecutor;
 import org.jabref.logic.crawler.Crawler;
 import org.jabref.logic.git.SlrGitHandler;
 import org.jabref.logic.importer.ParseException;
@@ -123,19 +124,27 @@ public class ExistingStudySearchAction extends SimpleCommand {
         }
 
         dialogService.notify(Localization.lang("Searching..."));
-        BackgroundTask.wrap(() -> {
-                          crawler.performCrawl();
-                          return 0; // Return any value to make this a callable instead of a runnable. This allows throwing exceptions.
-                      })
-                      .onFailure(e -> {
-                          LOGGER.error("Error during persistence of crawling results.");
-                          dialogService.showErrorDialogAndWait(Localization.lang("Error during persistence of crawling results."), e);
-                      })
-                      .onSuccess(unused -> {
-                          dialogService.notify(Localization.lang("Finished Searching"));
-                          openDatabaseActionSupplier.get().openFile(Path.of(this.studyDirectory.toString(), Crawler.FILENAME_STUDY_RESULT_BIB));
-                      })
-                      .executeWith(taskExecutor);
+        BackgroundTask<Void> crawlTask = new BackgroundTask<>() {
+            @Override
+            public Void call() throws Exception {
+                crawler.performCrawl(progress -> UiTaskExecutor.runInJavaFXThread(() -> {
+                    updateProgress(progress.answeredRequests(), progress.totalRequests());
+                    updateMessage(Localization.lang("Found %0 results.", progress.foundEntries()));
+                }));
+                return null;
+            }
+        };
+        crawlTask.setTitle(Localization.lang("Searching..."))
+                 .showToUser(true)
+                 .onFailure(e -> {
+                     LOGGER.error("Error during persistence of crawling results.");
+                     dialogService.showErrorDialogAndWait(Localization.lang("Error during persistence of crawling results."), e);
+                 })
+                 .onSuccess(unused -> {
+                     dialogService.notify(Localization.lang("Finished Searching"));
+                     openDatabaseActionSupplier.get().openFile(Path.of(this.studyDirectory.toString(), Crawler.FILENAME_STUDY_RESULT_BIB));
+                 })
+                 .executeWith(taskExecutor);
     }
 
     /**
@@ -1,24 +1,40 @@
 package org.jabref.gui.util;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32C;
 
 import org.jabref.logic.JabRefException;
 import org.jabref.logic.WatchServiceUnavailableException;
 import org.jabref.model.util.FileUpdateListener;
 import org.jabref.model.util.FileUpdateMonitor;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimaps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,17 +42,95 @@ import org.slf4j.LoggerFactory;
  * This class monitors a set of files for changes. Upon detecting a change it notifies the registered {@link
  * FileUpdateListener}s.
  * <p>
+ * A single save of an external program often causes several events. Thus, the listeners are notified only after no
+ * further event for the file arrived within a quiet window. The listeners are not notified if modification time, size,
+ * and content of the file are the same as at the last notification. The content is only compared if modification time
+ * and size are unchanged, because comparing it reads the whole file. Its checksum is computed at the first such
+ * comparison, thus the first event with unchanged modification time and size is always delivered.
+ * <p>
  * Implementation based on <a href="https://stackoverflow.com/questions/16251273/can-i-watch-for-single-file-change-with-watchservice-not-the-whole-directory">https://stackoverflow.com/questions/16251273/can-i-watch-for-single-file-change-with-watchservice-not-the-whole-directory</a>.
  */
 public class DefaultFileUpdateMonitor implements Runnable, FileUpdateMonitor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultFileUpdateMonitor.class);
 
-    private final Multimap<Path, FileUpdateListener> listeners = ArrayListMultimap.create(20, 4);
+    private static final Duration DEFAULT_QUIET_WINDOW = Duration.ofMillis(150);
+
+    private final ListMultimap<Path, FileUpdateListener> listeners = Multimaps.synchronizedListMultimap(ArrayListMultimap.create(20, 4));
     private volatile WatchService watcher;
     private final AtomicBoolean notShutdown = new AtomicBoolean(true);
     private final AtomicReference<Optional<JabRefException>> filesystemMonitorFailure = new AtomicReference<>(Optional.empty());
 
+    private final long quietWindowNanos;
+    private final LongSupplier nanoTime;
+
+    // One watch key per directory, shared by all files in it
+    private final Map<Path, WatchKey> watchKeys = new ConcurrentHashMap<>();
+
+    // State of the files at the last notification
+    private final Map<Path, FileState> fileStates = new ConcurrentHashMap<>();
+
+    // Point in time (System#nanoTime) when the listeners of a changed file are to be notified. Used by the monitor thread only.
+    private final Map<Path, Long> pendingNotifications = new HashMap<>();
+
+    private final AtomicLong deliveredNotifications = new AtomicLong();
+    private final AtomicLong suppressedEvents = new AtomicLong();
+
+    public DefaultFileUpdateMonitor() {
+        this(DEFAULT_QUIET_WINDOW);
+    }
+
+    /**
+     * @param quietWindow the time without further events after which the listeners of a changed file are notified
+     */
+    public DefaultFileUpdateMonitor(Duration quietWindow) {
+        this(quietWindow, System::nanoTime);
+    }
+
+    /**
+     * @param nanoTime the clock to measure the quiet window with, {@link System#nanoTime()} by default
+     */
+    DefaultFileUpdateMonitor(Duration quietWindow, LongSupplier nanoTime) {
+        this.quietWindowNanos = quietWindow.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * The state of a file used to detect whether it really changed
+     *
+     * @param contentHash the checksum of the content, empty if it was not computed
+     */
+    private record FileState(FileTime lastModified, long size, OptionalLong contentHash) {
+
+        static Optional<FileState> of(Path file) {
+            try {
+                return Optional.of(new FileState(Files.getLastModifiedTime(file), Files.size(file), OptionalLong.empty()));
+            } catch (IOException e) {
+                LOGGER.debug("Could not determine state of {}", file, e);
+                return Optional.empty();
+            }
+        }
+
+        boolean hasSameMetadata(FileState other) {
+            return lastModified.equals(other.lastModified) && (size == other.size);
+        }
+
+        FileState withContentHash(Path file) {
+            CRC32C checksum = new CRC32C();
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    checksum.update(buffer, 0, read);
+                }
+                return new FileState(lastModified, size, OptionalLong.of(checksum.getValue()));
+            } catch (IOException e) {
+                LOGGER.debug("Could not read content of {}", file, e);
+                return this;
+            }
+        }
+    }
+
     @Override
     public void run() {
         try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
@@ -46,27 +140,33 @@ public class DefaultFileUpdateMonitor implements Runnable, FileUpdateMonitor {
             while (notShutdown.get()) {
                 WatchKey key;
                 try {
-                    key = watcher.take();
+                    key = nextKey(watcher);
                 } catch (InterruptedException | ClosedWatchServiceException e) {
                     return;
                 }
 
-                for (WatchEvent<?> event : key.pollEvents()) {
-                    WatchEvent.Kind<?> kind = event.kind();
-
-                    if (kind == StandardWatchEventKinds.OVERFLOW) {
-                        Thread.yield();
-                        continue;
-                    } else if (kind == StandardWatchEventKinds.ENTRY_CREATE || kind == StandardWatchEventKinds.ENTRY_MODIFY) {
-                        // We only handle "ENTRY_CREATE" and "ENTRY_MODIFY" here, so the context is always a Path
-                        @SuppressWarnings("unchecked")
-                        WatchEvent<Path> ev = (WatchEvent<Path>) event;
-                        Path path = ((Path) key.watchable()).resolve(ev.context());
-                        notifyAboutChange(path);
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        WatchEvent.Kind<?> kind = event.kind();
+
+                        if (kind == StandardWatchEventKinds.OVERFLOW) {
+                            // Events were lost, thus we check all monitored files of the directory
+                            scheduleNotificationsForDirectory((Path) key.watchable());
+                        } else if (kind == StandardWatchEventKinds.ENTRY_CREATE || kind == StandardWatchEventKinds.ENTRY_MODIFY) {
+                            // We only handle "ENTRY_CREATE" and "ENTRY_MODIFY" here, so the context is always a Path
+                            @SuppressWarnings("unchecked")
+                            WatchEvent<Path> ev = (WatchEvent<Path>) event;
+                            Path path = ((Path) key.watchable()).resolve(ev.context());
+                            scheduleNotification(path);
+                        }
+                    }
+                    if (!key.reset()) {
+                        // The directory is not accessible anymore
+                        watchKeys.values().remove(key);
                     }
-                    key.reset();
                 }
-                Thread.yield();
+
+                notifyAboutDueChanges();
             }
         } catch (IOException e) {
             JabRefException exception = new WatchServiceUnavailableException(
@@ -76,30 +176,149 @@ public class DefaultFileUpdateMonitor implements Runnable, FileUpdateMonitor {
         }
     }
 
+    /**
+     * Waits for the next watch key, but not longer than until the next pending notification is due
+     *
+     * @return the next watch key or null if a pending notification is due
+     */
+    private WatchKey nextKey(WatchService watcher) throws InterruptedException {
+        if (pendingNotifications.isEmpty()) {
+            return watcher.take();
+        }
+        long nextDue = pendingNotifications.values().stream().mapToLong(Long::longValue).min().getAsLong();
+        return watcher.poll(Math.max(0, nextDue - nanoTime.getAsLong()), TimeUnit.NANOSECONDS);
+    }
+
+    @VisibleForTesting
+    void scheduleNotification(Path path) {
+        if (!listeners.containsKey(path)) {
+            // Another file in a watched directory
+            return;
+        }
+        // Each further event restarts the quiet window
+        if (pendingNotifications.put(path, nanoTime.getAsLong() + quietWindowNanos) != null) {
+            suppressedEvents.incrementAndGet();
+        }
+    }
+
+    private void scheduleNotificationsForDirectory(Path directory) {
+        List<Path> files;
+        synchronized (listeners) {
+            files = listeners.keySet().stream().filter(file -> directory.equals(file.getParent())).toList();
+        }
+        files.forEach(this::scheduleNotification);
+    }
+
+    @VisibleForTesting
+    void notifyAboutDueChanges() {
+        long now = nanoTime.getAsLong();
+        Iterator<Map.Entry<Path, Long>> iterator = pendingNotifications.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, Long> pendingNotification = iterator.next();
+            if (pendingNotification.getValue() - now > 0) {
+                continue;
+            }
+            iterator.remove();
+
+            Path path = pendingNotification.getKey();
+            Optional<FileState> state = FileState.of(path);
+            FileState previousState = fileStates.get(path);
+            if (state.isPresent() && (previousState != null) && state.get().hasSameMetadata(previousState)) {
+                // Only now the content is compared. Without a previous checksum, the file is considered changed, as
+                // the modification time may be too coarse to reveal a write (e.g., a rewrite within the same second).
+                FileState currentState = state.get().withContentHash(path);
+                fileStates.put(path, currentState);
+                if (previousState.contentHash().isPresent() && previousState.contentHash().equals(currentState.contentHash())) {
+                    LOGGER.debug("Ignoring event for {}, because the file did not change", path);
+                    suppressedEvents.incrementAndGet();
+                    continue;
+                }
+            } else {
+                state.ifPresentOrElse(currentState -> fileStates.put(path, currentState), () -> fileStates.remove(path));
+            }
+            deliveredNotifications.incrementAndGet();
+            notifyAboutChange(path);
+        }
+    }
+
     @Override
     public boolean isActive() {
         return filesystemMonitorFailure.get().isEmpty();
     }
 
     private void notifyAboutChange(Path path) {
-        listeners.get(path).forEach(FileUpdateListener::fileUpdated);
+        List<FileUpdateListener> listenersOfPath;
+        synchronized (listeners) {
+            listenersOfPath = List.copyOf(listeners.get(path));
+        }
+        listenersOfPath.forEach(FileUpdateListener::fileUpdated);
     }
 
     @Override
     public void addListenerForFile(Path file, FileUpdateListener listener) throws IOException {
         if (isActive()) {
+            Path absoluteFile = file.toAbsolutePath();
             // We can't watch files directly, so monitor their parent directory for updates
-            Path directory = file.toAbsolutePath().getParent();
-            directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
-            listeners.put(file, listener);
+            Path directory = absoluteFile.getParent();
+            synchronized (watchKeys) {
+                if (!watchKeys.containsKey(directory)) {
+                    watchKeys.put(directory, directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY));
+                }
+            }
+            registerListener(absoluteFile, listener);
         } else {
             LOGGER.warn("Not adding listener {} to file {} because the file update monitor isn't active", listener, file);
         }
     }
 
+    /**
+     * Registers the listener without watching the directory of the file
+     */
+    @VisibleForTesting
+    void registerListener(Path absoluteFile, FileUpdateListener listener) {
+        if (!listeners.containsKey(absoluteFile)) {
+            FileState.of(absoluteFile).ifPresent(state -> fileStates.put(absoluteFile, state));
+        }
+        listeners.put(absoluteFile, listener);
+    }
+
     @Override
     public void removeListener(Path path, FileUpdateListener listener) {
-        listeners.remove(path, listener);
+        Path absoluteFile = path.toAbsolutePath();
+        listeners.remove(absoluteFile, listener);
+        if (listeners.containsKey(absoluteFile)) {
+            return;
+        }
+        fileStates.remove(absoluteFile);
+
+        // Stop watching the directory if no other file in it is monitored
+        Path directory = absoluteFile.getParent();
+        synchronized (watchKeys) {
+            boolean directoryStillWatched;
+            synchronized (listeners) {
+                directoryStillWatched = listeners.keySet().stream().anyMatch(file -> directory.equals(file.getParent()));
+            }
+            WatchKey key = watchKeys.get(directory);
+            if (!directoryStillWatched && (key != null)) {
+                key.cancel();
+                watchKeys.remove(directory);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of notifications of listeners. Notifications of several listeners of the same file count as one.
+     */
+    public long getDeliveredNotificationCount() {
+        return deliveredNotifications.get();
+    }
+
+    /**
+     * Returns the number of events which did not lead to a notification, because they were combined with other events
+     * or the file did not change
+     */
+    public long getSuppressedEventCount() {
+        return suppressedEvents.get();
     }
 
     @Override
@@ -113,5 +332,6 @@ public class DefaultFileUpdateMonitor implements Runnable, FileUpdateMonitor {
         } catch (IOException e) {
             LOGGER.error("error closing watcher", e);
         }
+        LOGGER.debug("File update monitor delivered {} notifications and suppressed {} events", deliveredNotifications.get(), suppressedEvents.get());
     }
 }
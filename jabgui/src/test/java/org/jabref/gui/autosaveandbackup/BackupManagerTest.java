@@ -11,13 +11,18 @@ import java.util.Optional;
 
 import org.jabref.gui.LibraryTab;
 import org.jabref.logic.FilePreferences;
+import org.jabref.logic.bibtex.FieldPreferences;
 import org.jabref.logic.preferences.CliPreferences;
 import org.jabref.logic.util.BackupFileType;
 import org.jabref.logic.util.Directories;
 import org.jabref.logic.util.io.BackupFileUtil;
 import org.jabref.model.database.BibDatabase;
 import org.jabref.model.database.BibDatabaseContext;
+import org.jabref.model.entry.BibEntry;
 import org.jabref.model.entry.BibEntryTypesManager;
+import org.jabref.model.entry.event.FieldChangedEvent;
+import org.jabref.model.entry.field.StandardField;
+import org.jabref.model.entry.types.StandardEntryType;
 import org.jabref.model.groups.event.GroupUpdatedEvent;
 import org.jabref.model.metadata.MetaData;
 import org.jabref.model.metadata.event.MetaDataChangedEvent;
@@ -189,4 +194,50 @@ class BackupManagerTest {
         // due to timing issues we cannot test that reliable
         assertEquals(fullBackupPath.get(), files.getFirst());
     }
+
+    @Test
+    void changeLogIsReplayedIntoNewBackup(@TempDir Path customDir) throws IOException {
+        Path backupDir = customDir.resolve("subBackupDir");
+        Files.createDirectories(backupDir);
+        Path bibFile = customDir.resolve("Bibfile.bib");
+        Files.writeString(bibFile, "");
+        Files.setLastModifiedTime(bibFile, FileTime.fromMillis(0));
+
+        BibEntry entry = new BibEntry(StandardEntryType.Article)
+                .withCitationKey("key")
+                .withField(StandardField.TITLE, "Original title")
+                .withChanged(true);
+        BibDatabaseContext databaseContext = new BibDatabaseContext(new BibDatabase(List.of(entry)));
+        databaseContext.setDatabasePath(bibFile);
+
+        CliPreferences preferences = mock(CliPreferences.class, Answers.RETURNS_DEEP_STUBS);
+        FilePreferences filePreferences = mock(FilePreferences.class);
+        when(preferences.getFilePreferences()).thenReturn(filePreferences);
+        when(preferences.getFieldPreferences()).thenReturn(new FieldPreferences(true, List.of(), List.of()));
+        when(filePreferences.getBackupDirectory()).thenReturn(backupDir);
+
+        BackupManager manager = BackupManager.start(
+                mock(LibraryTab.class),
+                databaseContext,
+                new BibEntryTypesManager(),
+                preferences);
+        // The first backup is a full one
+        manager.listen(new MetaDataChangedEvent(new MetaData()));
+        manager.determineBackupPathForNewBackup(backupDir).ifPresent(manager::performBackup);
+
+        // Afterwards, only the change is logged
+        entry.setField(StandardField.TITLE, "Changed title");
+        manager.listen(new FieldChangedEvent(entry, StandardField.TITLE, "Changed title", "Original title"));
+        manager.determineBackupPathForNewBackup(backupDir).ifPresent(manager::performBackup);
+        Path changeLog = BackupChangeLog.getChangeLogPath(bibFile, backupDir);
+        assertTrue(Files.exists(changeLog));
+
+        BackupManager.shutdown(databaseContext, backupDir, false);
+
+        assertTrue(BackupManager.backupFileDiffers(bibFile, backupDir));
+        String backup = Files.readString(BackupManager.getLatestBackupPath(bibFile, backupDir).orElseThrow());
+        assertTrue(backup.contains("Changed title"));
+        assertFalse(backup.contains("Original title"));
+        assertFalse(Files.exists(changeLog));
+    }
 }
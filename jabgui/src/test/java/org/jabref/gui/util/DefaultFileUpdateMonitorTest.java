@@ -0,0 +1,105 @@
+package org.jabref.gui.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives the monitor directly instead of running it in a thread with a watch service. The events of the watch service
+ * are simulated by {@link DefaultFileUpdateMonitor#scheduleNotification(Path)}.
+ */
+class DefaultFileUpdateMonitorTest {
+
+    private static final Duration QUIET_WINDOW = Duration.ofMillis(100);
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger notifications = new AtomicInteger();
+    private DefaultFileUpdateMonitor fileUpdateMonitor;
+    private Path file;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) throws IOException {
+        file = tempDir.resolve("library.bib").toAbsolutePath();
+        Files.writeString(file, "initial");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000));
+
+        fileUpdateMonitor = new DefaultFileUpdateMonitor(QUIET_WINDOW, now::get);
+        fileUpdateMonitor.registerListener(file, notifications::incrementAndGet);
+    }
+
+    private void advanceClock(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    void burstOfWritesLeadsToOneNotification() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            Files.writeString(file, "changed " + i);
+            fileUpdateMonitor.scheduleNotification(file);
+            advanceClock(QUIET_WINDOW.dividedBy(2));
+            fileUpdateMonitor.notifyAboutDueChanges();
+        }
+        assertEquals(0, notifications.get());
+
+        advanceClock(QUIET_WINDOW);
+        fileUpdateMonitor.notifyAboutDueChanges();
+
+        assertEquals(1, notifications.get());
+        assertEquals(1, fileUpdateMonitor.getDeliveredNotificationCount());
+        assertEquals(4, fileUpdateMonitor.getSuppressedEventCount());
+    }
+
+    private void simulateEvent() {
+        fileUpdateMonitor.scheduleNotification(file);
+        advanceClock(QUIET_WINDOW);
+        fileUpdateMonitor.notifyAboutDueChanges();
+    }
+
+    private void writeKeepingModificationTime(String content) throws IOException {
+        FileTime lastModified = Files.getLastModifiedTime(file);
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, lastModified);
+    }
+
+    @Test
+    void unchangedFileDoesNotLeadToNotification() throws IOException {
+        // The first event with unchanged metadata records the checksum of the content
+        simulateEvent();
+
+        writeKeepingModificationTime("initial");
+        simulateEvent();
+
+        assertEquals(1, notifications.get());
+        assertEquals(1, fileUpdateMonitor.getSuppressedEventCount());
+    }
+
+    @Test
+    void changedContentWithSameModificationTimeAndSizeLeadsToNotification() throws IOException {
+        simulateEvent();
+
+        writeKeepingModificationTime("changed");
+        simulateEvent();
+
+        assertEquals(2, notifications.get());
+    }
+
+    @Test
+    void changedContentWithSameModificationTimeAndSizeAfterRegistrationLeadsToNotification() throws IOException {
+        // No checksum is known yet, e.g., for a rewrite of the same length within the resolution of the modification time
+        writeKeepingModificationTime("changed");
+        simulateEvent();
+
+        assertEquals(1, notifications.get());
+        assertEquals(0, fileUpdateMonitor.getSuppressedEventCount());
+    }
+}
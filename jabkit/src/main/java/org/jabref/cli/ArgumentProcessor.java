@@ -6,6 +6,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import javafx.util.Pair;
 
@@ -27,6 +28,7 @@ import org.jabref.logic.util.BuildInfo;
 import org.jabref.logic.util.io.FileUtil;
 import org.jabref.model.database.BibDatabase;
 import org.jabref.model.database.BibDatabaseContext;
+import org.jabref.model.entry.BibEntry;
 import org.jabref.model.entry.BibEntryTypesManager;
 import org.jabref.model.util.DummyFileUpdateMonitor;
 
@@ -160,6 +162,23 @@ public class ArgumentProcessor implements Runnable {
                                        BibEntryTypesManager entryTypesManager,
                                        BibDatabaseContext bibDatabaseContext,
                                        Path outputFile) {
+        save(cliPreferences, entryTypesManager, outputFile, databaseWriter -> databaseWriter.saveDatabase(bibDatabaseContext));
+    }
+
+    /**
+     * Saves the entries in the order of the stream while they are read, see {@link BibDatabaseWriter#saveEntries(BibDatabaseContext, Stream)}
+     */
+    protected static void saveEntries(CliPreferences cliPreferences,
+                                      BibEntryTypesManager entryTypesManager,
+                                      Stream<BibEntry> entries,
+                                      Path outputFile) {
+        save(cliPreferences, entryTypesManager, outputFile, databaseWriter -> databaseWriter.saveEntries(new BibDatabaseContext(), entries));
+    }
+
+    private static void save(CliPreferences cliPreferences,
+                             BibEntryTypesManager entryTypesManager,
+                             Path outputFile,
+                             SaveOperation saveOperation) {
         try {
             if (!FileUtil.isBibFile(outputFile)) {
                 System.err.println(Localization.lang("Invalid output file type provided."));
@@ -174,7 +193,13 @@ public class ArgumentProcessor implements Runnable {
                         cliPreferences.getFieldPreferences(),
                         cliPreferences.getCitationKeyPatternPreferences(),
                         entryTypesManager);
-                databaseWriter.saveDatabase(bibDatabaseContext);
+                try {
+                    saveOperation.save(databaseWriter);
+                } catch (IOException | RuntimeException e) {
+                    // Keep the previous file instead of an incomplete one, e.g., if a streamed input turns out to be invalid
+                    fileWriter.abort();
+                    throw e;
+                }
 
                 // Show just a warning message if encoding did not work for all characters:
                 if (fileWriter.hasEncodingProblems()) {
@@ -188,6 +213,11 @@ public class ArgumentProcessor implements Runnable {
         }
     }
 
+    @FunctionalInterface
+    private interface SaveOperation {
+        void save(BibDatabaseWriter databaseWriter) throws IOException;
+    }
+
     public static List<Pair<String, String>> getAvailableImportFormats(CliPreferences preferences) {
         ImportFormatReader importFormatReader = new ImportFormatReader(
                 preferences.getImporterPreferences(),
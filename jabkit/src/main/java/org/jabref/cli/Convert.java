@@ -1,9 +1,12 @@
 package org.jabref.cli;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerException;
@@ -11,10 +14,14 @@ import javax.xml.transform.TransformerException;
 import org.jabref.logic.exporter.Exporter;
 import org.jabref.logic.exporter.ExporterFactory;
 import org.jabref.logic.exporter.SaveException;
+import org.jabref.logic.importer.ImportFormatReader;
 import org.jabref.logic.importer.ParserResult;
+import org.jabref.logic.importer.StreamingImporter;
 import org.jabref.logic.journals.JournalAbbreviationRepository;
 import org.jabref.logic.l10n.Localization;
 import org.jabref.model.database.BibDatabaseContext;
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.util.DummyFileUpdateMonitor;
 
 import com.airhacks.afterburner.injection.Injector;
 import org.jspecify.annotations.NonNull;
@@ -50,6 +57,10 @@ public class Convert implements Runnable {
 
     @Override
     public void run() {
+        if ((outputFile != null) && "bibtex".equalsIgnoreCase(outputFormat) && convertEntryByEntry()) {
+            return;
+        }
+
         Optional<ParserResult> parserResult = ArgumentProcessor.importFile(inputFile, inputFormat, argumentProcessor.cliPreferences, sharedOptions.porcelain);
         if (parserResult.isEmpty()) {
             System.out.println(Localization.lang("Unable to open file '%0'.", inputFile));
@@ -73,6 +84,47 @@ public class Convert implements Runnable {
         exportFile(parserResult.get(), outputFile, outputFormat);
     }
 
+    /**
+     * Converts a local file entry by entry if its format can be read this way. Then, the file does not have to fit into
+     * memory.
+     *
+     * @return false if the input has to be imported completely
+     */
+    private boolean convertEntryByEntry() {
+        if ((inputFormat == null) || inputFile.contains("://") || !Files.isRegularFile(Path.of(inputFile))) {
+            return false;
+        }
+        ImportFormatReader importFormatReader = new ImportFormatReader(
+                argumentProcessor.cliPreferences.getImporterPreferences(),
+                argumentProcessor.cliPreferences.getImportFormatPreferences(),
+                argumentProcessor.cliPreferences.getCitationKeyPatternPreferences(),
+                new DummyFileUpdateMonitor());
+        Optional<StreamingImporter> importer = importFormatReader.getStreamingImporter(inputFormat);
+        if (importer.isEmpty()) {
+            return false;
+        }
+
+        if (!sharedOptions.porcelain) {
+            System.out.println(Localization.lang("Converting '%0' to '%1'.", inputFile, outputFormat));
+            System.out.println(Localization.lang("Exporting '%0'.", outputFile));
+        }
+        try (Stream<BibEntry> entries = importer.get().importEntries(Path.of(inputFile))) {
+            ArgumentProcessor.saveEntries(
+                    argumentProcessor.cliPreferences,
+                    argumentProcessor.entryTypesManager,
+                    entries,
+                    outputFile);
+        } catch (IOException e) {
+            LOGGER.error("Could not read file '{}'.", inputFile, e);
+            System.out.println(Localization.lang("Unable to open file '%0'.", inputFile));
+        } catch (UncheckedIOException e) {
+            // Thrown while the entries are read. The output file was left unchanged.
+            LOGGER.error("Could not parse file '{}'.", inputFile, e);
+            System.out.println(Localization.lang("Input file '%0' is invalid and could not be parsed.", inputFile));
+        }
+        return true;
+    }
+
     protected void exportFile(@NonNull ParserResult parserResult, @NonNull Path outputFile, String format) {
         if (!sharedOptions.porcelain) {
             System.out.println(Localization.lang("Exporting '%0'.", outputFile));
@@ -133,6 +133,27 @@ class ArgumentProcessorTest {
         assertTrue(Files.exists(outputHtml));
     }
 
+    @Test
+    void convertMalformedInputKeepsOutputFile(@TempDir Path tempDir) throws URISyntaxException, IOException {
+        Path malformedXml = Path.of(Objects.requireNonNull(ArgumentProcessorTest.class.getResource("malformed-medline.xml")).toURI());
+        Path outputBib = tempDir.resolve("output.bib").toAbsolutePath();
+        Files.writeString(outputBib, "@Misc{existing}");
+
+        List<String> args = List.of("convert", "--input", malformedXml.toAbsolutePath().toString(), "--input-format", "medline", "--output", outputBib.toString());
+
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent, true));
+        try {
+            commandLine.execute(args.toArray(String[]::new));
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        assertTrue(outContent.toString().contains("is invalid and could not be parsed"));
+        assertEquals("@Misc{existing}", Files.readString(outputBib));
+    }
+
     @Test
     void checkConsistency() throws URISyntaxException {
         Path testBib = Path.of(Objects.requireNonNull(ArgumentProcessorTest.class.getResource("origin.bib")).toURI());
@@ -476,6 +476,11 @@ tasks.test {
     }
 }
 
+tasks.withType<Test>().configureEach {
+    // Tests reading PDF files must not fill the PDF text cache of the user
+    systemProperty("jabref.pdfTextCacheDirectory", temporaryDir.resolve("pdf-text-cache").absolutePath)
+}
+
 jmh {
     warmupIterations = 5
     iterations = 10
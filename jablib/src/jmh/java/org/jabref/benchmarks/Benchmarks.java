@@ -1,8 +1,12 @@
 package org.jabref.benchmarks;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Random;
 
@@ -15,6 +19,8 @@ import org.jabref.logic.exporter.SelfContainedSaveConfiguration;
 import org.jabref.logic.formatter.bibtexfields.HtmlToLatexFormatter;
 import org.jabref.logic.importer.ParserResult;
 import org.jabref.logic.importer.fileformat.BibtexParser;
+import org.jabref.logic.journals.JournalAbbreviationRepository;
+import org.jabref.logic.journals.ltwa.LtwaRepository;
 import org.jabref.logic.layout.format.HTMLChars;
 import org.jabref.logic.layout.format.LatexToUnicodeFormatter;
 import org.jabref.logic.os.OS;
@@ -41,6 +47,7 @@ import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 
 import static org.mockito.Mockito.mock;
 
@@ -49,8 +56,10 @@ public class Benchmarks {
 
     private String bibtexString;
     private final BibDatabase database = new BibDatabase();
+    private BibDatabase parsedDatabase;
     private String latexConversionString;
     private String htmlConversionString;
+    private Path journalList;
 
     @Setup
     public void init() throws IOException {
@@ -69,17 +78,30 @@ public class Benchmarks {
             database.insertEntry(entry);
         }
 
-        bibtexString = getOutputWriter().toString();
+        bibtexString = getOutputWriter(database, false).toString();
+
+        CliPreferences preferences = Injector.instantiateModelOrService(CliPreferences.class);
+        parsedDatabase = new BibtexParser(preferences.getImportFormatPreferences()).parse(new StringReader(bibtexString)).getDatabase();
 
         latexConversionString = "{A} \\textbf{bold} approach {\\it to} ${{\\Sigma}}{\\Delta}$ modulator \\textsuperscript{2} \\$";
 
         htmlConversionString = "<b>&Ouml;sterreich</b> &#8211; &amp; characters &#x2aa2; <i>italic</i>";
+
+        journalList = Files.createTempFile("journal-list", ".mv");
+        try (InputStream journalListStream = JournalAbbreviationRepository.class.getResourceAsStream("/journals/journal-list.mv")) {
+            Files.copy(journalListStream, journalList, StandardCopyOption.REPLACE_EXISTING);
+        }
     }
 
-    private StringWriter getOutputWriter() throws IOException {
+    @TearDown
+    public void cleanUp() throws IOException {
+        Files.deleteIfExists(journalList);
+    }
+
+    private StringWriter getOutputWriter(BibDatabase database, boolean reformatFile) throws IOException {
         StringWriter outputWriter = new StringWriter();
         BibWriter bibWriter = new BibWriter(outputWriter, OS.NEWLINE);
-        SelfContainedSaveConfiguration saveConfiguration = new SelfContainedSaveConfiguration(SaveOrder.getDefaultSaveOrder(), false, BibDatabaseWriter.SaveType.WITH_JABREF_META_DATA, false);
+        SelfContainedSaveConfiguration saveConfiguration = new SelfContainedSaveConfiguration(SaveOrder.getDefaultSaveOrder(), false, BibDatabaseWriter.SaveType.WITH_JABREF_META_DATA, reformatFile);
         FieldPreferences fieldPreferences = new FieldPreferences(true, List.of(), List.of());
         CitationKeyPatternPreferences citationKeyPatternPreferences = mock(CitationKeyPatternPreferences.class, Answers.RETURNS_DEEP_STUBS);
 
@@ -102,7 +124,15 @@ public class Benchmarks {
 
     @Benchmark
     public String write() throws IOException {
-        return getOutputWriter().toString();
+        return getOutputWriter(database, false).toString();
+    }
+
+    /**
+     * Writes a parsed library with "always reformat" enabled, i.e., no entry reuses its parsed serialization
+     */
+    @Benchmark
+    public String writeWithReformat() throws IOException {
+        return getOutputWriter(parsedDatabase, true).toString();
     }
 
     @Benchmark
@@ -146,6 +176,17 @@ public class Benchmarks {
         return group.containsAll(database.getEntries());
     }
 
+    /**
+     * Opens the built-in journal abbreviations and looks up one journal, as done when a JabRef process starts. The list
+     * is copied once, as the loader shares the opened list within a process.
+     */
+    @Benchmark
+    public boolean loadJournalAbbreviationRepository() {
+        try (JournalAbbreviationRepository repository = new JournalAbbreviationRepository(journalList, new LtwaRepository())) {
+            return repository.isKnownName("Physical Review Letters");
+        }
+    }
+
     public static void main(String[] args) throws IOException {
         Main.main(args);
     }
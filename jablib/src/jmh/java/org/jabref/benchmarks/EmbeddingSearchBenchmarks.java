@@ -0,0 +1,125 @@
+package org.jabref.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.jabref.logic.ai.ingestion.HnswIndex;
+import org.jabref.logic.ai.ingestion.MVStoreEmbeddingStore;
+import org.jabref.logic.util.NotificationService;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import static org.jabref.logic.ai.ingestion.FileEmbeddingsManager.LINK_METADATA_KEY;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compares the approximate search of {@link MVStoreEmbeddingStore} with the exact scan.
+ * <p>
+ * The benchmarks run in sample mode, thus JMH reports percentiles (including p0.95) of the latency.
+ * The recall@k of the approximate search is printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmbeddingSearchBenchmarks {
+
+    // Dimension of the default embedding model (all-MiniLM-L6-v2)
+    private static final int DIMENSION = 384;
+    private static final int EMBEDDING_COUNT = 50_000;
+    private static final int CLUSTER_COUNT = 200;
+    private static final int QUERY_COUNT = 100;
+    private static final int MAX_RESULTS = 10;
+
+    @Param({"32", "64", "128"})
+    public int searchBreadth;
+
+    private final Random random = new Random(42);
+    private Path directory;
+    private MVStoreEmbeddingStore store;
+    private List<EmbeddingSearchRequest> requests;
+    private int nextRequest;
+
+    @Setup
+    public void init() throws IOException {
+        directory = Files.createTempDirectory("embeddings");
+        store = new MVStoreEmbeddingStore(directory.resolve("embeddings.mv"), mock(NotificationService.class), new HnswIndex.Parameters(16, 100, searchBreadth));
+
+        // Text chunks of a document are similar to each other, thus the vectors are grouped around cluster centers
+        List<float[]> centers = random.ints(CLUSTER_COUNT).mapToObj(i -> randomVector(null)).toList();
+        for (int i = 0; i < EMBEDDING_COUNT; i++) {
+            int cluster = i % CLUSTER_COUNT;
+            store.add(Embedding.from(randomVector(centers.get(cluster))),
+                    new TextSegment("Chunk " + i, new Metadata(Map.of(LINK_METADATA_KEY, "file" + cluster + ".pdf"))));
+        }
+        store.commit();
+
+        requests = random.ints(QUERY_COUNT)
+                         .mapToObj(i -> EmbeddingSearchRequest.builder()
+                                                              .queryEmbedding(Embedding.from(randomVector(centers.get(Math.floorMod(i, CLUSTER_COUNT)))))
+                                                              .maxResults(MAX_RESULTS)
+                                                              .build())
+                         .toList();
+
+        int found = 0;
+        for (EmbeddingSearchRequest request : requests) {
+            Set<String> expected = ids(store.searchExhaustively(request));
+            found += (int) ids(store.search(request)).stream().filter(expected::contains).count();
+        }
+        System.out.printf("Recall@%d with search breadth %d: %.3f%n", MAX_RESULTS, searchBreadth, (double) found / (QUERY_COUNT * MAX_RESULTS));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    private float[] randomVector(float[] center) {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian() * (center == null ? 1 : 0.3f) + (center == null ? 0 : center[i]);
+        }
+        return vector;
+    }
+
+    private static Set<String> ids(EmbeddingSearchResult<TextSegment> result) {
+        return result.matches().stream().map(EmbeddingMatch::embeddingId).collect(Collectors.toSet());
+    }
+
+    private EmbeddingSearchRequest nextRequest() {
+        nextRequest = (nextRequest + 1) % QUERY_COUNT;
+        return requests.get(nextRequest);
+    }
+
+    @Benchmark
+    public EmbeddingSearchResult<TextSegment> approximateSearch() {
+        return store.search(nextRequest());
+    }
+
+    @Benchmark
+    public EmbeddingSearchResult<TextSegment> exactSearch() {
+        return store.searchExhaustively(nextRequest());
+    }
+}
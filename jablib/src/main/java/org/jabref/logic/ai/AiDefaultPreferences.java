@@ -78,6 +78,7 @@ public class AiDefaultPreferences {
     public static final int DOCUMENT_SPLITTER_OVERLAP = 100;
     public static final int RAG_MAX_RESULTS_COUNT = 10;
     public static final double RAG_MIN_SCORE = 0.3;
+    public static final int SUMMARIZATION_PARALLELISM = 4;
 
     public static final int FALLBACK_CONTEXT_WINDOW_SIZE = 8196;
 
@@ -59,6 +59,7 @@ public class AiPreferences {
     private final IntegerProperty documentSplitterOverlapSize;
     private final IntegerProperty ragMaxResultsCount;
     private final DoubleProperty ragMinScore;
+    private final IntegerProperty summarizationParallelism;
 
     private final Map<AiTemplate, StringProperty> templates;
 
@@ -86,6 +87,7 @@ public class AiPreferences {
                          int documentSplitterOverlapSize,
                          int ragMaxResultsCount,
                          double ragMinScore,
+                         int summarizationParallelism,
                          Map<AiTemplate, String> templates
     ) {
         this.enableAi = new SimpleBooleanProperty(enableAi);
@@ -115,6 +117,7 @@ public class AiPreferences {
         this.documentSplitterOverlapSize = new SimpleIntegerProperty(documentSplitterOverlapSize);
         this.ragMaxResultsCount = new SimpleIntegerProperty(ragMaxResultsCount);
         this.ragMinScore = new SimpleDoubleProperty(ragMinScore);
+        this.summarizationParallelism = new SimpleIntegerProperty(summarizationParallelism);
 
         this.templates = Map.of(
                 AiTemplate.CHATTING_SYSTEM_MESSAGE, new SimpleStringProperty(templates.get(AiTemplate.CHATTING_SYSTEM_MESSAGE)),
@@ -454,6 +457,25 @@ public class AiPreferences {
         this.ragMinScore.set(ragMinScore);
     }
 
+    public IntegerProperty summarizationParallelismProperty() {
+        return summarizationParallelism;
+    }
+
+    /**
+     * @return the maximum number of chunks of a document that are sent to the AI provider at once
+     */
+    public int getSummarizationParallelism() {
+        if (getCustomizeExpertSettings()) {
+            return Math.max(1, summarizationParallelism.get());
+        } else {
+            return AiDefaultPreferences.SUMMARIZATION_PARALLELISM;
+        }
+    }
+
+    public void setSummarizationParallelism(int summarizationParallelism) {
+        this.summarizationParallelism.set(summarizationParallelism);
+    }
+
     /**
      * Listen to changes of preferences that are related to embeddings generation.
      *
@@ -99,6 +99,12 @@ public class AiService implements AutoCloseable {
                 filePreferences,
                 taskExecutor
         );
+
+        // Replaced chat histories and summaries leave unused space in the files
+        cachedThreadPool.execute(() -> {
+            mvStoreChatHistoryStorage.compact();
+            mvStoreSummariesStorage.compact();
+        });
     }
 
     public JabRefChatLanguageModel getChatLanguageModel() {
@@ -5,6 +5,10 @@ import java.util.List;
 
 import dev.langchain4j.data.message.ChatMessage;
 
+/**
+ * Stores chat histories of entries and groups. A chat history is always loaded as a whole, as the chat memory of the AI
+ * is built from it.
+ */
 public interface ChatHistoryStorage {
     List<ChatMessage> loadMessagesForEntry(Path bibDatabasePath, String citationKey);
 
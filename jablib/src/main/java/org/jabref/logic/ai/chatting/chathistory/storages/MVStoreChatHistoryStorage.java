@@ -2,55 +2,53 @@ package org.jabref.logic.ai.chatting.chathistory.storages;
 
 import java.io.Serializable;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 
 import org.jabref.logic.ai.chatting.chathistory.ChatHistoryStorage;
+import org.jabref.logic.ai.util.CompressedRecords;
 import org.jabref.logic.ai.util.ErrorMessage;
 import org.jabref.logic.ai.util.MVStoreBase;
 import org.jabref.logic.l10n.Localization;
 import org.jabref.logic.util.NotificationService;
 
+import com.google.common.collect.Lists;
 import dev.langchain4j.data.message.AiMessage;
 import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.UserMessage;
-import kotlin.ranges.IntRange;
+import org.h2.mvstore.Cursor;
+import org.h2.mvstore.MVMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class MVStoreChatHistoryStorage extends MVStoreBase implements ChatHistoryStorage {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MVStoreChatHistoryStorage.class);
+
     private static final String ENTRY_CHAT_HISTORY_PREFIX = "entry";
     private static final String GROUP_CHAT_HISTORY_PREFIX = "group";
 
-    private record ChatHistoryRecord(String className, String content) implements Serializable {
-        private static final Logger LOGGER = LoggerFactory.getLogger(ChatHistoryRecord.class);
+    private static final String BLOCKS_MAP_NAME = "chat-history-blocks";
+    private static final String LENGTHS_MAP_NAME = "chat-history-lengths";
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final int MESSAGES_PER_BLOCK = 16;
 
-        public static ChatHistoryRecord fromLangchainMessage(ChatMessage chatMessage) {
-            String className = chatMessage.getClass().getName();
-            String content = getContentFromLangchainMessage(chatMessage);
-            return new ChatHistoryRecord(className, content);
-        }
+    private static final int USER_MESSAGE = 0;
+    private static final int AI_MESSAGE = 1;
+    private static final int ERROR_MESSAGE = 2;
 
-        private static String getContentFromLangchainMessage(ChatMessage chatMessage) {
-            String content;
+    // Chat history key and block index to compressed messages
+    private final MVMap<String, byte[]> blocks;
 
-            switch (chatMessage) {
-                case AiMessage aiMessage ->
-                        content = aiMessage.text();
-                case UserMessage userMessage ->
-                        content = userMessage.singleText();
-                case ErrorMessage errorMessage ->
-                        content = errorMessage.getText();
-                default -> {
-                    LOGGER.warn("ChatHistoryRecord supports only AI, user. and error messages, but added message has other type: {}", chatMessage.type().name());
-                    return "";
-                }
-            }
-
-            return content;
-        }
+    // Chat history key to number of messages
+    private final MVMap<String, Integer> lengths;
 
+    /**
+     * Format of previous versions, only used for migration
+     */
+    private record ChatHistoryRecord(String className, String content) implements Serializable {
         public ChatMessage toLangchainMessage() {
             if (className.equals(AiMessage.class.getName())) {
                 return new AiMessage(content);
@@ -67,56 +65,140 @@ public class MVStoreChatHistoryStorage extends MVStoreBase implements ChatHistor
 
     public MVStoreChatHistoryStorage(Path path, NotificationService dialogService) {
         super(path, dialogService);
+        this.blocks = mvStore.openMap(BLOCKS_MAP_NAME);
+        this.lengths = mvStore.openMap(LENGTHS_MAP_NAME);
+        migrateChatHistoryRecords();
+    }
+
+    /**
+     * Previous versions stored each message as a serialized {@link ChatHistoryRecord} in a separate map per chat history
+     */
+    private void migrateChatHistoryRecords() {
+        for (String mapName : mvStore.getMapNames()) {
+            if (BLOCKS_MAP_NAME.equals(mapName) || LENGTHS_MAP_NAME.equals(mapName)) {
+                continue;
+            }
+            LOGGER.info("Migrating chat history {}", mapName);
+            MVMap<Integer, ChatHistoryRecord> recordsMap = mvStore.openMap(mapName);
+            List<ChatMessage> messages = recordsMap
+                    .entrySet()
+                    // We need to check all keys, because upon deletion, there can be "holes" in the integer.
+                    .stream()
+                    .sorted(Comparator.comparingInt(Map.Entry::getKey))
+                    .map(entry -> entry.getValue().toLangchainMessage())
+                    .toList();
+            storeMessages(mapName, messages);
+            mvStore.removeMap(recordsMap);
+        }
     }
 
     @Override
     public List<ChatMessage> loadMessagesForEntry(Path bibDatabasePath, String citationKey) {
-        return loadMessagesFromMap(getMapForEntry(bibDatabasePath, citationKey));
+        return loadMessages(getChatHistoryKey(bibDatabasePath, ENTRY_CHAT_HISTORY_PREFIX, citationKey));
     }
 
     @Override
     public void storeMessagesForEntry(Path bibDatabasePath, String citationKey, List<ChatMessage> messages) {
-        storeMessagesForMap(getMapForEntry(bibDatabasePath, citationKey), messages);
+        storeMessages(getChatHistoryKey(bibDatabasePath, ENTRY_CHAT_HISTORY_PREFIX, citationKey), messages);
     }
 
     @Override
     public List<ChatMessage> loadMessagesForGroup(Path bibDatabasePath, String name) {
-        return loadMessagesFromMap(getMapForGroup(bibDatabasePath, name));
+        return loadMessages(getChatHistoryKey(bibDatabasePath, GROUP_CHAT_HISTORY_PREFIX, name));
     }
 
     @Override
     public void storeMessagesForGroup(Path bibDatabasePath, String name, List<ChatMessage> messages) {
-        storeMessagesForMap(getMapForGroup(bibDatabasePath, name), messages);
+        storeMessages(getChatHistoryKey(bibDatabasePath, GROUP_CHAT_HISTORY_PREFIX, name), messages);
+    }
+
+    private List<ChatMessage> loadMessages(String chatHistoryKey) {
+        List<ChatMessage> messages = new ArrayList<>(lengths.getOrDefault(chatHistoryKey, 0));
+        String prefix = chatHistoryKey + KEY_SEPARATOR;
+        Cursor<String, byte[]> cursor = blocks.cursor(prefix);
+        while (cursor.hasNext() && cursor.next().startsWith(prefix)) {
+            messages.addAll(decodeBlock(cursor.getValue()));
+        }
+        return messages;
     }
 
-    private List<ChatMessage> loadMessagesFromMap(Map<Integer, ChatHistoryRecord> map) {
-        return map
-                .entrySet()
-                // We need to check all keys, because upon deletion, there can be "holes" in the integer.
-                .stream()
-                .sorted(Comparator.comparingInt(Map.Entry::getKey))
-                .map(entry -> entry.getValue().toLangchainMessage())
-                .toList();
+    private void storeMessages(String chatHistoryKey, List<ChatMessage> messages) {
+        int oldBlockCount = getBlockCount(chatHistoryKey);
+        List<List<ChatMessage>> newBlocks = Lists.partition(messages, MESSAGES_PER_BLOCK);
+        for (int i = 0; i < newBlocks.size(); i++) {
+            String blockKey = getBlockKey(chatHistoryKey, i);
+            byte[] block = encodeBlock(newBlocks.get(i));
+            // Blocks which did not change are not written again. Thus, appending messages only writes the last blocks.
+            if (!Arrays.equals(blocks.get(blockKey), block)) {
+                blocks.put(blockKey, block);
+            }
+        }
+        for (int i = newBlocks.size(); i < oldBlockCount; i++) {
+            blocks.remove(getBlockKey(chatHistoryKey, i));
+        }
+
+        if (messages.isEmpty()) {
+            lengths.remove(chatHistoryKey);
+        } else {
+            lengths.put(chatHistoryKey, messages.size());
+        }
     }
 
-    private void storeMessagesForMap(Map<Integer, ChatHistoryRecord> map, List<ChatMessage> messages) {
-        map.clear();
+    private int getBlockCount(String chatHistoryKey) {
+        return Math.ceilDiv(lengths.getOrDefault(chatHistoryKey, 0), MESSAGES_PER_BLOCK);
+    }
 
-        new IntRange(0, messages.size() - 1).forEach(i ->
-                map.put(i, ChatHistoryRecord.fromLangchainMessage(messages.get(i)))
-        );
+    private static byte[] encodeBlock(List<ChatMessage> messages) {
+        CompressedRecords.Writer writer = new CompressedRecords.Writer().writeVarInt(messages.size());
+        for (ChatMessage message : messages) {
+            switch (message) {
+                case AiMessage aiMessage ->
+                        writer.writeVarInt(AI_MESSAGE).writeString(aiMessage.text());
+                case UserMessage userMessage ->
+                        writer.writeVarInt(USER_MESSAGE).writeString(userMessage.singleText());
+                case ErrorMessage errorMessage ->
+                        writer.writeVarInt(ERROR_MESSAGE).writeString(errorMessage.getText());
+                default -> {
+                    LOGGER.warn("Chat history supports only AI, user. and error messages, but added message has other type: {}", message.type().name());
+                    writer.writeVarInt(AI_MESSAGE).writeString("");
+                }
+            }
+        }
+        return writer.toCompressedBytes();
     }
 
-    private Map<Integer, ChatHistoryRecord> getMapForEntry(Path bibDatabasePath, String citationKey) {
-        return getMap(bibDatabasePath, ENTRY_CHAT_HISTORY_PREFIX, citationKey);
+    private static List<ChatMessage> decodeBlock(byte[] block) {
+        try {
+            CompressedRecords.Reader reader = CompressedRecords.Reader.fromCompressedBytes(block);
+            int messageCount = reader.readVarInt();
+            List<ChatMessage> messages = new ArrayList<>(messageCount);
+            for (int i = 0; i < messageCount; i++) {
+                int type = reader.readVarInt();
+                String content = reader.readString();
+                messages.add(switch (type) {
+                    case USER_MESSAGE ->
+                            new UserMessage(content);
+                    case ERROR_MESSAGE ->
+                            new ErrorMessage(content);
+                    default ->
+                            new AiMessage(content);
+                });
+            }
+            return messages;
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Could not read messages of chat history", e);
+            return List.of();
+        }
     }
 
-    private Map<Integer, ChatHistoryRecord> getMapForGroup(Path bibDatabasePath, String name) {
-        return getMap(bibDatabasePath, GROUP_CHAT_HISTORY_PREFIX, name);
+    private static String getChatHistoryKey(Path bibDatabasePath, String type, String name) {
+        // Same as the name of the map of the chat history in previous versions
+        return bibDatabasePath + "-" + type + "-" + name;
     }
 
-    private Map<Integer, ChatHistoryRecord> getMap(Path bibDatabasePath, String type, String name) {
-        return mvStore.openMap(bibDatabasePath + "-" + type + "-" + name);
+    private static String getBlockKey(String chatHistoryKey, int blockIndex) {
+        // The index is padded, so that the order of keys is the order of blocks
+        return chatHistoryKey + KEY_SEPARATOR + "%08d".formatted(blockIndex);
     }
 
     @Override
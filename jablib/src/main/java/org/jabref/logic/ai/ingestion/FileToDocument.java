@@ -1,19 +1,17 @@
 package org.jabref.logic.ai.ingestion;
 
-import java.io.IOException;
-import java.io.StringWriter;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import javafx.beans.property.ReadOnlyBooleanProperty;
 
-import org.jabref.logic.pdf.InterruptablePDFTextStripper;
+import org.jabref.logic.pdf.PdfTextCache;
 import org.jabref.logic.util.io.FileUtil;
-import org.jabref.logic.xmp.XmpUtilReader;
 
 import dev.langchain4j.data.document.DefaultDocument;
 import dev.langchain4j.data.document.Document;
-import org.apache.pdfbox.pdmodel.PDDocument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,24 +36,13 @@ public class FileToDocument {
     private Optional<Document> fromPdfFile(Path path) {
         // This method is private to ensure that the path is really pointing to PDF file (determined by extension).
 
-        try (PDDocument document = new XmpUtilReader().loadWithAutomaticDecryption(path)) {
-            int lastPage = document.getNumberOfPages();
-            StringWriter writer = new StringWriter();
-
-            InterruptablePDFTextStripper stripper = new InterruptablePDFTextStripper(shutdownSignal);
-            stripper.setStartPage(1);
-            stripper.setEndPage(lastPage);
-            stripper.writeText(document, writer);
-
-            if (shutdownSignal.get()) {
-                return Optional.empty();
-            }
-
-            return fromString(writer.toString());
-        } catch (IOException e) {
-            LOGGER.error("An error occurred while reading the PDF file: {}", path, e);
+        // The text is shared with the full-text index, thus a file which is already indexed is not read again
+        Optional<List<PdfTextCache.Page>> pages = PdfTextCache.getDefault().getPages(path, shutdownSignal::get);
+        if (shutdownSignal.get()) {
             return Optional.empty();
         }
+
+        return pages.flatMap(pdfPages -> fromString(pdfPages.stream().map(PdfTextCache.Page::text).collect(Collectors.joining("\n"))));
     }
 
     public Optional<Document> fromString(String content) {
@@ -1,13 +1,17 @@
 package org.jabref.logic.ai.ingestion;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.StringProperty;
-import javafx.util.Pair;
 
 import org.jabref.logic.FilePreferences;
 import org.jabref.logic.ai.processingstatus.ProcessingInfo;
@@ -15,10 +19,10 @@ import org.jabref.logic.ai.processingstatus.ProcessingState;
 import org.jabref.logic.l10n.Localization;
 import org.jabref.logic.util.BackgroundTask;
 import org.jabref.logic.util.ProgressCounter;
-import org.jabref.logic.util.TaskExecutor;
 import org.jabref.model.database.BibDatabaseContext;
 import org.jabref.model.entry.LinkedFile;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,20 +30,45 @@ import org.slf4j.LoggerFactory;
  * This task generates embeddings for several {@link LinkedFile} (typically used for groups).
  * It will check if embeddings were already generated.
  * And it also will store the embeddings.
+ * <p>
+ * The files are processed in a pipeline: a small pool of threads extracts the text of the files (I/O-heavy), while
+ * this task embeds and stores the extracted texts (CPU-heavy) one after another. At most
+ * {@value #EXTRACTED_DOCUMENTS_CAPACITY} extracted texts wait for embedding, thus the extraction cannot run ahead and
+ * fill the memory. Files can be {@link #prioritize(LinkedFile) prioritized}, e.g., the file the user is chatting about.
  */
 public class GenerateEmbeddingsForSeveralTask extends BackgroundTask<Void> {
     private static final Logger LOGGER = LoggerFactory.getLogger(GenerateEmbeddingsForSeveralTask.class);
 
+    private static final int EXTRACTION_THREADS = Math.clamp(Runtime.getRuntime().availableProcessors() / 2, 1, 4);
+    private static final int EXTRACTED_DOCUMENTS_CAPACITY = 4;
+
+    /**
+     * The result of the extraction stage for one file
+     *
+     * @param document  the extracted text, empty if the embeddings are up to date
+     * @param exception the reason why the text could not be extracted
+     */
+    private record ExtractionResult(ProcessingInfo<LinkedFile, Void> processingInfo,
+                                    GenerateEmbeddingsTask task,
+                                    Optional<GenerateEmbeddingsTask.ExtractedDocument> document,
+                                    Optional<Exception> exception) {
+    }
+
     private final StringProperty groupName;
     private final List<ProcessingInfo<LinkedFile, Void>> linkedFiles;
     private final FileEmbeddingsManager fileEmbeddingsManager;
     private final BibDatabaseContext bibDatabaseContext;
     private final FilePreferences filePreferences;
-    private final TaskExecutor taskExecutor;
     private final ReadOnlyBooleanProperty shutdownSignal;
 
     private final ProgressCounter progressCounter = new ProgressCounter();
 
+    // Files whose text was not extracted yet. Prioritized files are moved to the front.
+    private final LinkedBlockingDeque<ProcessingInfo<LinkedFile, Void>> pendingFiles;
+    private final LinkedBlockingDeque<ExtractionResult> extractedFiles = new LinkedBlockingDeque<>(EXTRACTED_DOCUMENTS_CAPACITY);
+    private final Set<String> prioritizedLinks = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger runningExtractors = new AtomicInteger();
+
     private String currentFile = "";
 
     public GenerateEmbeddingsForSeveralTask(
@@ -48,7 +77,6 @@ public class GenerateEmbeddingsForSeveralTask extends BackgroundTask<Void> {
             FileEmbeddingsManager fileEmbeddingsManager,
             BibDatabaseContext bibDatabaseContext,
             FilePreferences filePreferences,
-            TaskExecutor taskExecutor,
             ReadOnlyBooleanProperty shutdownSignal
     ) {
         this.groupName = groupName;
@@ -56,8 +84,8 @@ public class GenerateEmbeddingsForSeveralTask extends BackgroundTask<Void> {
         this.fileEmbeddingsManager = fileEmbeddingsManager;
         this.bibDatabaseContext = bibDatabaseContext;
         this.filePreferences = filePreferences;
-        this.taskExecutor = taskExecutor;
         this.shutdownSignal = shutdownSignal;
+        this.pendingFiles = new LinkedBlockingDeque<>(linkedFiles);
 
         configure(groupName);
     }
@@ -72,36 +100,52 @@ public class GenerateEmbeddingsForSeveralTask extends BackgroundTask<Void> {
         updateProgress();
     }
 
+    /**
+     * Processes the given file before the other files of this task, if it is part of this task and was not processed yet
+     */
+    public void prioritize(LinkedFile linkedFile) {
+        prioritizedLinks.add(linkedFile.getLink());
+        for (ProcessingInfo<LinkedFile, Void> processingInfo : pendingFiles) {
+            if (processingInfo.getObject().getLink().equals(linkedFile.getLink()) && pendingFiles.remove(processingInfo)) {
+                pendingFiles.offerFirst(processingInfo);
+                LOGGER.debug("Prioritized embeddings generation for file \"{}\"", linkedFile.getLink());
+                return;
+            }
+        }
+    }
+
     @Override
-    public Void call() throws ExecutionException, InterruptedException {
+    public Void call() throws InterruptedException {
         LOGGER.debug("Starting embeddings generation of several files for {}", groupName.get());
 
-        List<Pair<? extends Future<?>, String>> futures = new ArrayList<>();
-
-        linkedFiles
-                .stream()
-                .map(processingInfo -> {
-                    processingInfo.setState(ProcessingState.PROCESSING);
-                    return new Pair<>(
-                            new GenerateEmbeddingsTask(
-                                    processingInfo.getObject(),
-                                    fileEmbeddingsManager,
-                                    bibDatabaseContext,
-                                    filePreferences,
-                                    shutdownSignal
-                            )
-                                    .showToUser(false)
-                                    .onSuccess(v -> processingInfo.setState(ProcessingState.SUCCESS))
-                                    .onFailure(processingInfo::setException)
-                                    .onFinished(() -> progressCounter.increaseWorkDone(1))
-                                    .executeWith(taskExecutor),
-                            processingInfo.getObject().getLink());
-                })
-                .forEach(futures::add);
-
-        for (Pair<? extends Future<?>, String> pair : futures) {
-            currentFile = pair.getValue();
-            pair.getKey().get();
+        linkedFiles.forEach(processingInfo -> processingInfo.setState(ProcessingState.PROCESSING));
+
+        ExecutorService extractionExecutor = Executors.newFixedThreadPool(EXTRACTION_THREADS,
+                new ThreadFactoryBuilder().setNameFormat("ai-ingestion-extraction-%d").setDaemon(true).build());
+        try {
+            for (int i = 0; i < EXTRACTION_THREADS; i++) {
+                runningExtractors.incrementAndGet();
+                extractionExecutor.execute(this::extractPendingFiles);
+            }
+
+            int remainingFiles = linkedFiles.size();
+            while ((remainingFiles > 0) && !shutdownSignal.get()) {
+                ExtractionResult result = extractedFiles.poll(1, TimeUnit.SECONDS);
+                if (result == null) {
+                    // Extractors publish their last result before they stop, thus nothing will arrive anymore
+                    if ((runningExtractors.get() == 0) && extractedFiles.isEmpty()) {
+                        LOGGER.error("Text extraction stopped unexpectedly, {} files were not processed", remainingFiles);
+                        break;
+                    }
+                    continue;
+                }
+                remainingFiles--;
+                storeEmbeddings(result);
+                progressCounter.increaseWorkDone(1);
+            }
+        } finally {
+            extractionExecutor.shutdownNow();
+            stopUnprocessedFiles();
         }
 
         LOGGER.debug("Finished embeddings generation task of several files for {}", groupName.get());
@@ -109,6 +153,87 @@ public class GenerateEmbeddingsForSeveralTask extends BackgroundTask<Void> {
         return null;
     }
 
+    /**
+     * Files which were not processed when the task stops are set back to {@link ProcessingState#STOPPED}, so that they are ingested again when requested
+     */
+    private void stopUnprocessedFiles() {
+        for (ProcessingInfo<LinkedFile, Void> processingInfo : linkedFiles) {
+            if (processingInfo.getState() == ProcessingState.PROCESSING) {
+                processingInfo.setState(ProcessingState.STOPPED);
+            }
+        }
+    }
+
+    /**
+     * Extraction stage: runs until all pending files are extracted. Blocks if the embedding stage is behind.
+     */
+    private void extractPendingFiles() {
+        try {
+            extractPendingFilesUntilDone();
+        } finally {
+            runningExtractors.decrementAndGet();
+        }
+    }
+
+    private void extractPendingFilesUntilDone() {
+        ProcessingInfo<LinkedFile, Void> processingInfo;
+        while (((processingInfo = pendingFiles.pollFirst()) != null) && !shutdownSignal.get()) {
+            GenerateEmbeddingsTask task = new GenerateEmbeddingsTask(
+                    processingInfo.getObject(),
+                    fileEmbeddingsManager,
+                    bibDatabaseContext,
+                    filePreferences,
+                    shutdownSignal);
+
+            ExtractionResult result;
+            try {
+                result = new ExtractionResult(processingInfo, task, task.extractDocument(), Optional.empty());
+            } catch (RuntimeException e) {
+                result = new ExtractionResult(processingInfo, task, Optional.empty(), Optional.of(e));
+            } catch (Error e) {
+                // E.g., a StackOverflowError of the PDF parser. The failure of one file must not stop the extraction.
+                LOGGER.error("Could not extract text of file \"{}\"", processingInfo.getObject().getLink(), e);
+                Exception exception = new RuntimeException(Localization.lang("Unable to generate embeddings for file '%0', because JabRef was unable to extract text from the file", processingInfo.getObject().getLink()), e);
+                result = new ExtractionResult(processingInfo, task, Optional.empty(), Optional.of(exception));
+            }
+
+            try {
+                if (prioritizedLinks.contains(processingInfo.getObject().getLink())) {
+                    extractedFiles.putFirst(result);
+                } else {
+                    extractedFiles.putLast(result);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Embedding stage: splits, embeds, and stores the text of one file
+     */
+    private void storeEmbeddings(ExtractionResult result) {
+        currentFile = result.processingInfo().getObject().getLink();
+        updateProgress();
+
+        if (result.exception().isPresent()) {
+            result.processingInfo().setException(result.exception().get());
+            return;
+        }
+
+        try {
+            if (result.document().isPresent()) {
+                result.task().storeDocument(result.document().get());
+            }
+            result.processingInfo().setState(ProcessingState.SUCCESS);
+        } catch (InterruptedException e) {
+            LOGGER.debug("Embeddings generation for file \"{}\" will be cancelled, because user quits JabRef.", currentFile);
+        } catch (RuntimeException e) {
+            result.processingInfo().setException(e);
+        }
+    }
+
     private void updateProgress() {
         updateProgress(progressCounter.getWorkDone(), progressCounter.getWorkMax());
         updateMessage(progressCounter.getMessage() + " - " + currentFile + ", ...");
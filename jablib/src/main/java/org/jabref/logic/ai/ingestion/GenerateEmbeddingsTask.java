@@ -58,12 +58,21 @@ public class GenerateEmbeddingsTask extends BackgroundTask<Void> {
         progressCounter.listenToAllProperties(this::updateProgress);
     }
 
+    /**
+     * Text of a linked file, which is to be embedded
+     */
+    record ExtractedDocument(Document document, long modificationTimeInSeconds) {
+    }
+
     @Override
     public Void call() {
         LOGGER.debug("Starting embeddings generation task for file \"{}\"", linkedFile.getLink());
 
         try {
-            ingestLinkedFile(linkedFile);
+            Optional<ExtractedDocument> document = extractDocument();
+            if (document.isPresent()) {
+                storeDocument(document.get());
+            }
         } catch (InterruptedException e) {
             LOGGER.debug("There is a embeddings generation task for file \"{}\". It will be cancelled, because user quits JabRef.", linkedFile.getLink());
         }
@@ -73,7 +82,12 @@ public class GenerateEmbeddingsTask extends BackgroundTask<Void> {
         return null;
     }
 
-    private void ingestLinkedFile(LinkedFile linkedFile) throws InterruptedException {
+    /**
+     * Extracts the text of the linked file, if there are no embeddings of its current version yet
+     *
+     * @return the text of the file, empty if the embeddings are up to date
+     */
+    Optional<ExtractedDocument> extractDocument() {
         // Rationale for RuntimeException here:
         // See org.jabref.logic.ai.summarization.GenerateSummaryTask.summarizeAll
 
@@ -113,17 +127,23 @@ public class GenerateEmbeddingsTask extends BackgroundTask<Void> {
         }
 
         if (!shouldIngest) {
-            return;
+            return Optional.empty();
         }
 
         Optional<Document> document = new FileToDocument(shutdownSignal).fromFile(path.get());
-        if (document.isPresent()) {
-            fileEmbeddingsManager.addDocument(linkedFile.getLink(), document.get(), modTime.orElse(0L), progressCounter.workDoneProperty(), progressCounter.workMaxProperty());
-            LOGGER.debug("Embeddings for file \"{}\" were generated successfully", linkedFile.getLink());
-        } else {
+        if (document.isEmpty()) {
             LOGGER.error("Unable to generate embeddings for file \"{}\", because JabRef was unable to extract text from the file", linkedFile.getLink());
             throw new RuntimeException(Localization.lang("Unable to generate embeddings for file '%0', because JabRef was unable to extract text from the file", linkedFile.getLink()));
         }
+        return Optional.of(new ExtractedDocument(document.get(), modTime.orElse(0L)));
+    }
+
+    /**
+     * Splits the text of the file, embeds the parts, and stores the embeddings
+     */
+    void storeDocument(ExtractedDocument document) throws InterruptedException {
+        fileEmbeddingsManager.addDocument(linkedFile.getLink(), document.document(), document.modificationTimeInSeconds(), progressCounter.workDoneProperty(), progressCounter.workMaxProperty());
+        LOGGER.debug("Embeddings for file \"{}\" were generated successfully", linkedFile.getLink());
     }
 
     private void updateProgress() {
@@ -0,0 +1,397 @@
+package org.jabref.logic.ai.ingestion;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import jakarta.annotation.Nullable;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+
+/**
+ * Approximate nearest neighbour index for embeddings based on a hierarchical navigable small world (HNSW) graph
+ * (Malkov and Yashunin, 2018). The graph is stored in maps of a {@link MVStore}, next to the embeddings themselves.
+ * The nodes are identified by the slot of their vector in a {@link MappedVectorStorage}. The neighbours of a node are
+ * stored per layer as an array of slots, so that linking a node rewrites a single small array only.
+ * <p>
+ * The index is not thread-safe. The caller has to ensure that modifications do not happen concurrently to other
+ * operations.
+ */
+public class HnswIndex {
+
+    /**
+     * @param maxConnections      the number of neighbours of a node on each layer (twice as many on the lowest layer).
+     *                            More connections improve recall, but increase memory usage and insertion time.
+     * @param constructionBreadth the number of candidates considered when inserting a node. Larger values produce a
+     *                            better graph, but slow down insertion.
+     * @param searchBreadth       the number of candidates considered when searching. This is the recall/latency
+     *                            trade-off: larger values find more of the true nearest neighbours, but take longer.
+     */
+    public record Parameters(int maxConnections, int constructionBreadth, int searchBreadth) {
+        public static final Parameters DEFAULT = new Parameters(16, 100, 64);
+    }
+
+    /**
+     * @param id    the id of the embedding
+     * @param file  the file the embedding was generated from (nullable, because {@link Optional} can't be serialized)
+     * @param level the highest layer the node is part of
+     */
+    private record Node(String id, @Nullable String file, int level) implements Serializable {
+    }
+
+    /**
+     * A node found during search together with its similarity to the query
+     */
+    public record Candidate(String id, @Nullable String file, double similarity) {
+    }
+
+    /**
+     * A node visited while traversing the graph together with its similarity to the query
+     */
+    private record Visit(int slot, Node node, double similarity) {
+        Candidate toCandidate() {
+            return new Candidate(node.id(), node.file(), similarity);
+        }
+    }
+
+    private static final String NODES_MAP_NAME = "hnsw-graph-nodes";
+    private static final String NEIGHBORS_MAP_NAME = "hnsw-graph-neighbors";
+    private static final String META_MAP_NAME = "hnsw-graph-meta";
+    private static final String ENTRY_POINT_KEY = "entryPoint";
+
+    // Maps of JabRef versions which stored the neighbours of all layers within the node
+    private static final String LEGACY_NODES_MAP_NAME = "hnsw-nodes";
+    private static final String LEGACY_META_MAP_NAME = "hnsw-meta";
+
+    private static final int MAXIMUM_LEVEL = 16;
+    private static final int[] NO_NEIGHBORS = new int[0];
+
+    private static final Comparator<Visit> BY_SIMILARITY = Comparator.comparingDouble(Visit::similarity);
+
+    private final MVMap<Integer, Node> nodes;
+    // Key: slot and layer (see {@link #neighborsKey(int, int)}), value: slots of the neighbours
+    private final MVMap<Long, int[]> neighbors;
+    private final MVMap<String, Integer> meta;
+    private final MappedVectorStorage vectors;
+    private final Parameters parameters;
+    private final double levelMultiplier;
+    private final Random random = new Random();
+
+    public HnswIndex(MVStore mvStore, MappedVectorStorage vectors, Parameters parameters) {
+        if (mvStore.hasMap(LEGACY_NODES_MAP_NAME)) {
+            // The index is rebuilt from the stored embeddings
+            mvStore.removeMap(LEGACY_NODES_MAP_NAME);
+            mvStore.removeMap(LEGACY_META_MAP_NAME);
+        }
+        this.nodes = mvStore.openMap(NODES_MAP_NAME);
+        this.neighbors = mvStore.openMap(NEIGHBORS_MAP_NAME);
+        this.meta = mvStore.openMap(META_MAP_NAME);
+        this.vectors = vectors;
+        this.parameters = parameters;
+        this.levelMultiplier = 1 / Math.log(parameters.maxConnections());
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * @param slot the slot of the vector in the {@link MappedVectorStorage}
+     */
+    public boolean contains(int slot) {
+        return nodes.containsKey(slot);
+    }
+
+    /**
+     * @param slot the slot of the vector in the {@link MappedVectorStorage}
+     */
+    public void add(String id, @Nullable String file, int slot) {
+        if (nodes.containsKey(slot)) {
+            remove(slot);
+        }
+
+        float[] vector = vectors.read(slot);
+        int level = randomLevel();
+        nodes.put(slot, new Node(id, file, level));
+
+        Optional<Integer> entryPointSlot = getEntryPoint();
+        if (entryPointSlot.isEmpty()) {
+            meta.put(ENTRY_POINT_KEY, slot);
+            return;
+        }
+
+        Visit current = visit(entryPointSlot.get(), nodes.get(entryPointSlot.get()), vector);
+        int topLevel = current.node().level();
+        for (int layer = topLevel; layer > level; layer--) {
+            current = searchGreedily(vector, current, layer);
+        }
+
+        List<Visit> entryPoints = List.of(current);
+        for (int layer = Math.min(topLevel, level); layer >= 0; layer--) {
+            List<Visit> nearest = searchLayer(vector, entryPoints, parameters.constructionBreadth(), layer, _ -> {
+            });
+            int[] selected = nearest.stream()
+                                    .mapToInt(Visit::slot)
+                                    .filter(neighbor -> neighbor != slot)
+                                    .limit(parameters.maxConnections())
+                                    .toArray();
+            neighbors.put(neighborsKey(slot, layer), selected);
+            for (int neighbor : selected) {
+                connect(neighbor, slot, layer);
+            }
+            entryPoints = nearest;
+        }
+
+        if (level > topLevel) {
+            meta.put(ENTRY_POINT_KEY, slot);
+        }
+    }
+
+    /**
+     * @param slot the slot of the vector in the {@link MappedVectorStorage}
+     */
+    public void remove(int slot) {
+        Node node = nodes.remove(slot);
+        if (node == null) {
+            return;
+        }
+
+        // Connect the former neighbours with each other, so that the graph stays navigable
+        int[][] formerNeighborsPerLayer = new int[node.level() + 1][];
+        for (int layer = 0; layer <= node.level(); layer++) {
+            int[] formerNeighbors = Objects.requireNonNullElse(neighbors.remove(neighborsKey(slot, layer)), NO_NEIGHBORS);
+            formerNeighborsPerLayer[layer] = formerNeighbors;
+            for (int neighborSlot : formerNeighbors) {
+                Node neighbor = nodes.get(neighborSlot);
+                if ((neighbor == null) || (neighbor.level() < layer)) {
+                    continue;
+                }
+                Set<Integer> links = new LinkedHashSet<>();
+                Arrays.stream(neighborsAt(neighborSlot, layer)).forEach(links::add);
+                links.remove(slot);
+                for (int candidate : formerNeighbors) {
+                    if (candidate != neighborSlot) {
+                        links.add(candidate);
+                    }
+                }
+                neighbors.put(neighborsKey(neighborSlot, layer), closest(vectors.read(neighborSlot), links, capacity(layer)));
+            }
+        }
+
+        if (getEntryPoint().filter(entryPoint -> entryPoint == slot).isPresent()) {
+            meta.remove(ENTRY_POINT_KEY);
+            findNewEntryPoint(formerNeighborsPerLayer).ifPresent(newEntryPoint -> meta.put(ENTRY_POINT_KEY, newEntryPoint));
+        }
+    }
+
+    public void clear() {
+        nodes.clear();
+        neighbors.clear();
+        meta.clear();
+    }
+
+    /**
+     * Searches for the embeddings most similar to the given vector
+     *
+     * @param filter only embeddings of files matching the filter are returned
+     * @return at most {@code maxResults} candidates, the most similar first. Fewer candidates are returned if the
+     * filter excludes most embeddings.
+     */
+    public List<Candidate> search(float[] vector, int maxResults, Predicate<String> filter) {
+        Optional<Integer> entryPointSlot = getEntryPoint();
+        if (entryPointSlot.isEmpty()) {
+            return List.of();
+        }
+
+        float[] query = MappedVectorStorage.normalize(vector);
+        Visit current = visit(entryPointSlot.get(), nodes.get(entryPointSlot.get()), query);
+        for (int layer = current.node().level(); layer > 0; layer--) {
+            current = searchGreedily(query, current, layer);
+        }
+
+        // Every node visited on the lowest layer is a possible result, not only the closest ones
+        PriorityQueue<Visit> results = new PriorityQueue<>(BY_SIMILARITY);
+        searchLayer(query, List.of(current), Math.max(parameters.searchBreadth(), maxResults), 0, visit -> {
+            if (filter.test(visit.node().file())) {
+                results.add(visit);
+                if (results.size() > maxResults) {
+                    results.poll();
+                }
+            }
+        });
+
+        return results.stream()
+                      .sorted(BY_SIMILARITY.reversed())
+                      .map(Visit::toCandidate)
+                      .toList();
+    }
+
+    private Optional<Integer> getEntryPoint() {
+        return Optional.ofNullable(meta.get(ENTRY_POINT_KEY));
+    }
+
+    /**
+     * Determines a node of the highest layer after the entry point was removed
+     *
+     * @param formerNeighbors the neighbours of the removed entry point on each layer, starting with the lowest layer
+     */
+    private Optional<Integer> findNewEntryPoint(int[][] formerNeighbors) {
+        // All nodes linked to the entry point on a layer reach at least up to this layer
+        for (int layer = formerNeighbors.length - 1; layer >= 0; layer--) {
+            Optional<Integer> neighbor = Arrays.stream(formerNeighbors[layer]).filter(nodes::containsKey).boxed().findFirst();
+            if (neighbor.isPresent()) {
+                return neighbor;
+            }
+        }
+        // The entry point was not connected, we have to look at all nodes
+        Integer newEntryPoint = null;
+        int newTopLevel = -1;
+        for (Map.Entry<Integer, Node> entry : nodes.entrySet()) {
+            if (entry.getValue().level() > newTopLevel) {
+                newEntryPoint = entry.getKey();
+                newTopLevel = entry.getValue().level();
+            }
+        }
+        return Optional.ofNullable(newEntryPoint);
+    }
+
+    private Visit searchGreedily(float[] query, Visit start, int layer) {
+        Visit current = start;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int neighborSlot : neighborsAt(current.slot(), layer)) {
+                Node neighbor = nodes.get(neighborSlot);
+                if (neighbor == null) {
+                    continue;
+                }
+                double similarity = vectors.dotProduct(query, neighborSlot);
+                if (similarity > current.similarity()) {
+                    current = new Visit(neighborSlot, neighbor, similarity);
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Best-first search on one layer of the graph
+     *
+     * @param breadth the number of nearest nodes to keep track of
+     * @param visitor called for every node whose similarity is computed
+     * @return the nearest nodes found, the most similar first
+     */
+    private List<Visit> searchLayer(float[] query, List<Visit> entryPoints, int breadth, int layer, Consumer<Visit> visitor) {
+        Set<Integer> visited = new HashSet<>();
+        PriorityQueue<Visit> candidates = new PriorityQueue<>(BY_SIMILARITY.reversed());
+        PriorityQueue<Visit> nearest = new PriorityQueue<>(BY_SIMILARITY);
+
+        for (Visit entryPoint : entryPoints) {
+            if (visited.add(entryPoint.slot())) {
+                visitor.accept(entryPoint);
+                candidates.add(entryPoint);
+                nearest.add(entryPoint);
+                if (nearest.size() > breadth) {
+                    nearest.poll();
+                }
+            }
+        }
+
+        while (!candidates.isEmpty()) {
+            Visit candidate = candidates.poll();
+            if ((nearest.size() >= breadth) && (candidate.similarity() < nearest.peek().similarity())) {
+                break;
+            }
+            for (int neighborSlot : neighborsAt(candidate.slot(), layer)) {
+                if (!visited.add(neighborSlot)) {
+                    continue;
+                }
+                Node neighbor = nodes.get(neighborSlot);
+                if (neighbor == null) {
+                    continue;
+                }
+                Visit neighborVisit = visit(neighborSlot, neighbor, query);
+                visitor.accept(neighborVisit);
+                if ((nearest.size() < breadth) || (neighborVisit.similarity() > nearest.peek().similarity())) {
+                    candidates.add(neighborVisit);
+                    nearest.add(neighborVisit);
+                    if (nearest.size() > breadth) {
+                        nearest.poll();
+                    }
+                }
+            }
+        }
+
+        List<Visit> result = new ArrayList<>(nearest);
+        result.sort(BY_SIMILARITY.reversed());
+        return result;
+    }
+
+    /**
+     * Adds a link from the given node to the new node. If the node has too many links afterwards, the most distant one is dropped.
+     */
+    private void connect(int slot, int newSlot, int layer) {
+        Node node = nodes.get(slot);
+        if ((node == null) || (node.level() < layer)) {
+            return;
+        }
+        Set<Integer> links = new LinkedHashSet<>();
+        Arrays.stream(neighborsAt(slot, layer)).forEach(links::add);
+        links.add(newSlot);
+        neighbors.put(neighborsKey(slot, layer), closest(vectors.read(slot), links, capacity(layer)));
+    }
+
+    /**
+     * @return the slots of the neighbours of the node on the given layer. Links of other nodes to a removed node are
+     * kept, thus a slot might be unused or belong to a node added later. Both are tolerated while traversing the graph.
+     */
+    private int[] neighborsAt(int slot, int layer) {
+        return Objects.requireNonNullElse(neighbors.get(neighborsKey(slot, layer)), NO_NEIGHBORS);
+    }
+
+    private static long neighborsKey(int slot, int layer) {
+        return ((long) slot << 8) | layer;
+    }
+
+    private int[] closest(float[] vector, Set<Integer> slots, int count) {
+        if (slots.size() <= count) {
+            return slots.stream().filter(nodes::containsKey).mapToInt(Integer::intValue).toArray();
+        }
+        return slots.stream()
+                    .map(slot -> {
+                        Node node = nodes.get(slot);
+                        return node == null ? null : visit(slot, node, vector);
+                    })
+                    .filter(Objects::nonNull)
+                    .sorted(BY_SIMILARITY.reversed())
+                    .limit(count)
+                    .mapToInt(Visit::slot)
+                    .toArray();
+    }
+
+    private int capacity(int layer) {
+        return layer == 0 ? 2 * parameters.maxConnections() : parameters.maxConnections();
+    }
+
+    private int randomLevel() {
+        double level = -Math.log(1 - random.nextDouble()) * levelMultiplier;
+        return (int) Math.min(level, MAXIMUM_LEVEL);
+    }
+
+    private Visit visit(int slot, Node node, float[] query) {
+        return new Visit(slot, node, vectors.dotProduct(query, slot));
+    }
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.StringProperty;
@@ -34,6 +35,8 @@ public class IngestionService {
 
     private final List<List<LinkedFile>> listsUnderIngestion = new ArrayList<>();
 
+    private final List<GenerateEmbeddingsForSeveralTask> runningGroupTasks = new CopyOnWriteArrayList<>();
+
     private final AiPreferences aiPreferences;
     private final FilePreferences filePreferences;
     private final TaskExecutor taskExecutor;
@@ -101,12 +104,16 @@ public class IngestionService {
      * This method returns a {@link ProcessingInfo} that can be used for tracking state of the ingestion.
      * Returned {@link ProcessingInfo} is related to the passed {@link LinkedFile}, so if you call this method twice
      * on the same {@link LinkedFile}, the method will return the same {@link ProcessingInfo}.
+     * <p>
+     * If the file is waiting to be ingested as part of a group, it is moved to the front of the queue.
      */
     public ProcessingInfo<LinkedFile, Void> ingest(LinkedFile linkedFile, BibDatabaseContext bibDatabaseContext) {
         ProcessingInfo<LinkedFile, Void> processingInfo = getProcessingInfo(linkedFile);
 
         if (processingInfo.getState() == ProcessingState.STOPPED) {
             startEmbeddingsGenerationTask(linkedFile, bibDatabaseContext, processingInfo);
+        } else if (processingInfo.getState() == ProcessingState.PROCESSING) {
+            runningGroupTasks.forEach(task -> task.prioritize(linkedFile));
         }
 
         return processingInfo;
@@ -152,8 +159,10 @@ public class IngestionService {
     private void startEmbeddingsGenerationTask(StringProperty groupName, List<ProcessingInfo<LinkedFile, Void>> linkedFiles, BibDatabaseContext bibDatabaseContext) {
         linkedFiles.forEach(processingInfo -> processingInfo.setState(ProcessingState.PROCESSING));
 
-        new GenerateEmbeddingsForSeveralTask(groupName, linkedFiles, fileEmbeddingsManager, bibDatabaseContext, filePreferences, taskExecutor, shutdownSignal)
-                .executeWith(taskExecutor);
+        GenerateEmbeddingsForSeveralTask task = new GenerateEmbeddingsForSeveralTask(groupName, linkedFiles, fileEmbeddingsManager, bibDatabaseContext, filePreferences, shutdownSignal);
+        runningGroupTasks.add(task);
+        task.onFinished(() -> runningGroupTasks.remove(task))
+            .executeWith(taskExecutor);
     }
 
     public void clearEmbeddingsFor(List<LinkedFile> linkedFiles) {
@@ -7,28 +7,47 @@ import javafx.beans.property.ReadOnlyBooleanProperty;
 
 import org.jabref.logic.ai.AiPreferences;
 
-import dev.langchain4j.data.document.DefaultDocument;
+import com.google.common.collect.Lists;
 import dev.langchain4j.data.document.Document;
 import dev.langchain4j.data.document.DocumentSplitter;
 import dev.langchain4j.data.document.splitter.DocumentSplitters;
+import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.store.embedding.EmbeddingStore;
-import dev.langchain4j.store.embedding.EmbeddingStoreIngestor;
-
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Splits documents into text segments, embeds them, and adds them to the embedding store.
+ * <p>
+ * The segments are processed in batches: one call of the embedding model and one write to the store per batch.
+ */
 public class LowLevelIngestor {
+    public static final int DEFAULT_BATCH_SIZE = 32;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LowLevelIngestor.class);
+
     private final AiPreferences aiPreferences;
 
     private final EmbeddingStore<TextSegment> embeddingStore;
     private final EmbeddingModel embeddingModel;
+    private final int batchSize;
 
-    private EmbeddingStoreIngestor ingestor;
     private DocumentSplitter documentSplitter;
 
     public LowLevelIngestor(AiPreferences aiPreferences, EmbeddingStore<TextSegment> embeddingStore, EmbeddingModel embeddingModel) {
+        this(aiPreferences, embeddingStore, embeddingModel, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param batchSize the number of text segments embedded at once
+     */
+    public LowLevelIngestor(AiPreferences aiPreferences, EmbeddingStore<TextSegment> embeddingStore, EmbeddingModel embeddingModel, int batchSize) {
         this.aiPreferences = aiPreferences;
         this.embeddingStore = embeddingStore;
         this.embeddingModel = embeddingModel;
+        this.batchSize = batchSize;
 
         rebuild();
 
@@ -39,13 +58,6 @@ public class LowLevelIngestor {
         this.documentSplitter = DocumentSplitters
                 .recursive(aiPreferences.getDocumentSplitterChunkSize(),
                            aiPreferences.getDocumentSplitterOverlapSize());
-
-        this.ingestor = EmbeddingStoreIngestor
-                .builder()
-                .embeddingStore(embeddingStore)
-                .embeddingModel(embeddingModel)
-                .documentSplitter(documentSplitter)
-                .build();
     }
 
     private void setupListeningToPreferencesChanges() {
@@ -61,17 +73,23 @@ public class LowLevelIngestor {
      * @param stopProperty - in case you want to stop the ingestion process, set this property to true.
      */
     public void ingestDocument(Document document, ReadOnlyBooleanProperty stopProperty, IntegerProperty workDone, IntegerProperty workMax) throws InterruptedException {
+        // The segments carry the metadata of the document (e.g., the link of the file)
         List<TextSegment> textSegments = documentSplitter.split(document);
         workMax.set(textSegments.size());
 
-        for (TextSegment documentPart : textSegments) {
+        long start = System.nanoTime();
+        for (List<TextSegment> batch : Lists.partition(textSegments, batchSize)) {
             if (stopProperty.get()) {
                 throw new InterruptedException();
             }
 
-            ingestor.ingest(new DefaultDocument(documentPart.text(), document.metadata()));
+            List<Embedding> embeddings = embeddingModel.embedAll(batch).content();
+            embeddingStore.addAll(embeddings, batch);
 
-            workDone.set(workDone.get() + 1);
+            workDone.set(workDone.get() + batch.size());
         }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        LOGGER.debug("Embedded {} chunks in {} s ({} chunks/s)", textSegments.size(), seconds, textSegments.size() / Math.max(seconds, 1e-9));
     }
 }
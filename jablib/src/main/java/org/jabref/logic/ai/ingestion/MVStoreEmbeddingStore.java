@@ -2,17 +2,23 @@ package org.jabref.logic.ai.ingestion;
 
 import java.io.Serializable;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 import org.jabref.logic.ai.util.MVStoreBase;
 import org.jabref.logic.l10n.Localization;
@@ -21,7 +27,6 @@ import org.jabref.logic.util.NotificationService;
 import dev.langchain4j.data.document.Metadata;
 import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
-import dev.langchain4j.store.embedding.CosineSimilarity;
 import dev.langchain4j.store.embedding.EmbeddingMatch;
 import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
 import dev.langchain4j.store.embedding.EmbeddingSearchResult;
@@ -31,7 +36,11 @@ import dev.langchain4j.store.embedding.filter.Filter;
 import dev.langchain4j.store.embedding.filter.comparison.IsEqualTo;
 import dev.langchain4j.store.embedding.filter.comparison.IsIn;
 import jakarta.annotation.Nullable;
+import org.h2.mvstore.Cursor;
+import org.h2.mvstore.MVMap;
 import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import static java.util.Comparator.comparingDouble;
 import static org.jabref.logic.ai.ingestion.FileEmbeddingsManager.LINK_METADATA_KEY;
@@ -40,21 +49,143 @@ import static org.jabref.logic.ai.ingestion.FileEmbeddingsManager.LINK_METADATA_
  * A custom implementation of langchain4j's {@link EmbeddingStore} that uses a {@link MVStore} as an embedded database.
  * <p>
  * Every embedding has 3 fields: float array (the embedding itself), file where it was generated from, and the embedded
- * string (the content).
+ * string (the content). The float arrays are stored normalized in a {@link MappedVectorStorage} next to the
+ * {@link MVStore} file. The {@link MVStore} holds the slot of each vector, the file, and the content. The content is
+ * loaded for the returned matches only. An index from the file to its embeddings lets filtered searches and removals
+ * touch the embeddings of the requested files only.
  * <p>
+ * Searching uses a {@link HnswIndex}, which is stored in the same {@link MVStore} and updated on every modification.
  */
 public class MVStoreEmbeddingStore extends MVStoreBase implements EmbeddingStore<TextSegment> {
+    // Format of JabRef 6.0-alpha, kept to migrate existing embeddings.
     // `file` field is nullable, because {@link Optional} can't be serialized.
     private record EmbeddingRecord(@Nullable String file, String content, float[] embeddingVector) implements Serializable { }
 
-    private static final String EMBEDDINGS_MAP_NAME = "embeddings";
+    // `file` field is nullable, because {@link Optional} can't be serialized.
+    private record EmbeddingLocation(@Nullable String file, int slot) implements Serializable { }
 
-    private final Map<String, EmbeddingRecord> embeddingsMap;
+    private static final Logger LOGGER = LoggerFactory.getLogger(MVStoreEmbeddingStore.class);
+
+    private static final String EMBEDDINGS_MAP_NAME = "embeddings";
+    private static final String LOCATIONS_MAP_NAME = "embedding-locations";
+    private static final String CONTENTS_MAP_NAME = "embedding-contents";
+    private static final String FILES_MAP_NAME = "embedding-files";
+    // Separates the file and the id in the keys of the files map. It cannot be part of a path.
+    private static final char FILE_KEY_SEPARATOR = '\u0000';
+    private static final String VECTORS_FILE_SUFFIX = ".vectors";
+
+    // Number of similarities computed at once by the exhaustive search
+    private static final int SCAN_BLOCK_SIZE = 1024;
+
+    // Filtered searches among at most this many embeddings do not use the index, because comparing with all of them is
+    // fast and exact
+    private static final int EXACT_FILTERED_SEARCH_LIMIT = 4096;
+
+    private final Map<String, EmbeddingLocation> locationsMap;
+    private final Map<String, String> contentsMap;
+    // Key: file and id, value: slot. Being sorted, the embeddings of a file are a contiguous range of keys.
+    private final MVMap<String, Integer> filesMap;
+    private final MappedVectorStorage vectors;
+    private final HnswIndex index;
+
+    // Inverse of the locations map: the embedding stored in each slot, null if the slot is unused
+    private final List<EmbeddingLocation> slots = new ArrayList<>();
+    private final List<String> slotIds = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    // Slots of removed embeddings. They are reused after the next commit only. Otherwise, the vector of a removed
+    // embedding could be overwritten while a committed location still refers to it.
+    private final List<Integer> releasedSlots = new ArrayList<>();
+
+    // Modifications must not happen concurrently to searches
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
 
     public MVStoreEmbeddingStore(Path path, NotificationService dialogService) {
+        this(path, dialogService, HnswIndex.Parameters.DEFAULT);
+    }
+
+    public MVStoreEmbeddingStore(Path path, NotificationService dialogService, HnswIndex.Parameters indexParameters) {
         super(path, dialogService);
 
-        this.embeddingsMap = this.mvStore.openMap(EMBEDDINGS_MAP_NAME);
+        this.locationsMap = this.mvStore.openMap(LOCATIONS_MAP_NAME);
+        this.contentsMap = this.mvStore.openMap(CONTENTS_MAP_NAME);
+        this.filesMap = this.mvStore.openMap(FILES_MAP_NAME);
+        // If the MVStore could not be opened, it is an in-memory store. Then, the vectors are kept in memory, too.
+        this.vectors = new MappedVectorStorage(this.mvStore.getFileStore() == null ? null : path.resolveSibling(path.getFileName() + VECTORS_FILE_SUFFIX));
+        this.index = new HnswIndex(this.mvStore, vectors, indexParameters);
+
+        loadSlots();
+        migrateEmbeddingRecords();
+    }
+
+    /**
+     * Builds the inverse of the locations map. Locations without a stored vector (e.g., because the vector file was
+     * deleted) are dropped. The files map is rebuilt if it does not match the locations map.
+     */
+    private void loadSlots() {
+        List<String> invalidIds = new ArrayList<>();
+        int embeddingsWithFile = 0;
+        for (Map.Entry<String, EmbeddingLocation> entry : locationsMap.entrySet()) {
+            String id = entry.getKey();
+            EmbeddingLocation location = entry.getValue();
+            int slot = location.slot();
+            if ((slot >= vectors.slotCount()) || ((slot < slots.size()) && (slots.get(slot) != null))) {
+                invalidIds.add(id);
+                continue;
+            }
+            while (slots.size() <= slot) {
+                slots.add(null);
+                slotIds.add(null);
+            }
+            slots.set(slot, location);
+            slotIds.set(slot, id);
+            if (location.file() != null) {
+                embeddingsWithFile++;
+            }
+        }
+
+        if (!invalidIds.isEmpty()) {
+            LOGGER.warn("Dropping {} embeddings without stored vector", invalidIds.size());
+            invalidIds.forEach(id -> {
+                locationsMap.remove(id);
+                contentsMap.remove(id);
+            });
+            // The index might refer to the dropped vectors, it is rebuilt on the first search
+            index.clear();
+        }
+
+        if (!invalidIds.isEmpty() || (filesMap.size() != embeddingsWithFile)) {
+            filesMap.clear();
+            for (int slot = 0; slot < slots.size(); slot++) {
+                EmbeddingLocation location = slots.get(slot);
+                if ((location != null) && (location.file() != null)) {
+                    filesMap.put(fileKey(location.file(), slotIds.get(slot)), slot);
+                }
+            }
+        }
+
+        for (int slot = 0; slot < slots.size(); slot++) {
+            if (slots.get(slot) == null) {
+                freeSlots.add(slot);
+            }
+        }
+    }
+
+    /**
+     * Moves embeddings stored as {@link EmbeddingRecord} to the vector storage
+     */
+    private void migrateEmbeddingRecords() {
+        if (!mvStore.hasMap(EMBEDDINGS_MAP_NAME)) {
+            return;
+        }
+
+        MVMap<String, EmbeddingRecord> embeddingsMap = mvStore.openMap(EMBEDDINGS_MAP_NAME);
+        LOGGER.info("Migrating {} embeddings to the vector storage", embeddingsMap.size());
+        // Nodes of the index refer to the vectors, thus it is rebuilt while migrating
+        index.clear();
+        embeddingsMap.forEach((id, eRecord) -> put(id, eRecord.file, eRecord.content, eRecord.embeddingVector));
+        mvStore.removeMap(embeddingsMap);
+        commit();
     }
 
     @Override
@@ -76,36 +207,128 @@ public class MVStoreEmbeddingStore extends MVStoreBase implements EmbeddingStore
     public void add(String id, Embedding embedding) {
         // It does not make much sense to store single embedding vector, but this is a requirement from langchain4j's
         // {@link EmbeddingStore}.
-        embeddingsMap.put(id, new EmbeddingRecord(null, "", embedding.vector()));
+        put(id, null, "", embedding.vector());
     }
 
     @Override
     public String add(Embedding embedding, TextSegment textSegment) {
         String id = String.valueOf(UUID.randomUUID());
         String linkedFile = textSegment.metadata().getString(LINK_METADATA_KEY);
-        embeddingsMap.put(id, new EmbeddingRecord(linkedFile, textSegment.text(), embedding.vector()));
+        put(id, linkedFile, textSegment.text(), embedding.vector());
         return id;
     }
 
+    private void put(String id, @Nullable String file, String content, float[] vector) {
+        indexLock.writeLock().lock();
+        try {
+            if ((vectors.dimension() != 0) && (vector.length != vectors.dimension())) {
+                // Vectors of different embedding models cannot be compared, thus the store is rebuilt with the new model
+                LOGGER.info("Embedding model changed (dimension {} instead of {}), removing all stored embeddings", vector.length, vectors.dimension());
+                removeAllWithoutLock();
+            } else if (locationsMap.containsKey(id)) {
+                removeWithoutLock(id);
+            }
+
+            int slot = freeSlots.isEmpty() ? slots.size() : freeSlots.poll();
+            vectors.write(slot, vector);
+            EmbeddingLocation location = new EmbeddingLocation(file, slot);
+            locationsMap.put(id, location);
+            contentsMap.put(id, content);
+            if (file != null) {
+                filesMap.put(fileKey(file, id), slot);
+            }
+            if (slot == slots.size()) {
+                slots.add(location);
+                slotIds.add(id);
+            } else {
+                slots.set(slot, location);
+                slotIds.set(slot, id);
+            }
+            index.add(id, file, slot);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the embeddings at once, i.e., a concurrent search sees either all or none of them
+     */
     @Override
     public List<String> addAll(List<Embedding> embeddings, List<TextSegment> embedded) {
-        return IntStream.range(0, embeddings.size()).mapToObj(i -> add(embeddings.get(i), embedded.get(i))).toList();
+        indexLock.writeLock().lock();
+        try {
+            return IntStream.range(0, embeddings.size()).mapToObj(i -> add(embeddings.get(i), embedded.get(i))).toList();
+        } finally {
+            indexLock.writeLock().unlock();
+        }
     }
 
     @Override
     public void remove(String id) {
-        embeddingsMap.remove(id);
+        indexLock.writeLock().lock();
+        try {
+            removeWithoutLock(id);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    private void removeWithoutLock(String id) {
+        EmbeddingLocation location = locationsMap.remove(id);
+        if (location == null) {
+            return;
+        }
+        contentsMap.remove(id);
+        if (location.file() != null) {
+            filesMap.remove(fileKey(location.file(), id));
+        }
+        index.remove(location.slot());
+        slots.set(location.slot(), null);
+        slotIds.set(location.slot(), null);
+        releasedSlots.add(location.slot());
     }
 
     @Override
     public void removeAll(Filter filter) {
-        List<String> idsToRemove = applyFilter(filter).toList();
-        idsToRemove.forEach(this::remove);
+        indexLock.writeLock().lock();
+        try {
+            Optional<Set<String>> files = filteredFiles(filter);
+            List<String> idsToRemove = files.isPresent()
+                                       ? List.copyOf(embeddingsOfFiles(files.get()).keySet())
+                                       : List.copyOf(locationsMap.keySet());
+            idsToRemove.forEach(this::removeWithoutLock);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
     }
 
     @Override
     public void removeAll() {
-        embeddingsMap.clear();
+        indexLock.writeLock().lock();
+        try {
+            removeAllWithoutLock();
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    private void removeAllWithoutLock() {
+        locationsMap.clear();
+        contentsMap.clear();
+        filesMap.clear();
+        index.clear();
+        vectors.clear();
+        slots.clear();
+        slotIds.clear();
+        freeSlots.clear();
+        releasedSlots.clear();
+    }
+
+    /**
+     * Queries computed by another embedding model than the stored embeddings do not match anything
+     */
+    private boolean cannotMatch(EmbeddingSearchRequest request) {
+        return locationsMap.isEmpty() || (request.queryEmbedding().vector().length != vectors.dimension());
     }
 
     /// The main function of finding most relevant text segments.
@@ -114,66 +337,247 @@ public class MVStoreEmbeddingStore extends MVStoreBase implements EmbeddingStore
     /// - [IsIn] with key [FileEmbeddingsManager#LINK_METADATA_KEY]
     /// - [IsEqualTo] with key [FileEmbeddingsManager#LINK_METADATA_KEY]
     ///
+    /// The search is approximate, i.e., it might miss some of the most relevant text segments (see [HnswIndex.Parameters#searchBreadth()]).
+    /// Searches restricted to files with only a few embeddings compare the query with all of them and are exact.
+    ///
     /// @param request embedding search request
     ///
     /// @return an [EmbeddingSearchResult], which contains most relevant text segments
     @Override
     public EmbeddingSearchResult<TextSegment> search(EmbeddingSearchRequest request) {
-        // Source: {@link InMemoryEmbeddingStore}.
-
-        Comparator<EmbeddingMatch<TextSegment>> comparator = comparingDouble(EmbeddingMatch::score);
-        PriorityQueue<EmbeddingMatch<TextSegment>> matches = new PriorityQueue<>(comparator);
-
-        applyFilter(request.filter()).forEach(id -> {
-            EmbeddingRecord eRecord = embeddingsMap.get(id);
-
-            double cosineSimilarity = CosineSimilarity.between(Embedding.from(eRecord.embeddingVector), request.queryEmbedding());
-            double score = RelevanceScore.fromCosineSimilarity(cosineSimilarity);
-
-            if (score >= request.minScore()) {
-                matches.add(
-                        new EmbeddingMatch<>(
-                                score,
-                                id,
-                                Embedding.from(eRecord.embeddingVector),
-                                new TextSegment(
-                                        eRecord.content,
-                                        new Metadata(
-                                                eRecord.file == null ? Map.of() : Map.of(LINK_METADATA_KEY, eRecord.file)))));
-
-                if (matches.size() > request.maxResults()) {
-                    matches.poll();
+        ensureIndexed();
+
+        indexLock.readLock().lock();
+        try {
+            if (cannotMatch(request)) {
+                return new EmbeddingSearchResult<>(List.of());
+            }
+
+            Optional<Set<String>> files = filteredFiles(request.filter());
+            Map<String, Integer> embeddingsOfFiles = Map.of();
+            if (files.isPresent()) {
+                embeddingsOfFiles = embeddingsOfFiles(files.get());
+                if (embeddingsOfFiles.size() <= EXACT_FILTERED_SEARCH_LIMIT) {
+                    return searchAmong(request, embeddingsOfFiles);
                 }
             }
-        });
 
-        List<EmbeddingMatch<TextSegment>> result = new ArrayList<>(matches);
-        result.sort(comparator.reversed());
+            Predicate<String> fileFilter = files.isPresent() ? file -> (file != null) && files.get().contains(file) : file -> true;
+            List<HnswIndex.Candidate> candidates = index.search(request.queryEmbedding().vector(), request.maxResults(), fileFilter);
+            if (files.isPresent() && (candidates.size() < request.maxResults())) {
+                // The filtered embeddings are not necessarily reachable in the graph
+                return searchAmong(request, embeddingsOfFiles);
+            }
 
+            List<EmbeddingMatch<TextSegment>> result = new ArrayList<>();
+            for (HnswIndex.Candidate candidate : candidates) {
+                double score = RelevanceScore.fromCosineSimilarity(candidate.similarity());
+                EmbeddingLocation location = locationsMap.get(candidate.id());
+                if ((score >= request.minScore()) && (location != null)) {
+                    result.add(toEmbeddingMatch(candidate.id(), location, score));
+                }
+            }
+            return new EmbeddingSearchResult<>(result);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /// Finds the most relevant text segments by comparing the query with every stored embedding matching the filter.
+    /// Used if the index cannot answer a request. Additionally, it serves as reference for the approximate [#search(EmbeddingSearchRequest)].
+    ///
+    /// @param request embedding search request
+    ///
+    /// @return an [EmbeddingSearchResult], which contains most relevant text segments
+    public EmbeddingSearchResult<TextSegment> searchExhaustively(EmbeddingSearchRequest request) {
+        indexLock.readLock().lock();
+        try {
+            if (cannotMatch(request)) {
+                return new EmbeddingSearchResult<>(List.of());
+            }
+            Optional<Set<String>> files = filteredFiles(request.filter());
+            return files.isPresent() ? searchAmong(request, embeddingsOfFiles(files.get())) : searchAll(request);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compares the query with all stored vectors. The vectors are scanned block-wise, which is limited by the memory
+     * bandwidth only.
+     */
+    private EmbeddingSearchResult<TextSegment> searchAll(EmbeddingSearchRequest request) {
+        float[] query = MappedVectorStorage.normalize(request.queryEmbedding().vector());
+        PriorityQueue<HnswIndex.Candidate> candidates = new PriorityQueue<>(comparingDouble(HnswIndex.Candidate::similarity));
+        float[] similarities = new float[SCAN_BLOCK_SIZE];
+        for (int firstSlot = 0; firstSlot < slots.size(); firstSlot += SCAN_BLOCK_SIZE) {
+            int count = Math.min(vectors.dotProducts(query, firstSlot, similarities), slots.size() - firstSlot);
+            for (int i = 0; i < count; i++) {
+                EmbeddingLocation location = slots.get(firstSlot + i);
+                if (location != null) {
+                    offer(candidates, new HnswIndex.Candidate(slotIds.get(firstSlot + i), location.file(), similarities[i]), request);
+                }
+            }
+        }
+        return toSearchResult(candidates);
+    }
+
+    /**
+     * Compares the query with the given embeddings only
+     *
+     * @param embeddings map from the id of an embedding to its slot
+     */
+    private EmbeddingSearchResult<TextSegment> searchAmong(EmbeddingSearchRequest request, Map<String, Integer> embeddings) {
+        float[] query = MappedVectorStorage.normalize(request.queryEmbedding().vector());
+        PriorityQueue<HnswIndex.Candidate> candidates = new PriorityQueue<>(comparingDouble(HnswIndex.Candidate::similarity));
+        embeddings.forEach((id, slot) ->
+                offer(candidates, new HnswIndex.Candidate(id, slots.get(slot).file(), vectors.dotProduct(query, slot)), request));
+        return toSearchResult(candidates);
+    }
+
+    /**
+     * Adds the candidate to the queue holding the best candidates if it is relevant enough
+     */
+    private static void offer(PriorityQueue<HnswIndex.Candidate> candidates, HnswIndex.Candidate candidate, EmbeddingSearchRequest request) {
+        if (RelevanceScore.fromCosineSimilarity(candidate.similarity()) < request.minScore()) {
+            return;
+        }
+        candidates.add(candidate);
+        if (candidates.size() > request.maxResults()) {
+            candidates.poll();
+        }
+    }
+
+    /**
+     * Loads the content of the best candidates
+     */
+    private EmbeddingSearchResult<TextSegment> toSearchResult(PriorityQueue<HnswIndex.Candidate> candidates) {
+        List<HnswIndex.Candidate> sortedCandidates = new ArrayList<>(candidates);
+        sortedCandidates.sort(comparingDouble(HnswIndex.Candidate::similarity).reversed());
+
+        List<EmbeddingMatch<TextSegment>> result = sortedCandidates.stream()
+                                                                   .map(candidate -> toEmbeddingMatch(
+                                                                           candidate.id(),
+                                                                           locationsMap.get(candidate.id()),
+                                                                           RelevanceScore.fromCosineSimilarity(candidate.similarity())))
+                                                                   .toList();
         return new EmbeddingSearchResult<>(result);
     }
 
+    private EmbeddingMatch<TextSegment> toEmbeddingMatch(String id, EmbeddingLocation location, double score) {
+        return new EmbeddingMatch<>(
+                score,
+                id,
+                Embedding.from(vectors.read(location.slot())),
+                new TextSegment(
+                        contentsMap.getOrDefault(id, ""),
+                        new Metadata(
+                                location.file() == null ? Map.of() : Map.of(LINK_METADATA_KEY, location.file()))));
+    }
+
+    /**
+     * Indexes the embeddings which are not part of the index yet. This is the case for embeddings stored by a JabRef
+     * version without index.
+     */
+    private void ensureIndexed() {
+        if (index.size() == locationsMap.size()) {
+            return;
+        }
+        indexLock.writeLock().lock();
+        try {
+            int indexed = 0;
+            for (Map.Entry<String, EmbeddingLocation> entry : locationsMap.entrySet()) {
+                if (!index.contains(entry.getValue().slot())) {
+                    index.add(entry.getKey(), entry.getValue().file(), entry.getValue().slot());
+                    indexed++;
+                }
+            }
+            if (indexed > 0) {
+                LOGGER.info("Indexed {} embeddings", indexed);
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
     @Override
     public void removeAll(Collection ids) {
-        embeddingsMap.entrySet().removeIf(entry -> ids.contains(entry.getKey()));
+        indexLock.writeLock().lock();
+        try {
+            for (Object id : ids) {
+                if (id instanceof String stringId) {
+                    removeWithoutLock(stringId);
+                }
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
     }
 
-    private Stream<String> applyFilter(@Nullable Filter filter) {
+    /**
+     * @return the files the filter restricts the embeddings to, empty if the filter does not restrict them
+     */
+    private static Optional<Set<String>> filteredFiles(@Nullable Filter filter) {
         return switch (filter) {
-            case null -> embeddingsMap.keySet().stream();
+            case null -> Optional.empty();
 
             case IsIn isInFilter when Objects.equals(isInFilter.key(), LINK_METADATA_KEY) ->
-                    filterEntries(entry -> isInFilter.comparisonValues().contains(entry.getValue().file));
+                    Optional.of(isInFilter.comparisonValues().stream().map(String::valueOf).collect(Collectors.toSet()));
 
             case IsEqualTo isEqualToFilter when Objects.equals(isEqualToFilter.key(), LINK_METADATA_KEY) ->
-                    filterEntries(entry -> isEqualToFilter.comparisonValue().equals(entry.getValue().file));
+                    Optional.of(Set.of(String.valueOf(isEqualToFilter.comparisonValue())));
 
             default -> throw new IllegalArgumentException("Wrong filter passed to MVStoreEmbeddingStore");
         };
     }
 
-    private Stream<String> filterEntries(Predicate<Map.Entry<String, EmbeddingRecord>> predicate) {
-        return embeddingsMap.entrySet().stream().filter(predicate).map(Map.Entry::getKey);
+    /**
+     * @return map from the id of each embedding of the given files to its slot
+     */
+    private Map<String, Integer> embeddingsOfFiles(Set<String> files) {
+        Map<String, Integer> embeddings = new HashMap<>();
+        for (String file : files) {
+            String prefix = file + FILE_KEY_SEPARATOR;
+            Cursor<String, Integer> cursor = filesMap.cursor(prefix);
+            while (cursor.hasNext()) {
+                String key = cursor.next();
+                if (!key.startsWith(prefix)) {
+                    break;
+                }
+                embeddings.put(key.substring(prefix.length()), cursor.getValue());
+            }
+        }
+        return embeddings;
+    }
+
+    private static String fileKey(String file, String id) {
+        return file + FILE_KEY_SEPARATOR + id;
+    }
+
+    @Override
+    public void commit() {
+        indexLock.writeLock().lock();
+        try {
+            // The vectors have to be on disk before the locations referring to them are committed
+            vectors.force();
+            super.commit();
+            freeSlots.addAll(releasedSlots);
+            releasedSlots.clear();
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        indexLock.writeLock().lock();
+        try {
+            vectors.force();
+            super.close();
+            vectors.close();
+        } finally {
+            indexLock.writeLock().unlock();
+        }
     }
 
     @Override
@@ -0,0 +1,319 @@
+package org.jabref.logic.ai.ingestion;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores embedding vectors of the same dimension contiguously in a memory-mapped file. Compared to serialized
+ * objects, computing the similarity of a query with all vectors does not create any garbage and is limited by the
+ * memory bandwidth only.
+ * <p>
+ * Vectors are addressed by their slot. Keeping track of used and free slots is up to the caller. Vectors are normalized
+ * when they are written, so that the cosine similarity of two vectors is their dot product.
+ * <p>
+ * The file starts with a header of {@value #HEADER_SIZE} bytes (magic number, format version, dimension), followed by
+ * the components of the vectors as little-endian floats.
+ * <p>
+ * The storage is not thread-safe. The caller has to ensure that modifications do not happen concurrently to other
+ * operations.
+ */
+public class MappedVectorStorage implements AutoCloseable {
+
+    static final ValueLayout.OfFloat FLOAT_LAYOUT = ValueLayout.JAVA_FLOAT.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MappedVectorStorage.class);
+
+    private static final ValueLayout.OfInt INT_LAYOUT = ValueLayout.JAVA_INT.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final int MAGIC = 0x4A52_4543; // "JREC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final long MAGIC_OFFSET = 0;
+    private static final long VERSION_OFFSET = 4;
+    private static final long DIMENSION_OFFSET = 8;
+
+    private static final int MINIMUM_CAPACITY = 1024;
+
+    // null if the vectors are kept in memory only
+    private @Nullable FileChannel channel;
+
+    private Arena arena;
+    private MemorySegment segment;
+    private int dimension;
+    private int slotCount;
+    private long capacity;
+
+    /**
+     * @param file the file to store the vectors in. If null or the file cannot be opened, the vectors are kept in memory.
+     */
+    public MappedVectorStorage(@Nullable Path file) {
+        if (file != null) {
+            try {
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                LOGGER.error("Could not open {}. Embedding vectors will not be stored in the next session.", file, e);
+            }
+        }
+
+        try {
+            open();
+        } catch (IOException e) {
+            LOGGER.error("Could not map {}. Embedding vectors will not be stored in the next session.", file, e);
+            closeChannel();
+            channel = null;
+            initialize();
+        }
+    }
+
+    private void open() throws IOException {
+        if ((channel == null) || (channel.size() < HEADER_SIZE)) {
+            initialize();
+            return;
+        }
+
+        long fileSize = channel.size();
+        arena = Arena.ofShared();
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize, arena);
+        if ((segment.get(INT_LAYOUT, MAGIC_OFFSET) != MAGIC) || (segment.get(INT_LAYOUT, VERSION_OFFSET) != VERSION)) {
+            LOGGER.warn("Unknown format of embedding vector file, starting with an empty one");
+            arena.close();
+            initialize();
+            return;
+        }
+
+        dimension = segment.get(INT_LAYOUT, DIMENSION_OFFSET);
+        if (dimension > 0) {
+            capacity = (fileSize - HEADER_SIZE) / vectorSize();
+            slotCount = (int) capacity;
+        }
+    }
+
+    /**
+     * Creates an empty storage, truncating the file if there is one
+     */
+    private void initialize() {
+        dimension = 0;
+        slotCount = 0;
+        capacity = 0;
+        arena = Arena.ofShared();
+        if (channel == null) {
+            segment = arena.allocate(HEADER_SIZE, 64);
+        } else {
+            try {
+                channel.truncate(0);
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE, arena);
+            } catch (IOException e) {
+                LOGGER.error("Could not initialize embedding vector file. Embedding vectors will not be stored in the next session.", e);
+                closeChannel();
+                channel = null;
+                segment = arena.allocate(HEADER_SIZE, 64);
+            }
+        }
+        segment.set(INT_LAYOUT, MAGIC_OFFSET, MAGIC);
+        segment.set(INT_LAYOUT, VERSION_OFFSET, VERSION);
+        segment.set(INT_LAYOUT, DIMENSION_OFFSET, 0);
+    }
+
+    /**
+     * @return the dimension of the stored vectors, 0 if no vector was written yet
+     */
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * @return the number of slots which might contain a vector, i.e., the highest written slot plus one
+     */
+    public int slotCount() {
+        return slotCount;
+    }
+
+    public void write(int slot, float[] vector) {
+        if (dimension == 0) {
+            dimension = vector.length;
+            segment.set(INT_LAYOUT, DIMENSION_OFFSET, dimension);
+        } else if (vector.length != dimension) {
+            throw new IllegalArgumentException("Length of vector (" + vector.length + ") must be equal to the dimension of the stored vectors (" + dimension + ")");
+        }
+
+        ensureCapacity(slot + 1);
+        MemorySegment.copy(normalize(vector), 0, segment, FLOAT_LAYOUT, offset(slot), dimension);
+        slotCount = Math.max(slotCount, slot + 1);
+    }
+
+    /**
+     * @return the normalized vector stored in the slot
+     */
+    public float[] read(int slot) {
+        checkSlot(slot);
+        float[] vector = new float[dimension];
+        MemorySegment.copy(segment, FLOAT_LAYOUT, offset(slot), vector, 0, dimension);
+        return vector;
+    }
+
+    /**
+     * @param query a normalized vector
+     * @return the cosine similarity of the query and the vector stored in the slot
+     */
+    public double dotProduct(float[] query, int slot) {
+        checkQuery(query);
+        checkSlot(slot);
+        return dotProduct(query, segment, offset(slot));
+    }
+
+    /**
+     * Computes the cosine similarities of the query and the vectors of consecutive slots
+     *
+     * @param query        a normalized vector
+     * @param firstSlot    the slot to start with
+     * @param similarities receives the similarities. It is filled up to its length, but not beyond {@link #slotCount()}.
+     * @return the number of computed similarities
+     */
+    public int dotProducts(float[] query, int firstSlot, float[] similarities) {
+        checkQuery(query);
+        int count = Math.max(0, Math.min(similarities.length, slotCount - firstSlot));
+        long offset = offset(firstSlot);
+        long vectorSize = vectorSize();
+        for (int i = 0; i < count; i++) {
+            similarities[i] = dotProduct(query, segment, offset);
+            offset += vectorSize;
+        }
+        return count;
+    }
+
+    /**
+     * Removes all vectors. Afterwards, vectors of another dimension can be stored.
+     */
+    public void clear() {
+        arena.close();
+        initialize();
+    }
+
+    /**
+     * Writes the vectors to the disk
+     */
+    public void force() {
+        if (channel != null) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+        if (channel != null) {
+            try {
+                // Drop the capacity reserved for further vectors
+                channel.truncate(dimension == 0 ? HEADER_SIZE : offset(slotCount));
+            } catch (IOException e) {
+                LOGGER.warn("Could not truncate embedding vector file", e);
+            }
+            closeChannel();
+        }
+    }
+
+    private void closeChannel() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not close embedding vector file", e);
+        }
+    }
+
+    private void ensureCapacity(int slots) {
+        if (slots <= capacity) {
+            return;
+        }
+
+        long newCapacity = Math.max(slots, Math.max(MINIMUM_CAPACITY, 2 * capacity));
+        Arena newArena = Arena.ofShared();
+        MemorySegment newSegment;
+        if (channel == null) {
+            newSegment = newArena.allocate(HEADER_SIZE + newCapacity * vectorSize(), 64);
+            newSegment.copyFrom(segment);
+        } else {
+            try {
+                // Mapping beyond the end of the file enlarges it
+                newSegment = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + newCapacity * vectorSize(), newArena);
+            } catch (IOException e) {
+                newArena.close();
+                throw new UncheckedIOException("Could not enlarge embedding vector file", e);
+            }
+        }
+        arena.close();
+        arena = newArena;
+        segment = newSegment;
+        capacity = newCapacity;
+    }
+
+    private long vectorSize() {
+        return (long) dimension * Float.BYTES;
+    }
+
+    /**
+     * Uses independent accumulators, so that the JIT compiler can vectorize the loop without the incubating Vector API
+     */
+    static float dotProduct(float[] query, MemorySegment vectors, long offset) {
+        float sum0 = 0;
+        float sum1 = 0;
+        float sum2 = 0;
+        float sum3 = 0;
+        int i = 0;
+        int upperBound = query.length & ~3;
+        for (; i < upperBound; i += 4) {
+            long position = offset + (long) i * Float.BYTES;
+            sum0 += query[i] * vectors.get(FLOAT_LAYOUT, position);
+            sum1 += query[i + 1] * vectors.get(FLOAT_LAYOUT, position + Float.BYTES);
+            sum2 += query[i + 2] * vectors.get(FLOAT_LAYOUT, position + 2 * Float.BYTES);
+            sum3 += query[i + 3] * vectors.get(FLOAT_LAYOUT, position + 3 * Float.BYTES);
+        }
+        for (; i < query.length; i++) {
+            sum0 += query[i] * vectors.get(FLOAT_LAYOUT, offset + (long) i * Float.BYTES);
+        }
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    private long offset(int slot) {
+        return HEADER_SIZE + slot * vectorSize();
+    }
+
+    private void checkSlot(int slot) {
+        if ((slot < 0) || (slot >= slotCount)) {
+            throw new IndexOutOfBoundsException("Slot " + slot + " out of bounds for " + slotCount + " slots");
+        }
+    }
+
+    private void checkQuery(float[] query) {
+        if (query.length != dimension) {
+            throw new IllegalArgumentException("Length of query (" + query.length + ") must be equal to the dimension of the stored vectors (" + dimension + ")");
+        }
+    }
+
+    public static float[] normalize(float[] vector) {
+        double squaredNorm = 0;
+        for (float component : vector) {
+            squaredNorm += component * component;
+        }
+        if (squaredNorm == 0) {
+            return vector.clone();
+        }
+        float norm = (float) Math.sqrt(squaredNorm);
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] / norm;
+        }
+        return normalized;
+    }
+}
@@ -3,6 +3,12 @@ package org.jabref.logic.ai.ingestion.model;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import ai.djl.MalformedModelException;
 import ai.djl.inference.Predictor;
@@ -10,32 +16,67 @@ import ai.djl.repository.zoo.Criteria;
 import ai.djl.repository.zoo.ModelNotFoundException;
 import ai.djl.repository.zoo.ZooModel;
 import ai.djl.translate.TranslateException;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.model.output.Response;
 
+/**
+ * Computes embeddings locally using a model of the Deep Java Library.
+ * <p>
+ * Texts are embedded in batches. A list of texts is split among a bounded pool of predictors (one per core), as a
+ * {@link Predictor} must not be used by several threads at once.
+ */
 public class DeepJavaEmbeddingModel implements EmbeddingModel, AutoCloseable {
     private final ZooModel<String, float[]> model;
-    private final Predictor<String, float[]> predictor;
+    private final BlockingQueue<Predictor<String, float[]>> predictors;
+    private final int predictorCount;
+    private final ExecutorService executorService;
 
     public DeepJavaEmbeddingModel(Criteria<String, float[]> criteria) throws ModelNotFoundException, MalformedModelException, IOException {
+        this(criteria, Runtime.getRuntime().availableProcessors());
+    }
+
+    public DeepJavaEmbeddingModel(Criteria<String, float[]> criteria, int predictorCount) throws ModelNotFoundException, MalformedModelException, IOException {
         this.model = criteria.loadModel();
-        this.predictor = model.newPredictor();
+        this.predictorCount = predictorCount;
+        this.predictors = new ArrayBlockingQueue<>(predictorCount);
+        for (int i = 0; i < predictorCount; i++) {
+            predictors.add(model.newPredictor());
+        }
+        this.executorService = Executors.newFixedThreadPool(predictorCount,
+                new ThreadFactoryBuilder().setNameFormat("ai-embedding-predictor-%d").setDaemon(true).build());
     }
 
     @Override
     public Response<List<Embedding>> embedAll(List<TextSegment> list) {
-        try {
-            List<Embedding> result = new ArrayList<>();
+        List<String> texts = list.stream().map(TextSegment::text).toList();
+        if (texts.isEmpty()) {
+            return new Response<>(List.of());
+        }
 
-            for (TextSegment textSegment : list) {
-                float[] embedding = predictor.predict(textSegment.text());
-                result.add(new Embedding(embedding));
-            }
+        // Each predictor gets one part of the batch
+        int partSize = Math.ceilDiv(texts.size(), predictorCount);
+        List<Future<List<float[]>>> parts = new ArrayList<>();
+        for (List<String> part : Lists.partition(texts, partSize)) {
+            parts.add(executorService.submit(() -> predict(part)));
+        }
 
+        try {
+            List<Embedding> result = new ArrayList<>(texts.size());
+            for (Future<List<float[]>> part : parts) {
+                for (float[] embedding : part.get()) {
+                    result.add(new Embedding(embedding));
+                }
+            }
             return new Response<>(result);
-        } catch (TranslateException e) {
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            parts.forEach(part -> part.cancel(true));
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
             // The rationale for RuntimeException here:
             // 1. langchain4j error handling is a mess, and it uses RuntimeExceptions
             //    everywhere. Because this method implements a langchain4j interface,
@@ -44,12 +85,23 @@ public class DeepJavaEmbeddingModel implements EmbeddingModel, AutoCloseable {
             //    in the result type, nor "throws" in method signature. Actually,
             //    it's possible, but langchain4j doesn't do it.
 
-            throw new RuntimeException(e);
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private List<float[]> predict(List<String> texts) throws InterruptedException, TranslateException {
+        Predictor<String, float[]> predictor = predictors.take();
+        try {
+            return predictor.batchPredict(texts);
+        } finally {
+            predictors.add(predictor);
         }
     }
 
     @Override
     public void close() {
+        executorService.shutdownNow();
+        predictors.forEach(Predictor::close);
         this.model.close();
     }
 }
@@ -1,10 +1,16 @@
 package org.jabref.logic.ai.summarization;
 
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -23,6 +29,8 @@ import org.jabref.model.database.BibDatabaseContext;
 import org.jabref.model.entry.BibEntry;
 import org.jabref.model.entry.LinkedFile;
 
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import dev.langchain4j.data.document.DefaultDocument;
 import dev.langchain4j.data.document.Document;
 import dev.langchain4j.data.document.DocumentSplitter;
@@ -46,6 +54,8 @@ public class GenerateSummaryTask extends BackgroundTask<Summary> {
 
     private static final int MAX_OVERLAP_SIZE_IN_CHARS = 100;
     private static final int CHAR_TOKEN_FACTOR = 4; // Means, every token is roughly 4 characters.
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_IN_MILLIS = 1000;
 
     private final BibDatabaseContext bibDatabaseContext;
     private final BibEntry entry;
@@ -202,64 +212,165 @@ public class GenerateSummaryTask extends BackgroundTask<Summary> {
                 MAX_OVERLAP_SIZE_IN_CHARS
         );
 
-        List<String> chunkSummaries = documentSplitter.split(new DefaultDocument(document)).stream().map(TextSegment::text).toList();
+        List<String> chunks = documentSplitter.split(new DefaultDocument(document)).stream().map(TextSegment::text).toList();
 
-        LOGGER.debug("The file \"{}\" of entry {} was split into {} chunk(s)", filePath, citationKey, chunkSummaries.size());
+        LOGGER.debug("The file \"{}\" of entry {} was split into {} chunk(s)", filePath, citationKey, chunks.size());
 
-        int passes = 0;
+        ExecutorService executorService = Executors.newFixedThreadPool(
+                Math.clamp(chunks.size(), 1, aiPreferences.getSummarizationParallelism()),
+                new ThreadFactoryBuilder().setNameFormat("ai-summarization-%d").setDaemon(true).build());
+        try {
+            List<String> chunkSummaries = summarizeChunks(filePath, chunks, executorService);
+            String result = combineSummaries(filePath, chunkSummaries, executorService);
+            LOGGER.debug("Summary of the file \"{}\" of entry {} was generated successfully", filePath, citationKey);
 
-        do {
-            passes++;
-            LOGGER.debug("Summarizing chunk(s) for file \"{}\" of entry {} ({} pass)", filePath, citationKey, passes);
+            doneOneWork();
+            return result;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
 
-            addMoreWork(chunkSummaries.size());
+    private List<String> summarizeChunks(String filePath, List<String> chunks, ExecutorService executorService) throws InterruptedException {
+        String systemMessage = aiTemplatesService.makeSummarizationChunkSystemMessage();
+        String keyPrefix = aiPreferences.getAiProvider().name() + '\u0000' + aiPreferences.getSelectedChatModel() + '\u0000' + systemMessage + '\u0000';
 
-            List<String> list = new ArrayList<>();
+        List<Callable<String>> calls = new ArrayList<>(chunks.size());
+        for (String chunk : chunks) {
+            String userMessage = aiTemplatesService.makeSummarizationChunkUserMessage(chunk);
+            String key = Hashing.sha256().hashString(keyPrefix + userMessage, StandardCharsets.UTF_8).toString();
 
-            for (String chunkSummary : chunkSummaries) {
-                if (shutdownSignal.get()) {
-                    throw new InterruptedException();
+            calls.add(() -> {
+                Optional<String> cachedSummary = summariesStorage.getChunkSummary(key);
+                if (cachedSummary.isPresent()) {
+                    LOGGER.debug("Using stored summary of a chunk from file \"{}\" of entry {}", filePath, citationKey);
+                    return cachedSummary.get();
                 }
 
-                String systemMessage = aiTemplatesService.makeSummarizationChunkSystemMessage();
-                String userMessage = aiTemplatesService.makeSummarizationChunkUserMessage(chunkSummary);
-
                 LOGGER.debug("Sending request to AI provider to summarize a chunk from file \"{}\" of entry {}", filePath, citationKey);
-                String chunk = chatLanguageModel.chat(List.of(
-                        new SystemMessage(systemMessage),
-                        new UserMessage(userMessage)
-                )).aiMessage().text();
+                String chunkSummary = chat(systemMessage, userMessage);
                 LOGGER.debug("Chunk summary for file \"{}\" of entry {} was generated successfully", filePath, citationKey);
 
-                list.add(chunk);
-                doneOneWork();
-            }
+                summariesStorage.setChunkSummary(key, chunkSummary);
+                return chunkSummary;
+            });
+        }
 
-            chunkSummaries = list;
-        } while (estimateTokenCount(chunkSummaries) > aiPreferences.getContextWindowSize() - estimateTokenCount(aiPreferences.getTemplate(AiTemplate.SUMMARIZATION_COMBINE_SYSTEM_MESSAGE)));
+        return invokeAll(calls, executorService);
+    }
 
-        if (chunkSummaries.size() == 1) {
-            doneOneWork(); // No need to call LLM for combination of summary chunks.
-            LOGGER.debug("Summary of the file \"{}\" of entry {} was generated successfully", filePath, citationKey);
-            return chunkSummaries.getFirst();
+    /**
+     * Combines the summaries of the chunks into one summary. If the summaries do not fit into the context window, they
+     * are combined in groups first, and the results are combined again, until they fit.
+     */
+    private String combineSummaries(String filePath, List<String> summaries, ExecutorService executorService) throws InterruptedException {
+        int maxTokens = aiPreferences.getContextWindowSize() - estimateTokenCount(aiPreferences.getTemplate(AiTemplate.SUMMARIZATION_COMBINE_SYSTEM_MESSAGE));
+        String systemMessage = aiTemplatesService.makeSummarizationCombineSystemMessage();
+
+        int level = 0;
+        while ((summaries.size() > 1) && (estimateTokenCount(summaries) > maxTokens)) {
+            level++;
+            List<List<String>> groups = groupSummaries(summaries, maxTokens);
+            LOGGER.debug("Combining {} summaries of file \"{}\" of entry {} in {} group(s) (level {})", summaries.size(), filePath, citationKey, groups.size(), level);
+
+            List<Callable<String>> calls = new ArrayList<>(groups.size());
+            for (List<String> group : groups) {
+                if (group.size() == 1) {
+                    calls.add(group::getFirst);
+                } else {
+                    String userMessage = aiTemplatesService.makeSummarizationCombineUserMessage(group);
+                    calls.add(() -> chat(systemMessage, userMessage));
+                }
+            }
+            summaries = invokeAll(calls, executorService);
         }
 
-        String systemMessage = aiTemplatesService.makeSummarizationCombineSystemMessage();
-        String userMessage = aiTemplatesService.makeSummarizationCombineUserMessage(chunkSummaries);
+        if (summaries.size() == 1) {
+            return summaries.getFirst(); // No need to call LLM for combination of summary chunks.
+        }
 
         if (shutdownSignal.get()) {
             throw new InterruptedException();
         }
 
         LOGGER.debug("Sending request to AI provider to combine summary chunk(s) for file \"{}\" of entry {}", filePath, citationKey);
-        String result = chatLanguageModel.chat(List.of(
-                new SystemMessage(systemMessage),
-                new UserMessage(userMessage)
-        )).aiMessage().text();
-        LOGGER.debug("Summary of the file \"{}\" of entry {} was generated successfully", filePath, citationKey);
+        return chat(systemMessage, aiTemplatesService.makeSummarizationCombineUserMessage(summaries));
+    }
 
-        doneOneWork();
-        return result;
+    /**
+     * Splits consecutive summaries into groups that fit into the context window. Each group except the last one has at
+     * least two summaries, so that every level of combination reduces the number of summaries.
+     */
+    private static List<List<String>> groupSummaries(List<String> summaries, int maxTokens) {
+        List<List<String>> groups = new ArrayList<>();
+        List<String> group = new ArrayList<>();
+        int groupTokens = 0;
+        for (String summary : summaries) {
+            int tokens = estimateTokenCount(summary);
+            if ((group.size() >= 2) && (groupTokens + tokens > maxTokens)) {
+                groups.add(group);
+                group = new ArrayList<>();
+                groupTokens = 0;
+            }
+            group.add(summary);
+            groupTokens += tokens;
+        }
+        groups.add(group);
+        return groups;
+    }
+
+    /**
+     * Runs the calls on the executor, and counts one work item for each finished call.
+     *
+     * @return the results in the order of the calls
+     */
+    private List<String> invokeAll(List<Callable<String>> calls, ExecutorService executorService) throws InterruptedException {
+        addMoreWork(calls.size());
+
+        List<Future<String>> futures = calls.stream().map(call -> executorService.submit(call)).toList();
+        List<String> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<String> future : futures) {
+                results.add(future.get());
+                doneOneWork();
+            }
+            return results;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof InterruptedException) {
+                throw new InterruptedException();
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Sends one request to the AI provider. Failed requests are repeated with an increasing delay, as providers
+     * commonly reject requests temporarily when several chunks are summarized at once.
+     */
+    private String chat(String systemMessage, String userMessage) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            if (shutdownSignal.get()) {
+                throw new InterruptedException();
+            }
+
+            try {
+                return chatLanguageModel.chat(List.of(
+                        new SystemMessage(systemMessage),
+                        new UserMessage(userMessage)
+                )).aiMessage().text();
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                LOGGER.debug("Request to AI provider for entry {} failed (attempt {} of {})", citationKey, attempt, MAX_ATTEMPTS, e);
+                Thread.sleep(RETRY_DELAY_IN_MILLIS << (attempt - 1));
+            }
+        }
     }
 
     public String summarizeSeveralDocuments(Stream<String> documents) throws InterruptedException {
@@ -8,5 +8,19 @@ public interface SummariesStorage {
 
     Optional<Summary> get(Path bibDatabasePath, String citationKey);
 
+    /**
+     * Removes the summary of the entry. The summaries of the chunks of its documents are kept, so that a regenerated
+     * summary reuses the ones of unchanged chunks. They are removed when they are not used anymore.
+     */
     void clear(Path bibDatabasePath, String citationKey);
+
+    /**
+     * Summaries of single chunks of documents are shared by all libraries, so that a document is not summarized again
+     * when only some of its chunks change. Only the most recently used chunk summaries are kept.
+     *
+     * @param key identifies the content of the chunk together with the model and the templates used for the summary
+     */
+    void setChunkSummary(String key, String chunkSummary);
+
+    Optional<String> getChunkSummary(String key);
 }
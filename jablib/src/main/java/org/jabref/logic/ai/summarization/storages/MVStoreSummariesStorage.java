@@ -1,36 +1,177 @@
 package org.jabref.logic.ai.summarization.storages;
 
 import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.Map;
 import java.util.Optional;
 
 import org.jabref.logic.ai.summarization.SummariesStorage;
 import org.jabref.logic.ai.summarization.Summary;
+import org.jabref.logic.ai.util.CompressedRecords;
 import org.jabref.logic.ai.util.MVStoreBase;
 import org.jabref.logic.l10n.Localization;
 import org.jabref.logic.util.NotificationService;
+import org.jabref.model.ai.AiProvider;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.h2.mvstore.MVMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class MVStoreSummariesStorage extends MVStoreBase implements SummariesStorage {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MVStoreSummariesStorage.class);
+
     private static final String SUMMARIES_MAP_PREFIX = "summaries";
+    private static final String SUMMARIES_MAP_NAME = "compressed-summaries";
+    private static final String CHUNK_SUMMARIES_MAP_NAME = "chunk-summaries";
+    private static final String CHUNK_SUMMARY_ACCESSES_MAP_NAME = "chunk-summary-accesses";
+    private static final String CHUNK_SUMMARIES_BY_ACCESS_MAP_NAME = "chunk-summaries-by-access";
+    // Previous versions removed the chunk summaries of an entry with its summary
+    private static final String CHUNK_SUMMARIES_OF_ENTRIES_MAP_NAME = "chunk-summaries-of-entries";
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final int FORMAT_VERSION = 1;
+
+    // A chunk summary takes about 1 KiB, thus the chunk summaries take about 10 MiB at most
+    private static final int MAXIMUM_CHUNK_SUMMARIES = 10_000;
+
+    // Library path and citation key to compressed summary
+    private final MVMap<String, byte[]> summaries;
+
+    // Hash of chunk, model, and templates to compressed summary of the chunk
+    private final MVMap<String, byte[]> chunkSummaries;
+
+    // Key of chunk summary to its last access, and the other way round. Used to remove the least recently used chunk summaries.
+    private final MVMap<String, Long> chunkSummaryAccesses;
+    private final MVMap<Long, String> chunkSummariesByAccess;
+
+    private final int maximumChunkSummaries;
+    private long lastChunkSummaryAccess;
 
     public MVStoreSummariesStorage(Path path, NotificationService dialogService) {
+        this(path, dialogService, MAXIMUM_CHUNK_SUMMARIES);
+    }
+
+    @VisibleForTesting
+    public MVStoreSummariesStorage(Path path, NotificationService dialogService, int maximumChunkSummaries) {
         super(path, dialogService);
+        this.summaries = mvStore.openMap(SUMMARIES_MAP_NAME);
+        this.chunkSummaries = mvStore.openMap(CHUNK_SUMMARIES_MAP_NAME);
+        this.chunkSummaryAccesses = mvStore.openMap(CHUNK_SUMMARY_ACCESSES_MAP_NAME);
+        this.chunkSummariesByAccess = mvStore.openMap(CHUNK_SUMMARIES_BY_ACCESS_MAP_NAME);
+        this.maximumChunkSummaries = maximumChunkSummaries;
+        this.lastChunkSummaryAccess = Optional.ofNullable(chunkSummariesByAccess.lastKey()).orElse(0L);
+        migrateSerializedSummaries();
+        if (mvStore.hasMap(CHUNK_SUMMARIES_OF_ENTRIES_MAP_NAME)) {
+            mvStore.removeMap(CHUNK_SUMMARIES_OF_ENTRIES_MAP_NAME);
+        }
+    }
+
+    /**
+     * Previous versions stored serialized {@link Summary} objects in a separate map per library
+     */
+    private void migrateSerializedSummaries() {
+        String legacyPrefix = SUMMARIES_MAP_PREFIX + "-";
+        for (String mapName : mvStore.getMapNames()) {
+            if (!mapName.startsWith(legacyPrefix)) {
+                continue;
+            }
+            LOGGER.info("Migrating summaries {}", mapName);
+            MVMap<String, Summary> summariesMap = mvStore.openMap(mapName);
+            String bibDatabasePath = mapName.substring(legacyPrefix.length());
+            for (Map.Entry<String, Summary> entry : summariesMap.entrySet()) {
+                summaries.put(getKey(bibDatabasePath, entry.getKey()), encode(entry.getValue()));
+            }
+            mvStore.removeMap(summariesMap);
+        }
     }
 
     public void set(Path bibDatabasePath, String citationKey, Summary summary) {
-        getMap(bibDatabasePath).put(citationKey, summary);
+        summaries.put(getKey(bibDatabasePath.toString(), citationKey), encode(summary));
     }
 
     public Optional<Summary> get(Path bibDatabasePath, String citationKey) {
-        return Optional.ofNullable(getMap(bibDatabasePath).get(citationKey));
+        return Optional.ofNullable(summaries.get(getKey(bibDatabasePath.toString(), citationKey))).flatMap(MVStoreSummariesStorage::decode);
     }
 
     public void clear(Path bibDatabasePath, String citationKey) {
-        getMap(bibDatabasePath).remove(citationKey);
+        summaries.remove(getKey(bibDatabasePath.toString(), citationKey));
+    }
+
+    public synchronized void setChunkSummary(String key, String chunkSummary) {
+        chunkSummaries.put(key, new CompressedRecords.Writer().writeString(chunkSummary).toCompressedBytes());
+        recordAccess(key);
+        while (chunkSummaries.size() > maximumChunkSummaries) {
+            Long leastRecentAccess = chunkSummariesByAccess.firstKey();
+            if (leastRecentAccess == null) {
+                break;
+            }
+            removeChunkSummary(chunkSummariesByAccess.get(leastRecentAccess));
+        }
+    }
+
+    public synchronized Optional<String> getChunkSummary(String key) {
+        byte[] bytes = chunkSummaries.get(key);
+        if (bytes == null) {
+            return Optional.empty();
+        }
+        try {
+            String chunkSummary = CompressedRecords.Reader.fromCompressedBytes(bytes).readString();
+            recordAccess(key);
+            return Optional.of(chunkSummary);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Could not read chunk summary", e);
+            removeChunkSummary(key);
+            return Optional.empty();
+        }
+    }
+
+    private void recordAccess(String key) {
+        Long previousAccess = chunkSummaryAccesses.put(key, ++lastChunkSummaryAccess);
+        if (previousAccess != null) {
+            chunkSummariesByAccess.remove(previousAccess);
+        }
+        chunkSummariesByAccess.put(lastChunkSummaryAccess, key);
+    }
+
+    private void removeChunkSummary(String key) {
+        chunkSummaries.remove(key);
+        Long access = chunkSummaryAccesses.remove(key);
+        if (access != null) {
+            chunkSummariesByAccess.remove(access);
+        }
+    }
+
+    private static String getKey(String bibDatabasePath, String citationKey) {
+        return bibDatabasePath + KEY_SEPARATOR + citationKey;
+    }
+
+    private static byte[] encode(Summary summary) {
+        return new CompressedRecords.Writer()
+                .writeVarInt(FORMAT_VERSION)
+                .writeString(summary.timestamp().toString())
+                .writeString(summary.aiProvider().name())
+                .writeString(summary.model())
+                .writeString(summary.content())
+                .toCompressedBytes();
     }
 
-    private Map<String, Summary> getMap(Path bibDatabasePath) {
-        return mvStore.openMap(SUMMARIES_MAP_PREFIX + "-" + bibDatabasePath.toString());
+    private static Optional<Summary> decode(byte[] bytes) {
+        try {
+            CompressedRecords.Reader reader = CompressedRecords.Reader.fromCompressedBytes(bytes);
+            if (reader.readVarInt() != FORMAT_VERSION) {
+                LOGGER.warn("Unknown format of summary");
+                return Optional.empty();
+            }
+            return Optional.of(new Summary(
+                    LocalDateTime.parse(reader.readString()),
+                    AiProvider.valueOf(reader.readString()),
+                    reader.readString(),
+                    reader.readString()));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            LOGGER.warn("Could not read summary", e);
+            return Optional.empty();
+        }
     }
 
     @Override
@@ -0,0 +1,139 @@
+package org.jabref.logic.ai.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact binary encoding of records that consist of integers and strings.
+ * <p>
+ * Integers are written as varints, strings as their varint length followed by their UTF-8 bytes. A block of records is
+ * compressed using Deflate and prefixed with its uncompressed length. Compared to Java serialization, no class names
+ * and object headers are stored, and a whole block is decoded at once.
+ */
+public final class CompressedRecords {
+
+    private CompressedRecords() {
+    }
+
+    public static final class Writer {
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        public Writer writeVarInt(int value) {
+            writeVarInt(output, value);
+            return this;
+        }
+
+        public Writer writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            output.writeBytes(bytes);
+            return this;
+        }
+
+        public byte[] toCompressedBytes() {
+            byte[] uncompressed = output.toByteArray();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(uncompressed.length / 2 + 16);
+            writeVarInt(compressed, uncompressed.length);
+
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(uncompressed);
+                deflater.finish();
+                byte[] buffer = new byte[4096];
+                while (!deflater.finished()) {
+                    int length = deflater.deflate(buffer);
+                    compressed.write(buffer, 0, length);
+                }
+            } finally {
+                deflater.end();
+            }
+            return compressed.toByteArray();
+        }
+
+        private static void writeVarInt(ByteArrayOutputStream output, int value) {
+            while ((value & ~0x7F) != 0) {
+                output.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            output.write(value);
+        }
+    }
+
+    public static final class Reader {
+        private final ByteBuffer buffer;
+
+        private Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the bytes are not a compressed block
+         */
+        public static Reader fromCompressedBytes(byte[] bytes) {
+            ByteBuffer compressed = ByteBuffer.wrap(bytes);
+            try {
+                int uncompressedLength = readVarInt(compressed);
+                if (uncompressedLength < 0) {
+                    throw new IllegalArgumentException("Invalid length of compressed block");
+                }
+                byte[] uncompressed = new byte[uncompressedLength];
+                Inflater inflater = new Inflater();
+                try {
+                    inflater.setInput(compressed);
+                    int length = 0;
+                    while (length < uncompressed.length) {
+                        int inflated = inflater.inflate(uncompressed, length, uncompressed.length - length);
+                        if ((inflated == 0) && (inflater.finished() || inflater.needsInput())) {
+                            throw new IllegalArgumentException("Compressed block is truncated");
+                        }
+                        length += inflated;
+                    }
+                } finally {
+                    inflater.end();
+                }
+                return new Reader(ByteBuffer.wrap(uncompressed));
+            } catch (DataFormatException e) {
+                throw new IllegalArgumentException("Invalid compressed block", e);
+            }
+        }
+
+        /**
+         * @throws IllegalArgumentException if the block ends before the value
+         */
+        public int readVarInt() {
+            return readVarInt(buffer);
+        }
+
+        /**
+         * @throws IllegalArgumentException if the block ends before the value
+         */
+        public String readString() {
+            int length = readVarInt();
+            if ((length < 0) || (length > buffer.remaining())) {
+                throw new IllegalArgumentException("String exceeds the block");
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private static int readVarInt(ByteBuffer buffer) {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                if (!buffer.hasRemaining()) {
+                    throw new IllegalArgumentException("Varint exceeds the block");
+                }
+                byte b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.slf4j.LoggerFactory;
 
 public abstract class MVStoreBase implements AutoCloseable {
     private static final Logger LOGGER = LoggerFactory.getLogger(MVStoreBase.class);
+    private static final int MAX_COMPACT_TIME_MILLIS = 1000;
 
     protected MVStore mvStore;
 
@@ -50,6 +51,24 @@ public abstract class MVStoreBase implements AutoCloseable {
         mvStore.close();
     }
 
+    /**
+     * Rewrites the chunks of the file which are mostly unused, e.g., because of replaced values. As values are never
+     * overwritten in place, the file would grow without bound otherwise.
+     * <p>
+     * Compacting takes a while, thus this method should be called from a background thread.
+     */
+    public void compact() {
+        if (mvStore.getFileStore() == null) {
+            return;
+        }
+        try {
+            mvStore.compactFile(MAX_COMPACT_TIME_MILLIS);
+        } catch (MVStoreException e) {
+            // E.g., because the store was closed in the meantime
+            LOGGER.warn("Could not compact storage", e);
+        }
+    }
+
     protected abstract String errorMessageForOpening();
 
     protected abstract String errorMessageForOpeningLocalized();
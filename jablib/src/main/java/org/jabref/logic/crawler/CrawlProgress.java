@@ -0,0 +1,25 @@
+package org.jabref.logic.crawler;
+
+import java.util.List;
+
+import org.jabref.model.entry.BibEntry;
+
+/**
+ * The progress of a running crawl, reported after each result received from a library.
+ *
+ * @param query            the query of the received result
+ * @param fetcherName      the library which sent the result
+ * @param newEntries       the entries of the received result
+ * @param answeredRequests the number of requests answered so far. Failed requests are not counted.
+ * @param totalRequests    the number of requests of the crawl
+ * @param foundEntries     the number of entries found so far for all queries, without duplicates. The entries of a
+ *                         result are counted once the results of all requests before it were received.
+ */
+public record CrawlProgress(
+        String query,
+        String fetcherName,
+        List<BibEntry> newEntries,
+        int answeredRequests,
+        int totalRequests,
+        int foundEntries) {
+}
@@ -0,0 +1,107 @@
+package org.jabref.logic.crawler;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.jabref.logic.database.DatabaseMerger;
+import org.jabref.model.database.BibDatabase;
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.study.FetchResult;
+import org.jabref.model.study.QueryResult;
+
+/**
+ * Accumulates the entries found by a crawl while the crawl runs.
+ * <p>
+ * Each batch of entries is added to the result of its fetcher and merged into the results of its query and of the
+ * study while the crawl runs. Thus, persisting the results only has to merge each accumulated result into its file.
+ * The batches are merged in the order of the requests, not in the order they arrive, so that the result files of two
+ * crawls with the same results do not differ in the order of their entries.
+ * <p>
+ * Not thread-safe: all batches have to be added by the same thread.
+ */
+class CrawlResults {
+
+    private final DatabaseMerger merger;
+    private final Map<String, QueryEntries> entriesPerQuery = new LinkedHashMap<>();
+    private final BibDatabase studyEntries = new BibDatabase();
+
+    // Batches which arrived before a batch preceding them in the order of the requests, by their position in that order
+    private final SortedMap<Integer, Batch> pendingBatches = new TreeMap<>();
+    private int nextPosition;
+
+    /**
+     * @param entriesPerFetcher the entries found by each fetcher which answered
+     * @param entries           the entries found by all fetchers, without duplicates
+     */
+    record QueryEntries(String query, Map<String, BibDatabase> entriesPerFetcher, BibDatabase entries) {
+    }
+
+    private record Batch(String query, String fetcherName, List<BibEntry> entries) {
+    }
+
+    CrawlResults(DatabaseMerger merger, List<String> queries) {
+        this.merger = merger;
+        queries.forEach(this::getQueryEntries);
+    }
+
+    static CrawlResults of(DatabaseMerger merger, List<QueryResult> queryResults) {
+        CrawlResults crawlResults = new CrawlResults(merger, queryResults.stream().map(QueryResult::getQuery).toList());
+        int position = 0;
+        for (QueryResult queryResult : queryResults) {
+            for (FetchResult fetchResult : queryResult.getResultsPerFetcher()) {
+                crawlResults.add(position++, queryResult.getQuery(), fetchResult.getFetcherName(), fetchResult.getFetchResult().getEntries());
+            }
+        }
+        return crawlResults;
+    }
+
+    /**
+     * Adds entries found by a fetcher for a query. The entries are kept back until the batches of all requests before
+     * it were added, or until {@link #complete()} is called.
+     *
+     * @param position the position of the request in the order of all requests of the crawl, starting at 0
+     */
+    void add(int position, String query, String fetcherName, List<BibEntry> entries) {
+        pendingBatches.put(position, new Batch(query, fetcherName, entries));
+        while (!pendingBatches.isEmpty() && (pendingBatches.firstKey() == nextPosition)) {
+            merge(pendingBatches.remove(pendingBatches.firstKey()));
+            nextPosition++;
+        }
+    }
+
+    /**
+     * Merges the batches which were kept back, because a request before them did not return a result. To be called
+     * after all requests finished.
+     */
+    void complete() {
+        pendingBatches.values().forEach(this::merge);
+        pendingBatches.clear();
+    }
+
+    private void merge(Batch batch) {
+        QueryEntries queryEntries = getQueryEntries(batch.query());
+        queryEntries.entriesPerFetcher().computeIfAbsent(batch.fetcherName(), _ -> new BibDatabase()).insertEntries(batch.entries());
+
+        BibDatabase newEntries = new BibDatabase(batch.entries());
+        merger.merge(queryEntries.entries(), newEntries);
+        merger.merge(studyEntries, newEntries);
+    }
+
+    private QueryEntries getQueryEntries(String query) {
+        return entriesPerQuery.computeIfAbsent(query, _ -> new QueryEntries(query, new LinkedHashMap<>(), new BibDatabase()));
+    }
+
+    List<QueryEntries> getEntriesPerQuery() {
+        return List.copyOf(entriesPerQuery.values());
+    }
+
+    /**
+     * @return the entries found for all queries, without duplicates
+     */
+    BibDatabase getStudyEntries() {
+        return studyEntries;
+    }
+}
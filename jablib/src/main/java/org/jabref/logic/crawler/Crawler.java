@@ -2,14 +2,14 @@ package org.jabref.logic.crawler;
 
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.List;
+import java.util.function.Consumer;
 
+import org.jabref.logic.database.DatabaseMerger;
 import org.jabref.logic.exporter.SaveException;
 import org.jabref.logic.git.SlrGitHandler;
 import org.jabref.logic.importer.ParseException;
 import org.jabref.logic.preferences.CliPreferences;
 import org.jabref.model.entry.BibEntryTypesManager;
-import org.jabref.model.study.QueryResult;
 import org.jabref.model.util.FileUpdateMonitor;
 
 import org.eclipse.jgit.api.errors.GitAPIException;
@@ -26,6 +26,7 @@ public class Crawler {
 
     private final StudyRepository studyRepository;
     private final StudyFetcher studyFetcher;
+    private final CliPreferences preferences;
 
     /**
      * Creates a crawler for retrieving studies from E-Libraries
@@ -37,6 +38,7 @@ public class Crawler {
                    CliPreferences preferences,
                    BibEntryTypesManager bibEntryTypesManager,
                    FileUpdateMonitor fileUpdateMonitor) throws IllegalArgumentException, IOException, ParseException {
+        this.preferences = preferences;
         this.studyRepository = new StudyRepository(
                 studyRepositoryRoot,
                 gitHandler,
@@ -58,7 +60,7 @@ public class Crawler {
      *
      * The whole process works as follows:
      * <ol>
-     *     <li>Then the search is executed</li>
+     *     <li>Then the search is executed, and the results are merged while they arrive</li>
      *     <li>The repository changes to the search branch</li>
      *     <li>Afterwards, the results are persisted on the search branch.</li>
      *     <li>Finally, the changes are merged into the work branch</li>
@@ -67,7 +69,20 @@ public class Crawler {
      * @throws IOException Thrown if a problem occurred during the persistence of the result.
      */
     public void performCrawl() throws IOException, GitAPIException, SaveException {
-        List<QueryResult> results = studyFetcher.crawl();
+        performCrawl(_ -> {
+        });
+    }
+
+    /**
+     * Performs the crawling as {@link #performCrawl()}, and reports the results while the search is executed.
+     *
+     * @param progressListener called on the crawling thread after each result received from a library
+     */
+    public void performCrawl(Consumer<CrawlProgress> progressListener) throws IOException, GitAPIException, SaveException {
+        CrawlResults results = new CrawlResults(
+                new DatabaseMerger(preferences.getBibEntryPreferences().getKeywordSeparator()),
+                studyRepository.getSearchQueryStrings());
+        studyFetcher.crawl(results, progressListener);
         studyRepository.persist(results);
     }
 }
@@ -2,23 +2,22 @@ package org.jabref.logic.crawler;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import org.jabref.logic.importer.FetcherException;
+import org.jabref.logic.importer.FetcherScheduler;
 import org.jabref.logic.importer.PagedSearchBasedFetcher;
 import org.jabref.logic.importer.SearchBasedFetcher;
-import org.jabref.model.database.BibDatabase;
 import org.jabref.model.entry.BibEntry;
-import org.jabref.model.study.FetchResult;
-import org.jabref.model.study.QueryResult;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Delegates the search of the provided set of targeted E-Libraries with the provided queries to the E-Library specific fetchers,
- * and aggregates the results returned by the fetchers by query and E-Library.
+ * and aggregates the results returned by the fetchers by query and E-Library while they arrive.
  */
 class StudyFetcher {
     private static final Logger LOGGER = LoggerFactory.getLogger(StudyFetcher.class);
@@ -27,54 +26,116 @@ class StudyFetcher {
     private final List<SearchBasedFetcher> activeFetchers;
     private final List<String> searchQueries;
 
-    StudyFetcher(List<SearchBasedFetcher> activeFetchers, List<String> searchQueries) throws IllegalArgumentException {
-        this.searchQueries = searchQueries;
-        this.activeFetchers = activeFetchers;
+    /**
+     * @param position the position of the request in the order of all requests of the crawl
+     * @param entries  the entries of one page, or all entries of a fetcher without paging
+     */
+    private record PageResult(int position, String query, String fetcherName, List<BibEntry> entries) {
     }
 
     /**
-     * Each Map Entry contains the results for one search term for all libraries.
-     * Each entry of the internal map contains the results for a given library.
-     * If any library API is not available, its corresponding entry is missing from the internal map.
+     * The pages of a paged fetcher for one query. The later pages are requested concurrently once the first page is
+     * full. A page is not requested if a page before it had fewer entries than the page size, as there are no more
+     * results then.
      */
-    public List<QueryResult> crawl() {
-        return searchQueries.parallelStream()
-                            .map(this::getQueryResult)
-                            .collect(Collectors.toList());
+    private static class PagedSearch {
+        private final PagedSearchBasedFetcher fetcher;
+        private final String searchQuery;
+        private final CountDownLatch firstPageAnswered = new CountDownLatch(1);
+
+        // The first page which had fewer entries than the page size
+        private final AtomicInteger lastPage = new AtomicInteger(Integer.MAX_VALUE);
+
+        PagedSearch(PagedSearchBasedFetcher fetcher, String searchQuery) {
+            this.fetcher = fetcher;
+            this.searchQuery = searchQuery;
+        }
+
+        List<BibEntry> performSearchPaged(int page) throws FetcherException {
+            if (page > 0) {
+                try {
+                    FetcherScheduler.awaitWithoutPermit(firstPageAnswered::await);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new FetcherException("Search was interrupted", e);
+                }
+            }
+            if (page > lastPage.get()) {
+                return List.of();
+            }
+            try {
+                List<BibEntry> entries = fetcher.performSearchPaged(searchQuery, page).getContent();
+                if (entries.size() < fetcher.getPageSize()) {
+                    lastPage.accumulateAndGet(page, Math::min);
+                }
+                return entries;
+            } catch (FetcherException | RuntimeException e) {
+                if (page == 0) {
+                    // Later pages of a failing search are not requested either
+                    lastPage.set(0);
+                }
+                throw e;
+            } finally {
+                if (page == 0) {
+                    firstPageAnswered.countDown();
+                }
+            }
+        }
     }
 
-    private QueryResult getQueryResult(String searchQuery) {
-        return new QueryResult(searchQuery, performSearchOnQuery(searchQuery));
+    StudyFetcher(List<SearchBasedFetcher> activeFetchers, List<String> searchQueries) throws IllegalArgumentException {
+        this.searchQueries = searchQueries;
+        this.activeFetchers = activeFetchers;
     }
 
     /**
-     * Queries all catalogs on the given searchQuery.
+     * Searches all libraries for all queries and adds the results to the given crawl results as they arrive.
+     * If any library API is not available, its results are missing.
      *
-     * @param searchQuery The query the search is performed for.
-     * @return Mapping of each fetcher by name and all their retrieved publications as a BibDatabase
+     * @param progressListener notified on the calling thread after each received result
      */
-    private List<FetchResult> performSearchOnQuery(String searchQuery) {
-        return activeFetchers.parallelStream()
-                             .map(fetcher -> performSearchOnQueryForFetcher(searchQuery, fetcher))
-                             .filter(Objects::nonNull)
-                             .collect(Collectors.toList());
-    }
+    public void crawl(CrawlResults crawlResults, Consumer<CrawlProgress> progressListener) {
+        List<FetcherScheduler.Task<PageResult>> tasks = new ArrayList<>();
+        for (String searchQuery : searchQueries) {
+            for (SearchBasedFetcher fetcher : activeFetchers) {
+                createTasks(searchQuery, fetcher, tasks);
+            }
+        }
 
-    private FetchResult performSearchOnQueryForFetcher(String searchQuery, SearchBasedFetcher fetcher) {
+        AtomicInteger answeredRequests = new AtomicInteger();
         try {
-            List<BibEntry> fetchResult = new ArrayList<>();
-            if (fetcher instanceof PagedSearchBasedFetcher basedFetcher) {
-                int pages = (int) Math.ceil(((double) MAX_AMOUNT_OF_RESULTS_PER_FETCHER) / basedFetcher.getPageSize());
-                for (int page = 0; page < pages; page++) {
-                    fetchResult.addAll(basedFetcher.performSearchPaged(searchQuery, page).getContent());
-                }
-            } else {
-                fetchResult = fetcher.performSearch(searchQuery);
+            // All queries are requested from all catalogs at once. The rate limits of the catalogs apply.
+            FetcherScheduler.getDefault().performAll(tasks, result -> {
+                crawlResults.add(result.position(), result.query(), result.fetcherName(), result.entries());
+                progressListener.accept(new CrawlProgress(result.query(), result.fetcherName(), result.entries(),
+                        answeredRequests.incrementAndGet(), tasks.size(), crawlResults.getStudyEntries().getEntryCount()));
+            });
+        } catch (InterruptedException e) {
+            LOGGER.warn("Crawling was interrupted");
+            Thread.currentThread().interrupt();
+        } finally {
+            crawlResults.complete();
+        }
+    }
+
+    /**
+     * Adds the requests to a catalog for the given searchQuery to the tasks. The pages of a paged fetcher are requested
+     * separately.
+     */
+    private void createTasks(String searchQuery, SearchBasedFetcher fetcher, List<FetcherScheduler.Task<PageResult>> tasks) {
+        String fetcherName = fetcher.getName();
+        if (fetcher instanceof PagedSearchBasedFetcher pagedFetcher) {
+            PagedSearch pagedSearch = new PagedSearch(pagedFetcher, searchQuery);
+            int pages = (int) Math.ceil(((double) MAX_AMOUNT_OF_RESULTS_PER_FETCHER) / pagedFetcher.getPageSize());
+            for (int page = 0; page < pages; page++) {
+                int position = tasks.size();
+                int pageNumber = page;
+                tasks.add(new FetcherScheduler.Task<>(fetcherName, () ->
+                        new PageResult(position, searchQuery, fetcherName, pagedSearch.performSearchPaged(pageNumber))));
             }
-            return new FetchResult(fetcher.getName(), new BibDatabase(fetchResult));
-        } catch (FetcherException e) {
-            LOGGER.warn("%s API request failed".formatted(fetcher.getName()), e);
-            return null;
+            return;
         }
+        int position = tasks.size();
+        tasks.add(new FetcherScheduler.Task<>(fetcherName, () -> new PageResult(position, searchQuery, fetcherName, fetcher.performSearch(searchQuery))));
     }
 }
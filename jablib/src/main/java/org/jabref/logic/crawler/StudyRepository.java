@@ -8,6 +8,7 @@ import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -30,7 +31,6 @@ import org.jabref.model.database.BibDatabaseContext;
 import org.jabref.model.entry.BibEntryTypesManager;
 import org.jabref.model.metadata.SaveOrder;
 import org.jabref.model.metadata.SelfContainedSaveOrder;
-import org.jabref.model.study.FetchResult;
 import org.jabref.model.study.QueryResult;
 import org.jabref.model.study.Study;
 import org.jabref.model.study.StudyDatabase;
@@ -219,6 +219,13 @@ public class StudyRepository {
      * </ol>
      */
     public void persist(List<QueryResult> crawlResults) throws IOException, GitAPIException, SaveException {
+        persist(CrawlResults.of(new DatabaseMerger(preferences.getBibEntryPreferences().getKeywordSeparator()), crawlResults));
+    }
+
+    /**
+     * Persists the results accumulated during a crawl, see {@link #persist(List)}
+     */
+    void persist(CrawlResults crawlResults) throws IOException, GitAPIException, SaveException {
         updateWorkAndSearchBranch();
 
         gitHandler.checkoutBranch(SEARCH_BRANCH);
@@ -377,44 +384,39 @@ public class StudyRepository {
     }
 
     /**
-     * Persists the crawling results in the local file based repository.
+     * Persists the crawling results in the local file based repository. Each result file is read, merged with the new
+     * entries, and written once.
      *
      * @param crawlResults The results that shall be persisted.
      */
-    private void persistResults(List<QueryResult> crawlResults) throws IOException, SaveException {
+    private void persistResults(CrawlResults crawlResults) throws IOException, SaveException {
         DatabaseMerger merger = new DatabaseMerger(preferences.getBibEntryPreferences().getKeywordSeparator());
-        BibDatabase newStudyResultEntries = new BibDatabase();
 
-        for (QueryResult result : crawlResults) {
-            BibDatabase queryResultEntries = new BibDatabase();
-            for (FetchResult fetcherResult : result.getResultsPerFetcher()) {
-                BibDatabase fetcherEntries = fetcherResult.getFetchResult();
-                BibDatabaseContext existingFetcherResult = getFetcherResultEntries(result.getQuery(), fetcherResult.getFetcherName());
+        for (CrawlResults.QueryEntries queryEntries : crawlResults.getEntriesPerQuery()) {
+            String query = queryEntries.query();
+            for (Map.Entry<String, BibDatabase> fetcherEntries : queryEntries.entriesPerFetcher().entrySet()) {
+                BibDatabaseContext existingFetcherResult = getFetcherResultEntries(query, fetcherEntries.getKey());
 
                 // Merge new entries into fetcher result file
-                merger.merge(existingFetcherResult.getDatabase(), fetcherEntries);
+                merger.merge(existingFetcherResult.getDatabase(), fetcherEntries.getValue());
 
                 // Create citation keys for all entries that do not have one
-                generateCiteKeys(existingFetcherResult, fetcherEntries);
-
-                // Aggregate each fetcher result into the query result
-                merger.merge(queryResultEntries, fetcherEntries);
+                // The query and study results share the entry objects, and thus receive the same keys
+                generateCiteKeys(existingFetcherResult, fetcherEntries.getValue());
 
-                writeResultToFile(getPathToFetcherResultFile(result.getQuery(), fetcherResult.getFetcherName()), existingFetcherResult);
+                writeResultToFile(getPathToFetcherResultFile(query, fetcherEntries.getKey()), existingFetcherResult);
             }
-            BibDatabaseContext existingQueryEntries = getQueryResultEntries(result.getQuery());
+            BibDatabaseContext existingQueryEntries = getQueryResultEntries(query);
 
             // Merge new entries into query result file
-            merger.merge(existingQueryEntries.getDatabase(), queryResultEntries);
-            // Aggregate all new entries for every query into the study result
-            merger.merge(newStudyResultEntries, queryResultEntries);
+            merger.merge(existingQueryEntries.getDatabase(), queryEntries.entries());
 
-            writeResultToFile(getPathToQueryResultFile(result.getQuery()), existingQueryEntries);
+            writeResultToFile(getPathToQueryResultFile(query), existingQueryEntries);
         }
         BibDatabaseContext existingStudyResultEntries = getStudyResultEntries();
 
         // Merge new entries into study result file
-        merger.merge(existingStudyResultEntries.getDatabase(), newStudyResultEntries);
+        merger.merge(existingStudyResultEntries.getDatabase(), crawlResults.getStudyEntries());
 
         writeResultToFile(getPathToStudyResultFile(), existingStudyResultEntries);
     }
@@ -4,11 +4,15 @@ import java.io.FileOutputStream;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.PosixFilePermission;
 import java.util.EnumSet;
 import java.util.Set;
@@ -27,7 +31,8 @@ import org.slf4j.LoggerFactory;
  * In detail, the strategy is to:
  * <ol>
  * <li>Write to a temporary file (with .tmp suffix) in the same directory as the destination file.</li>
- * <li>Create a backup (with .bak suffix) of the original file (if it exists) in the same directory.</li>
+ * <li>Create a backup (with .bak suffix) of the original file (if it exists) in the same directory. If the file system
+ * supports it, the backup is a hard link to the original file, which avoids copying the file contents.</li>
  * <li>Move the temporary file to the correct place, overwriting any file that already exists at that location.</li>
  * <li>Delete the backup file (if configured to do so).</li>
  * </ol>
@@ -61,6 +66,12 @@ public class AtomicFileOutputStream extends FilterOutputStream {
      */
     private final Path temporaryFile;
 
+    /**
+     * The channel of the temporary file. Used to copy regions of other files into the temporary file without
+     * passing them through the Java heap. May be null (in tests).
+     */
+    private final FileChannel temporaryFileChannel;
+
     private FileLock temporaryFileLock;
 
     /**
@@ -79,8 +90,12 @@ public class AtomicFileOutputStream extends FilterOutputStream {
      * @param keepBackup whether to keep the backup file (.sav) after a successful write process
      */
     public AtomicFileOutputStream(Path path, boolean keepBackup) throws IOException {
-        // Files.newOutputStream(getPathOfTemporaryFile(path)) leads to a "sun.nio.ch.ChannelOutputStream", which does not offer "lock"
-        this(path, getPathOfTemporaryFile(path), Files.newOutputStream(getPathOfTemporaryFile(path)), keepBackup);
+        // Channels.newOutputStream (as Files.newOutputStream(getPathOfTemporaryFile(path))) leads to a "sun.nio.ch.ChannelOutputStream", which does not offer "lock"
+        this(path, getPathOfTemporaryFile(path), FileChannel.open(getPathOfTemporaryFile(path), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), keepBackup);
+    }
+
+    private AtomicFileOutputStream(Path path, Path pathOfTemporaryFile, FileChannel temporaryFileChannel, boolean keepBackup) throws IOException {
+        this(path, pathOfTemporaryFile, Channels.newOutputStream(temporaryFileChannel), temporaryFileChannel, keepBackup);
     }
 
     /**
@@ -97,7 +112,12 @@ public class AtomicFileOutputStream extends FilterOutputStream {
      * Required for proper testing
      */
     AtomicFileOutputStream(Path path, Path pathOfTemporaryFile, OutputStream temporaryFileOutputStream, boolean keepBackup) throws IOException {
+        this(path, pathOfTemporaryFile, temporaryFileOutputStream, null, keepBackup);
+    }
+
+    private AtomicFileOutputStream(Path path, Path pathOfTemporaryFile, OutputStream temporaryFileOutputStream, FileChannel temporaryFileChannel, boolean keepBackup) throws IOException {
         super(temporaryFileOutputStream);
+        this.temporaryFileChannel = temporaryFileChannel;
         this.targetFile = path;
         this.temporaryFile = pathOfTemporaryFile;
         this.backupFile = getPathOfSaveBackupFile(path);
@@ -150,6 +170,34 @@ public class AtomicFileOutputStream extends FilterOutputStream {
         }
     }
 
+    /**
+     * Copies the given region of the source channel to the end of the temporary file. The copy is done by
+     * {@link FileChannel#transferTo(long, long, WritableByteChannel)}, which lets the operating system copy the data
+     * directly if supported.
+     *
+     * @param source   the channel to read from, e.g., the channel of the original target file
+     * @param position the position in the source channel to start copying from
+     * @param count    the number of bytes to copy
+     */
+    public void transferFrom(FileChannel source, long position, long count) throws IOException {
+        try {
+            out.flush();
+            WritableByteChannel target = temporaryFileChannel != null ? temporaryFileChannel : Channels.newChannel(out);
+            long transferred = 0;
+            while (transferred < count) {
+                long chunk = source.transferTo(position + transferred, count - transferred, target);
+                if (chunk <= 0) {
+                    throw new IOException("Unexpected end of file while copying to " + temporaryFile);
+                }
+                transferred += chunk;
+            }
+        } catch (IOException exception) {
+            cleanup();
+            errorDuringWrite = true;
+            throw exception;
+        }
+    }
+
     /**
      * Closes the write process to the temporary file but does not commit to the target file.
      */
@@ -212,11 +260,7 @@ public class AtomicFileOutputStream extends FilterOutputStream {
                     PosixFilePermission.GROUP_WRITE,
                     PosixFilePermission.OTHERS_READ);
             if (Files.exists(targetFile)) {
-                try {
-                    Files.copy(targetFile, backupFile, StandardCopyOption.REPLACE_EXISTING);
-                } catch (IOException e) {
-                    LOGGER.warn("Could not create backup file {}", backupFile);
-                }
+                createBackup();
                 if (FileUtil.IS_POSIX_COMPLIANT) {
                     try {
                         oldFilePermissions = Files.getPosixFilePermissions(targetFile);
@@ -253,6 +297,25 @@ public class AtomicFileOutputStream extends FilterOutputStream {
         }
     }
 
+    /**
+     * Creates the backup of the original file. A hard link is sufficient, because the original file is replaced by
+     * a move (and not overwritten in place). We fall back to copying in case the file system does not support links.
+     */
+    private void createBackup() {
+        try {
+            Files.deleteIfExists(backupFile);
+            Files.createLink(backupFile, targetFile);
+            return;
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            LOGGER.debug("Could not link backup file {}, copying instead", backupFile, e);
+        }
+        try {
+            Files.copy(targetFile, backupFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOGGER.warn("Could not create backup file {}", backupFile);
+        }
+    }
+
     @Override
     public void flush() throws IOException {
         try {
@@ -18,6 +18,7 @@ import java.util.TreeSet;
  */
 public class AtomicFileWriter extends OutputStreamWriter {
 
+    private final AtomicFileOutputStream outputStream;
     private final CharsetEncoder encoder;
     private final Set<Character> problemCharacters = new TreeSet<>();
 
@@ -26,7 +27,12 @@ public class AtomicFileWriter extends OutputStreamWriter {
     }
 
     public AtomicFileWriter(Path file, Charset encoding, boolean keepBackup) throws IOException {
-        super(new AtomicFileOutputStream(file, keepBackup), encoding);
+        this(new AtomicFileOutputStream(file, keepBackup), encoding);
+    }
+
+    private AtomicFileWriter(AtomicFileOutputStream outputStream, Charset encoding) {
+        super(outputStream, encoding);
+        this.outputStream = outputStream;
         encoder = encoding.newEncoder();
     }
 
@@ -43,6 +49,14 @@ public class AtomicFileWriter extends OutputStreamWriter {
         }
     }
 
+    /**
+     * Discards everything written so far, e.g., if the content could not be completed. The target file is not changed
+     * when the writer is closed then.
+     */
+    public void abort() {
+        outputStream.abort();
+    }
+
     public boolean hasEncodingProblems() {
         return !problemCharacters.isEmpty();
     }
@@ -1,20 +1,25 @@
 package org.jabref.logic.exporter;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import org.jabref.logic.bibtex.FieldPreferences;
 import org.jabref.logic.bibtex.comparator.BibtexStringComparator;
@@ -38,6 +43,7 @@ import org.jabref.model.entry.BibEntryType;
 import org.jabref.model.entry.BibEntryTypesManager;
 import org.jabref.model.entry.BibtexString;
 import org.jabref.model.entry.field.InternalField;
+import org.jabref.model.entry.types.EntryType;
 import org.jabref.model.metadata.MetaData;
 import org.jabref.model.metadata.SaveOrder;
 import org.jabref.model.metadata.SelfContainedSaveOrder;
@@ -58,6 +64,12 @@ public abstract class BibDatabaseWriter {
     public enum SaveType { WITH_JABREF_META_DATA, PLAIN_BIBTEX }
 
     private static final Pattern REFERENCE_PATTERN = Pattern.compile("(#[A-Za-z]+#)"); // Used to detect string references in strings
+
+    /**
+     * Number of entries serialized concurrently before they are written
+     */
+    private static final int SERIALIZATION_CHUNK_SIZE = 1024;
+
     protected final BibWriter bibWriter;
     protected final SelfContainedSaveConfiguration saveConfiguration;
     protected final CitationKeyPatternPreferences keyPatternPreferences;
@@ -167,6 +179,62 @@ public abstract class BibDatabaseWriter {
      * @param entries A list of entries to save. The list itself is not modified in this code
      */
     public void savePartOfDatabase(BibDatabaseContext bibDatabaseContext, List<BibEntry> entries) throws IOException {
+        writeHeader(bibDatabaseContext);
+
+        // Write database entries.
+        List<BibEntry> sortedEntries = getSortedEntries(entries, saveConfiguration.getSelfContainedSaveOrder());
+
+        // FIXME: "Clean" architecture violation: We modify the entries here, which should not happen during a write
+        //        The cleanup should be done before the write operation
+        List<FieldChange> saveActionChanges = applySaveActions(sortedEntries, bibDatabaseContext.getMetaData(), fieldPreferences);
+        saveActionsFieldChanges.addAll(saveActionChanges);
+        if (keyPatternPreferences.shouldGenerateCiteKeysBeforeSaving()) {
+            List<FieldChange> keyChanges = generateCitationKeys(bibDatabaseContext, sortedEntries);
+            saveActionsFieldChanges.addAll(keyChanges);
+        }
+
+        // Map to collect entry type definitions that we must save along with entries using them.
+        SortedSet<BibEntryType> typesToWrite = getCustomEntryTypes(sortedEntries, bibDatabaseContext.getMode());
+
+        writeEntries(sortedEntries, bibDatabaseContext.getMode());
+
+        writeFooter(bibDatabaseContext, typesToWrite);
+    }
+
+    /**
+     * Saves the given entries chunk by chunk, so that they do not have to be held in memory at once.
+     * <p>
+     * As this requires all entries, the entries are not sorted, but written in the order of the stream, and no
+     * citation keys are generated. The changes of the save actions are not recorded.
+     *
+     * @param bibDatabaseContext the library providing the preamble, the strings, and the metadata. Its entries are not
+     *                           written.
+     */
+    public void saveEntries(BibDatabaseContext bibDatabaseContext, Stream<BibEntry> entries) throws IOException {
+        writeHeader(bibDatabaseContext);
+
+        BibDatabaseMode mode = bibDatabaseContext.getMode();
+        SortedSet<BibEntryType> typesToWrite = new TreeSet<>();
+        List<BibEntry> chunk = new ArrayList<>(SERIALIZATION_CHUNK_SIZE);
+        try {
+            Iterator<BibEntry> iterator = entries.filter(entry -> !entry.isEmpty()).iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if ((chunk.size() == SERIALIZATION_CHUNK_SIZE) || !iterator.hasNext()) {
+                    applySaveActions(chunk, bibDatabaseContext.getMetaData(), fieldPreferences);
+                    typesToWrite.addAll(getCustomEntryTypes(chunk, mode));
+                    writeEntries(chunk, mode);
+                    chunk.clear();
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writeFooter(bibDatabaseContext, typesToWrite);
+    }
+
+    private void writeHeader(BibDatabaseContext bibDatabaseContext) throws IOException {
         Optional<String> sharedDatabaseIDOptional = bibDatabaseContext.getDatabase().getSharedDatabaseID();
         sharedDatabaseIDOptional.ifPresent(Unchecked.consumer(this::writeDatabaseID));
 
@@ -183,50 +251,73 @@ public abstract class BibDatabaseWriter {
 
         // Write strings if there are any.
         writeStrings(bibDatabaseContext.getDatabase());
+    }
 
-        // Write database entries.
-        List<BibEntry> sortedEntries = getSortedEntries(entries, saveConfiguration.getSelfContainedSaveOrder());
+    private void writeFooter(BibDatabaseContext bibDatabaseContext, SortedSet<BibEntryType> typesToWrite) throws IOException {
+        if (saveConfiguration.getSaveType() == SaveType.WITH_JABREF_META_DATA) {
+            // Write meta data.
+            writeMetaData(bibDatabaseContext.getMetaData(), keyPatternPreferences.getKeyPatterns());
 
-        // FIXME: "Clean" architecture violation: We modify the entries here, which should not happen during a write
-        //        The cleanup should be done before the write operation
-        List<FieldChange> saveActionChanges = applySaveActions(sortedEntries, bibDatabaseContext.getMetaData(), fieldPreferences);
-        saveActionsFieldChanges.addAll(saveActionChanges);
-        if (keyPatternPreferences.shouldGenerateCiteKeysBeforeSaving()) {
-            List<FieldChange> keyChanges = generateCitationKeys(bibDatabaseContext, sortedEntries);
-            saveActionsFieldChanges.addAll(keyChanges);
+            // Write type definitions, if any:
+            writeEntryTypeDefinitions(typesToWrite);
         }
 
-        // Map to collect entry type definitions that we must save along with entries using them.
-        SortedSet<BibEntryType> typesToWrite = new TreeSet<>();
+        // finally write whatever remains of the file, but at least a concluding newline
+        writeEpilogue(bibDatabaseContext.getDatabase().getEpilog());
+    }
 
-        for (BibEntry entry : sortedEntries) {
+    /**
+     * Collects the definitions of all custom entry types used by the given entries. Each entry type is checked once only.
+     */
+    private SortedSet<BibEntryType> getCustomEntryTypes(List<BibEntry> entries, BibDatabaseMode mode) {
+        SortedSet<BibEntryType> customTypes = new TreeSet<>();
+        Set<EntryType> checkedTypes = new HashSet<>();
+        for (BibEntry entry : entries) {
+            EntryType type = entry.getType();
             // Check if we must write the type definition for this
             // entry, as well. Our criterion is that all non-standard
             // types (*not* all customized standard types) must be written.
-            if (entryTypesManager.isCustomType(entry.getType(), bibDatabaseContext.getMode())) {
+            if (checkedTypes.add(type) && entryTypesManager.isCustomType(type, mode)) {
                 // If user-defined entry type, then add it
                 // Otherwise (enrich returns empty optional) it is a completely unknown entry type, so ignore it
-                entryTypesManager.enrich(entry.getType(), bibDatabaseContext.getMode()).ifPresent(typesToWrite::add);
+                entryTypesManager.enrich(type, mode).ifPresent(customTypes::add);
             }
-
-            writeEntry(entry, bibDatabaseContext.getMode());
         }
+        return customTypes;
+    }
 
-        if (saveConfiguration.getSaveType() == SaveType.WITH_JABREF_META_DATA) {
-            // Write meta data.
-            writeMetaData(bibDatabaseContext.getMetaData(), keyPatternPreferences.getKeyPatterns());
-
-            // Write type definitions, if any:
-            writeEntryTypeDefinitions(typesToWrite);
+    /**
+     * Writes the given entries in the given order. The entries are serialized concurrently chunk by chunk, so that
+     * formatting of changed entries is spread over all cores while memory stays bounded.
+     */
+    private void writeEntries(List<BibEntry> entries, BibDatabaseMode mode) throws IOException {
+        for (int chunkStart = 0; chunkStart < entries.size(); chunkStart += SERIALIZATION_CHUNK_SIZE) {
+            List<BibEntry> chunk = entries.subList(chunkStart, Math.min(chunkStart + SERIALIZATION_CHUNK_SIZE, entries.size()));
+            List<String> serializedEntries;
+            try {
+                serializedEntries = chunk.parallelStream()
+                                         .map(Unchecked.function(entry -> serializeEntry(entry, mode)))
+                                         .toList();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                String serializedEntry = serializedEntries.get(i);
+                if (!serializedEntry.isEmpty()) {
+                    bibWriter.writeEntry(chunk.get(i), serializedEntry);
+                }
+            }
         }
-
-        // finally write whatever remains of the file, but at least a concluding newline
-        writeEpilogue(bibDatabaseContext.getDatabase().getEpilog());
     }
 
     protected abstract void writeProlog(BibDatabaseContext bibDatabaseContext, Charset encoding) throws IOException;
 
-    protected abstract void writeEntry(BibEntry entry, BibDatabaseMode mode) throws IOException;
+    /**
+     * Serializes the given entry as a block of its own. The result is written to the {@link #bibWriter} afterwards.
+     * <p>
+     * This method is called concurrently for different entries and thus must not modify any state of the writer.
+     */
+    protected abstract String serializeEntry(BibEntry entry, BibDatabaseMode mode) throws IOException;
 
     protected abstract void writeEpilogue(String epilogue) throws IOException;
 
@@ -0,0 +1,64 @@
+package org.jabref.logic.exporter;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Optional;
+
+import org.jabref.model.entry.BibEntry;
+
+/**
+ * Describes where the entries are located in a .bib file written by {@link IncrementalBibFileWriter}.
+ * The next save of the same file uses it to copy the bytes of unchanged entries instead of encoding and writing them again.
+ *
+ * @param file         the file the layout belongs to
+ * @param encoding     the encoding the file was written with
+ * @param size         the size of the file directly after writing it
+ * @param lastModified the modification time of the file directly after writing it
+ * @param entryRegions the regions of the entries, identified by {@link BibEntry#getId()}
+ */
+public record BibFileLayout(
+        Path file,
+        Charset encoding,
+        long size,
+        FileTime lastModified,
+        Map<String, EntryRegion> entryRegions) {
+
+    /**
+     * A region of the file holding the serialization of one entry (including the separating line break before it)
+     *
+     * @param offset     the byte offset of the region in the file
+     * @param length     the length of the region in bytes
+     * @param textLength the length of the serialization in characters
+     * @param textHash   the hash of the serialization, see {@link IncrementalBibFileWriter}
+     */
+    public record EntryRegion(long offset, long length, int textLength, long textHash) {
+    }
+
+    public BibFileLayout {
+        entryRegions = Map.copyOf(entryRegions);
+    }
+
+    public Optional<EntryRegion> getRegion(BibEntry entry) {
+        return Optional.ofNullable(entryRegions.get(entry.getId()));
+    }
+
+    /**
+     * Checks whether the given file still is the file described by this layout, i.e., it has not been changed (or replaced) since it was written.
+     */
+    public boolean describes(Path file, Charset encoding) {
+        if (!this.file.equals(file) || !this.encoding.equals(encoding)) {
+            return false;
+        }
+        try {
+            return Files.exists(file)
+                    && (Files.size(file) == size)
+                    && Files.getLastModifiedTime(file).equals(lastModified);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package org.jabref.logic.exporter;
 import java.io.IOException;
 import java.io.Writer;
 
+import org.jabref.model.entry.BibEntry;
 import org.jabref.model.strings.StringUtil;
 
 /**
@@ -49,6 +50,17 @@ public class BibWriter {
         this.finishLine();
     }
 
+    /**
+     * Writes the serialization of the given entry as a block of its own
+     *
+     * @param entry           the entry the serialization belongs to
+     * @param serializedEntry the serialization of the entry, as created by {@link org.jabref.logic.bibtex.BibEntryWriter}
+     */
+    public void writeEntry(BibEntry entry, String serializedEntry) throws IOException {
+        this.write(serializedEntry);
+        this.finishBlock();
+    }
+
     /**
      * Finishes a line
      */
@@ -72,6 +84,10 @@ public class BibWriter {
         this.precedingNewLineRequired = true;
     }
 
+    public String getNewLineSeparator() {
+        return newLineSeparator;
+    }
+
     public int getCurrentPosition() {
         return currentPosition;
     }
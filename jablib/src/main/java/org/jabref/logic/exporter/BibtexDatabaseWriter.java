@@ -1,6 +1,7 @@
 package org.jabref.logic.exporter;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -156,8 +157,10 @@ public class BibtexDatabaseWriter extends BibDatabaseWriter {
     }
 
     @Override
-    protected void writeEntry(BibEntry entry, BibDatabaseMode mode) throws IOException {
+    protected String serializeEntry(BibEntry entry, BibDatabaseMode mode) throws IOException {
+        StringWriter entryWriter = new StringWriter();
         BibEntryWriter bibtexEntryWriter = new BibEntryWriter(new FieldWriter(fieldPreferences), entryTypesManager);
-        bibtexEntryWriter.write(entry, bibWriter, mode, saveConfiguration.shouldReformatFile());
+        bibtexEntryWriter.write(entry, new BibWriter(entryWriter, bibWriter.getNewLineSeparator()), mode, saveConfiguration.shouldReformatFile());
+        return entryWriter.toString();
     }
 }
@@ -0,0 +1,324 @@
+package org.jabref.logic.exporter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.jabref.logic.exporter.BibFileLayout.EntryRegion;
+import org.jabref.model.entry.BibEntry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writer for .bib files which saves incrementally: The serialization of an entry which did not change since the last
+ * save is not written again, but copied from the previous version of the file using
+ * {@link java.nio.channels.FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}.
+ * Copies of consecutive unchanged entries are combined into one copy operation.
+ * <p>
+ * The writer has to know where the entries are located in the previous version of the file. This information is
+ * recorded while writing (see {@link #getLayout()}) and passed to the writer of the next save. If there is no
+ * layout or the file was modified by someone else in between, all text is written (full rewrite).
+ * <p>
+ * The result is written the same way as by {@link AtomicFileWriter}, i.e., to a temporary file replacing the target
+ * file when the writer is closed. Thus, crash safety is the same as for a full rewrite.
+ * <p>
+ * Entries are recognized by using the {@link BibWriter} returned by {@link #createBibWriter(String)}.
+ */
+public class IncrementalBibFileWriter extends Writer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IncrementalBibFileWriter.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final Charset encoding;
+    private final CharsetEncoder encoder;
+    private final CharsetEncoder byteEncoder;
+    private final ByteBuffer byteBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final AtomicFileOutputStream atomicFileOutputStream;
+    private final OutputStream outputStream;
+    private final Optional<BibFileLayout> previousLayout;
+    private final Optional<FileChannel> previousFileChannel;
+
+    private final Map<String, EntryRegion> entryRegions = new HashMap<>();
+    private final Set<Character> problemCharacters = new TreeSet<>();
+
+    /**
+     * Text not belonging to an entry, which has not been encoded yet
+     */
+    private final StringBuilder pendingText = new StringBuilder();
+
+    /**
+     * The serialization of the entry currently written
+     */
+    private final StringBuilder entryText = new StringBuilder();
+    private BibEntry currentEntry;
+
+    /**
+     * Region of the previous file which is still to be copied
+     */
+    private long pendingCopyStart;
+    private long pendingCopyLength;
+
+    /**
+     * Number of bytes of the new file (including the pending copy, excluding the pending text)
+     */
+    private long position;
+    private long copiedBytes;
+
+    private boolean closed;
+    private Optional<BibFileLayout> layout = Optional.empty();
+
+    /**
+     * @param file           the file to write to or replace
+     * @param encoding       the encoding to use
+     * @param keepBackup     whether to keep the backup file (.sav) after a successful write process
+     * @param previousLayout the layout recorded when the file was written the last time (if available)
+     */
+    public IncrementalBibFileWriter(Path file, Charset encoding, boolean keepBackup, Optional<BibFileLayout> previousLayout) throws IOException {
+        this.file = file;
+        this.encoding = encoding;
+        this.encoder = encoding.newEncoder();
+        this.byteEncoder = encoding.newEncoder()
+                                   .onMalformedInput(CodingErrorAction.REPLACE)
+                                   .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.previousLayout = previousLayout.filter(layout -> layout.describes(file, encoding));
+        this.previousFileChannel = openPreviousFile(file, this.previousLayout);
+        this.atomicFileOutputStream = new AtomicFileOutputStream(file, keepBackup);
+        this.outputStream = new BufferedOutputStream(atomicFileOutputStream, BUFFER_SIZE);
+    }
+
+    private static Optional<FileChannel> openPreviousFile(Path file, Optional<BibFileLayout> layout) {
+        if (layout.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(FileChannel.open(file, StandardOpenOption.READ));
+        } catch (IOException e) {
+            LOGGER.debug("Could not open {} for reading, doing a full rewrite", file, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Creates a {@link BibWriter} writing to this writer. Only entries written using this {@link BibWriter} are saved incrementally.
+     */
+    public BibWriter createBibWriter(String newLineSeparator) {
+        return new BibWriter(this, newLineSeparator) {
+            @Override
+            public void writeEntry(BibEntry entry, String serializedEntry) throws IOException {
+                startEntry(entry);
+                super.writeEntry(entry, serializedEntry);
+                endEntry();
+            }
+        };
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) throws IOException {
+        if (currentEntry != null) {
+            entryText.append(buffer, offset, length);
+        } else {
+            flushCopy();
+            pendingText.append(buffer, offset, length);
+        }
+    }
+
+    @Override
+    public void write(String string, int offset, int length) throws IOException {
+        if (currentEntry != null) {
+            entryText.append(string, offset, offset + length);
+        } else {
+            flushCopy();
+            pendingText.append(string, offset, offset + length);
+        }
+    }
+
+    private void startEntry(BibEntry entry) throws IOException {
+        flushText();
+        currentEntry = entry;
+        entryText.setLength(0);
+    }
+
+    private void endEntry() throws IOException {
+        String text = entryText.toString();
+        long textHash = hash(text);
+        long offset = position;
+
+        Optional<EntryRegion> previousRegion = previousLayout.flatMap(previous -> previous.getRegion(currentEntry))
+                                                             .filter(region -> (region.textLength() == text.length()) && (region.textHash() == textHash));
+        if (previousFileChannel.isPresent() && previousRegion.isPresent()) {
+            copy(previousRegion.get().offset(), previousRegion.get().length());
+            entryRegions.put(currentEntry.getId(), new EntryRegion(offset, previousRegion.get().length(), text.length(), textHash));
+        } else {
+            flushCopy();
+            // Only entries without encoding problems can be copied later on, because the problems need to be reported again
+            boolean encodable = writeEncoded(text);
+            if (encodable) {
+                entryRegions.put(currentEntry.getId(), new EntryRegion(offset, position - offset, text.length(), textHash));
+            }
+        }
+
+        currentEntry = null;
+        entryText.setLength(0);
+    }
+
+    private void copy(long start, long length) throws IOException {
+        if ((pendingCopyLength > 0) && (pendingCopyStart + pendingCopyLength == start)) {
+            pendingCopyLength += length;
+        } else {
+            flushCopy();
+            pendingCopyStart = start;
+            pendingCopyLength = length;
+        }
+        position += length;
+        copiedBytes += length;
+    }
+
+    private void flushCopy() throws IOException {
+        if (pendingCopyLength == 0) {
+            return;
+        }
+        outputStream.flush();
+        atomicFileOutputStream.transferFrom(previousFileChannel.orElseThrow(), pendingCopyStart, pendingCopyLength);
+        pendingCopyLength = 0;
+    }
+
+    private void flushText() throws IOException {
+        if (pendingText.isEmpty()) {
+            return;
+        }
+        String text = pendingText.toString();
+        pendingText.setLength(0);
+        writeEncoded(text);
+    }
+
+    /**
+     * @return true if the text could be encoded without problems
+     */
+    private boolean writeEncoded(String text) throws IOException {
+        boolean encodable = encoder.canEncode(text);
+        if (!encodable) {
+            for (int i = 0; i < text.length(); i++) {
+                char character = text.charAt(i);
+                if (!encoder.canEncode(character)) {
+                    problemCharacters.add(character);
+                }
+            }
+        }
+        encode(CharBuffer.wrap(text), false);
+        return encodable;
+    }
+
+    /**
+     * Encodes using one encoder for the whole file (as {@link java.io.OutputStreamWriter} does), so that stateful
+     * encodings (e.g., the byte order mark of UTF-16) are handled correctly
+     */
+    private void encode(CharBuffer chars, boolean endOfInput) throws IOException {
+        CoderResult result;
+        do {
+            result = byteEncoder.encode(chars, byteBuffer, endOfInput);
+            writeByteBuffer();
+        } while (result.isOverflow());
+        if (endOfInput) {
+            while (byteEncoder.flush(byteBuffer).isOverflow()) {
+                writeByteBuffer();
+            }
+            writeByteBuffer();
+        }
+    }
+
+    private void writeByteBuffer() throws IOException {
+        byteBuffer.flip();
+        outputStream.write(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(), byteBuffer.remaining());
+        position += byteBuffer.remaining();
+        byteBuffer.clear();
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the given text. Used together with the length of the text to detect unchanged entries.
+     */
+    private static long hash(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushText();
+        flushCopy();
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flushText();
+            flushCopy();
+            encode(CharBuffer.allocate(0), true);
+            outputStream.flush();
+        } finally {
+            try {
+                // The previous version has to be closed before it is replaced
+                if (previousFileChannel.isPresent()) {
+                    previousFileChannel.get().close();
+                }
+            } finally {
+                outputStream.close();
+            }
+        }
+
+        if (Files.exists(file)) {
+            layout = Optional.of(new BibFileLayout(file, encoding, Files.size(file), Files.getLastModifiedTime(file), entryRegions));
+        }
+        LOGGER.debug("Wrote {} bytes to {}, {} of them copied from the previous version", position, file, copiedBytes);
+    }
+
+    /**
+     * Returns the layout of the written file, to be passed to the writer of the next save. Only available after closing the writer.
+     */
+    public Optional<BibFileLayout> getLayout() {
+        return layout;
+    }
+
+    /**
+     * Returns the number of bytes copied from the previous version of the file instead of being written
+     */
+    public long getCopiedBytes() {
+        return copiedBytes;
+    }
+
+    public boolean hasEncodingProblems() {
+        return !problemCharacters.isEmpty();
+    }
+
+    public Set<Character> getEncodingProblems() {
+        return Collections.unmodifiableSet(problemCharacters);
+    }
+}
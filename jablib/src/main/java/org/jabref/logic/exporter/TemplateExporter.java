@@ -9,17 +9,22 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import org.jabref.logic.journals.JournalAbbreviationLoader;
 import org.jabref.logic.journals.JournalAbbreviationRepository;
 import org.jabref.logic.layout.Layout;
 import org.jabref.logic.layout.LayoutFormatterPreferences;
 import org.jabref.logic.layout.LayoutHelper;
+import org.jabref.logic.layout.format.NameFormatter;
 import org.jabref.logic.layout.format.Number;
 import org.jabref.logic.os.OS;
 import org.jabref.logic.util.FileType;
@@ -30,6 +35,7 @@ import org.jabref.model.entry.types.EntryType;
 import org.jabref.model.metadata.SaveOrder;
 import org.jabref.model.metadata.SelfContainedSaveOrder;
 
+import com.google.common.base.Suppliers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,12 +51,24 @@ public class TemplateExporter extends Exporter {
     private static final String BEGIN_INFIX = ".begin";
     private static final String END_INFIX = ".end";
 
+    /**
+     * Number of entries rendered concurrently before their output is written
+     */
+    private static final int RENDER_CHUNK_SIZE = 1024;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(TemplateExporter.class);
 
+    /**
+     * The built-in abbreviations for exports without a given repository. Shared, as the compiled layouts are cached
+     * per repository.
+     */
+    private static final Supplier<JournalAbbreviationRepository> BUILT_IN_ABBREVIATION_REPOSITORY = Suppliers.memoize(JournalAbbreviationLoader::loadBuiltInRepository);
+
     private final String lfFileName;
     private final String directory;
     private final LayoutFormatterPreferences layoutPreferences;
     private final SelfContainedSaveOrder saveOrder;
+    private final Map<String, CompiledLayout> compiledLayouts = new ConcurrentHashMap<>();
     private boolean customExport;
     private BlankLineBehaviour blankLineBehaviour;
 
@@ -151,6 +169,7 @@ public class TemplateExporter extends Exporter {
      */
     public void setCustomExport(boolean custom) {
         this.customExport = custom;
+        compiledLayouts.clear();
     }
 
     /**
@@ -163,19 +182,11 @@ public class TemplateExporter extends Exporter {
      * @throws IOException if the reader could not be created (e.g., file is not found)
      */
     private Reader getReader(String filename) throws IOException {
-        // If this is a custom export, just use the given filename:
-        String dir;
-        if (customExport) {
-            dir = "";
-        } else {
-            dir = LAYOUT_PREFIX + (directory == null ? "" : directory + '/');
-        }
-
         // Attempt to get a Reader for the file path given, either by
         // loading it as a resource (from within JAR), or as a normal file. If
         // unsuccessful (e.g. file not found), an IOException is thrown.
 
-        String name = dir + filename;
+        String name = getLayoutResourceName(filename);
 
         Path path = Path.of(name);
         if (Files.exists(path)) {
@@ -190,9 +201,70 @@ public class TemplateExporter extends Exporter {
         return new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
     }
 
+    private String getLayoutResourceName(String filename) {
+        // If this is a custom export, just use the given filename:
+        String dir;
+        if (customExport) {
+            dir = "";
+        } else {
+            dir = LAYOUT_PREFIX + (directory == null ? "" : directory + '/');
+        }
+        return dir + filename;
+    }
+
+    /**
+     * Returns the compiled layout for the given layout file. Compiled layouts are cached, because parsing the layout
+     * files is expensive compared to rendering a single entry. A cached layout is reused as long as the layout file
+     * on disk is unchanged (layouts loaded from the classpath never change) and the layout was compiled with the same
+     * settings.
+     *
+     * @return the layout or an empty optional if the layout file does not exist
+     */
+    private Optional<Layout> getLayout(String filename,
+                                       List<Path> fileDirForDatabase,
+                                       JournalAbbreviationRepository abbreviationRepository,
+                                       Map<String, String> customNameFormatters) {
+        LayoutSettings settings = new LayoutSettings(
+                List.copyOf(Objects.requireNonNullElse(fileDirForDatabase, List.of())),
+                abbreviationRepository,
+                customNameFormatters,
+                NameFormatter.getNameFormatters(layoutPreferences.getNameFormatterPreferences()),
+                Optional.ofNullable(layoutPreferences.getMainFileDirectory()));
+        Optional<FileTime> lastModified = getLastModifiedTime(getLayoutResourceName(filename));
+
+        CompiledLayout cached = compiledLayouts.get(filename);
+        if ((cached != null) && cached.settings().equals(settings) && cached.lastModified().equals(lastModified)) {
+            return cached.layout();
+        }
+
+        Optional<Layout> layout;
+        try (Reader reader = getReader(filename)) {
+            LayoutHelper layoutHelper = new LayoutHelper(reader, fileDirForDatabase, layoutPreferences, abbreviationRepository);
+            layout = Optional.of(layoutHelper.getLayoutFromText());
+        } catch (IOException ex) {
+            // The layout file does not exist - this is fine for optional layouts (begin, end, entry type specific)
+            layout = Optional.empty();
+        }
+        compiledLayouts.put(filename, new CompiledLayout(settings, lastModified, layout));
+        return layout;
+    }
+
+    private static Optional<FileTime> getLastModifiedTime(String name) {
+        Path path = Path.of(name);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Files.getLastModifiedTime(path));
+        } catch (IOException e) {
+            LOGGER.debug("Could not read modification time of {}", path, e);
+            return Optional.empty();
+        }
+    }
+
     @Override
     public void export(BibDatabaseContext databaseContext, Path file, List<BibEntry> entries) throws IOException {
-        export(databaseContext, file, entries, List.of(), JournalAbbreviationLoader.loadBuiltInRepository());
+        export(databaseContext, file, entries, List.of(), BUILT_IN_ABBREVIATION_REPOSITORY.get());
     }
 
     @Override
@@ -211,26 +283,18 @@ public class TemplateExporter extends Exporter {
         }
 
         try (AtomicFileWriter ps = new AtomicFileWriter(file, encodingToUse)) {
-            Layout beginLayout = null;
-
             // Check if this export filter has bundled name formatters:
             // Add these to the preferences, so all layouts have access to the custom name formatters:
-            readFormatterFile();
+            Map<String, String> customNameFormatters = readFormatterFile();
 
             List<String> missingFormatters = new ArrayList<>(1);
 
             // Print header
-            try (Reader reader = getReader(lfFileName + BEGIN_INFIX + LAYOUT_EXTENSION)) {
-                LayoutHelper layoutHelper = new LayoutHelper(reader, fileDirForDatabase, layoutPreferences, abbreviationRepository);
-                beginLayout = layoutHelper.getLayoutFromText();
-            } catch (IOException ex) {
-                // If an exception was cast, export filter doesn't have a begin
-                // file.
-            }
+            Optional<Layout> beginLayout = getLayout(lfFileName + BEGIN_INFIX + LAYOUT_EXTENSION, fileDirForDatabase, abbreviationRepository, customNameFormatters);
             // Write the header
-            if (beginLayout != null) {
-                ps.write(beginLayout.doLayout(databaseContext, encodingToUse));
-                missingFormatters.addAll(beginLayout.getMissingFormatters());
+            if (beginLayout.isPresent()) {
+                ps.write(beginLayout.get().doLayout(databaseContext, encodingToUse));
+                missingFormatters.addAll(beginLayout.get().getMissingFormatters());
             }
 
             /*
@@ -240,74 +304,56 @@ public class TemplateExporter extends Exporter {
             List<BibEntry> sorted = BibDatabaseWriter.getSortedEntries(entries, saveOrder);
 
             // Load default layout
-            Layout defLayout;
-            LayoutHelper layoutHelper;
-            try (Reader reader = getReader(lfFileName + LAYOUT_EXTENSION)) {
-                layoutHelper = new LayoutHelper(reader, fileDirForDatabase, layoutPreferences, abbreviationRepository);
-                defLayout = layoutHelper.getLayoutFromText();
+            Optional<Layout> defLayout = getLayout(lfFileName + LAYOUT_EXTENSION, fileDirForDatabase, abbreviationRepository, customNameFormatters);
+            if (defLayout.isEmpty()) {
+                throw new IOException("Cannot find layout file: '" + getLayoutResourceName(lfFileName + LAYOUT_EXTENSION) + "'.");
             }
-            if (defLayout != null) {
-                missingFormatters.addAll(defLayout.getMissingFormatters());
-                if (!missingFormatters.isEmpty()) {
-                    LOGGER.warn("Missing formatters found: {}", missingFormatters);
-                }
+            missingFormatters.addAll(defLayout.get().getMissingFormatters());
+            if (!missingFormatters.isEmpty()) {
+                LOGGER.warn("Missing formatters found: {}", missingFormatters);
             }
-            Map<EntryType, Layout> layouts = new HashMap<>();
-            Layout layout;
 
-            Number.serialExportNumber = 0;
+            // Resolve the layouts of all entry types up front, so that rendering does not need to touch the cache
+            Map<EntryType, Layout> layouts = new HashMap<>();
             for (BibEntry entry : sorted) {
-                Number.serialExportNumber++; // Increment entry counter.
-                // Get the layout
                 EntryType type = entry.getType();
-                if (layouts.containsKey(type)) {
-                    layout = layouts.get(type);
-                } else {
-                    try (Reader reader = getReader(lfFileName + '.' + type.getName() + LAYOUT_EXTENSION)) {
-                        // We try to get a type-specific layout for this entry.
-                        layoutHelper = new LayoutHelper(reader, fileDirForDatabase, layoutPreferences, abbreviationRepository);
-                        layout = layoutHelper.getLayoutFromText();
-                        layouts.put(type, layout);
-                        if (layout != null) {
-                            missingFormatters.addAll(layout.getMissingFormatters());
-                        }
-                    } catch (IOException ex) {
-                        // The exception indicates that no type-specific layout
-                        // exists, so we
-                        // go with the default one.
-                        layout = defLayout;
-                    }
+                if (!layouts.containsKey(type)) {
+                    // We try to get a type-specific layout for this entry.
+                    // If there is none, we go with the default one.
+                    Optional<Layout> typeLayout = getLayout(lfFileName + '.' + type.getName() + LAYOUT_EXTENSION, fileDirForDatabase, abbreviationRepository, customNameFormatters);
+                    typeLayout.ifPresent(layout -> missingFormatters.addAll(layout.getMissingFormatters()));
+                    layouts.put(type, typeLayout.orElse(defLayout.get()));
                 }
+            }
 
-                // Write the entry
-                if (layout != null) {
-                    if (blankLineBehaviour == BlankLineBehaviour.DELETE_BLANKS) {
-                        String[] lines = layout.doLayout(entry, databaseContext.getDatabase()).split(BLANK_LINE_PATTERN);
-                        for (String line : lines) {
-                            if (!line.isBlank() && !line.isEmpty()) {
-                                ps.write(line + OS.NEWLINE);
-                            }
-                        }
-                    } else {
-                        ps.write(layout.doLayout(entry, databaseContext.getDatabase()));
+            if (layouts.values().stream().anyMatch(Layout::isOrderDependent)) {
+                // Group blocks and the entry number need to see the entries one after another
+                Number.serialExportNumber = 0;
+                for (BibEntry entry : sorted) {
+                    Number.serialExportNumber++; // Increment entry counter.
+                    ps.write(renderEntry(layouts.get(entry.getType()), entry, databaseContext));
+                }
+            } else {
+                // Entries are rendered concurrently chunk by chunk and written in sorted order.
+                // The chunking keeps memory bounded, because only the rendered text of one chunk is kept.
+                for (int chunkStart = 0; chunkStart < sorted.size(); chunkStart += RENDER_CHUNK_SIZE) {
+                    List<BibEntry> chunk = sorted.subList(chunkStart, Math.min(chunkStart + RENDER_CHUNK_SIZE, sorted.size()));
+                    List<String> rendered = chunk.parallelStream()
+                                                 .map(entry -> renderEntry(layouts.get(entry.getType()), entry, databaseContext))
+                                                 .toList();
+                    for (String entryText : rendered) {
+                        ps.write(entryText);
                     }
                 }
             }
 
             // Print footer
-            Layout endLayout = null;
-            try (Reader reader = getReader(lfFileName + END_INFIX + LAYOUT_EXTENSION)) {
-                layoutHelper = new LayoutHelper(reader, fileDirForDatabase, layoutPreferences, abbreviationRepository);
-                endLayout = layoutHelper.getLayoutFromText();
-            } catch (IOException ex) {
-                // If an exception was thrown, export filter doesn't have an end
-                // file.
-            }
+            Optional<Layout> endLayout = getLayout(lfFileName + END_INFIX + LAYOUT_EXTENSION, fileDirForDatabase, abbreviationRepository, customNameFormatters);
 
             // Write footer
-            if (endLayout != null) {
-                ps.write(endLayout.doLayout(databaseContext, encodingToUse));
-                missingFormatters.addAll(endLayout.getMissingFormatters());
+            if (endLayout.isPresent()) {
+                ps.write(endLayout.get().doLayout(databaseContext, encodingToUse));
+                missingFormatters.addAll(endLayout.get().getMissingFormatters());
             }
 
             layoutPreferences.clearCustomExportNameFormatters();
@@ -318,11 +364,28 @@ public class TemplateExporter extends Exporter {
         }
     }
 
+    private String renderEntry(Layout layout, BibEntry entry, BibDatabaseContext databaseContext) {
+        String text = layout.doLayout(entry, databaseContext.getDatabase());
+        if (blankLineBehaviour != BlankLineBehaviour.DELETE_BLANKS) {
+            return text;
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        for (String line : text.split(BLANK_LINE_PATTERN)) {
+            if (!line.isBlank()) {
+                builder.append(line).append(OS.NEWLINE);
+            }
+        }
+        return builder.toString();
+    }
+
     /**
      * See if there is a name formatter file bundled with this export format.
      * If so, read all the name formatters so they can be used by the filter layouts.
+     *
+     * @return the name formatters read from the file (empty if there is no such file)
      */
-    private void readFormatterFile() {
+    private Map<String, String> readFormatterFile() {
+        Map<String, String> nameFormatters = new HashMap<>();
         Path formatterFile = Path.of(lfFileName + FORMATTERS_EXTENSION);
         if (Files.exists(formatterFile)) {
             try (Reader in = Files.newBufferedReader(formatterFile, StandardCharsets.UTF_8)) {
@@ -345,6 +408,7 @@ public class TemplateExporter extends Exporter {
                         String formatterName = line.substring(0, index);
                         String contents = line.substring(index + 1);
                         layoutPreferences.putCustomExportNameFormatter(formatterName, contents);
+                        nameFormatters.put(formatterName, contents);
                     }
                 }
             } catch (IOException ex) {
@@ -352,6 +416,7 @@ public class TemplateExporter extends Exporter {
                 LOGGER.warn("Problem opening formatter file.", ex);
             }
         }
+        return nameFormatters;
     }
 
     public String getLayoutFileName() {
@@ -361,4 +426,23 @@ public class TemplateExporter extends Exporter {
     public String getLayoutFileNameWithExtension() {
         return lfFileName + LAYOUT_EXTENSION;
     }
+
+    /**
+     * All settings that are baked into a {@link Layout} when it is compiled
+     */
+    private record LayoutSettings(
+            List<Path> fileDirForDatabase,
+            JournalAbbreviationRepository abbreviationRepository,
+            Map<String, String> customNameFormatters,
+            Map<String, String> userNameFormatters,
+            Optional<String> mainFileDirectory) {
+    }
+
+    /**
+     * @param settings     the settings the layout was compiled with
+     * @param lastModified the modification time of the layout file on disk, empty if it was loaded from the classpath
+     * @param layout       the compiled layout, empty if the layout file does not exist
+     */
+    private record CompiledLayout(LayoutSettings settings, Optional<FileTime> lastModified, Optional<Layout> layout) {
+    }
 }
@@ -0,0 +1,206 @@
+package org.jabref.logic.importer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs requests to several fetchers concurrently.
+ * <p>
+ * Each request runs on its own virtual thread, as the requests mostly wait for the network. The number of requests
+ * running at once is limited for all searches together, and a request which does not finish within its deadline is
+ * cancelled. Results are delivered as soon as each request finishes. The rate of requests to a single host is limited
+ * by the {@link org.jabref.logic.net.HostRateLimiter}. While a request waits for the rate limit, it does not count as
+ * running, and its deadline is extended by the waiting time.
+ */
+public class FetcherScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FetcherScheduler.class);
+
+    private static final int DEFAULT_MAXIMUM_CONCURRENT_REQUESTS = 16;
+    private static final Duration DEFAULT_DEADLINE = Duration.ofMinutes(2);
+
+    private static FetcherScheduler defaultScheduler;
+
+    // The request running on the current thread, if it was started by a scheduler
+    private static final ThreadLocal<RunningRequest> RUNNING_REQUEST = new ThreadLocal<>();
+
+    private final Semaphore concurrentRequests;
+    private final Duration deadline;
+
+    /**
+     * A request to a fetcher
+     */
+    @FunctionalInterface
+    public interface Request<T> {
+        T perform() throws FetcherException;
+    }
+
+    /**
+     * @param fetcherName the name of the fetcher, used for logging
+     */
+    public record Task<T>(String fetcherName, Request<T> request) {
+    }
+
+    private record Completion<T>(Task<T> task, Optional<T> result) {
+    }
+
+    /**
+     * Something to wait for, e.g., the rate limit of a host
+     */
+    @FunctionalInterface
+    public interface Waiting {
+        void await() throws InterruptedException;
+    }
+
+    /**
+     * Tracks the time a request holds a permit, which counts towards its deadline
+     */
+    private class RunningRequest {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private long activeNanos;
+        private long activeSince;
+        private boolean holdsPermit;
+
+        void acquirePermit() throws InterruptedException {
+            concurrentRequests.acquire();
+            synchronized (this) {
+                holdsPermit = true;
+                activeSince = System.nanoTime();
+            }
+            started.countDown();
+        }
+
+        synchronized void releasePermit() {
+            if (holdsPermit) {
+                holdsPermit = false;
+                activeNanos += System.nanoTime() - activeSince;
+                concurrentRequests.release();
+            }
+        }
+
+        void awaitStart() throws InterruptedException {
+            started.await();
+        }
+
+        synchronized long remainingNanos() {
+            long active = holdsPermit ? activeNanos + (System.nanoTime() - activeSince) : activeNanos;
+            return deadline.toNanos() - active;
+        }
+    }
+
+    /**
+     * @param deadline the time a request may take after it was started
+     */
+    public FetcherScheduler(int maximumConcurrentRequests, Duration deadline) {
+        this.concurrentRequests = new Semaphore(maximumConcurrentRequests, true);
+        this.deadline = deadline;
+    }
+
+    /**
+     * @return the scheduler shared by all searches
+     */
+    public static synchronized FetcherScheduler getDefault() {
+        if (defaultScheduler == null) {
+            defaultScheduler = new FetcherScheduler(DEFAULT_MAXIMUM_CONCURRENT_REQUESTS, DEFAULT_DEADLINE);
+        }
+        return defaultScheduler;
+    }
+
+    /**
+     * Performs all tasks and passes their results to the consumer in the order the tasks finish. The consumer is called
+     * on the calling thread. Failed tasks and tasks exceeding the deadline are logged and skipped.
+     *
+     * @throws InterruptedException if the calling thread is interrupted. All running tasks are cancelled then.
+     */
+    public <T> void performAll(List<Task<T>> tasks, Consumer<T> resultConsumer) throws InterruptedException {
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fetcher-", 0).factory());
+        try {
+            CompletionService<Completion<T>> completionService = new ExecutorCompletionService<>(executor);
+            for (Task<T> task : tasks) {
+                completionService.submit(() -> new Completion<>(task, perform(task, executor)));
+            }
+            for (int i = 0; i < tasks.size(); i++) {
+                Completion<T> completion;
+                try {
+                    completion = completionService.take().get();
+                } catch (ExecutionException e) {
+                    // Not thrown, as perform catches all exceptions of the request
+                    LOGGER.error("Unexpected error while fetching", e);
+                    continue;
+                }
+                completion.result().ifPresent(resultConsumer);
+            }
+        } finally {
+            // Tasks ignoring the interruption are left behind instead of blocking the caller
+            executor.shutdownNow();
+        }
+    }
+
+    private <T> Optional<T> perform(Task<T> task, ExecutorService executor) throws InterruptedException {
+        RunningRequest runningRequest = new RunningRequest();
+        Future<T> future = executor.submit(() -> {
+            runningRequest.acquirePermit();
+            RUNNING_REQUEST.set(runningRequest);
+            try {
+                return task.request().perform();
+            } finally {
+                RUNNING_REQUEST.remove();
+                runningRequest.releasePermit();
+            }
+        });
+        try {
+            // The deadline starts when the request gets its permit, not when it starts to wait for one
+            runningRequest.awaitStart();
+            long remainingNanos;
+            while ((remainingNanos = runningRequest.remainingNanos()) > 0) {
+                try {
+                    return Optional.ofNullable(future.get(remainingNanos, TimeUnit.NANOSECONDS));
+                } catch (TimeoutException e) {
+                    // The deadline was extended if the request waited for a rate limit in the meantime
+                }
+            }
+            future.cancel(true);
+            LOGGER.warn("{} did not answer within {} s", task.fetcherName(), deadline.toSeconds());
+        } catch (ExecutionException e) {
+            LOGGER.warn("%s API request failed".formatted(task.fetcherName()), e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Waits without holding the permit of the request running on the current thread, so that other requests can run in
+     * the meantime. The waiting time does not count towards the deadline of the request. Outside of a scheduled request,
+     * this just waits.
+     */
+    public static void awaitWithoutPermit(Waiting waiting) throws InterruptedException {
+        RunningRequest runningRequest = RUNNING_REQUEST.get();
+        if (runningRequest == null) {
+            waiting.await();
+            return;
+        }
+        runningRequest.releasePermit();
+        try {
+            waiting.await();
+        } finally {
+            runningRequest.acquirePermit();
+        }
+    }
+}
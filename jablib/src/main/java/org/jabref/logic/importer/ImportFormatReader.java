@@ -1,13 +1,19 @@
 package org.jabref.logic.importer;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.jabref.logic.citationkeypattern.CitationKeyPatternPreferences;
 import org.jabref.logic.importer.fileformat.BiblioscapeImporter;
@@ -38,10 +44,25 @@ import org.jabref.model.database.BibDatabases;
 import org.jabref.model.entry.BibEntry;
 import org.jabref.model.util.FileUpdateMonitor;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 public class ImportFormatReader {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportFormatReader.class);
+
     public static final String BIBTEX_FORMAT = "BibTeX";
 
+    /**
+     * Number of characters at the beginning of a source used to guess its format
+     */
+    private static final int PREFIX_LENGTH = 64 * 1024;
+
+    /**
+     * Number of importers importing the whole source when guessing its format
+     */
+    private static final int MAXIMUM_FULL_IMPORTS = 2;
+
     /**
      * All import formats.
      * Sorted accordingly to {@link Importer#compareTo}, which defaults to alphabetically by the name
@@ -127,6 +148,14 @@ public class ImportFormatReader {
         }
     }
 
+    /// The importer for the given format, if it parses the entries one after another.
+    ///
+    /// @param format the CLI id of the importer
+    public Optional<StreamingImporter> getStreamingImporter(String format) {
+        return getByCliId(format).filter(StreamingImporter.class::isInstance)
+                                 .map(StreamingImporter.class::cast);
+    }
+
     /// All importers.
     ///
     /// Elements are sorted by name.
@@ -139,20 +168,33 @@ public class ImportFormatReader {
     public record UnknownFormatImport(String format, ParserResult parserResult) {
     }
 
+    /**
+     * An importer recognizing the source, rated by the number of entries it finds in the beginning of the source
+     *
+     * @param prefixResult the result of importing the beginning of the source, empty if the import failed
+     */
+    private record Candidate(Importer importer, int score, Optional<ParserResult> prefixResult) {
+    }
+
     /// Tries to import a file by iterating through the available import filters,
     /// and keeping the import that seems most promising.
     ///
-    /// This method first attempts to read this file as bibtex.
+    /// The beginning of the file is read once and checked by all importers in parallel.
+    /// Only the most promising importers import the whole file.
+    /// If no importer succeeds, the file is read as BibTeX.
     ///
     /// @throws ImportException if the import fails (for example, if no suitable importer is found)
     public UnknownFormatImport importUnknownFormat(Path filePath, FileUpdateMonitor fileMonitor) throws ImportException {
         Objects.requireNonNull(filePath);
 
         try {
-            UnknownFormatImport unknownFormatImport = importUnknownFormat(importer -> importer.importDatabase(filePath), importer -> importer.isRecognizedFormat(filePath));
+            String prefix = readPrefix(filePath);
+            // The imports of the prefix are not kept even if it is the whole file, as an importer may read a file
+            // differently than a string (e.g., with the encoding stated in the file)
+            UnknownFormatImport unknownFormatImport = importUnknownFormat(prefix, false, importer -> importer.importDatabase(filePath), importer -> importer.isRecognizedFormat(prefix, filePath));
             unknownFormatImport.parserResult.setPath(filePath);
             return unknownFormatImport;
-        } catch (ImportException e) {
+        } catch (IOException | ImportException e) {
             // If all importers fail, try to read the file as BibTeX
             try {
                 ParserResult parserResult = OpenDatabase.loadDatabase(filePath, importFormatPreferences, fileMonitor);
@@ -170,42 +212,70 @@ public class ImportFormatReader {
     }
 
     /**
-     * Tries to import entries by iterating through the available import filters,
-     * and keeping the import that seems the most promising
+     * Reads the first {@link #PREFIX_LENGTH} characters of the file, decoded like by {@link Importer#isRecognizedFormat(Path)}.
+     * Malformed input is replaced, as binary formats are recognized by their beginning, too.
+     */
+    private static String readPrefix(Path filePath) throws IOException {
+        try (Reader reader = Importer.getReader(filePath)) {
+            char[] buffer = new char[PREFIX_LENGTH];
+            int length = 0;
+            int read;
+            while (length < PREFIX_LENGTH && (read = reader.read(buffer, length, PREFIX_LENGTH - length)) != -1) {
+                length += read;
+            }
+            return new String(buffer, 0, length);
+        }
+    }
+
+    /**
+     * Tries to import entries by checking the available import filters, and keeping the import that seems the most
+     * promising.
+     * <p>
+     * All importers check and import the beginning of the source in parallel. The importers recognizing the source
+     * are rated by the number of entries they find in it. Then, the {@link #MAXIMUM_FULL_IMPORTS} best rated importers
+     * import the whole source concurrently, and the import with the most entries is kept. Ties are resolved by the
+     * order of the importers.
      *
+     * @param prefix             the beginning of the source
+     * @param isCompleteSource   whether the prefix is the whole source. Then, the imports of the prefix are kept.
      * @param importDatabase     the function to import the entries with a formatter
      * @param isRecognizedFormat the function to check whether the source is in the correct format for an importer
      * @return an UnknownFormatImport with the imported entries and metadata
      * @throws ImportException if the import fails (for example, if no suitable importer is found)
      */
-    private UnknownFormatImport importUnknownFormat(CheckedFunction<Importer, ParserResult> importDatabase, CheckedFunction<Importer, Boolean> isRecognizedFormat) throws ImportException {
-        // stores ref to best result, gets updated at the next loop
+    private UnknownFormatImport importUnknownFormat(String prefix, boolean isCompleteSource, CheckedFunction<Importer, ParserResult> importDatabase, CheckedFunction<Importer, Boolean> isRecognizedFormat) throws ImportException {
+        List<Candidate> candidates = formats.parallelStream()
+                                            // Refer/BibIX should be explicitly chosen by user
+                                            .filter(importer -> !(importer instanceof ReferImporter))
+                                            .filter(importer -> isRecognized(importer, isRecognizedFormat))
+                                            .map(importer -> rate(importer, prefix))
+                                            // Sorting an ordered stream is stable, thus ties keep the order of the importers
+                                            .sorted(Comparator.comparingInt(Candidate::score).reversed())
+                                            .limit(MAXIMUM_FULL_IMPORTS)
+                                            .toList();
+
         List<BibEntry> bestResult = null;
-        int bestResultCount = 0;
         String bestFormatName = null;
 
-        // Cycle through all importers:
-        for (Importer imFo : formats) {
-            try {
-                if (!isRecognizedFormat.apply(imFo) || imFo.equals(new ReferImporter())) {
-                    // Refer/BibIX should be explicitly chosen by user
-                    continue;
-                }
-
-                ParserResult parserResult = importDatabase.apply(imFo);
-                List<BibEntry> entries = parserResult.getDatabase().getEntries();
-
-                BibDatabases.purgeEmptyEntries(entries);
-                int entryCount = entries.size();
-
-                if (entryCount > bestResultCount) {
-                    bestResult = entries;
-                    bestResultCount = entryCount;
-                    bestFormatName = imFo.getName();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<Optional<List<BibEntry>>>> imports = candidates.stream()
+                                                                       .map(candidate -> executor.submit(() -> importEntries(candidate, isCompleteSource, importDatabase)))
+                                                                       .toList();
+            for (int i = 0; i < candidates.size(); i++) {
+                Optional<List<BibEntry>> entries = getImportedEntries(imports.get(i), candidates.get(i));
+                if (entries.isPresent() && !entries.get().isEmpty()
+                        && ((bestResult == null) || (entries.get().size() > bestResult.size()))) {
+                    bestResult = entries.get();
+                    bestFormatName = candidates.get(i).importer().getName();
                 }
-            } catch (IOException ex) {
-                // The import did not succeed. Go on.
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ImportException(Localization.lang("Could not find a suitable import format."), e);
+        } finally {
+            // Cancels the imports still running if the import was interrupted
+            executor.shutdownNow();
         }
 
         if (bestResult != null) {
@@ -217,6 +287,46 @@ public class ImportFormatReader {
         throw new ImportException(Localization.lang("Could not find a suitable import format."));
     }
 
+    private static boolean isRecognized(Importer importer, CheckedFunction<Importer, Boolean> isRecognizedFormat) {
+        try {
+            return isRecognizedFormat.apply(importer);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Candidate rate(Importer importer, String prefix) {
+        try {
+            ParserResult prefixResult = importer.importDatabase(prefix);
+            return new Candidate(importer, BibDatabases.purgeEmptyEntries(prefixResult.getDatabase().getEntries()).size(), Optional.of(prefixResult));
+        } catch (IOException | RuntimeException e) {
+            // Importers of binary formats cannot import text, and the beginning may end within an entry.
+            // The importer still recognized the source, thus it is kept with the lowest rating.
+            LOGGER.debug("Could not import beginning of source with {}", importer.getName(), e);
+            return new Candidate(importer, 0, Optional.empty());
+        }
+    }
+
+    private static Optional<List<BibEntry>> importEntries(Candidate candidate, boolean isCompleteSource, CheckedFunction<Importer, ParserResult> importDatabase) throws IOException {
+        ParserResult parserResult = isCompleteSource && candidate.prefixResult().isPresent()
+                                    ? candidate.prefixResult().get()
+                                    : importDatabase.apply(candidate.importer());
+        return Optional.of(BibDatabases.purgeEmptyEntries(parserResult.getDatabase().getEntries()));
+    }
+
+    /**
+     * @return the entries of the import, empty if the import did not succeed
+     */
+    private static Optional<List<BibEntry>> getImportedEntries(Future<Optional<List<BibEntry>>> entries, Candidate candidate) throws InterruptedException {
+        try {
+            return entries.get();
+        } catch (ExecutionException e) {
+            // The import did not succeed. Go on.
+            LOGGER.debug("Could not import source with {}", candidate.importer().getName(), e.getCause());
+            return Optional.empty();
+        }
+    }
+
     @FunctionalInterface
     public interface CheckedFunction<T, R> {
 
@@ -234,6 +344,7 @@ public class ImportFormatReader {
     public UnknownFormatImport importUnknownFormat(String data) throws ImportException {
         Objects.requireNonNull(data);
 
-        return importUnknownFormat(importer -> importer.importDatabase(data), importer -> importer.isRecognizedFormat(data));
+        String prefix = data.substring(0, Math.min(data.length(), PREFIX_LENGTH));
+        return importUnknownFormat(prefix, prefix.length() == data.length(), importer -> importer.importDatabase(data), importer -> importer.isRecognizedFormat(data));
     }
 }
@@ -68,6 +68,21 @@ public abstract class Importer implements Comparable<Importer> {
         }
     }
 
+    /**
+     * Check whether a file is in the correct format for this importer, given the beginning of the file.
+     * <p>
+     * Used when guessing the format of a file, so that the file is read once for all importers instead of once per
+     * importer. Importers which cannot recognize their format from the text of a file (e.g., zipped formats) have to
+     * override this method and check the file itself.
+     *
+     * @param prefix   the beginning of the file, decoded using {@link #getReader(Path)}
+     * @param filePath the path of the file to check
+     * @return true, if the file is in a recognized format
+     */
+    public boolean isRecognizedFormat(String prefix, Path filePath) throws IOException {
+        return isRecognizedFormat(prefix);
+    }
+
     /**
      * Parse the database in the source.
      * <p>
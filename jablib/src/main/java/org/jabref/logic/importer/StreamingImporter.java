@@ -0,0 +1,44 @@
+package org.jabref.logic.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.jabref.model.entry.BibEntry;
+
+import org.jooq.lambda.Unchecked;
+
+/**
+ * An importer which parses the entries of a source one after another.
+ * <p>
+ * In contrast to {@link Importer#importDatabase(BufferedReader)}, the entries are not collected in memory. Thus,
+ * sources larger than the available memory can be converted entry by entry.
+ */
+public interface StreamingImporter {
+
+    /**
+     * Parses the entries of the source lazily, i.e., while the returned stream is consumed.
+     *
+     * @param input the input to read from. It has to stay open until the stream was consumed.
+     * @return the entries in the order of the source. Errors during parsing are thrown as {@link UncheckedIOException}
+     * while the stream is consumed.
+     */
+    Stream<BibEntry> importEntries(BufferedReader input) throws IOException;
+
+    /**
+     * Parses the entries of the given file lazily. The returned stream has to be closed to close the file.
+     */
+    default Stream<BibEntry> importEntries(Path filePath) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8);
+        try {
+            return importEntries(reader).onClose(Unchecked.runnable(reader::close));
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+}
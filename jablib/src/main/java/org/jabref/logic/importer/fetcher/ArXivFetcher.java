@@ -14,8 +14,10 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -32,6 +34,7 @@ import org.jabref.logic.importer.ImportFormatPreferences;
 import org.jabref.logic.importer.PagedSearchBasedFetcher;
 import org.jabref.logic.importer.fetcher.transformers.ArXivQueryTransformer;
 import org.jabref.logic.integrity.BracesCorrector;
+import org.jabref.logic.net.HostRateLimiter;
 import org.jabref.logic.util.URLUtil;
 import org.jabref.logic.util.io.XMLUtil;
 import org.jabref.logic.util.strings.StringSimilarity;
@@ -97,6 +100,11 @@ public class ArXivFetcher implements FulltextFetcher, PagedSearchBasedFetcher, I
             "Computational Engineering, Finance, and Science", "Computational Engineering / Finance / Science",
             "Distributed, Parallel, and Cluster Computing", "Distributed / Parallel / Cluster Computing");
 
+    // DOI lookups of all searches share these threads instead of each search creating threads of its own.
+    // The lookups mostly wait for the network, thus they run on virtual threads, and their number is limited.
+    private static final int MAX_CONCURRENT_DOI_LOOKUPS = 8;
+    private static final Executor DOI_LOOKUP_EXECUTOR = createDoiLookupExecutor();
+
     private final ArXiv arXiv;
     private final DoiFetcher doiFetcher;
     private final ImportFormatPreferences importFormatPreferences;
@@ -109,11 +117,31 @@ public class ArXivFetcher implements FulltextFetcher, PagedSearchBasedFetcher, I
      * @param doiFetcher The fetcher, maybe be NULL if no additional search is desired.
      */
     public ArXivFetcher(ImportFormatPreferences importFormatPreferences, DoiFetcher doiFetcher) {
-        this.arXiv = new ArXiv(importFormatPreferences);
+        this(importFormatPreferences, doiFetcher, ArXiv.API_URL);
+    }
+
+    /**
+     * @param apiUrl the URL of the arXiv API, replaced in tests
+     */
+    ArXivFetcher(ImportFormatPreferences importFormatPreferences, DoiFetcher doiFetcher, String apiUrl) {
+        this.arXiv = new ArXiv(importFormatPreferences, apiUrl);
         this.doiFetcher = doiFetcher;
         this.importFormatPreferences = importFormatPreferences;
     }
 
+    private static Executor createDoiLookupExecutor() {
+        ExecutorService virtualThreads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("arxiv-doi-lookup-", 0).factory());
+        Semaphore permits = new Semaphore(MAX_CONCURRENT_DOI_LOOKUPS);
+        return task -> virtualThreads.execute(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
     @Override
     public Optional<URL> findFullText(BibEntry entry) throws IOException {
         return arXiv.findFullText(entry);
@@ -256,7 +284,28 @@ public class ArXivFetcher implements FulltextFetcher, PagedSearchBasedFetcher, I
             LOGGER.error("Failed to fetch future BibEntry with id '{}' (skipping merge).", id, e);
             return;
         }
+        mergeArXivEntryWithDoiEntry(arXivEntry, bibEntry, priorityFields, id);
+    }
+
+    /**
+     * Merge the ArXiv Bibtex entry with the Bibtex entry of a DOI (ArXiv/user-assigned), fetched on the current thread
+     *
+     * @param arXivEntry The entry to merge into
+     * @param priorityFields Which fields from the DOI entry to prioritize, replacing them on "arXivEntry"
+     * @param doi The DOI to fetch
+     */
+    private void mergeArXivEntryWithDoiEntry(BibEntry arXivEntry, String doi, Set<Field> priorityFields) {
+        Optional<BibEntry> bibEntry;
+        try {
+            bibEntry = doiFetcher.performRateLimitedSearchById(doi);
+        } catch (FetcherException e) {
+            LOGGER.error("Failed to fetch BibEntry with id '{}' (skipping merge).", doi, e);
+            return;
+        }
+        mergeArXivEntryWithDoiEntry(arXivEntry, bibEntry, priorityFields, doi);
+    }
 
+    private void mergeArXivEntryWithDoiEntry(BibEntry arXivEntry, Optional<BibEntry> bibEntry, Set<Field> priorityFields, String id) {
         if (bibEntry.isPresent()) {
             adaptKeywordsFrom(bibEntry.get());
             arXivEntry.mergeWith(bibEntry.get(), priorityFields);
@@ -266,20 +315,17 @@ public class ArXivFetcher implements FulltextFetcher, PagedSearchBasedFetcher, I
     }
 
     /**
-     * Infuse arXivBibEntryPromise with additional fields in an asynchronous way
+     * Infuse an existing entry with additional fields. The DOIs are looked up one after the other on the current thread,
+     * as the entries of a page are already infused in parallel.
      *
      * @param arXivBibEntry An existing entry to be updated with new/modified fields
      */
-    private void inplaceAsyncInfuseArXivWithDoi(BibEntry arXivBibEntry) {
-        CompletableFuture<Optional<BibEntry>> arXivBibEntryCompletedFuture = CompletableFuture.completedFuture(Optional.of(arXivBibEntry));
-        Optional<ArXivIdentifier> arXivBibEntryId = arXivBibEntry.getField(StandardField.EPRINT).flatMap(ArXivIdentifier::parse);
+    private void inplaceInfuseArXivWithDoi(BibEntry arXivBibEntry) {
+        Optional<String> automaticDoi = ArXivFetcher.getAutomaticDoi(arXivBibEntry);
+        Optional<String> manualDoi = ArXivFetcher.getManualDoi(arXivBibEntry);
 
-        try {
-            this.inplaceAsyncInfuseArXivWithDoi(arXivBibEntryCompletedFuture, arXivBibEntryId);
-        } catch (FetcherException e) {
-            LOGGER.error("FetcherException should not be found here, as main Bibtex Entry already exists " +
-                    "(and failing additional fetches should be skipped)", e);
-        }
+        automaticDoi.ifPresent(doi -> mergeArXivEntryWithDoiEntry(arXivBibEntry, doi, CHOSEN_AUTOMATIC_DOI_FIELDS));
+        manualDoi.ifPresent(doi -> mergeArXivEntryWithDoiEntry(arXivBibEntry, doi, CHOSEN_MANUAL_DOI_FIELDS));
     }
 
     /**
@@ -343,15 +389,13 @@ public class ArXivFetcher implements FulltextFetcher, PagedSearchBasedFetcher, I
             return result;
         }
 
-        ExecutorService executor = Executors.newFixedThreadPool(getPageSize() * 2);
-
         Collection<CompletableFuture<BibEntry>> futureSearchResult = result.getContent()
                                                                        .stream()
                                                                        .map(bibEntry ->
                                                                                CompletableFuture.supplyAsync(() -> {
-                                                                                   this.inplaceAsyncInfuseArXivWithDoi(bibEntry);
+                                                                                   this.inplaceInfuseArXivWithDoi(bibEntry);
                                                                                    return bibEntry;
-                                                                               }, executor))
+                                                                               }, DOI_LOOKUP_EXECUTOR))
                                                                        .toList();
 
         Collection<BibEntry> modifiedSearchResult = futureSearchResult.stream()
@@ -400,9 +444,15 @@ public class ArXivFetcher implements FulltextFetcher, PagedSearchBasedFetcher, I
         private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = DocumentBuilderFactory.newInstance();
 
         private final ImportFormatPreferences importFormatPreferences;
+        private final String apiUrl;
 
         public ArXiv(ImportFormatPreferences importFormatPreferences) {
+            this(importFormatPreferences, API_URL);
+        }
+
+        ArXiv(ImportFormatPreferences importFormatPreferences, String apiUrl) {
             this.importFormatPreferences = importFormatPreferences;
+            this.apiUrl = apiUrl;
         }
 
         @Override
@@ -532,7 +582,7 @@ public class ArXivFetcher implements FulltextFetcher, PagedSearchBasedFetcher, I
 
             URIBuilder uriBuilder;
             try {
-                uriBuilder = new URIBuilder(API_URL);
+                uriBuilder = new URIBuilder(apiUrl);
             } catch (URISyntaxException e) {
                 throw new FetcherException("Invalid URL", e);
             }
@@ -553,6 +603,14 @@ public class ArXivFetcher implements FulltextFetcher, PagedSearchBasedFetcher, I
                 throw new FetcherException("Invalid URL", e);
             }
 
+            try {
+                // Pages of a search may be requested concurrently, so the API limit is shared with all other requests
+                HostRateLimiter.getDefault().acquire(url.getHost());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FetcherException(url, "arXiv API request was interrupted", e);
+            }
+
             try {
                 DocumentBuilder builder = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
 
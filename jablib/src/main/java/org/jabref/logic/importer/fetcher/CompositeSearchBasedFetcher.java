@@ -1,27 +1,24 @@
 package org.jabref.logic.importer.fetcher;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.jabref.logic.help.HelpFile;
 import org.jabref.logic.importer.FetcherException;
+import org.jabref.logic.importer.FetcherScheduler;
 import org.jabref.logic.importer.ImporterPreferences;
 import org.jabref.logic.importer.SearchBasedFetcher;
 import org.jabref.model.entry.BibEntry;
 
 import org.apache.lucene.queryparser.flexible.core.nodes.QueryNode;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 public class CompositeSearchBasedFetcher implements SearchBasedFetcher {
 
     public static final String FETCHER_NAME = "Search pre-configured";
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(CompositeSearchBasedFetcher.class);
-
     private Set<SearchBasedFetcher> fetchers;
     private final int maximumNumberOfReturnedResults;
 
@@ -53,17 +50,19 @@ public class CompositeSearchBasedFetcher implements SearchBasedFetcher {
 
     @Override
     public List<BibEntry> performSearch(QueryNode luceneQuery) throws FetcherException {
+        List<FetcherScheduler.Task<List<BibEntry>>> tasks = fetchers.stream()
+                                                                    .map(fetcher -> new FetcherScheduler.Task<>(fetcher.getName(), () -> fetcher.performSearch(luceneQuery)))
+                                                                    .toList();
         // All entries have to be converted into one format, this is necessary for the format conversion
-        return fetchers.parallelStream()
-                       .flatMap(searchBasedFetcher -> {
-                           try {
-                               return searchBasedFetcher.performSearch(luceneQuery).stream();
-                           } catch (FetcherException e) {
-                               LOGGER.warn("%s API request failed".formatted(searchBasedFetcher.getName()), e);
-                               return Stream.empty();
-                           }
-                       })
-                       .limit(maximumNumberOfReturnedResults)
-                       .collect(Collectors.toList());
+        List<BibEntry> results = new ArrayList<>();
+        try {
+            FetcherScheduler.getDefault().performAll(tasks, results::addAll);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FetcherException("Search was interrupted", e);
+        }
+        return results.stream()
+                      .limit(maximumNumberOfReturnedResults)
+                      .collect(Collectors.toList());
     }
 }
@@ -8,9 +8,12 @@ import java.net.URLConnection;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import org.jabref.logic.cleanup.FieldFormatterCleanup;
@@ -63,6 +66,9 @@ public class DoiFetcher implements IdBasedFetcher, EntryBasedFetcher {
      */
     private static final RateLimiter CROSSREF_DCN_RATE_LIMITER = RateLimiter.create(50.0);
 
+    // The registration agency is requested once per DOI prefix only
+    private static final Map<String, String> AGENCIES_BY_PREFIX = new ConcurrentHashMap<>();
+
     private final ImportFormatPreferences preferences;
 
     public DoiFetcher(ImportFormatPreferences preferences) {
@@ -113,6 +119,14 @@ public class DoiFetcher implements IdBasedFetcher, EntryBasedFetcher {
         });
     }
 
+    /**
+     * Searches for the entry of a DOI on the current thread, respecting the rate limit of the registration agency of the DOI
+     */
+    protected Optional<BibEntry> performRateLimitedSearchById(String identifier) throws FetcherException {
+        doAPILimiting(identifier);
+        return performSearchById(identifier);
+    }
+
     @Override
     public Optional<BibEntry> performSearchById(String identifier) throws FetcherException {
         Optional<DOI> doi = DOI.parse(identifier);
@@ -218,6 +232,12 @@ public class DoiFetcher implements IdBasedFetcher, EntryBasedFetcher {
      * @param doi the DOI to be searched
      */
     public Optional<String> getAgency(DOI doi) throws FetcherException, MalformedURLException {
+        Optional<String> prefix = getPrefix(doi);
+        Optional<String> cachedAgency = prefix.map(AGENCIES_BY_PREFIX::get);
+        if (cachedAgency.isPresent()) {
+            return cachedAgency;
+        }
+
         Optional<String> agency = Optional.empty();
         try {
             URLDownload download = getUrlDownload(URLUtil.create(DOI.AGENCY_RESOLVER + "/" + URLEncoder.encode(doi.asString(),
@@ -225,6 +245,8 @@ public class DoiFetcher implements IdBasedFetcher, EntryBasedFetcher {
             JSONObject response = new JSONArray(download.asString()).getJSONObject(0);
             if (response != null) {
                 agency = Optional.ofNullable(response.optString("RA"));
+                agency.filter(ra -> !ra.isEmpty())
+                      .ifPresent(ra -> prefix.ifPresent(doiPrefix -> AGENCIES_BY_PREFIX.put(doiPrefix, ra)));
             }
         } catch (JSONException e) {
             LOGGER.error("Cannot parse agency fetcher response to JSON");
@@ -234,6 +256,18 @@ public class DoiFetcher implements IdBasedFetcher, EntryBasedFetcher {
         return agency;
     }
 
+    /**
+     * The registration agency is assigned per prefix, e.g., all arXiv DOIs start with 10.48550
+     */
+    private static Optional<String> getPrefix(DOI doi) {
+        if (doi.isShortDoi()) {
+            return Optional.empty();
+        }
+        String doiString = doi.asString();
+        int separator = doiString.indexOf('/');
+        return separator < 0 ? Optional.empty() : Optional.of(doiString.substring(0, separator).toLowerCase(Locale.ROOT));
+    }
+
     private void setPageCountToArticleId(BibEntry entry, String doiAsString) {
         String articleId = doiAsString.substring(doiAsString.lastIndexOf('.') + 1);
         entry.setField(StandardField.PAGES, articleId);
@@ -117,6 +117,12 @@ public class CitaviXmlImporter extends Importer implements Parser {
         return false;
     }
 
+    @Override
+    public boolean isRecognizedFormat(String prefix, Path filePath) throws IOException {
+        // The file is zipped, thus its beginning is not readable as text
+        return isRecognizedFormat(filePath);
+    }
+
     @Override
     public boolean isRecognizedFormat(Path filePath) throws IOException {
         try (BufferedReader reader = getReaderFromZip(filePath)) {
@@ -12,6 +12,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
@@ -22,6 +23,7 @@ import org.jabref.logic.importer.Importer;
 import org.jabref.logic.importer.ParseException;
 import org.jabref.logic.importer.Parser;
 import org.jabref.logic.importer.ParserResult;
+import org.jabref.logic.importer.StreamingImporter;
 import org.jabref.logic.importer.fileformat.medline.ArticleId;
 import org.jabref.logic.importer.fileformat.medline.Investigator;
 import org.jabref.logic.importer.fileformat.medline.MeshHeading;
@@ -48,7 +50,7 @@ import org.slf4j.LoggerFactory;
  * <p>
  * check here for details on the format https://www.nlm.nih.gov/bsd/licensee/elements_descriptions.html
  */
-public class MedlineImporter extends Importer implements Parser {
+public class MedlineImporter extends Importer implements Parser, StreamingImporter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MedlineImporter.class);
     private static final String KEYWORD_SEPARATOR = "; ";
@@ -113,14 +115,7 @@ public class MedlineImporter extends Importer implements Parser {
             XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(input);
 
             while (reader.hasNext()) {
-                reader.next();
-                if (isStartXMLEvent(reader)) {
-                    String elementName = reader.getName().getLocalPart();
-                    switch (elementName) {
-                        case "PubmedArticle" -> parseArticle(reader, bibItems, elementName);
-                        case "PubmedBookArticle" -> parseBookArticle(reader, bibItems, elementName);
-                    }
-                }
+                parseNextArticle(reader, bibItems);
             }
         } catch (XMLStreamException e) {
             LOGGER.debug("could not parse document", e);
@@ -130,6 +125,39 @@ public class MedlineImporter extends Importer implements Parser {
         return new ParserResult(bibItems);
     }
 
+    @Override
+    public Stream<BibEntry> importEntries(BufferedReader input) throws IOException {
+        Objects.requireNonNull(input);
+
+        try {
+            return XmlEntrySpliterator.stream(xmlInputFactory.createXMLStreamReader(input), this::parseNextArticle);
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not parse document", e);
+        }
+    }
+
+    /**
+     * Parses the next article or book article, and skips everything in between
+     */
+    private void parseNextArticle(XMLStreamReader reader, List<BibEntry> bibItems) throws XMLStreamException {
+        while (reader.hasNext()) {
+            reader.next();
+            if (isStartXMLEvent(reader)) {
+                String elementName = reader.getName().getLocalPart();
+                switch (elementName) {
+                    case "PubmedArticle" -> {
+                        parseArticle(reader, bibItems, elementName);
+                        return;
+                    }
+                    case "PubmedBookArticle" -> {
+                        parseBookArticle(reader, bibItems, elementName);
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
     private void parseBookArticle(XMLStreamReader reader, List<BibEntry> bibItems, String startElement)
             throws XMLStreamException {
         Map<Field, String> fields = new HashMap<>();
@@ -14,6 +14,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
@@ -25,6 +26,7 @@ import org.jabref.logic.importer.Importer;
 import org.jabref.logic.importer.ParseException;
 import org.jabref.logic.importer.Parser;
 import org.jabref.logic.importer.ParserResult;
+import org.jabref.logic.importer.StreamingImporter;
 import org.jabref.logic.importer.fileformat.mods.Identifier;
 import org.jabref.logic.importer.fileformat.mods.Name;
 import org.jabref.logic.importer.fileformat.mods.RecordInfo;
@@ -47,7 +49,7 @@ import org.slf4j.LoggerFactory;
  * More details about the format can be found here <a href="http://www.loc.gov/standards/mods/">http://www.loc.gov/standards/mods/</a>. <br>
  * The newest xml schema can also be found here <a href="www.loc.gov/standards/mods/mods-schemas.html.">www.loc.gov/standards/mods/mods-schemas.html.</a>.
  */
-public class ModsImporter extends Importer implements Parser {
+public class ModsImporter extends Importer implements Parser, StreamingImporter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ModsImporter.class);
     private static final Pattern MODS_PATTERN = Pattern.compile("<mods .*>");
@@ -85,7 +87,24 @@ public class ModsImporter extends Importer implements Parser {
         return new ParserResult(bibItems);
     }
 
+    @Override
+    public Stream<BibEntry> importEntries(BufferedReader input) throws IOException {
+        Objects.requireNonNull(input);
+
+        try {
+            return XmlEntrySpliterator.stream(xmlInputFactory.createXMLStreamReader(input), this::parseNextMods);
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not parse document", e);
+        }
+    }
+
     private void parseModsCollection(List<BibEntry> bibItems, XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            parseNextMods(reader, bibItems);
+        }
+    }
+
+    private void parseNextMods(XMLStreamReader reader, List<BibEntry> bibItems) throws XMLStreamException {
         while (reader.hasNext()) {
             reader.next();
             if (isStartXMLEvent(reader) && "mods".equals(reader.getName().getLocalPart())) {
@@ -101,6 +120,7 @@ public class ModsImporter extends Importer implements Parser {
 
                 entry.setField(fields);
                 bibItems.add(entry);
+                return;
             }
         }
     }
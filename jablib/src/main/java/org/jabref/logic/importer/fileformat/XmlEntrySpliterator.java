@@ -0,0 +1,78 @@
+package org.jabref.logic.importer.fileformat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jabref.model.entry.BibEntry;
+
+/**
+ * Parses the entries of an XML document one after another using StAX. Only the entry currently parsed is held in
+ * memory.
+ */
+class XmlEntrySpliterator extends Spliterators.AbstractSpliterator<BibEntry> {
+
+    private final XMLStreamReader reader;
+    private final EntryParser entryParser;
+    private final Deque<BibEntry> parsedEntries = new ArrayDeque<>();
+
+    @FunctionalInterface
+    interface EntryParser {
+        /**
+         * Advances the reader to the next entry, parses it, and adds it to the given list. If there is no further
+         * entry, the reader is advanced to the end of the document.
+         */
+        void parseNextEntry(XMLStreamReader reader, List<BibEntry> entries) throws XMLStreamException;
+    }
+
+    private XmlEntrySpliterator(XMLStreamReader reader, EntryParser entryParser) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.reader = reader;
+        this.entryParser = entryParser;
+    }
+
+    /**
+     * @return the entries of the document, which are parsed while the stream is consumed. Closing the stream closes
+     * the XML reader, but not its underlying input.
+     */
+    static Stream<BibEntry> stream(XMLStreamReader reader, EntryParser entryParser) {
+        return StreamSupport.stream(new XmlEntrySpliterator(reader, entryParser), false)
+                            .onClose(() -> {
+                                try {
+                                    reader.close();
+                                } catch (XMLStreamException e) {
+                                    throw new UncheckedIOException(new IOException(e));
+                                }
+                            });
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super BibEntry> action) {
+        try {
+            while (parsedEntries.isEmpty() && reader.hasNext()) {
+                List<BibEntry> entries = new ArrayList<>(1);
+                entryParser.parseNextEntry(reader, entries);
+                parsedEntries.addAll(entries);
+            }
+        } catch (XMLStreamException e) {
+            throw new UncheckedIOException(new IOException("Could not parse document", e));
+        }
+
+        if (parsedEntries.isEmpty()) {
+            return false;
+        }
+        action.accept(parsedEntries.poll());
+        return true;
+    }
+}
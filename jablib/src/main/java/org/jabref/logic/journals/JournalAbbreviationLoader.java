@@ -2,15 +2,20 @@ package org.jabref.logic.journals;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 import org.jabref.logic.journals.ltwa.LtwaRepository;
 
+import com.google.common.base.Suppliers;
+import org.h2.mvstore.MVStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,6 +32,23 @@ public class JournalAbbreviationLoader {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JournalAbbreviationLoader.class);
 
+    /**
+     * The built-in journal list is copied to a temporary file and opened once per process. All repositories share the
+     * opened store, as each copy would keep a file mapped until the process exits.
+     */
+    private static final Supplier<Optional<MVStore>> BUILT_IN_JOURNAL_LIST = Suppliers.memoize(JournalAbbreviationLoader::openBuiltInJournalList);
+
+    /**
+     * Shared, as the LTWA rules are read once when the first title is abbreviated
+     */
+    private static final Supplier<LtwaRepository> BUILT_IN_LTWA_REPOSITORY = Suppliers.memoize(() -> {
+        try {
+            return loadLtwaRepository();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    });
+
     public static Collection<Abbreviation> readAbbreviationsFromCsvFile(Path file) throws IOException {
         LOGGER.debug("Reading journal list from file {}", file);
         AbbreviationParser parser = new AbbreviationParser();
@@ -38,19 +60,11 @@ public class JournalAbbreviationLoader {
         JournalAbbreviationRepository repository;
 
         // Initialize with built-in list
-        try (InputStream resourceAsStream = JournalAbbreviationRepository.class.getResourceAsStream("/journals/journal-list.mv")) {
-            if (resourceAsStream == null) {
-                LOGGER.warn("There is no journal-list.mv. We use a default journal list");
-                repository = new JournalAbbreviationRepository();
-            } else {
-                Path tempDir = Files.createTempDirectory("jabref-journal");
-                Path tempJournalList = tempDir.resolve("journal-list.mv");
-                Files.copy(resourceAsStream, tempJournalList);
-                repository = new JournalAbbreviationRepository(tempJournalList, loadLtwaRepository());
-                tempDir.toFile().deleteOnExit();
-                tempJournalList.toFile().deleteOnExit();
-            }
-        } catch (IOException e) {
+        try {
+            repository = BUILT_IN_JOURNAL_LIST.get()
+                                              .map(store -> new JournalAbbreviationRepository(store, BUILT_IN_LTWA_REPOSITORY.get()))
+                                              .orElseGet(JournalAbbreviationRepository::new);
+        } catch (UncheckedIOException e) {
             LOGGER.error("Error while loading journal abbreviation repository", e);
             return null;
         }
@@ -73,6 +87,32 @@ public class JournalAbbreviationLoader {
         return repository;
     }
 
+    private static Optional<MVStore> openBuiltInJournalList() {
+        try (InputStream resourceAsStream = JournalAbbreviationRepository.class.getResourceAsStream("/journals/journal-list.mv")) {
+            if (resourceAsStream == null) {
+                LOGGER.warn("There is no journal-list.mv. We use a default journal list");
+                return Optional.empty();
+            }
+            Path tempDir = Files.createTempDirectory("jabref-journal");
+            Path tempJournalList = tempDir.resolve("journal-list.mv");
+            Files.copy(resourceAsStream, tempJournalList);
+            MVStore store = JournalAbbreviationRepository.openJournalList(tempJournalList);
+            // The file cannot be deleted on Windows as long as it is mapped, thus it is not left to deleteOnExit
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                store.close();
+                try {
+                    Files.deleteIfExists(tempJournalList);
+                    Files.deleteIfExists(tempDir);
+                } catch (IOException e) {
+                    LOGGER.debug("Could not delete temporary journal list {}", tempJournalList, e);
+                }
+            }, "Built-in journal list cleanup"));
+            return Optional.of(store);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private static LtwaRepository loadLtwaRepository() throws IOException {
         try (InputStream resourceAsStream = JournalAbbreviationRepository.class.getResourceAsStream("/journals/ltwa-list.mv")) {
             if (resourceAsStream == null) {
@@ -10,53 +10,83 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.jabref.logic.journals.ltwa.LtwaRepository;
 import org.jabref.logic.util.strings.StringSimilarity;
 
-import org.h2.mvstore.MVMap;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * A repository for all journal abbreviations, including add and find methods.
+ * <p>
+ * The built-in abbreviations are queried directly from a read-only, memory-mapped MV file instead of being loaded into
+ * memory. Recently looked up journals are kept in a small cache.
  */
-public class JournalAbbreviationRepository {
+public class JournalAbbreviationRepository implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalAbbreviationRepository.class);
+
     static final Pattern QUESTION_MARK = Pattern.compile("\\?");
 
-    private final Map<String, Abbreviation> fullToAbbreviationObject = new HashMap<>();
-    private final Map<String, Abbreviation> abbreviationToAbbreviationObject = new HashMap<>();
-    private final Map<String, Abbreviation> dotlessToAbbreviationObject = new HashMap<>();
-    private final Map<String, Abbreviation> shortestUniqueToAbbreviationObject = new HashMap<>();
+    public static final String FULL_TO_ABBREVIATION_MAP_NAME = "FullToAbbreviation";
+    public static final String ABBREVIATION_TO_FULL_MAP_NAME = "AbbreviationToFull";
+    public static final String DOTLESS_TO_FULL_MAP_NAME = "DotlessToFull";
+    public static final String SHORTEST_UNIQUE_TO_FULL_MAP_NAME = "ShortestUniqueToFull";
+
+    private static final int HOT_ENTRIES_CACHE_SIZE = 1000;
+
+    private final Map<String, Abbreviation> fullToAbbreviationObject;
+    private final Map<String, String> abbreviationToFullName;
+    private final Map<String, String> dotlessToFullName;
+    private final Map<String, String> shortestUniqueToFullName;
+    private final Cache<String, Optional<Abbreviation>> exactMatches = CacheBuilder.newBuilder().maximumSize(HOT_ENTRIES_CACHE_SIZE).build();
+    private final Cache<String, Optional<Abbreviation>> fuzzyMatches = CacheBuilder.newBuilder().maximumSize(HOT_ENTRIES_CACHE_SIZE).build();
     private final TreeSet<Abbreviation> customAbbreviations = new TreeSet<>();
     private final StringSimilarity similarity = new StringSimilarity();
     private final LtwaRepository ltwaRepository;
 
+    // The store opened by this repository, null if the store is shared
+    private final MVStore ownedStore;
+
     /**
-     * Initializes the internal data based on the abbreviations found in the given MV file
+     * Opens the MV file containing the abbreviations. The file is kept open until the repository is closed, as it is
+     * queried on each lookup.
      *
      * @param journalList The path to the MV file containing the journal abbreviations.
      * @param ltwaRepository The LTWA repository to use for abbreviations.
      */
     public JournalAbbreviationRepository(Path journalList, LtwaRepository ltwaRepository) {
-        MVMap<String, Abbreviation> mvFullToAbbreviationObject;
-        try (MVStore store = new MVStore.Builder().readOnly().fileName(journalList.toAbsolutePath().toString()).open()) {
-            mvFullToAbbreviationObject = store.openMap("FullToAbbreviation");
-            mvFullToAbbreviationObject.forEach((name, abbreviation) -> {
-                String abbrevationString = abbreviation.getAbbreviation();
-                String shortestUniqueAbbreviation = abbreviation.getShortestUniqueAbbreviation();
-                Abbreviation newAbbreviation = new Abbreviation(
-                        name,
-                        abbrevationString,
-                        shortestUniqueAbbreviation
-                );
-                fullToAbbreviationObject.put(name, newAbbreviation);
-                abbreviationToAbbreviationObject.put(abbrevationString, newAbbreviation);
-                dotlessToAbbreviationObject.put(newAbbreviation.getDotlessAbbreviation(), newAbbreviation);
-                shortestUniqueToAbbreviationObject.put(shortestUniqueAbbreviation, newAbbreviation);
-            });
+        this(openJournalList(journalList), true, ltwaRepository);
+    }
+
+    /**
+     * Queries the given store, which stays open when the repository is closed. Used to share the built-in list.
+     */
+    JournalAbbreviationRepository(MVStore journalList, LtwaRepository ltwaRepository) {
+        this(journalList, false, ltwaRepository);
+    }
+
+    private JournalAbbreviationRepository(MVStore store, boolean ownsStore, LtwaRepository ltwaRepository) {
+        fullToAbbreviationObject = store.openMap(FULL_TO_ABBREVIATION_MAP_NAME);
+        if (store.hasMap(ABBREVIATION_TO_FULL_MAP_NAME)) {
+            abbreviationToFullName = store.openMap(ABBREVIATION_TO_FULL_MAP_NAME);
+            dotlessToFullName = store.openMap(DOTLESS_TO_FULL_MAP_NAME);
+            shortestUniqueToFullName = store.openMap(SHORTEST_UNIQUE_TO_FULL_MAP_NAME);
+        } else {
+            // The file was generated before the lookup maps were added to it
+            LOGGER.debug("No lookup maps in {}, building them in memory", store.getFileStore().getFileName());
+            abbreviationToFullName = new HashMap<>();
+            dotlessToFullName = new HashMap<>();
+            shortestUniqueToFullName = new HashMap<>();
+            addLookupMaps(fullToAbbreviationObject, abbreviationToFullName, dotlessToFullName, shortestUniqueToFullName);
         }
+        this.ownedStore = ownsStore ? store : null;
         this.ltwaRepository = ltwaRepository;
     }
 
@@ -64,18 +94,47 @@ public class JournalAbbreviationRepository {
      * Initializes the repository with demonstration data. Used if no abbreviation file is found.
      */
     public JournalAbbreviationRepository() {
-        Abbreviation newAbbreviation = new Abbreviation(
-                "Demonstration",
-                "Demo",
-                "Dem"
-        );
-        fullToAbbreviationObject.put("Demonstration", newAbbreviation);
-        abbreviationToAbbreviationObject.put("Demo", newAbbreviation);
-        dotlessToAbbreviationObject.put("Demo", newAbbreviation);
-        shortestUniqueToAbbreviationObject.put("Dem", newAbbreviation);
+        fullToAbbreviationObject = Map.of("Demonstration", new Abbreviation("Demonstration", "Demo", "Dem"));
+        abbreviationToFullName = new HashMap<>();
+        dotlessToFullName = new HashMap<>();
+        shortestUniqueToFullName = new HashMap<>();
+        addLookupMaps(fullToAbbreviationObject, abbreviationToFullName, dotlessToFullName, shortestUniqueToFullName);
+        ownedStore = null;
         ltwaRepository = new LtwaRepository();
     }
 
+    static MVStore openJournalList(Path journalList) {
+        return new MVStore.Builder().readOnly().fileName("nioMapped:" + journalList.toAbsolutePath()).open();
+    }
+
+    /**
+     * Fills the maps from the abbreviated forms of each journal to its full name. If journals share an abbreviated
+     * form, the last journal in the order of the given map wins.
+     *
+     * @param fullToAbbreviation the abbreviations by full name. The names of the abbreviations are ignored, as they are
+     *                           not serialized.
+     */
+    public static void addLookupMaps(Map<String, Abbreviation> fullToAbbreviation,
+                                     Map<String, String> abbreviationToFullName,
+                                     Map<String, String> dotlessToFullName,
+                                     Map<String, String> shortestUniqueToFullName) {
+        fullToAbbreviation.forEach((name, storedAbbreviation) -> {
+            Abbreviation abbreviation = withName(name, storedAbbreviation);
+            abbreviationToFullName.put(abbreviation.getAbbreviation(), name);
+            dotlessToFullName.put(abbreviation.getDotlessAbbreviation(), name);
+            shortestUniqueToFullName.put(abbreviation.getShortestUniqueAbbreviation(), name);
+        });
+    }
+
+    private static Abbreviation withName(String name, Abbreviation storedAbbreviation) {
+        return new Abbreviation(name, storedAbbreviation.getAbbreviation(), storedAbbreviation.getShortestUniqueAbbreviation());
+    }
+
+    private Optional<Abbreviation> getByFullName(String name) {
+        return Optional.ofNullable(fullToAbbreviationObject.get(name))
+                       .map(storedAbbreviation -> withName(name, storedAbbreviation));
+    }
+
     private static boolean isMatched(String name, Abbreviation abbreviation) {
         return name.equalsIgnoreCase(abbreviation.getName())
                 || name.equalsIgnoreCase(abbreviation.getAbbreviation())
@@ -125,9 +184,9 @@ public class JournalAbbreviationRepository {
         }
         String journal = journalName.trim().replaceAll(Matcher.quoteReplacement("\\&"), "&");
         return customAbbreviations.stream().anyMatch(abbreviation -> isMatchedAbbreviated(journal, abbreviation))
-                || abbreviationToAbbreviationObject.containsKey(journal)
-                || dotlessToAbbreviationObject.containsKey(journal)
-                || shortestUniqueToAbbreviationObject.containsKey(journal);
+                || abbreviationToFullName.containsKey(journal)
+                || dotlessToFullName.containsKey(journal)
+                || shortestUniqueToFullName.containsKey(journal);
     }
 
     /**
@@ -147,10 +206,7 @@ public class JournalAbbreviationRepository {
             return customAbbreviation;
         }
 
-        Optional<Abbreviation> abbreviation = Optional.ofNullable(fullToAbbreviationObject.get(journal))
-                .or(() -> Optional.ofNullable(abbreviationToAbbreviationObject.get(journal)))
-                .or(() -> Optional.ofNullable(dotlessToAbbreviationObject.get(journal)))
-                .or(() -> Optional.ofNullable(shortestUniqueToAbbreviationObject.get(journal)));
+        Optional<Abbreviation> abbreviation = getCached(exactMatches, journal, this::findAbbreviationExactMatched);
 
         if (abbreviation.isEmpty()) {
             abbreviation = findAbbreviationFuzzyMatched(journal);
@@ -159,22 +215,43 @@ public class JournalAbbreviationRepository {
         return abbreviation;
     }
 
+    /**
+     * The built-in abbreviations do not change, thus lookups in them can be cached. Custom abbreviations are not cached.
+     */
+    private static Optional<Abbreviation> getCached(Cache<String, Optional<Abbreviation>> cache, String journal, Function<String, Optional<Abbreviation>> lookup) {
+        Optional<Abbreviation> abbreviation = cache.getIfPresent(journal);
+        if (abbreviation == null) {
+            abbreviation = lookup.apply(journal);
+            cache.put(journal, abbreviation);
+        }
+        return abbreviation;
+    }
+
+    private Optional<Abbreviation> findAbbreviationExactMatched(String journal) {
+        return getByFullName(journal)
+                .or(() -> Optional.ofNullable(abbreviationToFullName.get(journal)).flatMap(this::getByFullName))
+                .or(() -> Optional.ofNullable(dotlessToFullName.get(journal)).flatMap(this::getByFullName))
+                .or(() -> Optional.ofNullable(shortestUniqueToFullName.get(journal)).flatMap(this::getByFullName));
+    }
+
     private Optional<Abbreviation> findAbbreviationFuzzyMatched(String input) {
-        Optional<Abbreviation> customMatch = findBestFuzzyMatched(customAbbreviations, input);
+        Optional<Abbreviation> customMatch = findBestFuzzyMatched(customAbbreviations, Abbreviation::getName, input);
         if (customMatch.isPresent()) {
             return customMatch;
         }
 
-        return findBestFuzzyMatched(fullToAbbreviationObject.values(), input);
+        // Only the full names are compared, thus the abbreviations are not read from the file
+        return getCached(fuzzyMatches, input, journal -> findBestFuzzyMatched(fullToAbbreviationObject.keySet(), Function.identity(), journal)
+                .flatMap(this::getByFullName));
     }
 
-    private Optional<Abbreviation> findBestFuzzyMatched(Collection<Abbreviation> abbreviations, String input) {
+    private <T> Optional<T> findBestFuzzyMatched(Collection<T> abbreviations, Function<T, String> getName, String input) {
         // threshold for edit distance similarity comparison
         final double SIMILARITY_THRESHOLD = 1.0;
 
-        List<Abbreviation> candidates = abbreviations.stream()
-                .filter(abbreviation -> similarity.isSimilar(input, abbreviation.getName()))
-                .sorted(Comparator.comparingDouble(abbreviation -> similarity.editDistanceIgnoreCase(input, abbreviation.getName())))
+        List<T> candidates = abbreviations.stream()
+                .filter(abbreviation -> similarity.isSimilar(input, getName.apply(abbreviation)))
+                .sorted(Comparator.comparingDouble(abbreviation -> similarity.editDistanceIgnoreCase(input, getName.apply(abbreviation))))
                 .toList();
 
         if (candidates.isEmpty()) {
@@ -182,8 +259,8 @@ public class JournalAbbreviationRepository {
         }
 
         if (candidates.size() > 1) {
-            double bestDistance = similarity.editDistanceIgnoreCase(input, candidates.getFirst().getName());
-            double secondDistance = similarity.editDistanceIgnoreCase(input, candidates.get(1).getName());
+            double bestDistance = similarity.editDistanceIgnoreCase(input, getName.apply(candidates.getFirst()));
+            double secondDistance = similarity.editDistanceIgnoreCase(input, getName.apply(candidates.get(1)));
 
             // If there is a very close match of two abbreviations, do not use any of them, because they are too close.
             if (Math.abs(bestDistance - secondDistance) < SIMILARITY_THRESHOLD) {
@@ -231,7 +308,22 @@ public class JournalAbbreviationRepository {
         return fullToAbbreviationObject.keySet();
     }
 
+    /**
+     * Reads all built-in abbreviations. Use {@link #get(String)} to look up single journals.
+     */
     public Collection<Abbreviation> getAllLoaded() {
-        return fullToAbbreviationObject.values();
+        return fullToAbbreviationObject.entrySet().stream()
+                                       .map(entry -> withName(entry.getKey(), entry.getValue()))
+                                       .toList();
+    }
+
+    /**
+     * Closes the MV file opened by this repository. A shared built-in list stays open.
+     */
+    @Override
+    public void close() {
+        if (ownedStore != null) {
+            ownedStore.close();
+        }
     }
 }
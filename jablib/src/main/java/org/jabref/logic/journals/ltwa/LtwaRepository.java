@@ -5,11 +5,13 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import com.google.common.base.Suppliers;
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
@@ -31,45 +33,42 @@ public class LtwaRepository {
     private static final String PREFIX_MAP_NAME = "Prefixes";
     private static final String SUFFIX_MAP_NAME = "Suffixes";
 
-    private final PrefixTree<LtwaEntry> prefix;
-    private final PrefixTree<LtwaEntry> suffix;
+    private final Supplier<PrefixTrees> prefixTrees;
+
+    private record PrefixTrees(PrefixTree<LtwaEntry> prefix, PrefixTree<LtwaEntry> suffix) {
+    }
 
     /**
      * Creates an empty LtwaRepository.
      */
     public LtwaRepository() {
-        this.prefix = new PrefixTree<>();
-        this.suffix = new PrefixTree<>();
+        PrefixTrees emptyTrees = new PrefixTrees(new PrefixTree<>(), new PrefixTree<>());
+        this.prefixTrees = () -> emptyTrees;
     }
 
     /**
-     * Creates a new LtwaRepository from an MV store file.
+     * Creates a new LtwaRepository from an MV store file. The file is read when the first title is abbreviated, as most
+     * sessions never use LTWA abbreviations.
      *
      * @param ltwaListFile Path to the LTWA MVStore file
      */
     public LtwaRepository(Path ltwaListFile) {
-        this();
+        this.prefixTrees = Suppliers.memoize(() -> load(ltwaListFile));
+    }
 
-        try (MVStore store = new MVStore.Builder().readOnly().fileName(ltwaListFile.toAbsolutePath().toString()).open()) {
+    private static PrefixTrees load(Path ltwaListFile) {
+        PrefixTrees trees = new PrefixTrees(new PrefixTree<>(), new PrefixTree<>());
+
+        try (MVStore store = new MVStore.Builder().readOnly().fileName("nioMapped:" + ltwaListFile.toAbsolutePath()).open()) {
             MVMap<String, List<LtwaEntry>> prefixMap = store.openMap(PREFIX_MAP_NAME);
             MVMap<String, List<LtwaEntry>> suffixMap = store.openMap(SUFFIX_MAP_NAME);
 
-            for (String key : prefixMap.keySet()) {
-                List<LtwaEntry> value = prefixMap.get(key);
-                if (value != null) {
-                    prefix.insert(key, value);
-                }
-            }
-
-            for (String key : suffixMap.keySet()) {
-                List<LtwaEntry> value = suffixMap.get(key);
-                if (value != null) {
-                    suffix.insert(key, value);
-                }
-            }
+            prefixMap.forEach(trees.prefix()::insert);
+            suffixMap.forEach(trees.suffix()::insert);
 
             LOGGER.debug("Loaded LTWA repository with {} prefixes and {} suffixes", prefixMap.size(), suffixMap.size());
         }
+        return trees;
     }
 
     /**
@@ -91,7 +90,8 @@ public class LtwaRepository {
                            CommonTokenStream tokens = new CommonTokenStream(lexer);
                            LtwaParser parser = new LtwaParser(tokens);
                            LtwaParser.TitleContext titleContext = parser.title();
-                           AbbreviationListener listener = new AbbreviationListener(normalizedTitle, prefix, suffix);
+                           PrefixTrees trees = prefixTrees.get();
+                           AbbreviationListener listener = new AbbreviationListener(normalizedTitle, trees.prefix(), trees.suffix());
                            ParseTreeWalker walker = new ParseTreeWalker();
                            walker.walk(listener, titleContext);
                            return listener.getResult();
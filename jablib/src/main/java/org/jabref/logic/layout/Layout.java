@@ -138,6 +138,14 @@ public class Layout {
         return sb.toString();
     }
 
+    /**
+     * Checks whether rendering an entry with this layout depends on the entries rendered before it.
+     * Layouts that are not order dependent can be used to render several entries concurrently.
+     */
+    public boolean isOrderDependent() {
+        return layoutEntries.stream().anyMatch(LayoutEntry::isOrderDependent);
+    }
+
     public List<String> getMissingFormatters() {
         return new ArrayList<>(missingFormatters);
     }
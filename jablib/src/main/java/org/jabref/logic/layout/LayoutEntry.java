@@ -542,6 +542,21 @@ class LayoutEntry {
         return invalidFormatter;
     }
 
+    /**
+     * Checks whether the output of this entry depends on the entries rendered before it. This is the case for group
+     * blocks (which compare against the previously rendered group) and for the {@link Number} formatter (which reads
+     * the global serial number).
+     */
+    public boolean isOrderDependent() {
+        if (type == LayoutHelper.IS_GROUP_START) {
+            return true;
+        }
+        if ((option != null) && option.stream().anyMatch(Number.class::isInstance)) {
+            return true;
+        }
+        return (layoutEntries != null) && layoutEntries.stream().anyMatch(LayoutEntry::isOrderDependent);
+    }
+
     public static List<List<String>> parseMethodsCalls(String calls) {
         List<List<String>> result = new ArrayList<>();
 
@@ -0,0 +1,152 @@
+package org.jabref.logic.net;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.jabref.logic.importer.FetcherScheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Limits the rate of requests per host using token buckets.
+ * <p>
+ * A host with a limit receives at most {@code burst} requests at once, and then one request per {@code 1 / permitsPerSecond}
+ * seconds. If a host asks to slow down (e.g., by a {@code Retry-After} header), all requests to it are paused. Hosts
+ * without a limit are only paused.
+ * <p>
+ * Waiting threads sleep, which is cheap for the virtual threads of the {@link FetcherScheduler}. A request of the
+ * scheduler gives up its permit while it waits, so that it takes the token before the permit.
+ */
+public class HostRateLimiter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HostRateLimiter.class);
+
+    private static HostRateLimiter defaultLimiter;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final LongSupplier nanoTime;
+    private final Sleeper sleeper;
+
+    /**
+     * @param permitsPerSecond the sustained rate, 0 for no limit
+     * @param burst            the number of requests which may be sent at once
+     */
+    public record Limit(double permitsPerSecond, int burst) {
+        public static final Limit NONE = new Limit(0, 1);
+    }
+
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long nanos) throws InterruptedException;
+    }
+
+    public HostRateLimiter() {
+        this(System::nanoTime, TimeUnit.NANOSECONDS::sleep);
+    }
+
+    HostRateLimiter(LongSupplier nanoTime, Sleeper sleeper) {
+        this.nanoTime = nanoTime;
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * @return the limiter shared by all downloads, configured with the published limits of the APIs used by the fetchers
+     */
+    public static synchronized HostRateLimiter getDefault() {
+        if (defaultLimiter == null) {
+            defaultLimiter = new HostRateLimiter();
+            // "Make no more than one request every three seconds" (https://info.arxiv.org/help/api/tou.html)
+            defaultLimiter.setLimit("export.arxiv.org", new Limit(1.0 / 3, 1));
+            // Limit of the public pool of the REST API
+            defaultLimiter.setLimit("api.crossref.org", new Limit(5, 5));
+            // Without API key (https://www.ncbi.nlm.nih.gov/books/NBK25497/)
+            defaultLimiter.setLimit("eutils.ncbi.nlm.nih.gov", new Limit(3, 3));
+            // Shared unauthenticated pool (https://www.semanticscholar.org/product/api)
+            defaultLimiter.setLimit("api.semanticscholar.org", new Limit(1, 1));
+        }
+        return defaultLimiter;
+    }
+
+    public void setLimit(String host, Limit limit) {
+        buckets.put(normalize(host), new TokenBucket(limit, nanoTime.getAsLong()));
+    }
+
+    /**
+     * Waits until a request to the given host may be sent.
+     */
+    public void acquire(String host) throws InterruptedException {
+        TokenBucket bucket = buckets.get(normalize(host));
+        if (bucket == null) {
+            return;
+        }
+        long firstWaitNanos = bucket.tryAcquire(nanoTime.getAsLong());
+        if (firstWaitNanos == 0) {
+            return;
+        }
+        FetcherScheduler.awaitWithoutPermit(() -> {
+            long waitNanos = firstWaitNanos;
+            do {
+                LOGGER.debug("Waiting {} ms for a request to {}", TimeUnit.NANOSECONDS.toMillis(waitNanos), host);
+                sleeper.sleep(waitNanos);
+            } while ((waitNanos = bucket.tryAcquire(nanoTime.getAsLong())) > 0);
+        });
+    }
+
+    /**
+     * Pauses all requests to the given host.
+     */
+    public void pause(String host, Duration duration) {
+        long now = nanoTime.getAsLong();
+        buckets.computeIfAbsent(normalize(host), _ -> new TokenBucket(Limit.NONE, now))
+               .pauseUntil(now + duration.toNanos());
+    }
+
+    private static String normalize(String host) {
+        return host == null ? "" : host.toLowerCase(Locale.ROOT);
+    }
+
+    private static class TokenBucket {
+        private final Limit limit;
+        private double tokens;
+        private long lastRefillNanos;
+        private long pausedUntilNanos;
+
+        TokenBucket(Limit limit, long nowNanos) {
+            this.limit = limit;
+            this.tokens = limit.burst();
+            this.lastRefillNanos = nowNanos;
+            this.pausedUntilNanos = nowNanos;
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise the nanoseconds to wait before trying again
+         */
+        synchronized long tryAcquire(long nowNanos) {
+            if (nowNanos - pausedUntilNanos < 0) {
+                return pausedUntilNanos - nowNanos;
+            }
+            if (limit.permitsPerSecond() <= 0) {
+                return 0;
+            }
+
+            tokens = Math.min(limit.burst(), tokens + (nowNanos - lastRefillNanos) * limit.permitsPerSecond() / TimeUnit.SECONDS.toNanos(1));
+            lastRefillNanos = nowNanos;
+            if (tokens >= 1) {
+                tokens--;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) * TimeUnit.SECONDS.toNanos(1) / limit.permitsPerSecond()));
+        }
+
+        synchronized void pauseUntil(long nanos) {
+            if (nanos - pausedUntilNanos > 0) {
+                pausedUntilNanos = nanos;
+            }
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package org.jabref.logic.net;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.jabref.logic.util.Directories;
+
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches responses to HTTP GET requests on disk across sessions.
+ * <p>
+ * The freshness of a response is determined by its {@code Cache-Control} or {@code Expires} header. A stale response
+ * is revalidated using its {@code ETag} or {@code Last-Modified} header, so that an unchanged resource is not
+ * transferred again. Responses without any of these headers are not cached by default, as a web API may answer the same
+ * request differently at any time. A caller may opt in to caching them for a given time to live. Responses which set cookies, forbid storing, or are too large are not cached either. If the
+ * cache grows beyond its maximum size, the least recently used entries are removed.
+ * <p>
+ * The cache can be used by several threads and several JabRef instances at once.
+ */
+public class HttpResponseCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpResponseCache.class);
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_EXTENSION = ".http.gz";
+    private static final long DEFAULT_MAXIMUM_SIZE = 256L * 1024 * 1024;
+
+    // Set by the build for tests, so that they do not write into the cache of the user
+    private static final String DIRECTORY_PROPERTY = "jabref.httpCacheDirectory";
+
+    // Larger responses (e.g., PDF files) are streamed to the caller without being cached
+    private static final int MAXIMUM_ENTRY_SIZE = 4 * 1024 * 1024;
+
+    // After an eviction, the cache has this fraction of its maximum size, so that not every new entry causes an eviction
+    private static final double EVICTION_TARGET = 0.8;
+
+    private static HttpResponseCache defaultCache;
+
+    private final Path directory;
+    private final long maximumSize;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // Size of all entries in bytes, -1 if not determined yet
+    private long size = -1;
+
+    /**
+     * A response, either received from the server or read from the cache
+     *
+     * @param contentLength the length of the body in bytes, -1 if unknown
+     */
+    public record Response(int statusCode, HttpHeaders headers, long contentLength, InputStream body) {
+    }
+
+    /**
+     * Counts of the GET requests since the cache was created
+     *
+     * @param hits          requests answered from the cache without contacting the server
+     * @param revalidations requests answered from the cache after the server confirmed that the response is unchanged
+     * @param misses        requests answered by the server
+     */
+    public record Statistics(long hits, long revalidations, long misses) {
+    }
+
+    /**
+     * Sends a request to the server, e.g., using an {@link java.net.http.HttpClient}
+     */
+    @FunctionalInterface
+    public interface RequestSender {
+        HttpResponse<InputStream> send(HttpRequest request) throws IOException, InterruptedException;
+    }
+
+    private record CachedResponse(Instant expiresAt, Map<String, List<String>> headers, byte[] body) {
+        Optional<String> header(String name) {
+            return Optional.ofNullable(headers.get(name)).flatMap(values -> values.stream().findFirst());
+        }
+    }
+
+    private record CacheEntry(Path path, long size, FileTime lastAccess) {
+    }
+
+    public HttpResponseCache(Path directory, long maximumSize) {
+        this.directory = directory;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * @return the cache shared by all downloads, located in the user cache directory
+     */
+    public static synchronized HttpResponseCache getDefault() {
+        if (defaultCache == null) {
+            Path directory = Optional.ofNullable(System.getProperty(DIRECTORY_PROPERTY))
+                                     .map(Path::of)
+                                     .orElseGet(Directories::getHttpCacheDirectory);
+            defaultCache = new HttpResponseCache(directory, DEFAULT_MAXIMUM_SIZE);
+        }
+        return defaultCache;
+    }
+
+    /**
+     * Answers a request from the cache if possible, otherwise sends it using the given sender. Only GET requests are
+     * answered from the cache, all other requests are passed to the sender.
+     */
+    public Response send(HttpRequest request, RequestSender sender) throws IOException, InterruptedException {
+        return send(request, Duration.ZERO, sender);
+    }
+
+    /**
+     * Like {@link #send(HttpRequest, RequestSender)}, but responses without caching headers are fresh for the given
+     * time to live
+     *
+     * @param timeToLive the time a response without caching headers is fresh, {@link Duration#ZERO} to not cache such
+     *                   responses
+     */
+    public Response send(HttpRequest request, Duration timeToLive, RequestSender sender) throws IOException, InterruptedException {
+        if (!"GET".equals(request.method())) {
+            return toResponse(sender.send(request));
+        }
+
+        String key = key(request);
+        Path entry = directory.resolve(key.substring(0, 2)).resolve(key + FILE_EXTENSION);
+        Optional<CachedResponse> cachedResponse = read(entry);
+        Instant now = Instant.now();
+        if (cachedResponse.isPresent() && now.isBefore(cachedResponse.get().expiresAt())) {
+            LOGGER.debug("Using cached response for {}", request.uri());
+            hits.incrementAndGet();
+            return toResponse(cachedResponse.get());
+        }
+
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(request, (_, _) -> true);
+        cachedResponse.flatMap(cached -> cached.header("etag")).ifPresent(etag -> requestBuilder.header("If-None-Match", etag));
+        cachedResponse.flatMap(cached -> cached.header("last-modified")).ifPresent(lastModified -> requestBuilder.header("If-Modified-Since", lastModified));
+        HttpResponse<InputStream> response = sender.send(requestBuilder.build());
+
+        if ((response.statusCode() == 304) && cachedResponse.isPresent()) {
+            response.body().close();
+            LOGGER.debug("Cached response for {} is unchanged", request.uri());
+            revalidations.incrementAndGet();
+            CachedResponse cached = cachedResponse.get();
+            // The headers of the 304 response update the stored ones (RFC 9111, Section 4.3.4)
+            Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            headers.putAll(cached.headers());
+            headers.putAll(response.headers().map());
+            Optional<Instant> expiresAt = expiresAt(HttpHeaders.of(headers, (_, _) -> true), timeToLive, now);
+            if (expiresAt.isPresent()) {
+                write(entry, new CachedResponse(expiresAt.get(), headers, cached.body()));
+            } else {
+                Files.deleteIfExists(entry);
+            }
+            return toResponse(cached);
+        }
+
+        misses.incrementAndGet();
+        Optional<Instant> expiresAt = expiresAt(response.headers(), timeToLive, now);
+        if ((response.statusCode() != 200) || expiresAt.isEmpty() || !isWorthStoring(response.headers(), expiresAt.get(), now)
+                || response.headers().firstValue("set-cookie").isPresent()
+                || (response.headers().firstValueAsLong("content-length").orElse(0) > MAXIMUM_ENTRY_SIZE)) {
+            if (cachedResponse.isPresent() && (response.statusCode() == 200)) {
+                // The resource changed, and its new version is not cached
+                Files.deleteIfExists(entry);
+            }
+            return toResponse(response);
+        }
+
+        InputStream body = response.body();
+        byte[] bytes = body.readNBytes(MAXIMUM_ENTRY_SIZE + 1);
+        if (bytes.length > MAXIMUM_ENTRY_SIZE) {
+            return new Response(response.statusCode(), response.headers(), contentLength(response.headers()),
+                    new SequenceInputStream(new ByteArrayInputStream(bytes), body));
+        }
+        body.close();
+
+        CachedResponse newResponse = new CachedResponse(expiresAt.get(), response.headers().map(), bytes);
+        write(entry, newResponse);
+        return toResponse(newResponse);
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(hits.get(), revalidations.get(), misses.get());
+    }
+
+    /**
+     * Requests differing in their headers (e.g., in an API key or the accepted format) are cached separately.
+     */
+    private static String key(HttpRequest request) {
+        StringBuilder key = new StringBuilder(request.uri().toString());
+        new TreeMap<>(request.headers().map()).forEach((name, values) ->
+                key.append('\n').append(name.toLowerCase(Locale.ROOT)).append(": ").append(String.join(",", values)));
+        return Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * @return the time until which a response is fresh, empty if the response must not be stored
+     */
+    private static Optional<Instant> expiresAt(HttpHeaders headers, Duration timeToLive, Instant now) {
+        if (headers.allValues("vary").stream().anyMatch(vary -> vary.contains("*"))) {
+            return Optional.empty();
+        }
+
+        Optional<Instant> maxAge = Optional.empty();
+        for (String value : headers.allValues("cache-control")) {
+            for (String directive : value.split(",")) {
+                String normalizedDirective = directive.trim().toLowerCase(Locale.ROOT);
+                if ("no-store".equals(normalizedDirective)) {
+                    return Optional.empty();
+                } else if ("no-cache".equals(normalizedDirective)) {
+                    return Optional.of(now);
+                } else if (normalizedDirective.startsWith("max-age=")) {
+                    try {
+                        long seconds = Long.parseLong(normalizedDirective.substring("max-age=".length()).replace("\"", ""));
+                        maxAge = Optional.of(now.plusSeconds(Math.max(0, seconds)));
+                    } catch (NumberFormatException e) {
+                        maxAge = Optional.of(now);
+                    }
+                }
+            }
+        }
+        if (maxAge.isPresent()) {
+            return maxAge;
+        }
+
+        Optional<String> expires = headers.firstValue("expires");
+        if (expires.isPresent()) {
+            try {
+                return Optional.of(ZonedDateTime.parse(expires.get(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+            } catch (DateTimeParseException e) {
+                // Invalid dates mean "already expired" (RFC 9111, Section 5.3)
+                return Optional.of(now);
+            }
+        }
+        // Without caching headers and time to live, a response is stale immediately and only stored if it can be revalidated
+        return Optional.of(now.plus(timeToLive));
+    }
+
+    /**
+     * A response which expires immediately is only worth storing if it can be revalidated
+     */
+    private static boolean isWorthStoring(HttpHeaders headers, Instant expiresAt, Instant now) {
+        return expiresAt.isAfter(now) || headers.firstValue("etag").isPresent() || headers.firstValue("last-modified").isPresent();
+    }
+
+    private static Response toResponse(HttpResponse<InputStream> response) {
+        return new Response(response.statusCode(), response.headers(), contentLength(response.headers()), response.body());
+    }
+
+    private static Response toResponse(CachedResponse cachedResponse) {
+        return new Response(200, HttpHeaders.of(cachedResponse.headers(), (_, _) -> true), cachedResponse.body().length, new ByteArrayInputStream(cachedResponse.body()));
+    }
+
+    private static long contentLength(HttpHeaders headers) {
+        return headers.firstValueAsLong("content-length").orElse(-1);
+    }
+
+    private Optional<CachedResponse> read(Path entry) {
+        if (!Files.exists(entry)) {
+            return Optional.empty();
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(entry))))) {
+            if (input.readInt() != FORMAT_VERSION) {
+                Files.deleteIfExists(entry);
+                return Optional.empty();
+            }
+            Instant expiresAt = Instant.ofEpochMilli(input.readLong());
+            int headerCount = input.readInt();
+            Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (int i = 0; i < headerCount; i++) {
+                String name = input.readUTF();
+                int valueCount = input.readInt();
+                List<String> values = new ArrayList<>(valueCount);
+                for (int j = 0; j < valueCount; j++) {
+                    values.add(input.readUTF());
+                }
+                headers.put(name, values);
+            }
+            byte[] body = new byte[input.readInt()];
+            input.readFully(body);
+
+            // The modification time of an entry is its last access, which determines the order of eviction
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            return Optional.of(new CachedResponse(expiresAt, headers, body));
+        } catch (IOException e) {
+            LOGGER.warn("Could not read cached response {}, removing it", entry, e);
+            try {
+                Files.deleteIfExists(entry);
+            } catch (IOException deleteException) {
+                LOGGER.warn("Could not remove cached response {}", entry, deleteException);
+            }
+            return Optional.empty();
+        }
+    }
+
+    private void write(Path entry, CachedResponse response) {
+        try {
+            Files.createDirectories(entry.getParent());
+            // Written to a temporary file first, so that concurrent readers never see a partial entry
+            Path temporaryFile = Files.createTempFile(entry.getParent(), entry.getFileName().toString(), ".tmp");
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporaryFile))))) {
+                output.writeInt(FORMAT_VERSION);
+                output.writeLong(response.expiresAt().toEpochMilli());
+                output.writeInt(response.headers().size());
+                for (Map.Entry<String, List<String>> header : response.headers().entrySet()) {
+                    output.writeUTF(header.getKey());
+                    output.writeInt(header.getValue().size());
+                    for (String value : header.getValue()) {
+                        output.writeUTF(value);
+                    }
+                }
+                output.writeInt(response.body().length);
+                output.write(response.body());
+            }
+            long entrySize = Files.size(temporaryFile);
+            Files.move(temporaryFile, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            added(entrySize);
+        } catch (IOException e) {
+            LOGGER.warn("Could not cache response in {}", entry, e);
+        }
+    }
+
+    private synchronized void added(long entrySize) throws IOException {
+        if (size < 0) {
+            size = entries().stream().mapToLong(CacheEntry::size).sum();
+        } else {
+            size += entrySize;
+        }
+        if (size > maximumSize) {
+            evict();
+        }
+    }
+
+    /**
+     * Removes the least recently used entries until the cache is below the eviction target
+     */
+    private void evict() throws IOException {
+        List<CacheEntry> entries = new ArrayList<>(entries());
+        entries.sort(Comparator.comparing(CacheEntry::lastAccess));
+        size = entries.stream().mapToLong(CacheEntry::size).sum();
+        long targetSize = (long) (maximumSize * EVICTION_TARGET);
+        for (CacheEntry entry : entries) {
+            if (size <= targetSize) {
+                break;
+            }
+            LOGGER.debug("Removing cached response {}", entry.path());
+            Files.deleteIfExists(entry.path());
+            size -= entry.size();
+        }
+    }
+
+    private List<CacheEntry> entries() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            List<CacheEntry> entries = new ArrayList<>();
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(FILE_EXTENSION)).toList()) {
+                try {
+                    entries.add(new CacheEntry(file, Files.size(file), Files.getLastModifiedTime(file)));
+                } catch (IOException e) {
+                    // Removed by another instance in the meantime
+                    LOGGER.debug("Could not access cached response {}", file, e);
+                }
+            }
+            return entries;
+        }
+    }
+}
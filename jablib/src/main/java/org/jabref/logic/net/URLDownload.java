@@ -9,15 +9,21 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.net.Authenticator;
 import java.net.CookieHandler;
 import java.net.CookieManager;
 import java.net.CookiePolicy;
 import java.net.HttpCookie;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
+import java.net.PasswordAuthentication;
+import java.net.ProxySelector;
+import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -27,11 +33,18 @@ import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
@@ -61,8 +74,10 @@ import org.slf4j.LoggerFactory;
  * String contentType = dl.getMimeType();
  * </code>
  * <br/><br/>
- * Almost each call to a public method creates a new HTTP connection (except for {@link #asString(Charset, URLConnection) asString},
- * which uses an already opened connection). Nothing is cached.
+ * HTTP(S) downloads use a client shared by all downloads, which keeps connections alive and multiplexes requests to a host
+ * over one HTTP/2 connection if the server supports it. Responses to GET requests are cached in a {@link HttpResponseCache}.
+ * All other calls to a public method create a new connection (except for {@link #asString(Charset, URLConnection) asString},
+ * which uses an already opened connection).
  */
 public class URLDownload {
 
@@ -71,11 +86,21 @@ public class URLDownload {
     private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(30);
     private static final int MAX_RETRIES = 3;
 
+    // Longer delays requested by a server are not waited for, the request fails instead
+    private static final Duration MAX_RETRY_AFTER = Duration.ofSeconds(30);
+
+    // Set by the HTTP client itself, setting them as request headers is not allowed
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private static HttpClient httpClient;
+
     private final URL source;
     private final Map<String, String> parameters = new HashMap<>();
     private String postData = "";
     private Duration connectTimeout = DEFAULT_CONNECT_TIMEOUT;
     private SSLContext sslContext;
+    private HttpResponseCache responseCache = HttpResponseCache.getDefault();
+    private Duration cacheTimeToLive = Duration.ZERO;
 
     static {
         Unirest.config()
@@ -200,7 +225,7 @@ public class URLDownload {
      * @return the downloaded string
      */
     public String asString() throws FetcherException {
-        return asString(StandardCharsets.UTF_8, this.openConnection());
+        return asString(StandardCharsets.UTF_8);
     }
 
     /**
@@ -210,7 +235,18 @@ public class URLDownload {
      * @return the downloaded string
      */
     public String asString(Charset encoding) throws FetcherException {
-        return asString(encoding, this.openConnection());
+        Optional<URI> uri = getHttpUri();
+        if (uri.isEmpty()) {
+            return asString(encoding, this.openConnection());
+        }
+
+        try (InputStream input = new BufferedInputStream(sendRequest(uri.get()).body());
+             Writer output = new StringWriter()) {
+            copy(input, output, encoding);
+            return output.toString();
+        } catch (IOException e) {
+            throw new FetcherException("Error downloading", e);
+        }
     }
 
     /**
@@ -262,7 +298,8 @@ public class URLDownload {
      * @param destination the destination file path.
      */
     public void toFile(Path destination) throws FetcherException {
-        try (InputStream input = new BufferedInputStream(this.openConnection().getInputStream())) {
+        Optional<URI> uri = getHttpUri();
+        try (InputStream input = new BufferedInputStream(uri.isPresent() ? sendRequest(uri.get()).body() : this.openConnection().getInputStream())) {
             Files.copy(input, destination, StandardCopyOption.REPLACE_EXISTING);
         } catch (IOException e) {
             LOGGER.warn("Could not copy input", e);
@@ -274,6 +311,18 @@ public class URLDownload {
      * Takes the web resource as the source for a monitored input stream.
      */
     public ProgressInputStream asInputStream() throws FetcherException {
+        Optional<URI> uri = getHttpUri();
+        if (uri.isPresent()) {
+            HttpResponseCache.Response response = sendRequest(uri.get());
+            LOGGER.debug("Response code: {}", response.statusCode());
+            if (response.statusCode() >= 300) {
+                SimpleHttpResponse simpleHttpResponse = toSimpleHttpResponse(response);
+                LOGGER.error("Failed to read from url: {}", simpleHttpResponse);
+                throw FetcherException.of(this.source, simpleHttpResponse);
+            }
+            return new ProgressInputStream(new BufferedInputStream(response.body()), response.contentLength());
+        }
+
         HttpURLConnection urlConnection = (HttpURLConnection) this.openConnection();
 
         int responseCode;
@@ -417,6 +466,171 @@ public class URLDownload {
         return connection;
     }
 
+    /**
+     * Sends the request of this download using the shared HTTP client, answering it from the response cache if possible.
+     *
+     * @throws FetcherClientException if the server responded with a client error
+     * @throws FetcherServerException if the server responded with a server error
+     */
+    private HttpResponseCache.Response sendRequest(URI uri) throws FetcherException {
+        HttpResponseCache.Response response;
+        try {
+            response = responseCache.send(createRequest(uri), cacheTimeToLive, URLDownload::sendRateLimited);
+        } catch (IOException e) {
+            LOGGER.error("Error getting response", e);
+            throw new FetcherException("Error getting response", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FetcherException("Download interrupted", e);
+        }
+
+        if (response.statusCode() >= 400) {
+            // in case of an error, propagate the error message
+            SimpleHttpResponse httpResponse = toSimpleHttpResponse(response);
+            LOGGER.info("{}: {}", FetcherException.getRedactedUrl(this.source), httpResponse);
+            throw FetcherException.of(this.source, httpResponse);
+        }
+        return response;
+    }
+
+    /**
+     * Sends a request respecting the rate limit of its host. If the host asks to retry later, all requests to it are paused,
+     * and the request is retried if the delay is short.
+     */
+    private static java.net.http.HttpResponse<InputStream> sendRateLimited(HttpRequest request) throws IOException, InterruptedException {
+        HostRateLimiter rateLimiter = HostRateLimiter.getDefault();
+        String host = request.uri().getHost();
+        for (int attempt = 1; ; attempt++) {
+            rateLimiter.acquire(host);
+            java.net.http.HttpResponse<InputStream> response = getHttpClient().send(request, java.net.http.HttpResponse.BodyHandlers.ofInputStream());
+            if ((response.statusCode() != 429) && (response.statusCode() != 503)) {
+                return response;
+            }
+            Optional<Duration> retryAfter = response.headers().firstValue("retry-after").flatMap(URLDownload::parseRetryAfter);
+            if (retryAfter.isEmpty()) {
+                return response;
+            }
+            rateLimiter.pause(host, retryAfter.get());
+            if ((attempt >= MAX_RETRIES) || (retryAfter.get().compareTo(MAX_RETRY_AFTER) > 0)) {
+                return response;
+            }
+            LOGGER.info("{} asked to retry after {} s", host, retryAfter.get().toSeconds());
+            response.body().close();
+        }
+    }
+
+    /**
+     * @param retryAfter either a number of seconds or an HTTP date
+     */
+    private static Optional<Duration> parseRetryAfter(String retryAfter) {
+        String value = retryAfter.trim();
+        try {
+            return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(value))));
+        } catch (NumberFormatException e) {
+            try {
+                Duration delay = Duration.between(Instant.now(), ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+                return Optional.of(delay.isNegative() ? Duration.ZERO : delay);
+            } catch (DateTimeParseException dateException) {
+                LOGGER.debug("Invalid Retry-After header {}", retryAfter, dateException);
+                return Optional.empty();
+            }
+        }
+    }
+
+    private HttpRequest createRequest(URI uri) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri);
+        if ("http".equalsIgnoreCase(uri.getScheme())) {
+            // HTTP/2 is negotiated during the TLS handshake. Over plain HTTP, the client would send an upgrade request, which some servers reject.
+            builder.version(HttpClient.Version.HTTP_1_1);
+        }
+        if (!connectTimeout.equals(DEFAULT_CONNECT_TIMEOUT)) {
+            builder.timeout(connectTimeout);
+        }
+        for (Entry<String, String> entry : this.parameters.entrySet()) {
+            if (!RESTRICTED_HEADERS.contains(entry.getKey().toLowerCase(Locale.ROOT))) {
+                builder.setHeader(entry.getKey(), entry.getValue());
+            }
+        }
+        if (this.postData.isEmpty()) {
+            builder.GET();
+        } else {
+            if (this.parameters.keySet().stream().noneMatch("Content-Type"::equalsIgnoreCase)) {
+                // Default of HttpURLConnection
+                builder.setHeader("Content-Type", "application/x-www-form-urlencoded");
+            }
+            builder.POST(HttpRequest.BodyPublishers.ofString(this.postData));
+        }
+        return builder.build();
+    }
+
+    private static SimpleHttpResponse toSimpleHttpResponse(HttpResponseCache.Response response) {
+        try (InputStream body = response.body()) {
+            return new SimpleHttpResponse(response.statusCode(), "", new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOGGER.debug("Could not read error response", e);
+            return new SimpleHttpResponse(response.statusCode(), "", "");
+        }
+    }
+
+    /**
+     * @return the URI of the source if it is downloaded using the shared HTTP client, empty otherwise
+     */
+    private Optional<URI> getHttpUri() {
+        String protocol = source.getProtocol();
+        if (!"http".equalsIgnoreCase(protocol) && !"https".equalsIgnoreCase(protocol)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(source.toURI());
+        } catch (URISyntaxException e) {
+            // Such URLs can still be opened as connection
+            LOGGER.debug("Could not convert {} to URI", source, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * The client is shared by all downloads, so that connections to a host are kept alive and reused.
+     * <p>
+     * SSL certificates are installed into the default SSL context at {@link org.jabref.logic.net.ssl.TrustStoreManager}, which
+     * the client uses. Proxy settings, proxy credentials, and cookies may change at runtime and are thus looked up for each request.
+     */
+    private static synchronized HttpClient getHttpClient() {
+        if (httpClient == null) {
+            HttpClient.Builder builder = HttpClient.newBuilder()
+                                                  .version(HttpClient.Version.HTTP_2)
+                                                  // openConnection follows all redirects, including the ones from HTTPS to HTTP
+                                                  .followRedirects(HttpClient.Redirect.ALWAYS)
+                                                  .connectTimeout(DEFAULT_CONNECT_TIMEOUT)
+                                                  .authenticator(new DefaultAuthenticator())
+                                                  .cookieHandler(new DefaultCookieHandler());
+            ProxySelector proxySelector = ProxySelector.getDefault();
+            if (proxySelector != null) {
+                builder.proxy(proxySelector);
+            }
+            httpClient = builder.build();
+        }
+        return httpClient;
+    }
+
+    /**
+     * Sets the time a response without caching headers is served from the cache. Such responses are not cached by
+     * default, as a web API may answer the same request differently at any time. Use it only for resources which are
+     * known to change rarely.
+     */
+    public void setCacheTimeToLive(Duration cacheTimeToLive) {
+        this.cacheTimeToLive = Objects.requireNonNull(cacheTimeToLive);
+    }
+
+    public void setResponseCache(HttpResponseCache responseCache) {
+        if (responseCache != null) {
+            this.responseCache = responseCache;
+        }
+    }
+
+    /**
+     * For HTTP(S) downloads, the timeout also covers waiting for the response, if it differs from the default.
+     */
     public void setConnectTimeout(Duration connectTimeout) {
         if (connectTimeout != null) {
             this.connectTimeout = connectTimeout;
@@ -426,4 +640,38 @@ public class URLDownload {
     public Duration getConnectTimeout() {
         return connectTimeout;
     }
+
+    /**
+     * Passes requests for credentials to the current default authenticator (e.g., the {@link ProxyAuthenticator})
+     */
+    private static class DefaultAuthenticator extends Authenticator {
+        @Override
+        protected PasswordAuthentication getPasswordAuthentication() {
+            Authenticator authenticator = Authenticator.getDefault();
+            if (authenticator == null) {
+                return null;
+            }
+            return authenticator.requestPasswordAuthenticationInstance(getRequestingHost(), getRequestingSite(), getRequestingPort(),
+                    getRequestingProtocol(), getRequestingPrompt(), getRequestingScheme(), getRequestingURL(), getRequestorType());
+        }
+    }
+
+    /**
+     * Passes cookies to and from the current default cookie handler, as set by {@link #getCookieFromUrl()}
+     */
+    private static class DefaultCookieHandler extends CookieHandler {
+        @Override
+        public Map<String, List<String>> get(URI uri, Map<String, List<String>> requestHeaders) throws IOException {
+            CookieHandler cookieHandler = CookieHandler.getDefault();
+            return cookieHandler == null ? Map.of() : cookieHandler.get(uri, requestHeaders);
+        }
+
+        @Override
+        public void put(URI uri, Map<String, List<String>> responseHeaders) throws IOException {
+            CookieHandler cookieHandler = CookieHandler.getDefault();
+            if (cookieHandler != null) {
+                cookieHandler.put(uri, responseHeaders);
+            }
+        }
+    }
 }
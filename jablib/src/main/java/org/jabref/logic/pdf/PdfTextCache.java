@@ -0,0 +1,307 @@
+package org.jabref.logic.pdf;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.jabref.logic.util.Directories;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.ScratchFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotation;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the text extracted from PDF files across libraries and sessions.
+ * <p>
+ * Entries are keyed by the SHA-256 hash of the file content. Thus, a file which is linked from several libraries is
+ * read only once, and a file which was touched without changing its content is not read again. The cache lives in the
+ * user cache directory. If it grows beyond its maximum size, the least recently used entries are removed.
+ * <p>
+ * The cache can be used by several threads and several JabRef instances at once.
+ */
+public class PdfTextCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PdfTextCache.class);
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_EXTENSION = ".pages.gz";
+    private static final long DEFAULT_MAXIMUM_SIZE = 512L * 1024 * 1024;
+    private static final String DIRECTORY_PROPERTY = "jabref.pdfTextCacheDirectory";
+
+    // After an eviction, the cache has this fraction of its maximum size, so that not every new entry causes an eviction
+    private static final double EVICTION_TARGET = 0.8;
+
+    // PDF data beyond this size is buffered in a scratch file, so that reading several large files in parallel does not exhaust the heap
+    private static final long MAIN_MEMORY_PER_DOCUMENT = 32L * 1024 * 1024;
+
+    private static PdfTextCache defaultCache;
+
+    private final Path directory;
+    private final long maximumSize;
+
+    // Avoids hashing a file again as long as its size and modification time do not change
+    private final Map<Path, FileHash> fileHashes = new ConcurrentHashMap<>();
+
+    // Size of all entries in bytes, -1 if not determined yet
+    private long size = -1;
+
+    /**
+     * The text of one page of a PDF file
+     *
+     * @param text        the text of the page with lines separated by {@code \n}
+     * @param annotations the contents of the annotations of the page
+     */
+    public record Page(String text, List<String> annotations) {
+    }
+
+    private record FileHash(long size, FileTime modifiedTime, String hash) {
+    }
+
+    private record CacheEntry(Path path, long size, FileTime lastAccess) {
+    }
+
+    public PdfTextCache(Path directory, long maximumSize) {
+        this.directory = directory;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * @return the cache shared by all libraries, located in the user cache directory unless the system property
+     * {@value #DIRECTORY_PROPERTY} names another directory
+     */
+    public static synchronized PdfTextCache getDefault() {
+        if (defaultCache == null) {
+            Path directory = Optional.ofNullable(System.getProperty(DIRECTORY_PROPERTY))
+                                     .map(Path::of)
+                                     .orElseGet(Directories::getPdfTextCacheDirectory);
+            defaultCache = new PdfTextCache(directory, DEFAULT_MAXIMUM_SIZE);
+        }
+        return defaultCache;
+    }
+
+    /**
+     * Returns the text of the pages of a PDF file. If the content of the file is not cached yet, it is read and added to the cache.
+     *
+     * @param isCancelled checked before each page is read. If it returns true, reading is stopped and nothing is cached.
+     * @return the pages, empty if the file could not be read or reading was cancelled
+     */
+    public Optional<List<Page>> getPages(Path file, BooleanSupplier isCancelled) {
+        String hash;
+        try {
+            hash = hash(file);
+        } catch (IOException e) {
+            LOGGER.warn("Could not read {}", file.toAbsolutePath(), e);
+            return Optional.empty();
+        }
+
+        Path entry = directory.resolve(hash.substring(0, 2)).resolve(hash + FILE_EXTENSION);
+        Optional<List<Page>> cachedPages = read(entry);
+        if (cachedPages.isPresent()) {
+            LOGGER.debug("Using cached text of file {}", file.toAbsolutePath());
+            return cachedPages;
+        }
+
+        Optional<List<Page>> pages = extract(file, isCancelled);
+        pages.ifPresent(extractedPages -> write(entry, extractedPages));
+        return pages;
+    }
+
+    private String hash(Path file) throws IOException {
+        long fileSize = Files.size(file);
+        FileTime modifiedTime = Files.getLastModifiedTime(file);
+        Path key = file.toAbsolutePath().normalize();
+        FileHash fileHash = fileHashes.get(key);
+        if ((fileHash == null) || (fileHash.size() != fileSize) || !fileHash.modifiedTime().equals(modifiedTime)) {
+            fileHash = new FileHash(fileSize, modifiedTime, MoreFiles.asByteSource(file).hash(Hashing.sha256()).toString());
+            fileHashes.put(key, fileHash);
+        }
+        return fileHash.hash();
+    }
+
+    private Optional<List<Page>> extract(Path file, BooleanSupplier isCancelled) {
+        try (PDDocument document = Loader.loadPDF(file.toFile(), () -> new ScratchFile(MemoryUsageSetting.setupMixed(MAIN_MEMORY_PER_DOCUMENT)))) {
+            int numberOfPages = document.getNumberOfPages();
+            LOGGER.debug("Reading file {} content with {} pages", file.toAbsolutePath(), numberOfPages);
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setLineSeparator("\n");
+            List<Page> pages = new ArrayList<>(numberOfPages);
+            for (int pageNumber = 1; pageNumber <= numberOfPages; pageNumber++) {
+                if (isCancelled.getAsBoolean()) {
+                    LOGGER.debug("Reading file {} canceled", file.toAbsolutePath());
+                    return Optional.empty();
+                }
+                pages.add(extractPage(document, stripper, pageNumber, file));
+            }
+            return Optional.of(pages);
+        } catch (IOException e) {
+            LOGGER.warn("Could not read {}", file.toAbsolutePath(), e);
+            return Optional.empty();
+        }
+    }
+
+    private Page extractPage(PDDocument document, PDFTextStripper stripper, int pageNumber, Path file) {
+        stripper.setStartPage(pageNumber);
+        stripper.setEndPage(pageNumber);
+        try {
+            String text = stripper.getText(document);
+
+            // Apache PDFTextStripper is 1-based. See {@link org.apache.pdfbox.text.PDFTextStripper.processPages}
+            PDPage page = document.getPage(pageNumber - 1);
+            List<String> annotations = page.getAnnotations()
+                                           .stream()
+                                           .map(PDAnnotation::getContents)
+                                           .filter(Objects::nonNull)
+                                           .toList();
+            return new Page(text, annotations);
+        } catch (IOException e) {
+            LOGGER.warn("Could not read page {} of {}", pageNumber, file.toAbsolutePath(), e);
+            return new Page("", List.of());
+        }
+    }
+
+    private Optional<List<Page>> read(Path entry) {
+        if (!Files.exists(entry)) {
+            return Optional.empty();
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(entry))))) {
+            if (input.readInt() != FORMAT_VERSION) {
+                Files.deleteIfExists(entry);
+                return Optional.empty();
+            }
+            int pageCount = input.readInt();
+            List<Page> pages = new ArrayList<>(pageCount);
+            for (int i = 0; i < pageCount; i++) {
+                String text = readString(input);
+                int annotationCount = input.readInt();
+                List<String> annotations = new ArrayList<>(annotationCount);
+                for (int j = 0; j < annotationCount; j++) {
+                    annotations.add(readString(input));
+                }
+                pages.add(new Page(text, annotations));
+            }
+
+            // The modification time of an entry is its last access, which determines the order of eviction
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            return Optional.of(pages);
+        } catch (IOException e) {
+            LOGGER.warn("Could not read cached text {}, removing it", entry, e);
+            try {
+                Files.deleteIfExists(entry);
+            } catch (IOException deleteException) {
+                LOGGER.warn("Could not remove cached text {}", entry, deleteException);
+            }
+            return Optional.empty();
+        }
+    }
+
+    private void write(Path entry, List<Page> pages) {
+        try {
+            Files.createDirectories(entry.getParent());
+            // Written to a temporary file first, so that concurrent readers never see a partial entry
+            Path temporaryFile = Files.createTempFile(entry.getParent(), entry.getFileName().toString(), ".tmp");
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporaryFile))))) {
+                output.writeInt(FORMAT_VERSION);
+                output.writeInt(pages.size());
+                for (Page page : pages) {
+                    writeString(output, page.text());
+                    output.writeInt(page.annotations().size());
+                    for (String annotation : page.annotations()) {
+                        writeString(output, annotation);
+                    }
+                }
+            }
+            long entrySize = Files.size(temporaryFile);
+            Files.move(temporaryFile, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            added(entrySize);
+        } catch (IOException e) {
+            LOGGER.warn("Could not cache text in {}", entry, e);
+        }
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream output, String string) throws IOException {
+        // DataOutputStream.writeUTF is limited to 64 KiB
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private synchronized void added(long entrySize) throws IOException {
+        if (size < 0) {
+            size = entries().stream().mapToLong(CacheEntry::size).sum();
+        } else {
+            size += entrySize;
+        }
+        if (size > maximumSize) {
+            evict();
+        }
+    }
+
+    /**
+     * Removes the least recently used entries until the cache is below the eviction target
+     */
+    private void evict() throws IOException {
+        List<CacheEntry> entries = new ArrayList<>(entries());
+        entries.sort(Comparator.comparing(CacheEntry::lastAccess));
+        size = entries.stream().mapToLong(CacheEntry::size).sum();
+        long targetSize = (long) (maximumSize * EVICTION_TARGET);
+        for (CacheEntry entry : entries) {
+            if (size <= targetSize) {
+                break;
+            }
+            LOGGER.debug("Removing cached text {}", entry.path());
+            Files.deleteIfExists(entry.path());
+            size -= entry.size();
+        }
+    }
+
+    private List<CacheEntry> entries() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            List<CacheEntry> entries = new ArrayList<>();
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(FILE_EXTENSION)).toList()) {
+                try {
+                    entries.add(new CacheEntry(file, Files.size(file), Files.getLastModifiedTime(file)));
+                } catch (IOException e) {
+                    // Removed by another instance in the meantime
+                    LOGGER.debug("Could not access cached text {}", file, e);
+                }
+            }
+            return entries;
+        }
+    }
+}
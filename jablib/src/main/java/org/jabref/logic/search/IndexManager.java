@@ -192,6 +192,7 @@ public class IndexManager {
     public void close() {
         bibFieldsIndexer.close();
         shouldIndexLinkedFiles.removeListener(preferencesListener);
+        linkedFilesSearcher.close();
         linkedFilesIndexer.close();
         databaseContext.getDatabase().postEvent(new IndexClosedEvent());
     }
@@ -199,6 +200,7 @@ public class IndexManager {
     public void closeAndWait() {
         bibFieldsIndexer.closeAndWait();
         shouldIndexLinkedFiles.removeListener(preferencesListener);
+        linkedFilesSearcher.close();
         linkedFilesIndexer.closeAndWait();
         databaseContext.getDatabase().postEvent(new IndexClosedEvent());
     }
@@ -6,11 +6,18 @@ import java.nio.file.Path;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -19,6 +26,7 @@ import javafx.util.Pair;
 import org.jabref.logic.FilePreferences;
 import org.jabref.logic.importer.util.FileFieldParser;
 import org.jabref.logic.l10n.Localization;
+import org.jabref.logic.pdf.PdfTextCache;
 import org.jabref.logic.search.LuceneIndexer;
 import org.jabref.logic.util.BackgroundTask;
 import org.jabref.logic.util.HeadlessExecutorService;
@@ -29,6 +37,7 @@ import org.jabref.model.entry.BibEntry;
 import org.jabref.model.entry.LinkedFile;
 import org.jabref.model.search.LinkedFilesConstants;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.commons.io.FileUtils;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.IndexWriter;
@@ -48,7 +57,10 @@ import org.slf4j.LoggerFactory;
 
 public class DefaultLinkedFilesIndexer implements LuceneIndexer {
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultLinkedFilesIndexer.class);
-    private static final DocumentReader DOCUMENT_READER = new DocumentReader();
+    private static final DocumentReader DOCUMENT_READER = new DocumentReader(PdfTextCache.getDefault());
+    private static final int EXTRACTION_THREADS = Math.clamp(Runtime.getRuntime().availableProcessors() / 2, 1, 8);
+    private static final int MAX_PENDING_EXTRACTIONS = 2 * EXTRACTION_THREADS;
+    private static final int COMMIT_INTERVAL = 100;
     private static int NUMBER_OF_UNSAVED_LIBRARIES = 1;
 
     private final BibDatabaseContext databaseContext;
@@ -60,6 +72,9 @@ public class DefaultLinkedFilesIndexer implements LuceneIndexer {
     private Path indexDirectoryPath;
     private Map<String, Long> indexedFiles;
 
+    private record ExtractedFile(String fileLink, long modifiedTime, Path resolvedPath, List<Document> pages) {
+    }
+
     public DefaultLinkedFilesIndexer(BibDatabaseContext databaseContext, FilePreferences filePreferences) throws IOException {
         this.databaseContext = databaseContext;
         this.filePreferences = filePreferences;
@@ -125,41 +140,96 @@ public class DefaultLinkedFilesIndexer implements LuceneIndexer {
     }
 
     private void addToIndex(Map<String, Pair<Long, Path>> linkedFiles, BackgroundTask<?> task) {
-        for (String fileLink : linkedFiles.keySet()) {
+        linkedFiles.keySet().removeIf(fileLink -> {
             if (indexedFiles.containsKey(fileLink)) {
                 LOGGER.debug("File {} is already indexed.", fileLink);
-                linkedFiles.remove(fileLink);
+                return true;
             }
-        }
+            return false;
+        });
         if (linkedFiles.isEmpty()) {
             return;
         }
 
         LOGGER.debug("Adding {} files to index", linkedFiles.size());
+        // Files are read in parallel, but only a bounded number of them is held in memory.
+        // The index writer is only used by this thread. Files are added in the order their extraction completes, which varies from run to run.
+        ExecutorService extractionExecutor = Executors.newFixedThreadPool(EXTRACTION_THREADS,
+                new ThreadFactoryBuilder().setNameFormat("linked-files-extraction-%d").setDaemon(true).build());
+        CompletionService<ExtractedFile> extractions = new ExecutorCompletionService<>(extractionExecutor);
+        Iterator<Map.Entry<String, Pair<Long, Path>>> pendingFiles = linkedFiles.entrySet().iterator();
+        int runningExtractions = 0;
+        while ((runningExtractions < MAX_PENDING_EXTRACTIONS) && pendingFiles.hasNext()) {
+            submitExtraction(extractions, pendingFiles.next(), task);
+            runningExtractions++;
+        }
+
         int i = 1;
-        for (Map.Entry<String, Pair<Long, Path>> entry : linkedFiles.entrySet()) {
-            if (task.isCancelled()) {
-                LOGGER.debug("Adding files to index canceled");
-                return;
+        try {
+            while (runningExtractions > 0) {
+                Future<ExtractedFile> extraction = extractions.take();
+                runningExtractions--;
+                if (task.isCancelled()) {
+                    LOGGER.debug("Adding files to index canceled");
+                    return;
+                }
+                if (pendingFiles.hasNext()) {
+                    submitExtraction(extractions, pendingFiles.next(), task);
+                    runningExtractions++;
+                }
+
+                try {
+                    ExtractedFile extractedFile = extraction.get();
+                    addToIndex(extractedFile);
+                    task.updateMessage(Localization.lang("Indexing %0", FileUtil.shortenFileName(extractedFile.resolvedPath().getFileName().toString(), 68)));
+                } catch (ExecutionException e) {
+                    LOGGER.warn("Could not read linked file", e.getCause());
+                }
+                task.setTitle(Localization.lang("Indexing files for %1 | %2 of %0 file(s) indexed.", linkedFiles.size(), libraryName, i));
+                task.updateProgress(i, linkedFiles.size());
+                task.showToUser(true);
+                if (i % COMMIT_INTERVAL == 0) {
+                    // Makes the progress durable, files indexed so far are skipped in the next session
+                    commit();
+                }
+                i++;
             }
-            addToIndex(entry.getKey(), entry.getValue().getKey(), entry.getValue().getValue());
-            task.setTitle(Localization.lang("Indexing files for %1 | %2 of %0 file(s) indexed.", linkedFiles.size(), libraryName, i));
-            task.updateProgress(i, linkedFiles.size());
-            task.updateMessage(Localization.lang("Indexing %0", FileUtil.shortenFileName(entry.getValue().getValue().getFileName().toString(), 68)));
-            task.showToUser(true);
-            i++;
+            LOGGER.debug("Added {} files to index", linkedFiles.size());
+        } catch (InterruptedException e) {
+            LOGGER.debug("Adding files to index interrupted");
+            Thread.currentThread().interrupt();
+        } finally {
+            extractionExecutor.shutdownNow();
+            commit();
+        }
+    }
+
+    private void submitExtraction(CompletionService<ExtractedFile> extractions, Map.Entry<String, Pair<Long, Path>> linkedFile, BackgroundTask<?> task) {
+        String fileLink = linkedFile.getKey();
+        long modifiedTime = linkedFile.getValue().getKey();
+        Path resolvedPath = linkedFile.getValue().getValue();
+        extractions.submit(() -> {
+            LOGGER.debug("Reading file {} for the index.", fileLink);
+            List<Document> pages = task.isCancelled() ? List.of() : DOCUMENT_READER.readPdfContents(fileLink, resolvedPath, modifiedTime, task::isCancelled);
+            return new ExtractedFile(fileLink, modifiedTime, resolvedPath, pages);
+        });
+    }
+
+    private void addToIndex(ExtractedFile extractedFile) {
+        LOGGER.debug("Adding file {} to the index.", extractedFile.fileLink());
+        try {
+            indexWriter.addDocuments(extractedFile.pages());
+            indexedFiles.put(extractedFile.fileLink(), extractedFile.modifiedTime());
+        } catch (IOException e) {
+            LOGGER.warn("Could not add the document {} to the index.", extractedFile.fileLink(), e);
         }
-        LOGGER.debug("Added {} files to index", linkedFiles.size());
     }
 
-    private void addToIndex(String fileLink, long modifiedTime, Path resolvedPath) {
-        LOGGER.debug("Adding file {} to the index.", fileLink);
-        List<Document> pages = DOCUMENT_READER.readPdfContents(fileLink, resolvedPath);
+    private void commit() {
         try {
-            indexWriter.addDocuments(pages);
-            indexedFiles.put(fileLink, modifiedTime);
+            indexWriter.commit();
         } catch (IOException e) {
-            LOGGER.warn("Could not add the document {} to the index.", fileLink, e);
+            LOGGER.warn("Could not commit the linked files index.", e);
         }
     }
 
@@ -1,27 +1,18 @@
 package org.jabref.logic.search.indexing;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
-import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 import java.util.regex.Pattern;
 
+import org.jabref.logic.pdf.PdfTextCache;
 import org.jabref.model.strings.StringUtil;
 
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotation;
-import org.apache.pdfbox.text.PDFTextStripper;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import static org.jabref.model.search.LinkedFilesConstants.ANNOTATIONS;
 import static org.jabref.model.search.LinkedFilesConstants.CONTENT;
@@ -34,31 +25,36 @@ import static org.jabref.model.search.LinkedFilesConstants.PATH;
  */
 public final class DocumentReader {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(DocumentReader.class);
     private static final Pattern HYPHEN_LINEBREAK_PATTERN = Pattern.compile("\\-\n");
     private static final Pattern LINEBREAK_WITHOUT_PERIOD_PATTERN = Pattern.compile("([^\\\\.])\\n");
 
-    public List<Document> readPdfContents(String fileLink, Path resolvedPdfPath) {
+    private final PdfTextCache pdfTextCache;
+
+    public DocumentReader(PdfTextCache pdfTextCache) {
+        this.pdfTextCache = pdfTextCache;
+    }
+
+    /**
+     * Reads the pages of a PDF file. The text is taken from the {@link PdfTextCache} if the content of the file was read before.
+     *
+     * @param modifiedTime the modification time of the file in seconds, stored with every page
+     * @param isCancelled  checked before each page is read
+     */
+    public List<Document> readPdfContents(String fileLink, Path resolvedPdfPath, long modifiedTime, BooleanSupplier isCancelled) {
         List<Document> pages = new ArrayList<>();
-        try (PDDocument pdfDocument = Loader.loadPDF(resolvedPdfPath.toFile())) {
-            int numberOfPages = pdfDocument.getNumberOfPages();
-            LOGGER.debug("Reading file {} content with {} pages", resolvedPdfPath.toAbsolutePath(), numberOfPages);
-            for (int pageNumber = 1; pageNumber <= numberOfPages; pageNumber++) {
-                Document newDocument = new Document();
-                addIdentifiers(newDocument, fileLink);
-                addMetaData(newDocument, resolvedPdfPath, pageNumber);
-                addContentIfNotEmpty(pdfDocument, newDocument, resolvedPdfPath, pageNumber);
-
-                pages.add(newDocument);
-            }
-        } catch (IOException e) {
-            LOGGER.warn("Could not read {}", resolvedPdfPath.toAbsolutePath(), e);
-            return pages;
+        List<PdfTextCache.Page> pdfPages = pdfTextCache.getPages(resolvedPdfPath, isCancelled).orElse(List.of());
+        for (int pageNumber = 1; pageNumber <= pdfPages.size(); pageNumber++) {
+            Document newDocument = new Document();
+            addIdentifiers(newDocument, fileLink);
+            addMetaData(newDocument, modifiedTime, pageNumber);
+            addContentIfNotEmpty(newDocument, pdfPages.get(pageNumber - 1));
+
+            pages.add(newDocument);
         }
         if (pages.isEmpty()) {
             Document newDocument = new Document();
             addIdentifiers(newDocument, fileLink);
-            addMetaData(newDocument, resolvedPdfPath, 1);
+            addMetaData(newDocument, modifiedTime, 1);
             pages.add(newDocument);
         }
         return pages;
@@ -80,41 +76,17 @@ public final class DocumentReader {
         return LINEBREAK_WITHOUT_PERIOD_PATTERN.matcher(mergedHyphenNewlines).replaceAll("$1 ");
     }
 
-    private void addMetaData(Document newDocument, Path resolvedPdfPath, int pageNumber) {
-        try {
-            long modifiedTime = Files.getLastModifiedTime(resolvedPdfPath).to(TimeUnit.SECONDS);
-            addStringField(newDocument, MODIFIED.toString(), String.valueOf(modifiedTime));
-        } catch (IOException e) {
-            LOGGER.error("Could not read timestamp for {}", resolvedPdfPath, e);
-        }
+    private void addMetaData(Document newDocument, long modifiedTime, int pageNumber) {
+        addStringField(newDocument, MODIFIED.toString(), String.valueOf(modifiedTime));
         addStringField(newDocument, PAGE_NUMBER.toString(), String.valueOf(pageNumber));
     }
 
-    private void addContentIfNotEmpty(PDDocument pdfDocument, Document newDocument, Path resolvedPath, int pageNumber) {
-        PDFTextStripper pdfTextStripper = new PDFTextStripper();
-        pdfTextStripper.setLineSeparator("\n");
-        pdfTextStripper.setStartPage(pageNumber);
-        pdfTextStripper.setEndPage(pageNumber);
-
-        try {
-            String pdfContent = pdfTextStripper.getText(pdfDocument);
-            if (StringUtil.isNotBlank(pdfContent)) {
-                newDocument.add(new TextField(CONTENT.toString(), mergeLines(pdfContent), Field.Store.YES));
-            }
-
-            // Apache PDFTextStripper is 1-based. See {@link org.apache.pdfbox.text.PDFTextStripper.processPages}
-            PDPage page = pdfDocument.getPage(pageNumber - 1);
-            List<String> annotations = page.getAnnotations()
-                                           .stream()
-                                           .map(PDAnnotation::getContents)
-                                           .filter(Objects::nonNull)
-                                           .toList();
-
-            if (!annotations.isEmpty()) {
-                newDocument.add(new TextField(ANNOTATIONS.toString(), String.join("\n", annotations), Field.Store.YES));
-            }
-        } catch (IOException e) {
-            LOGGER.warn("Could not read page {} of  {}", pageNumber, resolvedPath.toAbsolutePath(), e);
+    private void addContentIfNotEmpty(Document newDocument, PdfTextCache.Page page) {
+        if (StringUtil.isNotBlank(page.text())) {
+            newDocument.add(new TextField(CONTENT.toString(), mergeLines(page.text()), Field.Store.YES));
+        }
+        if (!page.annotations().isEmpty()) {
+            newDocument.add(new TextField(ANNOTATIONS.toString(), String.join("\n", page.annotations()), Field.Store.YES));
         }
     }
 
@@ -2,33 +2,55 @@ package org.jabref.logic.search.retrieval;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import org.jabref.logic.FilePreferences;
 import org.jabref.logic.search.LuceneIndexer;
 import org.jabref.logic.search.query.SearchQueryConversion;
 import org.jabref.model.database.BibDatabaseContext;
+import org.jabref.model.database.event.EntriesAddedEvent;
+import org.jabref.model.database.event.EntriesRemovedEvent;
 import org.jabref.model.entry.BibEntry;
 import org.jabref.model.entry.LinkedFile;
+import org.jabref.model.entry.event.FieldChangedEvent;
+import org.jabref.model.entry.field.StandardField;
 import org.jabref.model.search.LinkedFilesConstants;
 import org.jabref.model.search.SearchFlags;
 import org.jabref.model.search.query.SearchQuery;
 import org.jabref.model.search.query.SearchResult;
 import org.jabref.model.search.query.SearchResults;
 
+import com.google.common.base.Suppliers;
+import com.google.common.eventbus.Subscribe;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.StoredFieldVisitor;
 import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Scorable;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.highlight.Highlighter;
 import org.apache.lucene.search.highlight.QueryScorer;
@@ -38,11 +60,17 @@ import org.slf4j.LoggerFactory;
 
 public final class LinkedFilesSearcher {
     private static final Logger LOGGER = LoggerFactory.getLogger(LinkedFilesSearcher.class);
+    private static final int MAX_PAGES_PER_FILE = 10;
+    private static final Set<String> PAGE_CONTENT_FIELDS = Set.of(LinkedFilesConstants.CONTENT.toString(), LinkedFilesConstants.ANNOTATIONS.toString());
 
     private final FilePreferences filePreferences;
     private final BibDatabaseContext databaseContext;
     private final SearcherManager searcherManager;
     private final MultiFieldQueryParser parser;
+    private final LinkedFilesChangedListener linkedFilesChangedListener = new LinkedFilesChangedListener();
+
+    // fileLink to List of entry IDs, null if it has to be rebuilt
+    private Map<String, List<String>> linkedFilesMap;
 
     public LinkedFilesSearcher(BibDatabaseContext databaseContext, LuceneIndexer linkedFilesIndexer, FilePreferences filePreferences) {
         this.searcherManager = linkedFilesIndexer.getSearcherManager();
@@ -50,6 +78,14 @@ public final class LinkedFilesSearcher {
         this.filePreferences = filePreferences;
         this.parser = new MultiFieldQueryParser(LinkedFilesConstants.PDF_FIELDS.toArray(new String[0]), LinkedFilesConstants.LINKED_FILES_ANALYZER);
         parser.setDefaultOperator(QueryParser.Operator.AND);
+        databaseContext.getDatabase().registerListener(linkedFilesChangedListener);
+    }
+
+    /**
+     * Stops tracking the linked files of the library. Otherwise, the library would keep this searcher alive.
+     */
+    public void close() {
+        databaseContext.getDatabase().unregisterListener(linkedFilesChangedListener);
     }
 
     public SearchResults search(SearchQuery searchQuery) {
@@ -91,51 +127,182 @@ public final class LinkedFilesSearcher {
     }
 
     private SearchResults search(IndexSearcher indexSearcher, Query searchQuery) throws IOException {
-        TopDocs topDocs = indexSearcher.search(searchQuery, Integer.MAX_VALUE);
-        StoredFields storedFields = indexSearcher.storedFields();
-        LOGGER.debug("Found {} matching documents", topDocs.totalHits.value());
-        return getSearchResults(topDocs, storedFields, searchQuery);
-    }
-
-    private SearchResults getSearchResults(TopDocs topDocs, StoredFields storedFields, Query searchQuery) throws IOException {
-        SearchResults searchResults = new SearchResults();
         long startTime = System.currentTimeMillis();
+        Map<String, List<String>> entriesPerFile = getLinkedFilesMap();
+        Map<String, PriorityQueue<ScoreDoc>> pagesPerFile = indexSearcher.search(searchQuery, new PagesPerFileCollectorManager(entriesPerFile.keySet()));
+        LOGGER.debug("Found matching pages in {} files", pagesPerFile.size());
 
-        Map<String, List<String>> linkedFilesMap = getLinkedFilesMap();
+        SearchResults searchResults = new SearchResults();
+        StoredFields storedFields = indexSearcher.storedFields();
         Highlighter highlighter = new Highlighter(new SimpleHTMLFormatter("<b>", "</b>"), new QueryScorer(searchQuery));
+        for (Map.Entry<String, PriorityQueue<ScoreDoc>> filePages : pagesPerFile.entrySet()) {
+            String fileLink = filePages.getKey();
+            List<String> entriesWithFile = entriesPerFile.get(fileLink);
+            List<ScoreDoc> pages = filePages.getValue().stream()
+                                            .sorted(Comparator.comparingDouble((ScoreDoc scoreDoc) -> scoreDoc.score).reversed())
+                                            .toList();
+            for (ScoreDoc page : pages) {
+                Document document = storedFields.document(page.doc, Set.of(LinkedFilesConstants.PAGE_NUMBER.toString()));
+                int pageNumber = Integer.parseInt(getFieldContents(document, LinkedFilesConstants.PAGE_NUMBER));
 
-        for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
-            Document document = storedFields.document(scoreDoc.doc);
-            String fileLink = getFieldContents(document, LinkedFilesConstants.PATH);
-
-            if (!fileLink.isEmpty()) {
-                List<String> entriesWithFile = linkedFilesMap.get(fileLink);
-                if (entriesWithFile != null && !entriesWithFile.isEmpty()) {
-                    SearchResult searchResult = new SearchResult(
-                            fileLink,
-                            getFieldContents(document, LinkedFilesConstants.CONTENT),
-                            getFieldContents(document, LinkedFilesConstants.ANNOTATIONS),
-                            Integer.parseInt(getFieldContents(document, LinkedFilesConstants.PAGE_NUMBER)),
-                            highlighter);
-                    searchResults.addSearchResult(entriesWithFile, searchResult);
-                }
+                // The text of a page is only needed if the page is displayed
+                Supplier<Document> pageContents = Suppliers.memoize(() -> loadPageContents(fileLink, pageNumber));
+                SearchResult searchResult = new SearchResult(
+                        fileLink,
+                        pageNumber,
+                        () -> getFieldContents(pageContents.get(), LinkedFilesConstants.CONTENT),
+                        () -> getFieldContents(pageContents.get(), LinkedFilesConstants.ANNOTATIONS),
+                        highlighter);
+                searchResults.addSearchResult(entriesWithFile, searchResult);
             }
         }
         LOGGER.debug("Getting linked files results took {} ms", System.currentTimeMillis() - startTime);
         return searchResults;
     }
 
-    private Map<String, List<String>> getLinkedFilesMap() {
-        // fileLink to List of entry IDs
-        Map<String, List<String>> linkedFilesMap = new HashMap<>();
-        for (BibEntry bibEntry : databaseContext.getEntries()) {
-            for (LinkedFile linkedFile : bibEntry.getFiles()) {
-                linkedFilesMap.computeIfAbsent(linkedFile.getLink(), k -> new ArrayList<>()).add(bibEntry.getId());
+    private Document loadPageContents(String fileLink, int pageNumber) {
+        Query pageQuery = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(LinkedFilesConstants.PATH.toString(), fileLink)), BooleanClause.Occur.FILTER)
+                .add(new TermQuery(new Term(LinkedFilesConstants.PAGE_NUMBER.toString(), String.valueOf(pageNumber))), BooleanClause.Occur.FILTER)
+                .build();
+        try {
+            IndexSearcher indexSearcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = indexSearcher.search(pageQuery, 1);
+                if (topDocs.scoreDocs.length > 0) {
+                    return indexSearcher.storedFields().document(topDocs.scoreDocs[0].doc, PAGE_CONTENT_FIELDS);
+                }
+            } finally {
+                releaseIndexSearcher(searcherManager, indexSearcher);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not load page {} of {} from the index", pageNumber, fileLink, e);
+        }
+        return new Document();
+    }
+
+    private synchronized Map<String, List<String>> getLinkedFilesMap() {
+        if (linkedFilesMap == null) {
+            // fileLink to List of entry IDs
+            linkedFilesMap = new HashMap<>();
+            for (BibEntry bibEntry : databaseContext.getEntries()) {
+                for (LinkedFile linkedFile : bibEntry.getFiles()) {
+                    linkedFilesMap.computeIfAbsent(linkedFile.getLink(), k -> new ArrayList<>()).add(bibEntry.getId());
+                }
             }
         }
         return linkedFilesMap;
     }
 
+    private synchronized void invalidateLinkedFilesMap() {
+        linkedFilesMap = null;
+    }
+
+    private class LinkedFilesChangedListener {
+        @Subscribe
+        public void listen(EntriesAddedEvent event) {
+            invalidateLinkedFilesMap();
+        }
+
+        @Subscribe
+        public void listen(EntriesRemovedEvent event) {
+            invalidateLinkedFilesMap();
+        }
+
+        @Subscribe
+        public void listen(FieldChangedEvent event) {
+            if (event.getField() == StandardField.FILE) {
+                invalidateLinkedFilesMap();
+            }
+        }
+    }
+
+    /**
+     * Groups the matching pages by linked file and keeps the best scoring pages of each file only.
+     * Of each matching page, only the path is read from the index.
+     */
+    private record PagesPerFileCollectorManager(Set<String> linkedFiles) implements CollectorManager<PagesPerFileCollector, Map<String, PriorityQueue<ScoreDoc>>> {
+        @Override
+        public PagesPerFileCollector newCollector() {
+            return new PagesPerFileCollector(linkedFiles);
+        }
+
+        @Override
+        public Map<String, PriorityQueue<ScoreDoc>> reduce(Collection<PagesPerFileCollector> collectors) {
+            Map<String, PriorityQueue<ScoreDoc>> pagesPerFile = new HashMap<>();
+            for (PagesPerFileCollector collector : collectors) {
+                collector.pagesPerFile.forEach((fileLink, pages) -> pages.forEach(page -> addPage(pagesPerFile, fileLink, page)));
+            }
+            return pagesPerFile;
+        }
+    }
+
+    private static void addPage(Map<String, PriorityQueue<ScoreDoc>> pagesPerFile, String fileLink, ScoreDoc page) {
+        PriorityQueue<ScoreDoc> pages = pagesPerFile.computeIfAbsent(fileLink, _ -> new PriorityQueue<>(Comparator.comparingDouble(scoreDoc -> scoreDoc.score)));
+        pages.add(page);
+        if (pages.size() > MAX_PAGES_PER_FILE) {
+            pages.poll();
+        }
+    }
+
+    private static class PagesPerFileCollector extends SimpleCollector {
+        private final Set<String> linkedFiles;
+        private final Map<String, PriorityQueue<ScoreDoc>> pagesPerFile = new HashMap<>();
+        private StoredFields storedFields;
+        private Scorable scorer;
+        private int docBase;
+
+        PagesPerFileCollector(Set<String> linkedFiles) {
+            this.linkedFiles = linkedFiles;
+        }
+
+        @Override
+        protected void doSetNextReader(LeafReaderContext context) throws IOException {
+            storedFields = context.reader().storedFields();
+            docBase = context.docBase;
+        }
+
+        @Override
+        public void setScorer(Scorable scorer) {
+            this.scorer = scorer;
+        }
+
+        @Override
+        public void collect(int doc) throws IOException {
+            PathVisitor pathVisitor = new PathVisitor();
+            storedFields.document(doc, pathVisitor);
+            if ((pathVisitor.path != null) && linkedFiles.contains(pathVisitor.path)) {
+                addPage(pagesPerFile, pathVisitor.path, new ScoreDoc(docBase + doc, scorer.score()));
+            }
+        }
+
+        @Override
+        public ScoreMode scoreMode() {
+            return ScoreMode.COMPLETE;
+        }
+    }
+
+    /**
+     * Reads the path of a page only. The path is the first stored field, so the visitor stops before the content is decoded.
+     * Lucene still decompresses the block of stored fields containing the page.
+     */
+    private static class PathVisitor extends StoredFieldVisitor {
+        private String path;
+
+        @Override
+        public Status needsField(FieldInfo fieldInfo) {
+            if (path != null) {
+                return Status.STOP;
+            }
+            return LinkedFilesConstants.PATH.toString().equals(fieldInfo.name) ? Status.YES : Status.NO;
+        }
+
+        @Override
+        public void stringField(FieldInfo fieldInfo, String value) {
+            path = value;
+        }
+    }
+
     private static String getFieldContents(Document document, LinkedFilesConstants field) {
         return Optional.ofNullable(document.get(field.toString())).orElse("");
     }
@@ -0,0 +1,104 @@
+package org.jabref.logic.shared;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.LongSupplier;
+
+/**
+ * Position of a client in the CHANGELOG table of the shared database.
+ * <p>
+ * The sequence number of a change is drawn when the change is made, but the change only becomes visible when its
+ * transaction is committed. Thus, a change may become visible after changes with higher sequence numbers. Skipped
+ * sequence numbers are remembered as missing and read again until they appear. The sequence numbers of rolled back
+ * transactions never appear, so missing sequence numbers are given up after a timeout.
+ */
+class ChangeLogPosition {
+
+    private static final Duration MISSING_SEQUENCE_TIMEOUT = Duration.ofMinutes(2);
+
+    // Comparing all entries is cheaper than tracking more missing sequence numbers
+    private static final int MAXIMUM_MISSING_SEQUENCES = 1_000;
+
+    private final long missingSequenceTimeout;
+    private final LongSupplier nanoTime;
+
+    // Maps the missing sequence numbers to the time they were noticed
+    private final SortedMap<Long, Long> missingSequences = new TreeMap<>();
+    private long lastSequence = -1;
+
+    ChangeLogPosition() {
+        this(MISSING_SEQUENCE_TIMEOUT, System::nanoTime);
+    }
+
+    ChangeLogPosition(Duration missingSequenceTimeout, LongSupplier nanoTime) {
+        this.missingSequenceTimeout = missingSequenceTimeout.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @return <code>false</code> if the position is unknown and all entries need to be compared
+     */
+    boolean isKnown() {
+        return lastSequence >= 0;
+    }
+
+    void reset() {
+        lastSequence = -1;
+        missingSequences.clear();
+    }
+
+    /**
+     * Moves to the given change. All changes up to it are regarded as seen.
+     */
+    void moveTo(long sequence) {
+        reset();
+        lastSequence = sequence;
+    }
+
+    /**
+     * @return the sequence number after which the changes need to be read
+     */
+    long getReadFrom() {
+        long now = nanoTime.getAsLong();
+        missingSequences.values().removeIf(noticed -> now - noticed >= missingSequenceTimeout);
+        if (missingSequences.isEmpty()) {
+            return lastSequence;
+        }
+        return Math.min(lastSequence, missingSequences.firstKey() - 1);
+    }
+
+    /**
+     * @return <code>true</code> if the given change was not seen yet
+     */
+    boolean isUnseen(long sequence) {
+        return (sequence > lastSequence) || missingSequences.containsKey(sequence);
+    }
+
+    /**
+     * Records the given changes as seen. The changes skipped by them are remembered as missing. If too many changes are
+     * missing, the position becomes unknown.
+     */
+    void markSeen(Collection<Long> sequences) {
+        if (!isKnown()) {
+            return;
+        }
+        long now = nanoTime.getAsLong();
+        for (long sequence : new TreeSet<>(sequences)) {
+            missingSequences.remove(sequence);
+            if (sequence <= lastSequence) {
+                continue;
+            }
+            if (missingSequences.size() + (sequence - lastSequence - 1) > MAXIMUM_MISSING_SEQUENCES) {
+                reset();
+                return;
+            }
+            for (long missingSequence = lastSequence + 1; missingSequence < sequence; missingSequence++) {
+                missingSequences.put(missingSequence, now);
+            }
+            lastSequence = sequence;
+        }
+    }
+}
@@ -7,13 +7,15 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -165,6 +167,11 @@ public abstract class DBMSProcessor {
         }
         insertIntoEntryTable(notYetExistingEntries);
         insertIntoFieldTable(notYetExistingEntries);
+        // Notified after the fields were inserted, so that other clients do not pull incomplete entries
+        notifyAboutChangedEntries(notYetExistingEntries.stream()
+                                                       .map(entry -> entry.getSharedBibEntryData().getSharedID())
+                                                       .filter(id -> id != -1)
+                                                       .toList());
     }
 
     /**
@@ -294,149 +301,197 @@ public abstract class DBMSProcessor {
      * Updates the whole {@link BibEntry} on shared database.
      *
      * @param localBibEntry {@link BibEntry} affected by changes
+     * @throws OfflineLockException if the shared entry was changed in the meantime
      * @throws SQLException in case of error
      */
     public void updateEntry(BibEntry localBibEntry) throws OfflineLockException, SQLException {
+        List<OfflineLockException> conflicts = updateEntries(List.of(localBibEntry));
+        if (!conflicts.isEmpty()) {
+            throw conflicts.getFirst();
+        }
+    }
+
+    /**
+     * Updates the given entries on shared database in one transaction. An entry is only updated if the local version is
+     * not older than the shared one (optimistic offline lock).
+     * <p>
+     * The changed fields of all entries are written with one batch of statements per kind of change, instead of
+     * querying and writing every field separately.
+     *
+     * @param localBibEntries {@link BibEntry} affected by changes
+     * @return the conflicts of the entries which were not updated, because they were changed on shared database in the
+     * meantime
+     * @throws SQLException in case of error
+     */
+    public List<OfflineLockException> updateEntries(List<BibEntry> localBibEntries) throws SQLException {
+        List<OfflineLockException> conflicts = new ArrayList<>();
+        if (localBibEntries.isEmpty()) {
+            return conflicts;
+        }
+
         connection.setAutoCommit(false); // disable auto commit due to transaction
 
         try {
-            Optional<BibEntry> sharedEntryOptional = getSharedEntry(localBibEntry.getSharedBibEntryData().getSharedID());
+            Map<Integer, BibEntry> sharedEntries = partitionAndGetSharedEntries(localBibEntries.stream()
+                                                                                              .map(entry -> entry.getSharedBibEntryData().getSharedID())
+                                                                                              .toList())
+                    .stream()
+                    .collect(Collectors.toMap(entry -> entry.getSharedBibEntryData().getSharedID(), entry -> entry));
+
+            List<BibEntry> entriesToUpdate = new ArrayList<>();
+            for (BibEntry localBibEntry : localBibEntries) {
+                BibEntry sharedBibEntry = sharedEntries.get(localBibEntry.getSharedBibEntryData().getSharedID());
+                if (sharedBibEntry == null) {
+                    continue;
+                }
 
-            if (sharedEntryOptional.isEmpty()) {
-                return;
+                // update only if local version is higher or the entries are equal
+                if ((localBibEntry.getSharedBibEntryData().getVersion() >= sharedBibEntry.getSharedBibEntryData().getVersion())
+                        || localBibEntry.equals(sharedBibEntry)) {
+                    entriesToUpdate.add(localBibEntry);
+                } else {
+                    conflicts.add(new OfflineLockException(localBibEntry, sharedBibEntry));
+                }
             }
 
-            BibEntry sharedBibEntry = sharedEntryOptional.get();
-
-            // remove shared fields which do not exist locally
-            removeSharedFieldsByDifference(localBibEntry, sharedBibEntry);
-
-            // update only if local version is higher or the entries are equal
-            if ((localBibEntry.getSharedBibEntryData().getVersion() >= sharedBibEntry.getSharedBibEntryData()
-                                                                                     .getVersion()) || localBibEntry.equals(sharedBibEntry)) {
-                insertOrUpdateFields(localBibEntry);
-
-                // updating entry type
-                String updateEntryTypeQuery = "UPDATE " +
-                        escape_Table("ENTRY") +
-                        " SET " +
-                        escape("TYPE") +
-                        " = ?, " +
-                        escape("VERSION") +
-                        " = " +
-                        escape("VERSION") +
-                        " + 1 WHERE " +
-                        escape("SHARED_ID") +
-                        " = ?";
-
-                try (PreparedStatement preparedUpdateEntryTypeStatement = connection.prepareStatement(updateEntryTypeQuery)) {
-                    preparedUpdateEntryTypeStatement.setString(1, localBibEntry.getType().getName());
-                    preparedUpdateEntryTypeStatement.setInt(2, localBibEntry.getSharedBibEntryData().getSharedID());
-                    preparedUpdateEntryTypeStatement.executeUpdate();
+            // The version must not have changed since reading the shared entries, otherwise the update is refused
+            List<BibEntry> updatedEntries = updateEntryTable(entriesToUpdate, sharedEntries);
+            Set<Integer> updatedIDs = updatedEntries.stream().map(entry -> entry.getSharedBibEntryData().getSharedID()).collect(Collectors.toSet());
+            for (BibEntry localBibEntry : entriesToUpdate) {
+                if (!updatedIDs.contains(localBibEntry.getSharedBibEntryData().getSharedID())) {
+                    BibEntry sharedBibEntry = getSharedEntry(localBibEntry.getSharedBibEntryData().getSharedID())
+                            .orElse(sharedEntries.get(localBibEntry.getSharedBibEntryData().getSharedID()));
+                    conflicts.add(new OfflineLockException(localBibEntry, sharedBibEntry));
                 }
-
-                connection.commit(); // apply all changes in current transaction
-            } else {
-                throw new OfflineLockException(localBibEntry, sharedBibEntry);
             }
+
+            updateFieldTable(updatedEntries, sharedEntries);
+            // Delivered by the database when the transaction is committed
+            notifyAboutChangedEntries(updatedEntries.stream().map(entry -> entry.getSharedBibEntryData().getSharedID()).toList());
+
+            connection.commit(); // apply all changes in current transaction
         } catch (SQLException e) {
             LOGGER.error("SQL Error: ", e);
             connection.rollback(); // undo changes made in current transaction
         } finally {
             connection.setAutoCommit(true); // enable auto commit mode again
         }
+
+        return conflicts;
     }
 
     /**
-     * Helping method. Removes shared fields which do not exist locally
+     * Helping method. Updates the entry type and increases the version of the given entries, if their shared version
+     * did not change.
+     *
+     * @return the entries which were updated
      */
-    private void removeSharedFieldsByDifference(BibEntry localBibEntry, BibEntry sharedBibEntry) throws SQLException {
-        Set<Field> nullFields = new HashSet<>(sharedBibEntry.getFields());
-        nullFields.removeAll(localBibEntry.getFields());
-        for (Field nullField : nullFields) {
-            String deleteFieldQuery = "DELETE FROM " +
-                    escape_Table("FIELD") +
-                    " WHERE " +
-                    escape("NAME") +
-                    " = ? AND " +
-                    escape("ENTRY_SHARED_ID") +
-                    " = ?";
-
-            try (PreparedStatement preparedDeleteFieldStatement = connection
-                    .prepareStatement(deleteFieldQuery)) {
-                preparedDeleteFieldStatement.setString(1, nullField.getName());
-                preparedDeleteFieldStatement.setInt(2, localBibEntry.getSharedBibEntryData().getSharedID());
-                preparedDeleteFieldStatement.executeUpdate();
+    private List<BibEntry> updateEntryTable(List<BibEntry> localBibEntries, Map<Integer, BibEntry> sharedEntries) throws SQLException {
+        if (localBibEntries.isEmpty()) {
+            return List.of();
+        }
+
+        String updateEntryTypeQuery = "UPDATE " +
+                escape_Table("ENTRY") +
+                " SET " +
+                escape("TYPE") +
+                " = ?, " +
+                escape("VERSION") +
+                " = " +
+                escape("VERSION") +
+                " + 1 WHERE " +
+                escape("SHARED_ID") +
+                " = ? AND " +
+                escape("VERSION") +
+                " = ?";
+
+        try (PreparedStatement preparedUpdateEntryTypeStatement = connection.prepareStatement(updateEntryTypeQuery)) {
+            for (BibEntry localBibEntry : localBibEntries) {
+                int sharedID = localBibEntry.getSharedBibEntryData().getSharedID();
+                preparedUpdateEntryTypeStatement.setString(1, localBibEntry.getType().getName());
+                preparedUpdateEntryTypeStatement.setInt(2, sharedID);
+                preparedUpdateEntryTypeStatement.setInt(3, sharedEntries.get(sharedID).getSharedBibEntryData().getVersion());
+                preparedUpdateEntryTypeStatement.addBatch();
+            }
+            int[] updateCounts = preparedUpdateEntryTypeStatement.executeBatch();
+
+            List<BibEntry> updatedEntries = new ArrayList<>();
+            for (int i = 0; i < localBibEntries.size(); i++) {
+                if (updateCounts[i] != 0) {
+                    updatedEntries.add(localBibEntries.get(i));
+                }
             }
+            return updatedEntries;
         }
     }
 
     /**
-     * Helping method. Inserts a key-value pair into FIELD table for every field if not existing. Otherwise only an
-     * update is performed.
+     * Helping method. Removes shared fields which do not exist locally, inserts new fields, and updates changed values.
      */
-    private void insertOrUpdateFields(BibEntry localBibEntry) throws SQLException {
-        for (Field field : localBibEntry.getFields()) {
-            // avoiding to use deprecated BibEntry.getField() method. null values are accepted by PreparedStatement!
-            Optional<String> valueOptional = localBibEntry.getField(field);
-            String value = null;
-            if (valueOptional.isPresent()) {
-                value = valueOptional.get();
-            }
+    private void updateFieldTable(List<BibEntry> localBibEntries, Map<Integer, BibEntry> sharedEntries) throws SQLException {
+        String deleteFieldQuery = "DELETE FROM " +
+                escape_Table("FIELD") +
+                " WHERE " +
+                escape("NAME") +
+                " = ? AND " +
+                escape("ENTRY_SHARED_ID") +
+                " = ?";
+
+        String updateFieldQuery = "UPDATE " +
+                escape_Table("FIELD") +
+                " SET " +
+                escape("VALUE") +
+                " = ? WHERE " +
+                escape("NAME") +
+                " = ? AND " +
+                escape("ENTRY_SHARED_ID") +
+                " = ?";
+
+        String insertFieldQuery = "INSERT INTO " +
+                escape_Table("FIELD") +
+                "(" +
+                escape("ENTRY_SHARED_ID") +
+                ", " +
+                escape("NAME") +
+                ", " +
+                escape("VALUE") +
+                ") VALUES(?, ?, ?)";
+
+        try (PreparedStatement preparedDeleteFieldStatement = connection.prepareStatement(deleteFieldQuery);
+             PreparedStatement preparedUpdateFieldStatement = connection.prepareStatement(updateFieldQuery);
+             PreparedStatement preparedInsertFieldStatement = connection.prepareStatement(insertFieldQuery)) {
+            for (BibEntry localBibEntry : localBibEntries) {
+                int sharedID = localBibEntry.getSharedBibEntryData().getSharedID();
+                BibEntry sharedBibEntry = sharedEntries.get(sharedID);
+
+                // remove shared fields which do not exist locally
+                for (Field field : sharedBibEntry.getFields()) {
+                    if (!localBibEntry.hasField(field)) {
+                        preparedDeleteFieldStatement.setString(1, field.getName());
+                        preparedDeleteFieldStatement.setInt(2, sharedID);
+                        preparedDeleteFieldStatement.addBatch();
+                    }
+                }
 
-            String selectFieldQuery = "SELECT * FROM " +
-                    escape_Table("FIELD") +
-                    " WHERE " +
-                    escape("NAME") +
-                    " = ? AND " +
-                    escape("ENTRY_SHARED_ID") +
-                    " = ?";
-
-            try (PreparedStatement preparedSelectFieldStatement = connection
-                    .prepareStatement(selectFieldQuery)) {
-                preparedSelectFieldStatement.setString(1, field.getName());
-                preparedSelectFieldStatement.setInt(2, localBibEntry.getSharedBibEntryData().getSharedID());
-
-                try (ResultSet selectFieldResultSet = preparedSelectFieldStatement.executeQuery()) {
-                    if (selectFieldResultSet.next()) { // check if field already exists
-                        String updateFieldQuery = "UPDATE " +
-                                escape_Table("FIELD") +
-                                " SET " +
-                                escape("VALUE") +
-                                " = ? WHERE " +
-                                escape("NAME") +
-                                " = ? AND " +
-                                escape("ENTRY_SHARED_ID") +
-                                " = ?";
-
-                        try (PreparedStatement preparedUpdateFieldStatement = connection
-                                .prepareStatement(updateFieldQuery)) {
-                            preparedUpdateFieldStatement.setString(1, value);
-                            preparedUpdateFieldStatement.setString(2, field.getName());
-                            preparedUpdateFieldStatement.setInt(3, localBibEntry.getSharedBibEntryData().getSharedID());
-                            preparedUpdateFieldStatement.executeUpdate();
-                        }
-                    } else {
-                        String insertFieldQuery = "INSERT INTO " +
-                                escape_Table("FIELD") +
-                                "(" +
-                                escape("ENTRY_SHARED_ID") +
-                                ", " +
-                                escape("NAME") +
-                                ", " +
-                                escape("VALUE") +
-                                ") VALUES(?, ?, ?)";
-
-                        try (PreparedStatement preparedFieldStatement = connection
-                                .prepareStatement(insertFieldQuery)) {
-                            preparedFieldStatement.setInt(1, localBibEntry.getSharedBibEntryData().getSharedID());
-                            preparedFieldStatement.setString(2, field.getName());
-                            preparedFieldStatement.setString(3, value);
-                            preparedFieldStatement.executeUpdate();
-                        }
+                // insert new fields and update shared fields whose value changed locally
+                for (Map.Entry<Field, String> localField : localBibEntry.getFieldMap().entrySet()) {
+                    Optional<String> sharedValue = sharedBibEntry.getField(localField.getKey());
+                    if (sharedValue.isEmpty()) {
+                        preparedInsertFieldStatement.setInt(1, sharedID);
+                        preparedInsertFieldStatement.setString(2, localField.getKey().getName());
+                        preparedInsertFieldStatement.setString(3, localField.getValue());
+                        preparedInsertFieldStatement.addBatch();
+                    } else if (!sharedValue.get().equals(localField.getValue())) {
+                        preparedUpdateFieldStatement.setString(1, localField.getValue());
+                        preparedUpdateFieldStatement.setString(2, localField.getKey().getName());
+                        preparedUpdateFieldStatement.setInt(3, sharedID);
+                        preparedUpdateFieldStatement.addBatch();
                     }
                 }
             }
+            preparedDeleteFieldStatement.executeBatch();
+            preparedUpdateFieldStatement.executeBatch();
+            preparedInsertFieldStatement.executeBatch();
         }
     }
 
@@ -464,11 +519,110 @@ public abstract class DBMSProcessor {
                 preparedStatement.setInt(j + 1, bibEntries.get(j).getSharedBibEntryData().getSharedID());
             }
             preparedStatement.executeUpdate();
+            notifyAboutChangedEntries(bibEntries.stream().map(entry -> entry.getSharedBibEntryData().getSharedID()).toList());
         } catch (SQLException e) {
             LOGGER.error("SQL Error: ", e);
         }
     }
 
+    private void notifyAboutChangedEntries(List<Integer> sharedIDs) {
+        // An empty list would ask the other clients to compare all entries
+        if (!sharedIDs.isEmpty()) {
+            notifyClients(sharedIDs);
+        }
+    }
+
+    /**
+     * Retrieves the sequence number of the latest change in the CHANGELOG table.
+     *
+     * @return the sequence number, 0 if there is no change yet, or empty if the change log could not be read
+     */
+    public OptionalLong getLastChangeSequence() {
+        String selectSequenceQuery = "SELECT MAX(" +
+                escape("SEQUENCE") +
+                ") FROM " +
+                escape_Table("CHANGELOG");
+
+        try (ResultSet resultSet = connection.createStatement().executeQuery(selectSequenceQuery)) {
+            // MAX of an empty table is NULL, which is read as 0
+            return resultSet.next() ? OptionalLong.of(resultSet.getLong(1)) : OptionalLong.of(0);
+        } catch (SQLException e) {
+            LOGGER.error("SQL Error", e);
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Retrieves the changes recorded in the CHANGELOG table after the given change. The table is filled by triggers of
+     * the database, so that changes of all clients are recorded.
+     *
+     * @param sequence sequence number of a change, see {@link #getLastChangeSequence()}
+     * @return a mapping of the sequence numbers of the changes to the IDs of the changed entries, or empty if the change
+     * log could not be read or the changes right after the given one were already removed by {@link #pruneChangeLog(long)}
+     */
+    public Optional<SortedMap<Long, Integer>> getChangesSince(long sequence) {
+        SortedMap<Long, Integer> changes = new TreeMap<>();
+        String selectFirstSequenceQuery = "SELECT MIN(" +
+                escape("SEQUENCE") +
+                ") FROM " +
+                escape_Table("CHANGELOG");
+        String selectChangesQuery = "SELECT * FROM " +
+                escape_Table("CHANGELOG") +
+                " WHERE " +
+                escape("SEQUENCE") +
+                " > ? ORDER BY " +
+                escape("SEQUENCE");
+
+        try (ResultSet resultSet = connection.createStatement().executeQuery(selectFirstSequenceQuery)) {
+            // MIN of an empty table is NULL, which is read as 0
+            if (resultSet.next() && (resultSet.getLong(1) - 1 > sequence)) {
+                return Optional.empty();
+            }
+        } catch (SQLException e) {
+            LOGGER.error("SQL Error", e);
+            return Optional.empty();
+        }
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement(selectChangesQuery)) {
+            preparedStatement.setLong(1, sequence);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    changes.put(resultSet.getLong("SEQUENCE"), resultSet.getInt("ENTRY_SHARED_ID"));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.error("SQL Error", e);
+            return Optional.empty();
+        }
+
+        return Optional.of(changes);
+    }
+
+    /**
+     * Removes all but the latest changes from the CHANGELOG table. Clients which did not read the removed changes yet
+     * have to compare all entries, see {@link #getChangesSince(long)}.
+     *
+     * @param retainedChanges number of the latest changes to keep
+     */
+    public void pruneChangeLog(long retainedChanges) {
+        String deleteChangesQuery = "DELETE FROM " +
+                escape_Table("CHANGELOG") +
+                " WHERE " +
+                escape("SEQUENCE") +
+                " <= (SELECT MAX(" +
+                escape("SEQUENCE") +
+                ") FROM " +
+                escape_Table("CHANGELOG") +
+                ") - ?";
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement(deleteChangesQuery)) {
+            preparedStatement.setLong(1, retainedChanges);
+            preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            LOGGER.error("SQL Error", e);
+        }
+    }
+
     /**
      * @param sharedID Entry ID
      * @return instance of {@link BibEntry}
@@ -691,4 +845,14 @@ public abstract class DBMSProcessor {
     public void notifyClients() {
         // nothing to do
     }
+
+    /**
+     * Notifies all clients ({@link DBMSSynchronizer}) which are connected to the same DBMS about changed entries. Needs
+     * to be implemented if LiveUpdate is supported by the DBMS
+     *
+     * @param sharedIDs IDs of the changed entries
+     */
+    protected void notifyClients(@SuppressWarnings("unused") List<Integer> sharedIDs) {
+        // nothing to do
+    }
 }
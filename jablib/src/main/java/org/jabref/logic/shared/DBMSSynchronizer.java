@@ -3,11 +3,15 @@ package org.jabref.logic.shared;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.jabref.logic.bibtex.FieldPreferences;
@@ -45,6 +49,12 @@ public class DBMSSynchronizer implements DatabaseSynchronizer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DBMSSynchronizer.class);
 
+    // Changes right before the last change may not be committed yet when all entries are compared
+    private static final int UNCOMMITTED_CHANGES_WINDOW = 100;
+
+    // Clients which are further behind compare all entries
+    private static final int RETAINED_CHANGES = 10_000;
+
     private DBMSProcessor dbmsProcessor;
     private String dbName;
     private final BibDatabaseContext bibDatabaseContext;
@@ -58,6 +68,8 @@ public class DBMSSynchronizer implements DatabaseSynchronizer {
     private final FileUpdateMonitor fileMonitor;
     private Optional<BibEntry> lastEntryChanged;
 
+    private final ChangeLogPosition changeLogPosition = new ChangeLogPosition();
+
     public DBMSSynchronizer(BibDatabaseContext bibDatabaseContext, Character keywordSeparator,
                             FieldPreferences fieldPreferences,
                             GlobalCitationKeyPatterns globalCiteKeyPattern, FileUpdateMonitor fileMonitor) {
@@ -168,6 +180,9 @@ public class DBMSSynchronizer implements DatabaseSynchronizer {
     /**
      * Synchronizes the local database with shared one. Possible update types are: removal, update, or insert of a
      * {@link BibEntry}.
+     * <p>
+     * After the first synchronization, only the entries recorded in the change log of the shared database since the
+     * last synchronization are pulled.
      */
     @Override
     public void synchronizeLocalDatabase() {
@@ -175,49 +190,132 @@ public class DBMSSynchronizer implements DatabaseSynchronizer {
             return;
         }
 
+        if (changeLogPosition.isKnown()) {
+            Optional<SortedMap<Long, Integer>> changes = dbmsProcessor.getChangesSince(changeLogPosition.getReadFrom());
+            if (changes.isPresent()) {
+                synchronizeChangedEntries(changes.get().entrySet().stream()
+                                                 .filter(change -> changeLogPosition.isUnseen(change.getKey()))
+                                                 .map(Map.Entry::getValue)
+                                                 .collect(Collectors.toSet()));
+                changeLogPosition.markSeen(changes.get().keySet());
+                if (changeLogPosition.isKnown()) {
+                    return;
+                }
+            }
+        }
+        synchronizeAllEntries();
+    }
+
+    /**
+     * Compares the versions of all shared entries with the local ones
+     */
+    private void synchronizeAllEntries() {
+        dbmsProcessor.pruneChangeLog(RETAINED_CHANGES);
+        // Determined before reading the entries, so that changes made in the meantime are pulled by the next synchronization
+        OptionalLong changeSequence = dbmsProcessor.getLastChangeSequence();
+        long windowStart = Math.max(0, changeSequence.orElse(0) - UNCOMMITTED_CHANGES_WINDOW);
+        Optional<SortedMap<Long, Integer>> recentChanges = changeSequence.isPresent() ? dbmsProcessor.getChangesSince(windowStart) : Optional.empty();
+
         List<BibEntry> localEntries = bibDatabase.getEntries();
         Map<Integer, Integer> idVersionMap = dbmsProcessor.getSharedIDVersionMapping();
 
         // remove old entries locally
         removeNotSharedEntries(localEntries, idVersionMap.keySet());
+
+        Map<Integer, BibEntry> localEntriesBySharedID = getLocalEntriesBySharedID();
+        List<Integer> entriesToUpdateInLocalDatabase = new ArrayList<>();
         List<Integer> entriesToInsertIntoLocalDatabase = new ArrayList<>();
         // compare versions and update local entry if needed
         for (Map.Entry<Integer, Integer> idVersionEntry : idVersionMap.entrySet()) {
-            boolean remoteEntryMatchingOneLocalEntryFound = false;
-            for (BibEntry localEntry : localEntries) {
-                if (idVersionEntry.getKey().equals(localEntry.getSharedBibEntryData().getSharedID())) {
-                    remoteEntryMatchingOneLocalEntryFound = true;
-                    if (idVersionEntry.getValue() > localEntry.getSharedBibEntryData().getVersion()) {
-                        Optional<BibEntry> sharedEntry = dbmsProcessor.getSharedEntry(idVersionEntry.getKey());
-                        if (sharedEntry.isPresent()) {
-                            // update fields
-                            localEntry.setType(sharedEntry.get().getType(), EntriesEventSource.SHARED);
-                            localEntry.getSharedBibEntryData()
-                                      .setVersion(sharedEntry.get().getSharedBibEntryData().getVersion());
-                            sharedEntry.get().getFieldMap().forEach(
-                                    // copy remote values to local entry
-                                    (field, value) -> localEntry.setField(field, value, EntriesEventSource.SHARED)
-                            );
-
-                            // locally remove not existing fields
-                            localEntry.getFields().stream()
-                                      .filter(field -> !sharedEntry.get().hasField(field))
-                                      .forEach(
-                                              field -> localEntry.clearField(field, EntriesEventSource.SHARED)
-                                      );
-                        }
-                    }
-                }
-            }
-            if (!remoteEntryMatchingOneLocalEntryFound) {
+            BibEntry localEntry = localEntriesBySharedID.get(idVersionEntry.getKey());
+            if (localEntry == null) {
                 entriesToInsertIntoLocalDatabase.add(idVersionEntry.getKey());
+            } else if (idVersionEntry.getValue() > localEntry.getSharedBibEntryData().getVersion()) {
+                entriesToUpdateInLocalDatabase.add(idVersionEntry.getKey());
             }
         }
 
+        for (BibEntry sharedEntry : dbmsProcessor.partitionAndGetSharedEntries(entriesToUpdateInLocalDatabase)) {
+            updateLocalEntry(localEntriesBySharedID.get(sharedEntry.getSharedBibEntryData().getSharedID()), sharedEntry);
+        }
+
         if (!entriesToInsertIntoLocalDatabase.isEmpty()) {
             // in case entries should be added into the local database, insert them
             bibDatabase.insertEntries(dbmsProcessor.partitionAndGetSharedEntries(entriesToInsertIntoLocalDatabase), EntriesEventSource.SHARED);
         }
+
+        changeLogPosition.reset();
+        if (recentChanges.isPresent()) {
+            // The changes of the window which are not visible yet are remembered as missing
+            changeLogPosition.moveTo(windowStart);
+            changeLogPosition.markSeen(recentChanges.get().keySet());
+        } else {
+            changeSequence.ifPresent(changeLogPosition::moveTo);
+        }
+    }
+
+    /**
+     * Pulls the given entries from the shared database. Entries which are not present anymore were removed.
+     *
+     * @param changedIDs IDs of the changed entries
+     */
+    private void synchronizeChangedEntries(Collection<Integer> changedIDs) {
+        if (changedIDs.isEmpty()) {
+            return;
+        }
+
+        List<BibEntry> sharedEntries = dbmsProcessor.partitionAndGetSharedEntries(new ArrayList<>(changedIDs));
+        Map<Integer, BibEntry> localEntriesBySharedID = getLocalEntriesBySharedID();
+
+        Set<Integer> sharedIDs = sharedEntries.stream()
+                                              .map(sharedEntry -> sharedEntry.getSharedBibEntryData().getSharedID())
+                                              .collect(Collectors.toSet());
+        List<BibEntry> entriesToRemove = changedIDs.stream()
+                                                .filter(sharedID -> !sharedIDs.contains(sharedID))
+                                                .map(localEntriesBySharedID::get)
+                                                .filter(Objects::nonNull)
+                                                .toList();
+        removeLocalEntries(entriesToRemove);
+
+        List<BibEntry> entriesToInsertIntoLocalDatabase = new ArrayList<>();
+        for (BibEntry sharedEntry : sharedEntries) {
+            BibEntry localEntry = localEntriesBySharedID.get(sharedEntry.getSharedBibEntryData().getSharedID());
+            if (localEntry == null) {
+                entriesToInsertIntoLocalDatabase.add(sharedEntry);
+            } else if (sharedEntry.getSharedBibEntryData().getVersion() > localEntry.getSharedBibEntryData().getVersion()) {
+                updateLocalEntry(localEntry, sharedEntry);
+            }
+        }
+
+        if (!entriesToInsertIntoLocalDatabase.isEmpty()) {
+            bibDatabase.insertEntries(entriesToInsertIntoLocalDatabase, EntriesEventSource.SHARED);
+        }
+    }
+
+    private Map<Integer, BibEntry> getLocalEntriesBySharedID() {
+        return bibDatabase.getEntries().stream()
+                          .collect(Collectors.toMap(
+                                  localEntry -> localEntry.getSharedBibEntryData().getSharedID(),
+                                  Function.identity(),
+                                  (first, _) -> first));
+    }
+
+    private void updateLocalEntry(BibEntry localEntry, BibEntry sharedEntry) {
+        // update fields
+        localEntry.setType(sharedEntry.getType(), EntriesEventSource.SHARED);
+        localEntry.getSharedBibEntryData()
+                  .setVersion(sharedEntry.getSharedBibEntryData().getVersion());
+        sharedEntry.getFieldMap().forEach(
+                // copy remote values to local entry
+                (field, value) -> localEntry.setField(field, value, EntriesEventSource.SHARED)
+        );
+
+        // locally remove not existing fields
+        localEntry.getFields().stream()
+                  .filter(field -> !sharedEntry.hasField(field))
+                  .forEach(
+                          field -> localEntry.clearField(field, EntriesEventSource.SHARED)
+                  );
     }
 
     /**
@@ -227,10 +325,12 @@ public class DBMSSynchronizer implements DatabaseSynchronizer {
      * @param sharedIDs    Set of all IDs which are present on shared database
      */
     private void removeNotSharedEntries(List<BibEntry> localEntries, Set<Integer> sharedIDs) {
-        List<BibEntry> entriesToRemove =
-                localEntries.stream()
-                            .filter(localEntry -> !sharedIDs.contains(localEntry.getSharedBibEntryData().getSharedID()))
-                            .collect(Collectors.toList());
+        removeLocalEntries(localEntries.stream()
+                                       .filter(localEntry -> !sharedIDs.contains(localEntry.getSharedBibEntryData().getSharedID()))
+                                       .collect(Collectors.toList()));
+    }
+
+    private void removeLocalEntries(List<BibEntry> entriesToRemove) {
         if (!entriesToRemove.isEmpty()) {
             eventBus.post(new SharedEntriesNotPresentEvent(entriesToRemove));
             // remove all non-shared entries without triggering listeners
@@ -295,17 +395,16 @@ public class DBMSSynchronizer implements DatabaseSynchronizer {
         if (!checkCurrentConnection()) {
             return;
         }
-        for (BibEntry bibEntry : bibDatabase.getEntries()) {
-            try {
-                // synchronize only if changes were present
-                if (!BibDatabaseWriter.applySaveActions(bibEntry, metaData, fieldPreferences).isEmpty()) {
-                    dbmsProcessor.updateEntry(bibEntry);
-                }
-            } catch (OfflineLockException exception) {
+        // synchronize only if changes were present
+        List<BibEntry> changedEntries = bibDatabase.getEntries().stream()
+                                                   .filter(bibEntry -> !BibDatabaseWriter.applySaveActions(bibEntry, metaData, fieldPreferences).isEmpty())
+                                                   .toList();
+        try {
+            for (OfflineLockException exception : dbmsProcessor.updateEntries(changedEntries)) {
                 eventBus.post(new UpdateRefusedEvent(bibDatabaseContext, exception.getLocalBibEntry(), exception.getSharedBibEntry()));
-            } catch (SQLException e) {
-                LOGGER.error("SQL Error: ", e);
             }
+        } catch (SQLException e) {
+            LOGGER.error("SQL Error: ", e);
         }
     }
 
@@ -323,6 +422,24 @@ public class DBMSSynchronizer implements DatabaseSynchronizer {
         synchronizeLocalMetaData();
     }
 
+    /**
+     * Synchronizes the given local BibEntries, which were changed by another client
+     *
+     * @param sharedIDs IDs of the changed entries
+     */
+    public void pullChanges(Set<Integer> sharedIDs) {
+        if (!checkCurrentConnection()) {
+            return;
+        }
+        pullWithLastEntry();
+        if (changeLogPosition.isKnown()) {
+            // The change log contains the given entries. Reading it advances the position, so that they are not pulled again.
+            synchronizeLocalDatabase();
+        } else {
+            synchronizeChangedEntries(sharedIDs);
+        }
+    }
+
     /**
      * Synchronizes local BibEntries only if last entry changes still remain
      */
@@ -385,6 +502,7 @@ public class DBMSSynchronizer implements DatabaseSynchronizer {
         this.dbName = connection.getProperties().getDatabase();
         this.currentConnection = connection.getConnection();
         this.dbmsProcessor = DBMSProcessor.getProcessorInstance(connection);
+        this.changeLogPosition.reset();
         initializeDatabases();
     }
 
@@ -1,5 +1,6 @@
 package org.jabref.logic.shared;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -7,6 +8,7 @@ import java.sql.Statement;
 import java.util.List;
 import java.util.Map;
 
+import org.jabref.logic.shared.exception.InvalidDBMSConnectionPropertiesException;
 import org.jabref.logic.shared.listener.PostgresSQLNotificationListener;
 import org.jabref.logic.util.HeadlessExecutorService;
 import org.jabref.model.entry.BibEntry;
@@ -19,10 +21,14 @@ import org.postgresql.PGConnection;
  */
 public class PostgreSQLProcessor extends DBMSProcessor {
 
+    // Unquoted identifiers are lower case in PostgreSQL, pg_notify does not convert the channel name
+    private static final String NOTIFICATION_CHANNEL = "jabrefliveupdate";
+
     private PostgresSQLNotificationListener listener;
+    private Connection listenerConnection;
 
     private int VERSION_DB_STRUCT_DEFAULT = -1;
-    private final int CURRENT_VERSION_DB_STRUCT = 1;
+    private final int CURRENT_VERSION_DB_STRUCT = 2;
 
     public PostgreSQLProcessor(DatabaseConnection connection) {
         super(connection);
@@ -36,7 +42,7 @@ public class PostgreSQLProcessor extends DBMSProcessor {
     @Override
     public void setUp() throws SQLException {
 
-        if (CURRENT_VERSION_DB_STRUCT == 1 && checkTableAvailability("ENTRY", "FIELD", "METADATA")) {
+        if (checkTableAvailability("ENTRY", "FIELD", "METADATA")) {
             // checkTableAvailability does not distinguish if same table name exists in different schemas
             // VERSION_DB_STRUCT_DEFAULT must be forced
             VERSION_DB_STRUCT_DEFAULT = 0;
@@ -61,6 +67,14 @@ public class PostgreSQLProcessor extends DBMSProcessor {
                         + "\"KEY\" VARCHAR,"
                         + "\"VALUE\" TEXT)");
 
+        // No reference to ENTRY, as removals of entries are logged as well
+        connection.createStatement().executeUpdate(
+                "CREATE TABLE IF NOT EXISTS " + escape_Table("CHANGELOG") + " (" +
+                        "\"SEQUENCE\" BIGSERIAL PRIMARY KEY, " +
+                        "\"ENTRY_SHARED_ID\" INTEGER NOT NULL)");
+
+        createChangeLogTriggers();
+
         Map<String, String> metadata = getSharedMetaData();
 
         if (metadata.get(MetaData.VERSION_DB_STRUCT) != null) {
@@ -76,7 +90,7 @@ public class PostgreSQLProcessor extends DBMSProcessor {
 
         if (VERSION_DB_STRUCT_DEFAULT < CURRENT_VERSION_DB_STRUCT) {
             // We can to migrate from old table in new table
-            if (VERSION_DB_STRUCT_DEFAULT == 0 && CURRENT_VERSION_DB_STRUCT == 1) {
+            if (VERSION_DB_STRUCT_DEFAULT == 0) {
                 LOGGER.info("Migrating from VersionDBStructure == 0");
                 connection.createStatement().executeUpdate("INSERT INTO " + escape_Table("ENTRY") + " SELECT * FROM \"ENTRY\"");
                 connection.createStatement().executeUpdate("INSERT INTO " + escape_Table("FIELD") + " SELECT * FROM \"FIELD\"");
@@ -84,12 +98,54 @@ public class PostgreSQLProcessor extends DBMSProcessor {
                 connection.createStatement().execute("SELECT setval(\'jabref.\"ENTRY_SHARED_ID_seq\"\', (select max(\"SHARED_ID\") from jabref.\"ENTRY\"))");
                 metadata = getSharedMetaData();
             }
+            // Version 2 only adds the CHANGELOG table and its triggers, which are created above
 
             metadata.put(MetaData.VERSION_DB_STRUCT, String.valueOf(CURRENT_VERSION_DB_STRUCT));
             setSharedMetaData(metadata);
         }
     }
 
+    /**
+     * Records every change of the ENTRY and FIELD tables in the CHANGELOG table. As the database logs the changes itself,
+     * changes of clients which do not know the CHANGELOG table (VersionDBStructure 1) are logged as well.
+     */
+    private void createChangeLogTriggers() throws SQLException {
+        connection.createStatement().executeUpdate(
+                "CREATE OR REPLACE FUNCTION jabref.log_entry_change() RETURNS TRIGGER AS $$ BEGIN " +
+                        "IF TG_OP = 'DELETE' THEN " +
+                        "INSERT INTO " + escape_Table("CHANGELOG") + "(\"ENTRY_SHARED_ID\") VALUES (OLD.\"SHARED_ID\"); " +
+                        "ELSE " +
+                        "INSERT INTO " + escape_Table("CHANGELOG") + "(\"ENTRY_SHARED_ID\") VALUES (NEW.\"SHARED_ID\"); " +
+                        "END IF; " +
+                        "RETURN NULL; " +
+                        "END $$ LANGUAGE plpgsql");
+
+        // Logs each changed entry once per statement, even if several of its fields were changed
+        connection.createStatement().executeUpdate(
+                "CREATE OR REPLACE FUNCTION jabref.log_field_changes() RETURNS TRIGGER AS $$ BEGIN " +
+                        "INSERT INTO " + escape_Table("CHANGELOG") + "(\"ENTRY_SHARED_ID\") " +
+                        "SELECT DISTINCT \"ENTRY_SHARED_ID\" FROM changed_fields WHERE \"ENTRY_SHARED_ID\" IS NOT NULL; " +
+                        "RETURN NULL; " +
+                        "END $$ LANGUAGE plpgsql");
+
+        createTriggerIfNotExists("log_entry_changes",
+                "AFTER INSERT OR UPDATE OR DELETE ON " + escape_Table("ENTRY") + " FOR EACH ROW EXECUTE PROCEDURE jabref.log_entry_change()");
+        // Transition tables can only be used by triggers for a single event
+        createTriggerIfNotExists("log_field_inserts",
+                "AFTER INSERT ON " + escape_Table("FIELD") + " REFERENCING NEW TABLE AS changed_fields FOR EACH STATEMENT EXECUTE PROCEDURE jabref.log_field_changes()");
+        createTriggerIfNotExists("log_field_updates",
+                "AFTER UPDATE ON " + escape_Table("FIELD") + " REFERENCING NEW TABLE AS changed_fields FOR EACH STATEMENT EXECUTE PROCEDURE jabref.log_field_changes()");
+        createTriggerIfNotExists("log_field_deletes",
+                "AFTER DELETE ON " + escape_Table("FIELD") + " REFERENCING OLD TABLE AS changed_fields FOR EACH STATEMENT EXECUTE PROCEDURE jabref.log_field_changes()");
+    }
+
+    private void createTriggerIfNotExists(String name, String definition) throws SQLException {
+        // PostgreSQL supports CREATE OR REPLACE TRIGGER only since version 14. Several clients may set up the database at once.
+        connection.createStatement().executeUpdate(
+                "DO $$ BEGIN CREATE TRIGGER " + name + " " + definition + "; " +
+                        "EXCEPTION WHEN duplicate_object THEN NULL; END $$");
+    }
+
     @Override
     protected void insertIntoEntryTable(List<BibEntry> bibEntries) {
         StringBuilder insertIntoEntryQuery = new StringBuilder()
@@ -142,14 +198,20 @@ public class PostgreSQLProcessor extends DBMSProcessor {
     public void startNotificationListener(DBMSSynchronizer dbmsSynchronizer) {
         // Disable cleanup output of ThreadedHousekeeper
         // Logger.getLogger(ThreadedHousekeeper.class.getName()).setLevel(Level.SEVERE);
+        if (!(connectionProperties instanceof DBMSConnectionProperties properties)) {
+            LOGGER.warn("Cannot listen for updates to {}", connectionProperties.getDatabase());
+            return;
+        }
         try {
-            connection.createStatement().execute("LISTEN jabrefLiveUpdate");
+            // The listener waits for notifications on its own connection, as waiting blocks the connection for other queries
+            listenerConnection = new DBMSConnection(properties).getConnection();
+            listenerConnection.createStatement().execute("LISTEN " + NOTIFICATION_CHANNEL);
             // Do not use `new PostgresSQLNotificationListener(...)` as the object has to exist continuously!
             // Otherwise, the listener is going to be deleted by Java's garbage collector.
-            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            PGConnection pgConnection = listenerConnection.unwrap(PGConnection.class);
             listener = new PostgresSQLNotificationListener(dbmsSynchronizer, pgConnection);
             HeadlessExecutorService.INSTANCE.execute(listener);
-        } catch (SQLException e) {
+        } catch (SQLException | InvalidDBMSConnectionPropertiesException e) {
             LOGGER.error("SQL Error during starting the notification listener", e);
         }
     }
@@ -157,7 +219,10 @@ public class PostgreSQLProcessor extends DBMSProcessor {
     @Override
     public void stopNotificationListener() {
         try {
-            listener.stop();
+            if (listener != null) {
+                listener.stop();
+                listenerConnection.close();
+            }
             connection.close();
         } catch (SQLException e) {
             LOGGER.error("SQL Error during stopping the notification listener", e);
@@ -166,8 +231,16 @@ public class PostgreSQLProcessor extends DBMSProcessor {
 
     @Override
     public void notifyClients() {
-        try {
-            connection.createStatement().execute("NOTIFY jabrefLiveUpdate, '" + PROCESSOR_ID + "';");
+        notifyClients(List.of());
+    }
+
+    @Override
+    protected void notifyClients(List<Integer> sharedIDs) {
+        // A prepared statement cannot be used with NOTIFY, but with pg_notify
+        try (PreparedStatement preparedStatement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            preparedStatement.setString(1, NOTIFICATION_CHANNEL);
+            preparedStatement.setString(2, PostgresSQLNotificationListener.createPayload(sharedIDs));
+            preparedStatement.execute();
         } catch (SQLException e) {
             LOGGER.error("SQL Error during client notification", e);
         }
@@ -1,10 +1,19 @@
 package org.jabref.logic.shared.listener;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.jabref.logic.shared.DBMSProcessor;
 import org.jabref.logic.shared.DBMSSynchronizer;
 
+import com.google.common.annotations.VisibleForTesting;
 import org.postgresql.PGConnection;
 import org.postgresql.PGNotification;
 import org.slf4j.Logger;
@@ -12,11 +21,25 @@ import org.slf4j.LoggerFactory;
 
 /**
  * A listener for PostgreSQL database notifications.
+ * <p>
+ * The listener blocks until the server delivers a notification. Notifications arriving in a burst are handled by a
+ * single pull. If the notifications carry the IDs of the changed entries, only these entries are pulled.
  */
 public class PostgresSQLNotificationListener implements Runnable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PostgresSQLNotificationListener.class);
 
+    // Waiting for notifications is interrupted regularly to check whether the listener was stopped
+    private static final int WAIT_TIMEOUT_MILLIS = 1000;
+
+    // Notifications arriving within this time after the previous one belong to the same burst
+    private static final int BURST_TIMEOUT_MILLIS = 10;
+    private static final long MAX_BURST_DURATION_NANOS = TimeUnit.MILLISECONDS.toNanos(40);
+
+    // PostgreSQL limits the payload to 8000 bytes
+    private static final int MAX_PAYLOAD_LENGTH = 7900;
+    private static final char PAYLOAD_SEPARATOR = ';';
+
     private final DBMSSynchronizer dbmsSynchronizer;
     private final PGConnection pgConnection;
     private volatile boolean stop;
@@ -26,27 +49,92 @@ public class PostgresSQLNotificationListener implements Runnable {
         this.pgConnection = pgConnection;
     }
 
+    /**
+     * Creates the payload of a notification about changed entries. If there are too many entries, the IDs are left
+     * out, and the clients pull all changes.
+     *
+     * @param sharedIDs IDs of the changed entries, empty if unknown
+     */
+    public static String createPayload(List<Integer> sharedIDs) {
+        if (sharedIDs.isEmpty()) {
+            return DBMSProcessor.PROCESSOR_ID;
+        }
+        String payload = DBMSProcessor.PROCESSOR_ID + PAYLOAD_SEPARATOR + sharedIDs.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return payload.length() <= MAX_PAYLOAD_LENGTH ? payload : DBMSProcessor.PROCESSOR_ID;
+    }
+
     @Override
     public void run() {
         stop = false;
         try {
-            // noinspection InfiniteLoopStatement
             while (!stop) {
-                PGNotification[] notifications = pgConnection.getNotifications();
-
-                if (notifications != null) {
-                    for (PGNotification notification : notifications) {
-                        if (!DBMSProcessor.PROCESSOR_ID.equals(notification.getName())) {
-                            dbmsSynchronizer.pullChanges();
-                        }
-                    }
+                List<PGNotification> notifications = new ArrayList<>(getNotifications(WAIT_TIMEOUT_MILLIS));
+                if (notifications.isEmpty()) {
+                    continue;
                 }
 
-                // Wait a while before checking again for new notifications
-                Thread.sleep(500);
+                long burstStart = System.nanoTime();
+                List<PGNotification> furtherNotifications;
+                do {
+                    furtherNotifications = getNotifications(BURST_TIMEOUT_MILLIS);
+                    notifications.addAll(furtherNotifications);
+                } while (!furtherNotifications.isEmpty() && (System.nanoTime() - burstStart < MAX_BURST_DURATION_NANOS));
+
+                pullChanges(notifications);
+            }
+        } catch (SQLException exception) {
+            if (stop) {
+                LOGGER.debug("Listening for updates to PostgresSQL stopped", exception);
+            } else {
+                LOGGER.error("Error while listening for updates to PostgresSQL", exception);
+            }
+        }
+    }
+
+    private List<PGNotification> getNotifications(int timeoutMillis) throws SQLException {
+        PGNotification[] notifications = pgConnection.getNotifications(timeoutMillis);
+        return notifications == null ? List.of() : Arrays.asList(notifications);
+    }
+
+    private void pullChanges(List<PGNotification> notifications) {
+        Set<Integer> sharedIDs = new HashSet<>();
+        boolean pullAllChanges = false;
+        for (PGNotification notification : notifications) {
+            String payload = notification.getParameter();
+            int separatorIndex = payload.indexOf(PAYLOAD_SEPARATOR);
+            String processorID = separatorIndex < 0 ? payload : payload.substring(0, separatorIndex);
+            if (DBMSProcessor.PROCESSOR_ID.equals(processorID)) {
+                // Changes of this client are present already
+                continue;
             }
-        } catch (SQLException | InterruptedException exception) {
-            LOGGER.error("Error while listening for updates to PostgresSQL", exception);
+
+            Optional<Set<Integer>> changedIDs = separatorIndex < 0 ? Optional.empty() : parseSharedIDs(payload.substring(separatorIndex + 1));
+            if (changedIDs.isPresent()) {
+                sharedIDs.addAll(changedIDs.get());
+            } else {
+                pullAllChanges = true;
+            }
+        }
+
+        if (pullAllChanges) {
+            dbmsSynchronizer.pullChanges();
+        } else if (!sharedIDs.isEmpty()) {
+            dbmsSynchronizer.pullChanges(sharedIDs);
+        }
+    }
+
+    /**
+     * @return the IDs of the changed entries, or empty if the payload is malformed
+     */
+    @VisibleForTesting
+    static Optional<Set<Integer>> parseSharedIDs(String sharedIDs) {
+        try {
+            return Optional.of(Arrays.stream(sharedIDs.split(","))
+                                     .map(Integer::parseInt)
+                                     .collect(Collectors.toSet()));
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Could not parse changed entries {}", sharedIDs, e);
+            return Optional.empty();
         }
     }
 
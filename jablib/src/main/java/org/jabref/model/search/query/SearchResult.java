@@ -3,6 +3,7 @@ package org.jabref.model.search.query;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.jabref.model.search.LinkedFilesConstants;
 
@@ -15,8 +16,8 @@ public final class SearchResult {
 
     private final boolean hasFulltextResults;
     private final String path;
-    private final String pageContent;
-    private final String annotation;
+    private final Supplier<String> pageContent;
+    private final Supplier<String> annotation;
     private final int pageNumber;
     private final Highlighter highlighter;
     private List<String> contentResultStringsHtml;
@@ -24,8 +25,8 @@ public final class SearchResult {
 
     private SearchResult(boolean hasFulltextResults,
                          String path,
-                         String pageContent,
-                         String annotation,
+                         Supplier<String> pageContent,
+                         Supplier<String> annotation,
                          int pageNumber,
                          Highlighter highlighter) {
         this.hasFulltextResults = hasFulltextResults;
@@ -37,23 +38,30 @@ public final class SearchResult {
     }
 
     public SearchResult() {
-        this(false, "", "", "", -1, null);
+        this(false, "", () -> "", () -> "", -1, null);
     }
 
     public SearchResult(String path, String pageContent, String annotation, int pageNumber, Highlighter highlighter) {
+        this(true, path, () -> pageContent, () -> annotation, pageNumber, highlighter);
+    }
+
+    /**
+     * Creates a result whose page content and annotations are loaded when they are highlighted for the first time
+     */
+    public SearchResult(String path, int pageNumber, Supplier<String> pageContent, Supplier<String> annotation, Highlighter highlighter) {
         this(true, path, pageContent, annotation, pageNumber, highlighter);
     }
 
     public List<String> getContentResultStringsHtml() {
         if (contentResultStringsHtml == null) {
-            return contentResultStringsHtml = getHighlighterFragments(highlighter, LinkedFilesConstants.CONTENT, pageContent);
+            return contentResultStringsHtml = getHighlighterFragments(highlighter, LinkedFilesConstants.CONTENT, pageContent.get());
         }
         return contentResultStringsHtml;
     }
 
     public List<String> getAnnotationsResultStringsHtml() {
         if (annotationsResultStringsHtml == null) {
-            annotationsResultStringsHtml = getHighlighterFragments(highlighter, LinkedFilesConstants.ANNOTATIONS, annotation);
+            annotationsResultStringsHtml = getHighlighterFragments(highlighter, LinkedFilesConstants.ANNOTATIONS, annotation.get());
         }
         return annotationsResultStringsHtml;
     }
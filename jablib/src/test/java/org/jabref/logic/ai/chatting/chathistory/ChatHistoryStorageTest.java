@@ -1,6 +1,7 @@
 package org.jabref.logic.ai.chatting.chathistory;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 import dev.langchain4j.data.message.AiMessage;
@@ -60,4 +61,18 @@ abstract class ChatHistoryStorageTest {
         reopen();
         assertEquals(messages, storage.loadMessagesForGroup(tempDir.resolve("test.bib"), "group"));
     }
+
+    @Test
+    void longChatHistoryIsStoredAfterAppending() {
+        List<ChatMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            messages.add(new UserMessage("question " + i));
+            messages.add(new AiMessage("answer " + i));
+        }
+
+        storage.storeMessagesForEntry(tempDir.resolve("test.bib"), "citationKey", messages.subList(0, 41));
+        storage.storeMessagesForEntry(tempDir.resolve("test.bib"), "citationKey", messages);
+        reopen();
+        assertEquals(messages, storage.loadMessagesForEntry(tempDir.resolve("test.bib"), "citationKey"));
+    }
 }
@@ -1,10 +1,19 @@
 package org.jabref.logic.ai.chatting.chathistory;
 
+import java.lang.reflect.Constructor;
 import java.nio.file.Path;
+import java.util.List;
 
 import org.jabref.logic.ai.chatting.chathistory.storages.MVStoreChatHistoryStorage;
 import org.jabref.logic.util.NotificationService;
 
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
 
 class MVStoreChatHistoryStorageTest extends ChatHistoryStorageTest {
@@ -17,4 +26,28 @@ class MVStoreChatHistoryStorageTest extends ChatHistoryStorageTest {
     void close(ChatHistoryStorage storage) {
         ((MVStoreChatHistoryStorage) storage).close();
     }
+
+    @Test
+    void chatHistoryOfPreviousVersionIsMigrated() throws ReflectiveOperationException {
+        Path path = tempDir.resolve("legacy-chat-histories.mv");
+        Path bibDatabasePath = tempDir.resolve("legacy.bib");
+
+        // Previous versions stored serialized records of a private class
+        Constructor<?> chatHistoryRecord = Class.forName(MVStoreChatHistoryStorage.class.getName() + "$ChatHistoryRecord")
+                                                .getDeclaredConstructor(String.class, String.class);
+        chatHistoryRecord.setAccessible(true);
+        MVStore mvStore = MVStore.open(path.toString());
+        MVMap<Integer, Object> recordsMap = mvStore.openMap(bibDatabasePath + "-entry-citationKey");
+        recordsMap.put(0, chatHistoryRecord.newInstance(UserMessage.class.getName(), "hi!"));
+        // Keys have holes after messages were deleted
+        recordsMap.put(2, chatHistoryRecord.newInstance(AiMessage.class.getName(), "hello!"));
+        mvStore.close();
+
+        MVStoreChatHistoryStorage storage = new MVStoreChatHistoryStorage(path, mock(NotificationService.class));
+        try {
+            assertEquals(List.of(new UserMessage("hi!"), new AiMessage("hello!")), storage.loadMessagesForEntry(bibDatabasePath, "citationKey"));
+        } finally {
+            storage.close();
+        }
+    }
 }
@@ -0,0 +1,79 @@
+package org.jabref.logic.ai.ingestion;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleStringProperty;
+
+import org.jabref.logic.FilePreferences;
+import org.jabref.logic.ai.processingstatus.ProcessingInfo;
+import org.jabref.logic.ai.processingstatus.ProcessingState;
+import org.jabref.model.database.BibDatabaseContext;
+import org.jabref.model.entry.LinkedFile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.testfx.framework.junit5.ApplicationExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// The progress counter of the task uses a JavaFX timeline
+@ExtendWith(ApplicationExtension.class)
+class GenerateEmbeddingsForSeveralTaskTest {
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void errorDuringExtractionFailsOnlyTheAffectedFile(@TempDir Path tempDir) throws Exception {
+        Path broken = Files.createFile(tempDir.resolve("broken.pdf"));
+        Path upToDate = Files.createFile(tempDir.resolve("up-to-date.pdf"));
+
+        FileEmbeddingsManager fileEmbeddingsManager = mock(FileEmbeddingsManager.class);
+        when(fileEmbeddingsManager.getIngestedDocumentModificationTimeInSeconds(broken.toString())).thenThrow(new StackOverflowError());
+        when(fileEmbeddingsManager.getIngestedDocumentModificationTimeInSeconds(upToDate.toString())).thenReturn(Optional.of(Long.MAX_VALUE));
+        BibDatabaseContext bibDatabaseContext = mock(BibDatabaseContext.class);
+        when(bibDatabaseContext.getFileDirectories(any())).thenReturn(List.of());
+
+        ProcessingInfo<LinkedFile, Void> brokenFile = new ProcessingInfo<>(new LinkedFile("", broken, "PDF"), ProcessingState.PROCESSING);
+        ProcessingInfo<LinkedFile, Void> upToDateFile = new ProcessingInfo<>(new LinkedFile("", upToDate, "PDF"), ProcessingState.PROCESSING);
+
+        new GenerateEmbeddingsForSeveralTask(
+                new SimpleStringProperty("group"),
+                List.of(brokenFile, upToDateFile),
+                fileEmbeddingsManager,
+                bibDatabaseContext,
+                mock(FilePreferences.class),
+                new SimpleBooleanProperty(false)).call();
+
+        assertEquals(ProcessingState.ERROR, brokenFile.getState());
+        assertInstanceOf(StackOverflowError.class, brokenFile.getException().orElseThrow().getCause());
+        assertEquals(ProcessingState.SUCCESS, upToDateFile.getState());
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void filesNotProcessedBeforeShutdownAreStopped(@TempDir Path tempDir) throws Exception {
+        ProcessingInfo<LinkedFile, Void> firstFile = new ProcessingInfo<>(new LinkedFile("", tempDir.resolve("first.pdf"), "PDF"), ProcessingState.PROCESSING);
+        ProcessingInfo<LinkedFile, Void> secondFile = new ProcessingInfo<>(new LinkedFile("", tempDir.resolve("second.pdf"), "PDF"), ProcessingState.PROCESSING);
+
+        new GenerateEmbeddingsForSeveralTask(
+                new SimpleStringProperty("group"),
+                List.of(firstFile, secondFile),
+                mock(FileEmbeddingsManager.class),
+                mock(BibDatabaseContext.class),
+                mock(FilePreferences.class),
+                new SimpleBooleanProperty(true)).call();
+
+        assertEquals(ProcessingState.STOPPED, firstFile.getState());
+        assertEquals(ProcessingState.STOPPED, secondFile.getState());
+    }
+}
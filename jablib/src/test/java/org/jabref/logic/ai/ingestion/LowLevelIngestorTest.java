@@ -0,0 +1,87 @@
+package org.jabref.logic.ai.ingestion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+
+import org.jabref.logic.ai.AiPreferences;
+
+import dev.langchain4j.data.document.Document;
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+
+import static org.jabref.logic.ai.ingestion.FileEmbeddingsManager.LINK_METADATA_KEY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LowLevelIngestorTest {
+
+    private final List<List<TextSegment>> batches = new ArrayList<>();
+    private final EmbeddingModel embeddingModel = new EmbeddingModel() {
+        @Override
+        public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+            batches.add(textSegments);
+            return Response.from(textSegments.stream().map(_ -> Embedding.from(new float[] {1, 0})).toList());
+        }
+    };
+
+    private EmbeddingStore<TextSegment> embeddingStore;
+    private LowLevelIngestor ingestor;
+    private Document document;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        AiPreferences aiPreferences = mock(AiPreferences.class, Answers.RETURNS_DEEP_STUBS);
+        when(aiPreferences.getDocumentSplitterChunkSize()).thenReturn(100);
+        when(aiPreferences.getDocumentSplitterOverlapSize()).thenReturn(0);
+        embeddingStore = mock(EmbeddingStore.class);
+        ingestor = new LowLevelIngestor(aiPreferences, embeddingStore, embeddingModel, 4);
+
+        String text = "This is a sentence of the document. ".repeat(100);
+        document = Document.from(text, new Metadata(Map.of(LINK_METADATA_KEY, "paper.pdf")));
+    }
+
+    @Test
+    void segmentsAreEmbeddedAndStoredInBatches() throws InterruptedException {
+        IntegerProperty workDone = new SimpleIntegerProperty();
+        IntegerProperty workMax = new SimpleIntegerProperty();
+
+        ingestor.ingestDocument(document, new SimpleBooleanProperty(false), workDone, workMax);
+
+        assertEquals(workMax.get(), workDone.get());
+        assertEquals(workMax.get(), batches.stream().mapToInt(List::size).sum());
+        assertEquals(Math.ceilDiv(workMax.get(), 4), batches.size());
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 4));
+        assertTrue(batches.stream().flatMap(List::stream).allMatch(segment -> "paper.pdf".equals(segment.metadata().getString(LINK_METADATA_KEY))));
+        for (List<TextSegment> batch : batches) {
+            verify(embeddingStore).addAll(anyList(), eq(batch));
+        }
+    }
+
+    @Test
+    void stoppedIngestionDoesNotEmbed() {
+        assertThrows(InterruptedException.class,
+                () -> ingestor.ingestDocument(document, new SimpleBooleanProperty(true), new SimpleIntegerProperty(), new SimpleIntegerProperty()));
+        assertEquals(0, batches.size());
+        verify(embeddingStore, never()).addAll(anyList(), anyList());
+    }
+}
@@ -0,0 +1,216 @@
+package org.jabref.logic.ai.ingestion;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.jabref.logic.util.NotificationService;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.filter.comparison.IsEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsIn;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.jabref.logic.ai.ingestion.FileEmbeddingsManager.LINK_METADATA_KEY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class MVStoreEmbeddingStoreTest {
+
+    private static final int DIMENSION = 32;
+
+    private final Random random = new Random(42);
+    private Path path;
+    private MVStoreEmbeddingStore store;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) {
+        path = tempDir.resolve("embeddings.mv");
+        store = new MVStoreEmbeddingStore(path, mock(NotificationService.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    private Embedding randomEmbedding() {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return Embedding.from(vector);
+    }
+
+    private String add(String file) {
+        return store.add(randomEmbedding(), new TextSegment("content", new Metadata(Map.of(LINK_METADATA_KEY, file))));
+    }
+
+    private static Set<String> ids(List<EmbeddingMatch<TextSegment>> matches) {
+        return matches.stream().map(EmbeddingMatch::embeddingId).collect(Collectors.toSet());
+    }
+
+    @Test
+    void searchFindsMostOfTheNearestNeighbours() {
+        for (int i = 0; i < 2000; i++) {
+            add("file" + (i % 20) + ".pdf");
+        }
+
+        int found = 0;
+        for (int i = 0; i < 20; i++) {
+            EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                                                                   .queryEmbedding(randomEmbedding())
+                                                                   .maxResults(10)
+                                                                   .build();
+            Set<String> expected = ids(store.searchExhaustively(request).matches());
+            Set<String> actual = ids(store.search(request).matches());
+            found += (int) actual.stream().filter(expected::contains).count();
+        }
+
+        double recall = found / 200.0;
+        assertTrue(recall >= 0.9, "recall@10 is " + recall);
+    }
+
+    @Test
+    void searchFindsMostOfTheNearestNeighboursAfterSlotsWereReused() {
+        List<String> addedIds = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            addedIds.add(add("file" + (i % 20) + ".pdf"));
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            store.remove(addedIds.get(i));
+        }
+        store.commit();
+        // The new embeddings are stored in the slots of the removed ones
+        for (int i = 0; i < 500; i++) {
+            add("file" + (i % 20) + ".pdf");
+        }
+
+        int found = 0;
+        for (int i = 0; i < 20; i++) {
+            EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                                                                   .queryEmbedding(randomEmbedding())
+                                                                   .maxResults(10)
+                                                                   .build();
+            Set<String> expected = ids(store.searchExhaustively(request).matches());
+            Set<String> actual = ids(store.search(request).matches());
+            found += (int) actual.stream().filter(expected::contains).count();
+        }
+
+        double recall = found / 200.0;
+        assertTrue(recall >= 0.9, "recall@10 is " + recall);
+    }
+
+    @Test
+    void removedEmbeddingsAreNotFound() {
+        List<String> addedIds = List.of(add("a.pdf"), add("a.pdf"), add("b.pdf"));
+
+        store.removeAll(new IsEqualTo(LINK_METADATA_KEY, "a.pdf"));
+
+        EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                                                               .queryEmbedding(randomEmbedding())
+                                                               .maxResults(10)
+                                                               .build();
+        assertEquals(Set.of(addedIds.get(2)), ids(store.search(request).matches()));
+    }
+
+    @Test
+    void filteredSearchReturnsOnlyEmbeddingsOfFile() {
+        for (int i = 0; i < 500; i++) {
+            add("other.pdf");
+        }
+        String id = add("wanted.pdf");
+
+        EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                                                               .queryEmbedding(randomEmbedding())
+                                                               .maxResults(5)
+                                                               .filter(new IsEqualTo(LINK_METADATA_KEY, "wanted.pdf"))
+                                                               .build();
+        List<EmbeddingMatch<TextSegment>> matches = store.search(request).matches();
+
+        assertEquals(Set.of(id), ids(matches));
+        assertFalse(matches.getFirst().embedded().text().isEmpty());
+    }
+
+    @Test
+    void embeddingsAreAvailableAfterReopening() {
+        Embedding embedding = randomEmbedding();
+        String id = store.add(embedding, new TextSegment("content", new Metadata(Map.of(LINK_METADATA_KEY, "a.pdf"))));
+        add("b.pdf");
+        store.commit();
+        store.close();
+
+        store = new MVStoreEmbeddingStore(path, mock(NotificationService.class));
+        EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                                                               .queryEmbedding(embedding)
+                                                               .maxResults(1)
+                                                               .build();
+        EmbeddingMatch<TextSegment> match = store.search(request).matches().getFirst();
+
+        assertEquals(id, match.embeddingId());
+        assertEquals("content", match.embedded().text());
+        assertEquals(1.0, match.score(), 1e-6);
+    }
+
+    @Test
+    void embeddingAddedAfterRemovalIsFound() {
+        String removedId = add("a.pdf");
+        String keptId = add("a.pdf");
+        store.remove(removedId);
+        store.commit();
+        String addedId = add("b.pdf");
+
+        EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                                                               .queryEmbedding(randomEmbedding())
+                                                               .maxResults(10)
+                                                               .build();
+        assertEquals(Set.of(keptId, addedId), ids(store.searchExhaustively(request).matches()));
+    }
+
+    @Test
+    void searchRestrictedToSeveralFiles() {
+        Set<String> expected = Set.of(add("a.pdf"), add("b.pdf"), add("b.pdf"));
+        for (int i = 0; i < 100; i++) {
+            add("c.pdf");
+        }
+
+        EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                                                               .queryEmbedding(randomEmbedding())
+                                                               .maxResults(10)
+                                                               .filter(new IsIn(LINK_METADATA_KEY, List.of("a.pdf", "b.pdf")))
+                                                               .build();
+        assertEquals(expected, ids(store.search(request).matches()));
+    }
+
+    @Test
+    void embeddingOfOtherDimensionReplacesStoredEmbeddings() {
+        add("a.pdf");
+        Embedding otherModelEmbedding = Embedding.from(new float[] {1, 2, 3});
+        String id = store.add(otherModelEmbedding, new TextSegment("content", new Metadata(Map.of(LINK_METADATA_KEY, "b.pdf"))));
+
+        EmbeddingSearchRequest otherModelRequest = EmbeddingSearchRequest.builder()
+                                                                         .queryEmbedding(otherModelEmbedding)
+                                                                         .maxResults(10)
+                                                                         .build();
+        assertEquals(Set.of(id), ids(store.search(otherModelRequest).matches()));
+
+        EmbeddingSearchRequest previousModelRequest = EmbeddingSearchRequest.builder()
+                                                                            .queryEmbedding(randomEmbedding())
+                                                                            .maxResults(10)
+                                                                            .build();
+        assertTrue(store.search(previousModelRequest).matches().isEmpty());
+    }
+}
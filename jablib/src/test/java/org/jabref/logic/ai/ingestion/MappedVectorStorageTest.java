@@ -0,0 +1,91 @@
+package org.jabref.logic.ai.ingestion;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.jabref.logic.ai.ingestion.MappedVectorStorage.FLOAT_LAYOUT;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedVectorStorageTest {
+
+    private final Random random = new Random(42);
+
+    private float[] randomVector(int dimension) {
+        float[] vector = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    @Test
+    void vectorsAreNormalizedAndPersisted(@TempDir Path tempDir) {
+        Path file = tempDir.resolve("embeddings.mv.vectors");
+        float[] first = randomVector(384);
+        float[] second = randomVector(384);
+        try (MappedVectorStorage storage = new MappedVectorStorage(file)) {
+            storage.write(0, first);
+            storage.write(1, second);
+        }
+
+        try (MappedVectorStorage storage = new MappedVectorStorage(file)) {
+            assertEquals(384, storage.dimension());
+            assertEquals(2, storage.slotCount());
+            assertArrayEquals(MappedVectorStorage.normalize(second), storage.read(1));
+            assertEquals(1.0, storage.dotProduct(MappedVectorStorage.normalize(first), 0), 1e-5);
+        }
+    }
+
+    @Test
+    void dotProductsMatchSingleDotProducts() {
+        try (MappedVectorStorage storage = new MappedVectorStorage(null)) {
+            for (int slot = 0; slot < 3000; slot++) {
+                storage.write(slot, randomVector(37));
+            }
+            float[] query = MappedVectorStorage.normalize(randomVector(37));
+
+            float[] similarities = new float[1000];
+            // Only 500 slots are left
+            assertEquals(500, storage.dotProducts(query, 2500, similarities));
+            for (int i = 0; i < 500; i++) {
+                assertEquals(storage.dotProduct(query, 2500 + i), similarities[i], 1e-6);
+            }
+        }
+    }
+
+    @Test
+    void vectorOfOtherDimensionIsRejected() {
+        try (MappedVectorStorage storage = new MappedVectorStorage(null)) {
+            storage.write(0, randomVector(8));
+            assertThrows(IllegalArgumentException.class, () -> storage.write(1, randomVector(16)));
+
+            storage.clear();
+            storage.write(0, randomVector(16));
+            assertEquals(16, storage.dimension());
+        }
+    }
+
+    @Test
+    void dotProductMatchesNaiveDotProduct() {
+        // An odd dimension to cover the remainder loop
+        float[] query = randomVector(389);
+        float[] vector = randomVector(389);
+        double expected = 0;
+        for (int i = 0; i < query.length; i++) {
+            expected += query[i] * vector[i];
+        }
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment segment = arena.allocate(4 + (long) vector.length * Float.BYTES, Float.BYTES);
+            MemorySegment.copy(vector, 0, segment, FLOAT_LAYOUT, 4, vector.length);
+
+            assertEquals(expected, MappedVectorStorage.dotProduct(query, segment, 4), 1e-3);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.jabref.logic.ai.summarization;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javafx.beans.property.SimpleBooleanProperty;
+
+import org.jabref.logic.FilePreferences;
+import org.jabref.logic.ai.AiDefaultPreferences;
+import org.jabref.logic.ai.AiPreferences;
+import org.jabref.logic.ai.summarization.storages.MVStoreSummariesStorage;
+import org.jabref.logic.ai.templates.AiTemplate;
+import org.jabref.logic.ai.templates.AiTemplatesService;
+import org.jabref.logic.util.NotificationService;
+import org.jabref.model.ai.AiProvider;
+import org.jabref.model.database.BibDatabaseContext;
+import org.jabref.model.entry.BibEntry;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GenerateSummaryTaskTest {
+
+    private static final String DOCUMENT = "This is a sentence of the document. ".repeat(100);
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final ChatModel chatModel = new ChatModel() {
+        @Override
+        public ChatResponse chat(List<ChatMessage> messages) {
+            requests.incrementAndGet();
+            return ChatResponse.builder().aiMessage(AiMessage.from("Summary.")).build();
+        }
+    };
+
+    private MVStoreSummariesStorage summariesStorage;
+    private GenerateSummaryTask task;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) {
+        AiPreferences aiPreferences = mock(AiPreferences.class);
+        when(aiPreferences.getAiProvider()).thenReturn(AiProvider.OPEN_AI);
+        when(aiPreferences.getSelectedChatModel()).thenReturn("model");
+        when(aiPreferences.getContextWindowSize()).thenReturn(500);
+        when(aiPreferences.getSummarizationParallelism()).thenReturn(4);
+        when(aiPreferences.getTemplate(any())).thenAnswer(invocation -> AiDefaultPreferences.TEMPLATES.get(invocation.<AiTemplate>getArgument(0)));
+
+        summariesStorage = new MVStoreSummariesStorage(tempDir.resolve("summaries.mv"), mock(NotificationService.class));
+        task = new GenerateSummaryTask(
+                new BibEntry(),
+                new BibDatabaseContext(),
+                summariesStorage,
+                chatModel,
+                new AiTemplatesService(aiPreferences),
+                new SimpleBooleanProperty(false),
+                aiPreferences,
+                mock(FilePreferences.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        summariesStorage.close();
+    }
+
+    @Test
+    void documentIsSummarizedInChunks() throws InterruptedException {
+        assertEquals("Summary.", task.summarizeOneDocument("paper.pdf", DOCUMENT));
+        assertTrue(requests.get() > 1);
+    }
+
+    @Test
+    void storedChunkSummariesAreReused() throws InterruptedException {
+        task.summarizeOneDocument("paper.pdf", DOCUMENT);
+        requests.set(0);
+
+        task.summarizeOneDocument("paper.pdf", DOCUMENT);
+
+        // Only the combination of the chunk summaries is requested again
+        assertEquals(1, requests.get());
+    }
+}
@@ -1,10 +1,17 @@
 package org.jabref.logic.ai.summarization;
 
 import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 import org.jabref.logic.ai.summarization.storages.MVStoreSummariesStorage;
 import org.jabref.logic.util.NotificationService;
+import org.jabref.model.ai.AiProvider;
 
+import org.h2.mvstore.MVStore;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
 
 class MVStoreSummariesStorageTest extends SummariesStorageTest {
@@ -17,4 +24,41 @@ class MVStoreSummariesStorageTest extends SummariesStorageTest {
     void close(SummariesStorage summariesStorage) {
         ((MVStoreSummariesStorage) summariesStorage).close();
     }
+
+    @Test
+    void summaryOfPreviousVersionIsMigrated() {
+        Path path = tempDir.resolve("legacy-summaries.mv");
+        Path bibDatabasePath = tempDir.resolve("legacy.bib");
+        Summary summary = new Summary(LocalDateTime.of(2024, 5, 1, 12, 30), AiProvider.OPEN_AI, "model", "contents");
+
+        // Previous versions stored serialized summaries in a map per library
+        MVStore mvStore = MVStore.open(path.toString());
+        mvStore.<String, Summary>openMap("summaries-" + bibDatabasePath).put("citationKey", summary);
+        mvStore.close();
+
+        MVStoreSummariesStorage storage = new MVStoreSummariesStorage(path, mock(NotificationService.class));
+        try {
+            assertEquals(Optional.of(summary), storage.get(bibDatabasePath, "citationKey"));
+        } finally {
+            storage.close();
+        }
+    }
+
+    @Test
+    void leastRecentlyUsedChunkSummaryIsRemoved() {
+        MVStoreSummariesStorage storage = new MVStoreSummariesStorage(tempDir.resolve("chunk-summaries.mv"), mock(NotificationService.class), 2);
+        try {
+            storage.setChunkSummary("first", "first summary");
+            storage.setChunkSummary("second", "second summary");
+            storage.getChunkSummary("first");
+
+            storage.setChunkSummary("third", "third summary");
+
+            assertEquals(Optional.of("first summary"), storage.getChunkSummary("first"));
+            assertEquals(Optional.empty(), storage.getChunkSummary("second"));
+            assertEquals(Optional.of("third summary"), storage.getChunkSummary("third"));
+        } finally {
+            storage.close();
+        }
+    }
 }
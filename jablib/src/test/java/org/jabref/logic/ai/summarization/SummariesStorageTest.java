@@ -54,4 +54,23 @@ abstract class SummariesStorageTest {
         reopen();
         assertEquals(Optional.empty(), summariesStorage.get(bibPath, "citationKey"));
     }
+
+    @Test
+    void setChunkSummary() {
+        summariesStorage.setChunkSummary("chunkKey", "chunk summary");
+        reopen();
+        assertEquals(Optional.of("chunk summary"), summariesStorage.getChunkSummary("chunkKey"));
+    }
+
+    @Test
+    void clearKeepsChunkSummaries() {
+        summariesStorage.set(bibPath, "citationKey", new Summary(LocalDateTime.now(), AiProvider.OPEN_AI, "model", "contents"));
+        summariesStorage.setChunkSummary("chunkKey", "chunk summary");
+
+        summariesStorage.clear(bibPath, "citationKey");
+        reopen();
+
+        assertEquals(Optional.empty(), summariesStorage.get(bibPath, "citationKey"));
+        assertEquals(Optional.of("chunk summary"), summariesStorage.getChunkSummary("chunkKey"));
+    }
 }
@@ -0,0 +1,76 @@
+package org.jabref.logic.crawler;
+
+import java.util.List;
+
+import org.jabref.logic.database.DatabaseMerger;
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.field.StandardField;
+import org.jabref.model.entry.types.StandardEntryType;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CrawlResultsTest {
+
+    private final CrawlResults crawlResults = new CrawlResults(new DatabaseMerger(','), List.of("Quantum", "Cloud Computing"));
+
+    @Test
+    void queriesWithoutResultsAreKept() {
+        List<CrawlResults.QueryEntries> entriesPerQuery = crawlResults.getEntriesPerQuery();
+
+        assertEquals(List.of("Quantum", "Cloud Computing"), entriesPerQuery.stream().map(CrawlResults.QueryEntries::query).toList());
+        assertEquals(0, entriesPerQuery.getFirst().entriesPerFetcher().size());
+    }
+
+    @Test
+    void pagesOfFetcherAreCollected() {
+        crawlResults.add(0, "Quantum", "ArXiv", List.of(createEntry("Jane Doe", "Quantum computing with superconducting qubits")));
+        crawlResults.add(1, "Quantum", "ArXiv", List.of(createEntry("John Smith", "Lattice based key exchange")));
+
+        assertEquals(2, crawlResults.getEntriesPerQuery().getFirst().entriesPerFetcher().get("ArXiv").getEntryCount());
+    }
+
+    @Test
+    void duplicatesOfOtherFetchersAreMergedIntoQueryAndStudy() {
+        crawlResults.add(0, "Quantum", "ArXiv", List.of(createEntry("Jane Doe", "Quantum computing with superconducting qubits")));
+        crawlResults.add(1, "Quantum", "Springer", List.of(createEntry("Jane Doe", "Quantum computing with superconducting qubits"), createEntry("John Smith", "Lattice based key exchange")));
+        crawlResults.add(2, "Cloud Computing", "Springer", List.of(createEntry("Jane Doe", "Quantum computing with superconducting qubits")));
+
+        CrawlResults.QueryEntries quantumEntries = crawlResults.getEntriesPerQuery().getFirst();
+        assertEquals(2, quantumEntries.entriesPerFetcher().get("Springer").getEntryCount());
+        assertEquals(2, quantumEntries.entries().getEntryCount());
+        assertEquals(1, crawlResults.getEntriesPerQuery().getLast().entries().getEntryCount());
+        assertEquals(2, crawlResults.getStudyEntries().getEntryCount());
+    }
+
+    @Test
+    void batchesAreMergedInOrderOfRequests() {
+        BibEntry first = createEntry("Jane Doe", "Quantum computing with superconducting qubits");
+        BibEntry second = createEntry("John Smith", "Lattice based key exchange");
+
+        crawlResults.add(1, "Quantum", "ArXiv", List.of(second));
+        assertEquals(0, crawlResults.getStudyEntries().getEntryCount());
+        crawlResults.add(0, "Quantum", "ArXiv", List.of(first));
+
+        assertEquals(List.of(first, second), crawlResults.getEntriesPerQuery().getFirst().entriesPerFetcher().get("ArXiv").getEntries());
+        assertEquals(List.of(first, second), crawlResults.getStudyEntries().getEntries());
+    }
+
+    @Test
+    void batchesAfterMissingBatchAreMergedOnCompletion() {
+        BibEntry entry = createEntry("Jane Doe", "Quantum computing with superconducting qubits");
+
+        crawlResults.add(1, "Quantum", "Springer", List.of(entry));
+        crawlResults.complete();
+
+        assertEquals(List.of(entry), crawlResults.getStudyEntries().getEntries());
+    }
+
+    private static BibEntry createEntry(String author, String title) {
+        return new BibEntry(StandardEntryType.Article)
+                .withField(StandardField.AUTHOR, author)
+                .withField(StandardField.TITLE, title)
+                .withField(StandardField.JOURNAL, "Journal of Physics");
+    }
+}
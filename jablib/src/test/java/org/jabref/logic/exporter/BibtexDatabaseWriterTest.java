@@ -12,6 +12,9 @@ import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.jabref.logic.bibtex.FieldPreferences;
 import org.jabref.logic.citationkeypattern.AbstractCitationKeyPatterns;
@@ -164,6 +167,19 @@ class BibtexDatabaseWriterTest {
                 stringWriter.toString());
     }
 
+    @Test
+    void saveEntriesWritesEntriesInOrderOfStream() throws IOException {
+        BibEntry first = new BibEntry(StandardEntryType.Article).withCitationKey("b");
+        BibEntry second = new BibEntry(StandardEntryType.Article).withCitationKey("a");
+
+        databaseWriter.saveEntries(bibtexContext, Stream.of(first, second));
+
+        assertEquals("@Article{b," + OS.NEWLINE + "}" + OS.NEWLINE
+                        + OS.NEWLINE
+                        + "@Article{a," + OS.NEWLINE + "}" + OS.NEWLINE,
+                stringWriter.toString());
+    }
+
     @Test
     void writeEntryWithDuplicateKeywords() throws IOException {
         BibEntry entry = new BibEntry();
@@ -717,6 +733,26 @@ class BibtexDatabaseWriterTest {
                 stringWriter.toString());
     }
 
+    @Test
+    void reformatManyEntriesKeepsSaveOrder() throws IOException {
+        List<BibEntry> entries = IntStream.range(0, 3000)
+                                          .mapToObj(i -> new BibEntry(StandardEntryType.Article)
+                                                  .withCitationKey("key" + i)
+                                                  .withField(StandardField.AUTHOR, "Author " + i))
+                                          .toList();
+        entries.forEach(entry -> entry.setParsedSerialization("wrong serialization"));
+        database.insertEntries(entries);
+
+        saveConfiguration = new SelfContainedSaveConfiguration(SaveOrder.getDefaultSaveOrder(), false, BibDatabaseWriter.SaveType.WITH_JABREF_META_DATA, true);
+        initializeDatabaseWriter();
+        databaseWriter.savePartOfDatabase(bibtexContext, entries);
+
+        String expected = IntStream.range(0, 3000)
+                                   .mapToObj(i -> "@Article{key" + i + "," + OS.NEWLINE + "  author = {Author " + i + "}," + OS.NEWLINE + "}" + OS.NEWLINE)
+                                   .collect(Collectors.joining(OS.NEWLINE));
+        assertEquals(expected, stringWriter.toString());
+    }
+
     @Test
     void writeSavedSerializationOfStringIfUnchanged() throws IOException {
         BibtexString string = new BibtexString("name", "content", "serialization");
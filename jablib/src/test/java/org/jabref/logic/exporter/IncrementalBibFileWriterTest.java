@@ -0,0 +1,116 @@
+package org.jabref.logic.exporter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import org.jabref.logic.bibtex.FieldPreferences;
+import org.jabref.logic.citationkeypattern.CitationKeyPatternPreferences;
+import org.jabref.logic.os.OS;
+import org.jabref.model.database.BibDatabase;
+import org.jabref.model.database.BibDatabaseContext;
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.BibEntryTypesManager;
+import org.jabref.model.entry.field.StandardField;
+import org.jabref.model.entry.types.StandardEntryType;
+import org.jabref.model.metadata.MetaData;
+import org.jabref.model.metadata.SaveOrder;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Answers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class IncrementalBibFileWriterTest {
+
+    private BibDatabaseContext databaseContext;
+    private List<BibEntry> entries;
+    private Path file;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) {
+        entries = IntStream.range(0, 50)
+                           .mapToObj(i -> new BibEntry(StandardEntryType.Article)
+                                   .withCitationKey("key" + i)
+                                   .withField(StandardField.AUTHOR, "Author " + i)
+                                   .withField(StandardField.TITLE, "Title with ümlaut " + i)
+                                   .withChanged(true))
+                           .toList();
+        BibDatabase database = new BibDatabase(entries);
+        database.setPreamble("Preamble");
+        databaseContext = new BibDatabaseContext(database, new MetaData());
+        file = tempDir.resolve("library.bib");
+    }
+
+    private Optional<BibFileLayout> save(Optional<BibFileLayout> previousLayout, long expectedCopiedBytes) throws IOException {
+        IncrementalBibFileWriter fileWriter = new IncrementalBibFileWriter(file, StandardCharsets.UTF_8, false, previousLayout);
+        try (fileWriter) {
+            createDatabaseWriter(fileWriter.createBibWriter(OS.NEWLINE)).saveDatabase(databaseContext);
+        }
+        assertEquals(expectedCopiedBytes > 0, fileWriter.getCopiedBytes() > 0);
+        return fileWriter.getLayout();
+    }
+
+    private String serialize() throws IOException {
+        StringWriter stringWriter = new StringWriter();
+        createDatabaseWriter(new BibWriter(stringWriter, OS.NEWLINE)).saveDatabase(databaseContext);
+        return stringWriter.toString();
+    }
+
+    private BibtexDatabaseWriter createDatabaseWriter(BibWriter bibWriter) {
+        return new BibtexDatabaseWriter(
+                bibWriter,
+                new SelfContainedSaveConfiguration(SaveOrder.getDefaultSaveOrder(), false, BibDatabaseWriter.SaveType.WITH_JABREF_META_DATA, false),
+                new FieldPreferences(true, List.of(), List.of()),
+                mock(CitationKeyPatternPreferences.class, Answers.RETURNS_DEEP_STUBS),
+                new BibEntryTypesManager());
+    }
+
+    @Test
+    void firstSaveWritesCompleteFile() throws IOException {
+        Optional<BibFileLayout> layout = save(Optional.empty(), 0);
+
+        assertEquals(serialize(), Files.readString(file));
+        assertTrue(layout.isPresent());
+    }
+
+    @Test
+    void secondSaveCopiesUnchangedEntries() throws IOException {
+        Optional<BibFileLayout> layout = save(Optional.empty(), 0);
+
+        entries.get(10).setField(StandardField.TITLE, "A much longer changed title");
+        entries.get(30).clearField(StandardField.AUTHOR);
+        save(layout, 1);
+
+        assertEquals(serialize(), Files.readString(file));
+    }
+
+    @Test
+    void repeatedSavesKeepFileCorrect() throws IOException {
+        Optional<BibFileLayout> layout = save(Optional.empty(), 0);
+        for (int i = 0; i < 5; i++) {
+            entries.get(i * 7).setField(StandardField.YEAR, "20" + i);
+            layout = save(layout, 1);
+            assertEquals(serialize(), Files.readString(file));
+        }
+    }
+
+    @Test
+    void externallyModifiedFileIsRewrittenCompletely() throws IOException {
+        Optional<BibFileLayout> layout = save(Optional.empty(), 0);
+
+        Files.writeString(file, "% changed by someone else" + OS.NEWLINE);
+        save(layout, 0);
+
+        assertEquals(serialize(), Files.readString(file));
+    }
+}
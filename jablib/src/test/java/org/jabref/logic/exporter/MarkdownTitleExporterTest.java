@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerException;
@@ -192,4 +193,27 @@ class MarkdownTitleExporterTest {
 
         assertEquals(expected, Files.readAllLines(file));
     }
+
+    @Test
+    final void exportsManyEntriesInSaveOrder(@TempDir Path tempDir) throws IOException, SaveException, ParserConfigurationException, TransformerException {
+        List<BibEntry> entries = IntStream.range(0, 3000)
+                                          .mapToObj(i -> new BibEntry(StandardEntryType.Article)
+                                                  .withField(StandardField.TITLE, "Title " + i)
+                                                  .withField(StandardField.JOURNAL, "Journal")
+                                                  .withField(StandardField.YEAR, String.valueOf(1000 + i)))
+                                          .toList();
+
+        List<String> expected = IntStream.iterate(2999, i -> i >= 0, i -> i - 1)
+                                         .mapToObj(i -> "* Title " + i + ". Journal " + (1000 + i))
+                                         .toList();
+
+        // The second export uses the cached layouts
+        Path firstFile = tempDir.resolve("first");
+        htmlWebsiteExporter.export(databaseContext, firstFile, entries);
+        Path secondFile = tempDir.resolve("second");
+        htmlWebsiteExporter.export(databaseContext, secondFile, entries);
+
+        assertEquals(expected, Files.readAllLines(firstFile));
+        assertEquals(expected, Files.readAllLines(secondFile));
+    }
 }
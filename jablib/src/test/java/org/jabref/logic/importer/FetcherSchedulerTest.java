@@ -0,0 +1,132 @@
+package org.jabref.logic.importer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FetcherSchedulerTest {
+
+    private final FetcherScheduler scheduler = new FetcherScheduler(2, Duration.ofSeconds(1));
+
+    @Test
+    void resultsAreDeliveredInOrderOfCompletion() throws InterruptedException {
+        CountDownLatch fastFinished = new CountDownLatch(1);
+        List<String> results = new ArrayList<>();
+
+        scheduler.performAll(List.of(
+                new FetcherScheduler.Task<>("slow", () -> {
+                    awaitUninterruptibly(fastFinished);
+                    return "slow";
+                }),
+                new FetcherScheduler.Task<>("fast", () -> {
+                    fastFinished.countDown();
+                    return "fast";
+                })), results::add);
+
+        assertEquals(List.of("fast", "slow"), results);
+    }
+
+    @Test
+    void failedAndTimedOutRequestsAreSkipped() throws InterruptedException {
+        List<String> results = new ArrayList<>();
+
+        scheduler.performAll(List.of(
+                new FetcherScheduler.Task<>("failing", () -> {
+                    throw new FetcherException("Server not available");
+                }),
+                new FetcherScheduler.Task<>("hanging", () -> {
+                    try {
+                        Thread.sleep(Duration.ofMinutes(1));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "hanging";
+                }),
+                new FetcherScheduler.Task<>("working", () -> "working")), results::add);
+
+        assertEquals(List.of("working"), results);
+    }
+
+    @Test
+    void numberOfConcurrentRequestsIsLimited() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maximumRunning = new AtomicInteger();
+        List<FetcherScheduler.Task<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int number = i;
+            tasks.add(new FetcherScheduler.Task<>("fetcher " + i, () -> {
+                maximumRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return number;
+            }));
+        }
+        List<Integer> results = new ArrayList<>();
+
+        scheduler.performAll(tasks, results::add);
+
+        assertEquals(10, results.size());
+        assertTrue(maximumRunning.get() <= 2);
+    }
+
+    @Test
+    void waitingRequestLetsOtherRequestsRun() throws InterruptedException {
+        FetcherScheduler singleRequestScheduler = new FetcherScheduler(1, Duration.ofSeconds(10));
+        CountDownLatch otherFinished = new CountDownLatch(1);
+        List<String> results = new ArrayList<>();
+
+        // If the waiting request kept its permit, the other request could not run, and the waiting one would exceed its deadline
+        singleRequestScheduler.performAll(List.of(
+                new FetcherScheduler.Task<>("waiting", () -> {
+                    try {
+                        FetcherScheduler.awaitWithoutPermit(otherFinished::await);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "waiting";
+                }),
+                new FetcherScheduler.Task<>("other", () -> {
+                    otherFinished.countDown();
+                    return "other";
+                })), results::add);
+
+        assertEquals(List.of("other", "waiting"), results);
+    }
+
+    @Test
+    void waitingWithoutPermitDoesNotCountTowardsDeadline() throws InterruptedException {
+        FetcherScheduler shortDeadlineScheduler = new FetcherScheduler(1, Duration.ofMillis(100));
+        List<String> results = new ArrayList<>();
+
+        shortDeadlineScheduler.performAll(List.of(
+                new FetcherScheduler.Task<>("rate limited", () -> {
+                    try {
+                        FetcherScheduler.awaitWithoutPermit(() -> Thread.sleep(300));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "rate limited";
+                })), results::add);
+
+        assertEquals(List.of("rate limited"), results);
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,18 +2,25 @@ package org.jabref.logic.importer;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import javafx.collections.FXCollections;
 
 import org.jabref.logic.citationkeypattern.CitationKeyPatternPreferences;
+import org.jabref.model.entry.field.StandardField;
 import org.jabref.model.util.DummyFileUpdateMonitor;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Answers;
@@ -60,6 +67,38 @@ class ImportFormatReaderIntegrationTest {
         assertEquals(count, reader.importUnknownFormat(data).parserResult().getDatabase().getEntries().size());
     }
 
+    @Test
+    void importUnknownFormatDetectsEncodingOfSmallFile(@TempDir Path tempDir) throws IOException, ImportException {
+        Path file = tempDir.resolve("latin1.bib");
+        Files.writeString(file, """
+                @Article{key,
+                  author   = {Jürgen Müller and François Gérard},
+                  title    = {Über die Größe der Bäume in Städten und Dörfern},
+                  journal  = {Zeitschrift für Ökologie},
+                  abstract = {Première étude à propos des arbres, réalisée à Zürich, Köln und Genève.},
+                }
+                """, StandardCharsets.ISO_8859_1);
+
+        ImportFormatReader.UnknownFormatImport unknownFormat = reader.importUnknownFormat(file, new DummyFileUpdateMonitor());
+
+        assertEquals(Optional.of("Jürgen Müller and François Gérard"),
+                unknownFormat.parserResult().getDatabase().getEntries().getFirst().getField(StandardField.AUTHOR));
+    }
+
+    @Test
+    void importUnknownFormatImportsWholeFileLargerThanCheckedBeginning(@TempDir Path tempDir) throws IOException, ImportException {
+        Path file = tempDir.resolve("large.ris");
+        String entries = IntStream.range(0, 3000)
+                                  .mapToObj(i -> "TY  - JOUR\nAU  - Doe, Jane\nTI  - Title " + i + "\nER  - \n")
+                                  .collect(Collectors.joining());
+        Files.writeString(file, entries);
+
+        ImportFormatReader.UnknownFormatImport unknownFormat = reader.importUnknownFormat(file, new DummyFileUpdateMonitor());
+
+        assertEquals("RIS", unknownFormat.format());
+        assertEquals(3000, unknownFormat.parserResult().getDatabase().getEntryCount());
+    }
+
     private static Stream<Object[]> importFormats() {
         Collection<Object[]> result = new ArrayList<>();
         result.add(new Object[]{"fileformat/RisImporterTest1.ris", "ris", 1});
@@ -0,0 +1,81 @@
+package org.jabref.logic.importer.fetcher;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jabref.logic.importer.FetcherException;
+import org.jabref.logic.importer.ImportFormatPreferences;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ArXivFetcherThreadsTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    private WireMockServer server;
+    private ArXivFetcher fetcher;
+
+    @BeforeEach
+    void setUp() throws FetcherException {
+        server = new WireMockServer(options().dynamicPort());
+        server.start();
+        String entries = IntStream.range(0, PAGE_SIZE)
+                                  .mapToObj(i -> """
+                                          <entry>
+                                            <id>http://arxiv.org/abs/2101.%05dv1</id>
+                                            <published>2021-01-01T00:00:00Z</published>
+                                            <title>Paper %d</title>
+                                            <author><name>Jane Doe</name></author>
+                                          </entry>
+                                          """.formatted(i, i))
+                                  .collect(Collectors.joining());
+        server.stubFor(get(urlPathEqualTo("/api/query"))
+                .willReturn(aResponse().withStatus(200)
+                                       .withHeader("Content-Type", "application/atom+xml")
+                                       .withBody("<feed xmlns=\"http://www.w3.org/2005/Atom\">" + entries + "</feed>")));
+
+        ImportFormatPreferences importFormatPreferences = mock(ImportFormatPreferences.class, Answers.RETURNS_DEEP_STUBS);
+        when(importFormatPreferences.bibEntryPreferences().getKeywordSeparator()).thenReturn(',');
+        DoiFetcher doiFetcher = mock(DoiFetcher.class);
+        when(doiFetcher.performRateLimitedSearchById(anyString())).thenReturn(Optional.empty());
+
+        fetcher = new ArXivFetcher(importFormatPreferences, doiFetcher, "http://localhost:" + server.port() + "/api/query");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void pagedSearchesDoNotLeakThreads() throws FetcherException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        // The first search starts the carrier threads of the virtual threads
+        fetcher.performSearchPaged("machine learning", 0);
+        int threadCountBefore = threads.getThreadCount();
+
+        for (int page = 0; page < 100; page++) {
+            assertEquals(PAGE_SIZE, fetcher.performSearchPaged("machine learning", page).getSize());
+        }
+
+        // Creating a thread pool per page would add 2 * PAGE_SIZE threads per search
+        assertTrue(threads.getThreadCount() - threadCountBefore < PAGE_SIZE, "Thread count grew from %d to %d".formatted(threadCountBefore, threads.getThreadCount()));
+    }
+}
@@ -14,6 +14,7 @@ import java.util.stream.Stream;
 import org.jabref.logic.importer.ImportException;
 import org.jabref.logic.importer.Importer;
 import org.jabref.logic.importer.ParserResult;
+import org.jabref.logic.importer.StreamingImporter;
 import org.jabref.model.entry.BibEntry;
 import org.jabref.support.BibEntryAssert;
 
@@ -57,6 +58,12 @@ public class ImporterTestEngine {
         BibEntryAssert.assertEquals(ImporterTestEngine.class, fileName.replaceAll(fileType, ".bib"), entries);
     }
 
+    public static void testImportEntriesAsStream(StreamingImporter importer, String fileName, String fileType) throws IOException {
+        try (Stream<BibEntry> entries = importer.importEntries(getPath(fileName))) {
+            BibEntryAssert.assertEquals(ImporterTestEngine.class, fileName.replaceAll(fileType, ".bib"), entries.toList());
+        }
+    }
+
     private static Path getPath(String fileName) throws IOException {
         try {
             return Path.of(ImporterTestEngine.class.getResource(fileName).toURI());
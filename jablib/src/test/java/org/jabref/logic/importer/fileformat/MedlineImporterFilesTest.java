@@ -44,6 +44,12 @@ class MedlineImporterFilesTest {
         ImporterTestEngine.testImportEntries(new MedlineImporter(), fileName, FILE_ENDING);
     }
 
+    @ParameterizedTest
+    @MethodSource("fileNames")
+    void importEntriesAsStream(String fileName) throws IOException {
+        ImporterTestEngine.testImportEntriesAsStream(new MedlineImporter(), fileName, FILE_ENDING);
+    }
+
     private static Stream<String> malformedFileNames() throws IOException {
         Predicate<String> fileName = name -> name.startsWith("MedlineImporterTest" + MALFORMED_KEY_WORD)
                 && name.endsWith(FILE_ENDING);
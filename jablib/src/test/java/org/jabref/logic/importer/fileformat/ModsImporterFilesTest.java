@@ -42,4 +42,10 @@ class ModsImporterFilesTest {
     void importEntries(String fileName) throws ImportException, IOException {
         ImporterTestEngine.testImportEntries(new ModsImporter(importFormatPreferences), fileName, FILE_ENDING);
     }
+
+    @ParameterizedTest
+    @MethodSource("fileNames")
+    void importEntriesAsStream(String fileName) throws IOException {
+        ImporterTestEngine.testImportEntriesAsStream(new ModsImporter(importFormatPreferences), fileName, FILE_ENDING);
+    }
 }
@@ -29,4 +29,10 @@ class RISImporterFilesTest {
     void importEntries(String fileName) throws ImportException, IOException {
         ImporterTestEngine.testImportEntries(new RisImporter(), fileName, FILE_ENDING);
     }
+
+    @ParameterizedTest
+    @MethodSource("fileNames")
+    void importEntriesAsStream(String fileName) throws IOException {
+        ImporterTestEngine.testImportEntriesAsStream(new RisImporter(), fileName, FILE_ENDING);
+    }
 }
@@ -1,9 +1,17 @@
 package org.jabref.logic.journals;
 
+import java.nio.file.Path;
+
+import org.jabref.logic.journals.ltwa.LtwaRepository;
+
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class AbbreviationsTest {
 
@@ -23,4 +31,26 @@ class AbbreviationsTest {
     void getNextAbbreviationConvertsAbbreviationToDotlessAbbreviation() {
         assertEquals("2D Mater", repository.getNextAbbreviation("2D Mater.").get());
     }
+
+    @Test
+    void abbreviationsAreFoundInJournalListWithoutLookupMaps(@TempDir Path tempDir) {
+        Path journalList = tempDir.resolve("journal-list.mv");
+        try (MVStore store = new MVStore.Builder().fileName(journalList.toString()).open()) {
+            MVMap<String, Abbreviation> fullToAbbreviation = store.openMap(JournalAbbreviationRepository.FULL_TO_ABBREVIATION_MAP_NAME);
+            fullToAbbreviation.put("Physical Review Letters", new Abbreviation("Physical Review Letters", "Phys. Rev. Lett.", "PRL"));
+        }
+
+        try (JournalAbbreviationRepository journalListRepository = new JournalAbbreviationRepository(journalList, new LtwaRepository())) {
+            assertEquals("Physical Review Letters", journalListRepository.get("Phys. Rev. Lett.").get().getName());
+            assertEquals("Physical Review Letters", journalListRepository.get("Phys Rev Lett").get().getName());
+            assertEquals("Phys. Rev. Lett.", journalListRepository.get("PRL").get().getAbbreviation());
+        }
+    }
+
+    @Test
+    void closingRepositoryKeepsBuiltInListOpen() {
+        JournalAbbreviationLoader.loadBuiltInRepository().close();
+
+        assertTrue(JournalAbbreviationLoader.loadBuiltInRepository().isKnownName("Physical Review Letters"));
+    }
 }
@@ -0,0 +1,64 @@
+package org.jabref.logic.net;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Uses a clock which only advances while the limiter sleeps, so that the waiting time is exact.
+ */
+class HostRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicLong slept = new AtomicLong();
+    private final HostRateLimiter rateLimiter = new HostRateLimiter(now::get, nanos -> {
+        slept.addAndGet(nanos);
+        now.addAndGet(nanos);
+    });
+
+    @Test
+    void requestsBeyondBurstAreDelayed() throws InterruptedException {
+        rateLimiter.setLimit("example.org", new HostRateLimiter.Limit(10, 2));
+
+        for (int i = 0; i < 4; i++) {
+            rateLimiter.acquire("example.org");
+        }
+
+        // Two requests are sent at once, the other two wait for 100 ms each
+        assertEquals(Duration.ofMillis(200).toNanos(), slept.get());
+    }
+
+    @Test
+    void tokensAreRefilledOverTime() throws InterruptedException {
+        rateLimiter.setLimit("example.org", new HostRateLimiter.Limit(10, 2));
+        rateLimiter.acquire("example.org");
+        rateLimiter.acquire("example.org");
+
+        now.addAndGet(Duration.ofMillis(200).toNanos());
+        rateLimiter.acquire("example.org");
+        rateLimiter.acquire("example.org");
+
+        assertEquals(0, slept.get());
+    }
+
+    @Test
+    void hostWithoutLimitIsNotDelayed() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            rateLimiter.acquire("example.org");
+        }
+
+        assertEquals(0, slept.get());
+    }
+
+    @Test
+    void pausedHostIsDelayed() throws InterruptedException {
+        rateLimiter.pause("example.org", Duration.ofMillis(200));
+
+        rateLimiter.acquire("EXAMPLE.org");
+
+        assertEquals(Duration.ofMillis(200).toNanos(), slept.get());
+    }
+}
@@ -0,0 +1,174 @@
+package org.jabref.logic.net;
+
+import java.net.MalformedURLException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.jabref.logic.importer.FetcherException;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HttpResponseCacheTest {
+
+    private WireMockServer server;
+    private HttpResponseCache cache;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) {
+        server = new WireMockServer(options().dynamicPort());
+        server.start();
+        cache = new HttpResponseCache(tempDir, Long.MAX_VALUE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void responseWithoutCachingHeadersIsNotCached() throws MalformedURLException, FetcherException {
+        server.stubFor(get("/api").willReturn(aResponse().withStatus(200).withBody("answer")));
+
+        assertEquals("answer\n", download("/api").asString());
+        assertEquals("answer\n", download("/api").asString());
+
+        server.verify(2, getRequestedFor(urlEqualTo("/api")));
+    }
+
+    @Test
+    void responseWithoutCachingHeadersIsCachedForTimeToLive() throws MalformedURLException, FetcherException {
+        server.stubFor(get("/api").willReturn(aResponse().withStatus(200).withBody("answer")));
+
+        for (int i = 0; i < 2; i++) {
+            URLDownload urlDownload = download("/api");
+            urlDownload.setCacheTimeToLive(Duration.ofHours(1));
+            assertEquals("answer\n", urlDownload.asString());
+        }
+
+        server.verify(1, getRequestedFor(urlEqualTo("/api")));
+    }
+
+    @Test
+    void timeToLiveDoesNotOverrideCachingHeaders() throws MalformedURLException, FetcherException {
+        server.stubFor(get("/api").willReturn(aResponse().withStatus(200).withHeader("Cache-Control", "no-store").withBody("answer")));
+
+        for (int i = 0; i < 2; i++) {
+            URLDownload urlDownload = download("/api");
+            urlDownload.setCacheTimeToLive(Duration.ofHours(1));
+            urlDownload.asString();
+        }
+
+        server.verify(2, getRequestedFor(urlEqualTo("/api")));
+    }
+
+    @Test
+    void responseWithMaxAgeIsCached() throws MalformedURLException, FetcherException {
+        server.stubFor(get("/api").willReturn(aResponse().withStatus(200).withHeader("Cache-Control", "max-age=3600").withBody("answer")));
+
+        assertEquals("answer\n", download("/api").asString());
+        assertEquals("answer\n", download("/api").asString());
+
+        server.verify(1, getRequestedFor(urlEqualTo("/api")));
+    }
+
+    @Test
+    void responseWithOnlyValidatorIsRevalidated() throws MalformedURLException, FetcherException {
+        server.stubFor(get("/api").withHeader("If-None-Match", absent())
+                                  .willReturn(aResponse().withStatus(200).withHeader("ETag", "\"1\"").withBody("answer")));
+        server.stubFor(get("/api").withHeader("If-None-Match", equalTo("\"1\""))
+                                  .willReturn(aResponse().withStatus(304)));
+
+        assertEquals("answer\n", download("/api").asString());
+        assertEquals("answer\n", download("/api").asString());
+
+        server.verify(1, getRequestedFor(urlEqualTo("/api")).withHeader("If-None-Match", equalTo("\"1\"")));
+    }
+
+    @Test
+    void unchangedResponseIsRevalidated() throws MalformedURLException, FetcherException {
+        server.stubFor(get("/api").withHeader("If-None-Match", absent())
+                                  .willReturn(aResponse().withStatus(200).withHeader("Cache-Control", "no-cache").withHeader("ETag", "\"1\"").withBody("answer")));
+        server.stubFor(get("/api").withHeader("If-None-Match", equalTo("\"1\""))
+                                  .willReturn(aResponse().withStatus(304)));
+
+        assertEquals("answer\n", download("/api").asString());
+        assertEquals("answer\n", download("/api").asString());
+
+        server.verify(2, getRequestedFor(urlEqualTo("/api")));
+        server.verify(1, getRequestedFor(urlEqualTo("/api")).withHeader("If-None-Match", equalTo("\"1\"")));
+    }
+
+    @Test
+    void headersOfUnchangedResponseUpdateStoredHeaders() throws MalformedURLException, FetcherException {
+        server.stubFor(get("/api").withHeader("If-None-Match", absent())
+                                  .willReturn(aResponse().withStatus(200).withHeader("Cache-Control", "no-cache").withHeader("ETag", "\"1\"").withBody("answer")));
+        server.stubFor(get("/api").withHeader("If-None-Match", equalTo("\"1\""))
+                                  .willReturn(aResponse().withStatus(304).withHeader("Cache-Control", "max-age=3600")));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("answer\n", download("/api").asString());
+        }
+
+        // The third request is answered from the cache, as the 304 response made the stored response fresh
+        server.verify(2, getRequestedFor(urlEqualTo("/api")));
+    }
+
+    @Test
+    void statisticsCountHitsRevalidationsAndMisses() throws MalformedURLException, FetcherException {
+        server.stubFor(get("/fresh").willReturn(aResponse().withStatus(200).withHeader("Cache-Control", "max-age=3600").withBody("fresh")));
+        server.stubFor(get("/revalidated").withHeader("If-None-Match", absent())
+                                          .willReturn(aResponse().withStatus(200).withHeader("ETag", "\"1\"").withBody("revalidated")));
+        server.stubFor(get("/revalidated").withHeader("If-None-Match", equalTo("\"1\""))
+                                          .willReturn(aResponse().withStatus(304)));
+
+        download("/fresh").asString();
+        download("/fresh").asString();
+        download("/revalidated").asString();
+        download("/revalidated").asString();
+
+        assertEquals(new HttpResponseCache.Statistics(1, 1, 2), cache.getStatistics());
+    }
+
+    @Test
+    void responseWithNoStoreIsNotCached() throws MalformedURLException, FetcherException {
+        server.stubFor(get("/api").willReturn(aResponse().withStatus(200).withHeader("Cache-Control", "no-store").withBody("answer")));
+
+        download("/api").asString();
+        download("/api").asString();
+
+        server.verify(2, getRequestedFor(urlEqualTo("/api")));
+    }
+
+    @Test
+    void requestsWithDifferentHeadersAreCachedSeparately() throws MalformedURLException, FetcherException {
+        server.stubFor(get("/api").withHeader("Accept", equalTo("application/json")).willReturn(aResponse().withStatus(200).withHeader("Cache-Control", "max-age=3600").withBody("json")));
+        server.stubFor(get("/api").withHeader("Accept", equalTo("application/xml")).willReturn(aResponse().withStatus(200).withHeader("Cache-Control", "max-age=3600").withBody("xml")));
+
+        URLDownload jsonDownload = download("/api");
+        jsonDownload.addHeader("Accept", "application/json");
+        URLDownload xmlDownload = download("/api");
+        xmlDownload.addHeader("Accept", "application/xml");
+
+        assertEquals("json\n", jsonDownload.asString());
+        assertEquals("xml\n", xmlDownload.asString());
+    }
+
+    private URLDownload download(String path) throws MalformedURLException {
+        URLDownload urlDownload = new URLDownload("http://localhost:" + server.port() + path);
+        urlDownload.setResponseCache(cache);
+        return urlDownload;
+    }
+}
@@ -0,0 +1,54 @@
+package org.jabref.logic.pdf;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PdfTextCacheTest {
+
+    private static final Path THESIS = Path.of("src/test/resources/pdfs/thesis-example.pdf");
+
+    @Test
+    void touchedFileIsNotReadAgain(@TempDir Path tempDir) throws IOException {
+        Path file = Files.copy(THESIS, tempDir.resolve("thesis.pdf"));
+        Path cacheDirectory = tempDir.resolve("cache");
+        List<PdfTextCache.Page> pages = new PdfTextCache(cacheDirectory, Long.MAX_VALUE).getPages(file, () -> false).orElseThrow();
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+        // Reading the file would be cancelled immediately, thus the pages can only come from the cache
+        assertEquals(Optional.of(pages), new PdfTextCache(cacheDirectory, Long.MAX_VALUE).getPages(file, () -> true));
+        assertEquals(33, pages.size());
+    }
+
+    @Test
+    void cancelledReadingIsNotCached(@TempDir Path tempDir) throws IOException {
+        Path cacheDirectory = tempDir.resolve("cache");
+        PdfTextCache cache = new PdfTextCache(cacheDirectory, Long.MAX_VALUE);
+
+        assertEquals(Optional.empty(), cache.getPages(THESIS, () -> true));
+        assertTrue(Files.notExists(cacheDirectory));
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreRemoved(@TempDir Path tempDir) throws IOException {
+        Path cacheDirectory = tempDir.resolve("cache");
+        PdfTextCache cache = new PdfTextCache(cacheDirectory, 1);
+
+        cache.getPages(THESIS, () -> false);
+
+        try (Stream<Path> files = Files.walk(cacheDirectory)) {
+            assertTrue(files.noneMatch(Files::isRegularFile));
+        }
+    }
+}
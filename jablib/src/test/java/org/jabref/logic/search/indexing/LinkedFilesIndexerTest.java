@@ -1,7 +1,9 @@
 package org.jabref.logic.search.indexing;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -161,6 +163,40 @@ public class LinkedFilesIndexerTest {
         }
     }
 
+    @Test
+    void severalFilesAreIndexedInParallel(@TempDir Path fileDir) throws IOException {
+        List<BibEntry> entries = createEntriesWithSeveralFiles(fileDir);
+
+        indexer.addToIndex(entries, mock(BackgroundTask.class));
+
+        // 33 pages of the thesis, one page of each copy of the meta data file and one empty document for the broken file
+        indexer.getSearcherManager().maybeRefreshBlocking();
+        try (IndexReader reader = indexer.getSearcherManager().acquire().getIndexReader()) {
+            assertEquals(33 + 20 + 1, reader.numDocs());
+        }
+    }
+
+    @Test
+    void cancelledIndexingDoesNotMarkFilesAsIndexed(@TempDir Path fileDir) throws IOException {
+        List<BibEntry> entries = createEntriesWithSeveralFiles(fileDir);
+        BackgroundTask<?> cancelledTask = mock(BackgroundTask.class);
+        when(cancelledTask.isCancelled()).thenReturn(true);
+
+        indexer.addToIndex(entries, cancelledTask);
+
+        indexer.getSearcherManager().maybeRefreshBlocking();
+        try (IndexReader reader = indexer.getSearcherManager().acquire().getIndexReader()) {
+            assertEquals(0, reader.numDocs());
+        }
+
+        indexer.addToIndex(entries, mock(BackgroundTask.class));
+
+        indexer.getSearcherManager().maybeRefreshBlocking();
+        try (IndexReader reader = indexer.getSearcherManager().acquire().getIndexReader()) {
+            assertEquals(33 + 20 + 1, reader.numDocs());
+        }
+    }
+
     @Test
     public void flushIndex() throws IOException {
         // given
@@ -182,4 +218,22 @@ public class LinkedFilesIndexerTest {
             assertEquals(0, reader.numDocs());
         }
     }
+
+    /**
+     * Creates more files than are extracted at the same time: the thesis, 20 copies of a PDF file with a single page and a broken PDF file
+     */
+    private static List<BibEntry> createEntriesWithSeveralFiles(Path fileDir) throws IOException {
+        List<BibEntry> entries = new ArrayList<>();
+        entries.add(new BibEntry(StandardEntryType.PhdThesis)
+                .withFiles(List.of(new LinkedFile("Example Thesis", "thesis-example.pdf", StandardFileType.PDF.getName()))));
+        for (int i = 0; i < 20; i++) {
+            Path copy = Files.copy(Path.of("src/test/resources/pdfs/metaData.pdf"), fileDir.resolve("metaData" + i + ".pdf"));
+            entries.add(new BibEntry(StandardEntryType.Article)
+                    .withFiles(List.of(new LinkedFile("Copy " + i, copy.toAbsolutePath().toString(), StandardFileType.PDF.getName()))));
+        }
+        Path broken = Files.writeString(fileDir.resolve("broken.pdf"), "This is not a PDF file");
+        entries.add(new BibEntry(StandardEntryType.Article)
+                .withFiles(List.of(new LinkedFile("Broken", broken.toAbsolutePath().toString(), StandardFileType.PDF.getName()))));
+        return entries;
+    }
 }
@@ -0,0 +1,154 @@
+package org.jabref.logic.search.retrieval;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import org.jabref.logic.FilePreferences;
+import org.jabref.logic.search.LuceneIndexer;
+import org.jabref.logic.util.StandardFileType;
+import org.jabref.model.database.BibDatabase;
+import org.jabref.model.database.BibDatabaseContext;
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.LinkedFile;
+import org.jabref.model.entry.types.StandardEntryType;
+import org.jabref.model.search.LinkedFilesConstants;
+import org.jabref.model.search.SearchFlags;
+import org.jabref.model.search.query.SearchQuery;
+import org.jabref.model.search.query.SearchResult;
+import org.jabref.model.search.query.SearchResults;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LinkedFilesSearcherTest {
+
+    private static final SearchQuery QUANTUM_QUERY = new SearchQuery("quantum", EnumSet.of(SearchFlags.FULLTEXT));
+
+    private final FilePreferences filePreferences = mock(FilePreferences.class);
+    private final BibEntry entry = new BibEntry(StandardEntryType.Article);
+
+    private IndexWriter indexWriter;
+    private SearcherManager searcherManager;
+    private LinkedFilesSearcher searcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(filePreferences.shouldFulltextIndexLinkedFiles()).thenReturn(true);
+        indexWriter = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(LinkedFilesConstants.LINKED_FILES_ANALYZER));
+        searcherManager = new SearcherManager(indexWriter, null);
+        LuceneIndexer indexer = mock(LuceneIndexer.class);
+        when(indexer.getSearcherManager()).thenReturn(searcherManager);
+
+        BibDatabaseContext databaseContext = new BibDatabaseContext(new BibDatabase(List.of(entry)));
+        searcher = new LinkedFilesSearcher(databaseContext, indexer, filePreferences);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        searcher.close();
+        searcherManager.close();
+        indexWriter.close();
+    }
+
+    @Test
+    void onlyBestScoringPagesOfFileAreReturned() throws IOException {
+        linkFiles("long.pdf", "short.pdf");
+        // Page i mentions the term i times, so that later pages score higher
+        List<Document> longFile = new ArrayList<>();
+        for (int page = 1; page <= 15; page++) {
+            longFile.add(createPage("long.pdf", page, "quantum ".repeat(page) + "filler ".repeat(20 - page), ""));
+        }
+        indexWriter.addDocuments(longFile);
+        indexWriter.addDocuments(List.of(
+                createPage("short.pdf", 1, "quantum computing", ""),
+                createPage("short.pdf", 2, "classical computing", "")));
+
+        Map<String, List<SearchResult>> results = searcher.search(QUANTUM_QUERY).getFileSearchResultsForEntry(entry);
+
+        assertEquals(List.of(15, 14, 13, 12, 11, 10, 9, 8, 7, 6), results.get("long.pdf").stream().map(SearchResult::getPageNumber).toList());
+        assertEquals(List.of(1), results.get("short.pdf").stream().map(SearchResult::getPageNumber).toList());
+    }
+
+    @Test
+    void pageContentsAreLoadedWhenFirstHighlighted() throws IOException {
+        linkFiles("paper.pdf");
+        indexWriter.addDocuments(List.of(
+                createPage("paper.pdf", 1, "quantum computing", "quantum note"),
+                createPage("paper.pdf", 2, "quantum cryptography", "")));
+
+        List<SearchResult> results = searcher.search(QUANTUM_QUERY).getFileSearchResultsForEntry(entry).get("paper.pdf");
+        SearchResult firstPage = results.stream().filter(result -> result.getPageNumber() == 1).findFirst().orElseThrow();
+        SearchResult secondPage = results.stream().filter(result -> result.getPageNumber() == 2).findFirst().orElseThrow();
+        assertEquals(List.of("<b>quantum</b> computing"), firstPage.getContentResultStringsHtml());
+
+        // The first page was read when its content was highlighted, the second page is read only now, from the emptied index
+        indexWriter.deleteAll();
+        searcherManager.maybeRefreshBlocking();
+
+        assertEquals(List.of("<b>quantum</b> note"), firstPage.getAnnotationsResultStringsHtml());
+        assertTrue(secondPage.getContentResultStringsHtml().isEmpty());
+    }
+
+    @Test
+    void searchFollowsChangedLinkedFiles() throws IOException {
+        linkFiles("old.pdf");
+        indexWriter.addDocuments(List.of(createPage("old.pdf", 1, "quantum computing", "")));
+        assertTrue(searcher.search(QUANTUM_QUERY).getFileSearchResultsForEntry(entry).containsKey("old.pdf"));
+
+        linkFiles("new.pdf");
+        indexWriter.deleteDocuments(new Term(LinkedFilesConstants.PATH.toString(), "old.pdf"));
+        indexWriter.addDocuments(List.of(createPage("new.pdf", 1, "quantum computing", "")));
+
+        Map<String, List<SearchResult>> results = searcher.search(QUANTUM_QUERY).getFileSearchResultsForEntry(entry);
+        assertTrue(results.containsKey("new.pdf"));
+        assertFalse(results.containsKey("old.pdf"));
+    }
+
+    @Test
+    void filesNotLinkedToEntriesAreIgnored() throws IOException {
+        linkFiles("paper.pdf");
+        indexWriter.addDocuments(List.of(createPage("unlinked.pdf", 1, "quantum computing", "")));
+
+        SearchResults results = searcher.search(QUANTUM_QUERY);
+
+        assertTrue(results.getMatchedEntries().isEmpty());
+    }
+
+    private void linkFiles(String... fileLinks) {
+        List<LinkedFile> files = new ArrayList<>();
+        for (String fileLink : fileLinks) {
+            files.add(new LinkedFile("", fileLink, StandardFileType.PDF.getName()));
+        }
+        entry.setFiles(files);
+    }
+
+    private static Document createPage(String fileLink, int pageNumber, String content, String annotations) {
+        Document document = new Document();
+        document.add(new StringField(LinkedFilesConstants.PATH.toString(), fileLink, Field.Store.YES));
+        document.add(new StringField(LinkedFilesConstants.PAGE_NUMBER.toString(), String.valueOf(pageNumber), Field.Store.YES));
+        document.add(new TextField(LinkedFilesConstants.CONTENT.toString(), content, Field.Store.YES));
+        if (!annotations.isEmpty()) {
+            document.add(new TextField(LinkedFilesConstants.ANNOTATIONS.toString(), annotations, Field.Store.YES));
+        }
+        return document;
+    }
+}
@@ -0,0 +1,76 @@
+package org.jabref.logic.shared;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeLogPositionTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final AtomicLong now = new AtomicLong();
+    private ChangeLogPosition changeLogPosition;
+
+    @BeforeEach
+    void setUp() {
+        changeLogPosition = new ChangeLogPosition(TIMEOUT, now::get);
+        changeLogPosition.moveTo(5);
+    }
+
+    @Test
+    void readsAfterLastSeenChange() {
+        changeLogPosition.markSeen(List.of(6L, 7L));
+
+        assertEquals(7, changeLogPosition.getReadFrom());
+        assertFalse(changeLogPosition.isUnseen(6));
+    }
+
+    @Test
+    void skippedChangeIsReadAgain() {
+        changeLogPosition.markSeen(List.of(6L, 8L));
+
+        assertEquals(6, changeLogPosition.getReadFrom());
+        assertTrue(changeLogPosition.isUnseen(7));
+        assertFalse(changeLogPosition.isUnseen(8));
+    }
+
+    @Test
+    void changeCommittedLaterIsNotMissingAnymore() {
+        changeLogPosition.markSeen(List.of(6L, 8L));
+        changeLogPosition.markSeen(List.of(7L, 8L, 9L));
+
+        assertEquals(9, changeLogPosition.getReadFrom());
+        assertFalse(changeLogPosition.isUnseen(7));
+    }
+
+    @Test
+    void missingChangeIsGivenUpAfterTimeout() {
+        changeLogPosition.markSeen(List.of(6L, 8L));
+        now.addAndGet(TIMEOUT.toNanos());
+
+        assertEquals(8, changeLogPosition.getReadFrom());
+    }
+
+    @Test
+    void tooManyMissingChangesMakePositionUnknown() {
+        changeLogPosition.markSeen(List.of(100_000L));
+
+        assertFalse(changeLogPosition.isKnown());
+    }
+
+    @Test
+    void manyChangesWithoutGapsKeepPositionKnown() {
+        changeLogPosition.markSeen(LongStream.rangeClosed(6, 100_000).boxed().toList());
+
+        assertTrue(changeLogPosition.isKnown());
+        assertEquals(100_000, changeLogPosition.getReadFrom());
+    }
+}
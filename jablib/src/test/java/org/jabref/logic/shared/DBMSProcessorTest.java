@@ -8,6 +8,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
 import java.util.stream.Collectors;
 
 import org.jabref.logic.shared.exception.InvalidDBMSConnectionPropertiesException;
@@ -197,6 +199,27 @@ class DBMSProcessorTest {
         assertEquals(Optional.of(expectedBibEntry), actualBibEntryOptional);
     }
 
+    @Test
+    void updateEntries() throws SQLException {
+        BibEntry firstEntry = getBibEntryExample();
+        BibEntry secondEntry = getBibEntryExample2();
+        BibEntry outdatedEntry = getBibEntryExample3();
+        dbmsProcessor.insertEntries(List.of(firstEntry, secondEntry, outdatedEntry));
+
+        firstEntry.setField(StandardField.YEAR, "1995");
+        secondEntry.clearField(StandardField.JOURNAL);
+        secondEntry.setField(StandardField.PAGES, "1--10");
+        // simulate older version
+        outdatedEntry.getSharedBibEntryData().setVersion(0);
+        outdatedEntry.setField(StandardField.YEAR, "1980");
+
+        List<OfflineLockException> conflicts = dbmsProcessor.updateEntries(List.of(firstEntry, secondEntry, outdatedEntry));
+
+        assertEquals(1, conflicts.size());
+        assertEquals(outdatedEntry, conflicts.getFirst().getLocalBibEntry());
+        assertEquals(List.of(firstEntry, secondEntry, getBibEntryExample3()), dbmsProcessor.getSharedEntries());
+    }
+
     @Test
     void removeAllEntries() throws SQLException {
         BibEntry firstEntry = getBibEntryExample();
@@ -303,13 +326,55 @@ class DBMSProcessorTest {
         assertEquals(expectedIDVersionMap, actualIDVersionMap);
     }
 
+    @Test
+    void getChangesSince() throws OfflineLockException, SQLException {
+        BibEntry firstEntry = getBibEntryExample();
+        BibEntry secondEntry = getBibEntryExample();
+        BibEntry thirdEntry = getBibEntryExample();
+
+        dbmsProcessor.insertEntries(List.of(firstEntry, secondEntry, thirdEntry));
+        long sequence = dbmsProcessor.getLastChangeSequence().orElseThrow();
+        dbmsProcessor.updateEntry(secondEntry);
+        dbmsProcessor.removeEntries(List.of(thirdEntry));
+
+        SortedMap<Long, Integer> changes = dbmsProcessor.getChangesSince(sequence).orElseThrow();
+
+        assertEquals(Set.of(secondEntry.getSharedBibEntryData().getSharedID(), thirdEntry.getSharedBibEntryData().getSharedID()), Set.copyOf(changes.values()));
+        assertEquals(dbmsProcessor.getLastChangeSequence().orElseThrow(), changes.lastKey());
+        assertEquals(thirdEntry.getSharedBibEntryData().getSharedID(), changes.get(changes.lastKey()));
+    }
+
+    @Test
+    void changesOfClientsWithoutChangeLogAreLogged() throws SQLException {
+        BibEntry entry = getBibEntryExample();
+        dbmsProcessor.insertEntry(entry);
+        long sequence = dbmsProcessor.getLastChangeSequence().orElseThrow();
+
+        // Clients of VersionDBStructure 1 change the tables without writing to the CHANGELOG table
+        dbmsConnection.getConnection().createStatement().executeUpdate(
+                "UPDATE jabref.\"FIELD\" SET \"VALUE\" = 'Changed title' WHERE \"NAME\" = 'title'");
+
+        assertEquals(List.of(entry.getSharedBibEntryData().getSharedID()), List.copyOf(dbmsProcessor.getChangesSince(sequence).orElseThrow().values()));
+    }
+
+    @Test
+    void changesRemovedByPruningAreNotReturned() {
+        dbmsProcessor.insertEntries(List.of(getBibEntryExample(), getBibEntryExample(), getBibEntryExample()));
+        long lastSequence = dbmsProcessor.getLastChangeSequence().orElseThrow();
+
+        dbmsProcessor.pruneChangeLog(1);
+
+        assertEquals(Optional.empty(), dbmsProcessor.getChangesSince(0));
+        assertEquals(Set.of(lastSequence), dbmsProcessor.getChangesSince(lastSequence - 1).orElseThrow().keySet());
+    }
+
     @Test
     void getSharedMetaData() {
         insertMetaData("databaseType", "bibtex;", dbmsConnection, dbmsProcessor);
         insertMetaData("protectedFlag", "true;", dbmsConnection, dbmsProcessor);
         insertMetaData("saveActions", "enabled;\nauthor[capitalize,html_to_latex]\ntitle[title_case]\n;", dbmsConnection, dbmsProcessor);
         insertMetaData("saveOrderConfig", "specified;author;false;title;false;year;true;", dbmsConnection, dbmsProcessor);
-        insertMetaData("VersionDBStructure", "1", dbmsConnection, dbmsProcessor);
+        insertMetaData("VersionDBStructure", "2", dbmsConnection, dbmsProcessor);
 
         Map<String, String> expectedMetaData = getMetaDataExample();
         Map<String, String> actualMetaData = dbmsProcessor.getSharedMetaData();
@@ -334,7 +399,7 @@ class DBMSProcessorTest {
         expectedMetaData.put("protectedFlag", "true;");
         expectedMetaData.put("saveActions", "enabled;\nauthor[capitalize,html_to_latex]\ntitle[title_case]\n;");
         expectedMetaData.put("saveOrderConfig", "specified;author;false;title;false;year;true;");
-        expectedMetaData.put("VersionDBStructure", "1");
+        expectedMetaData.put("VersionDBStructure", "2");
 
         return expectedMetaData;
     }
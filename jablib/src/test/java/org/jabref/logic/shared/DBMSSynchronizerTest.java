@@ -4,6 +4,8 @@ import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import javafx.collections.FXCollections;
 
@@ -212,6 +214,44 @@ class DBMSSynchronizerTest {
         assertEquals(List.of(modifiedBibEntry), dbmsProcessor.getSharedEntries());
     }
 
+    @Test
+    void changeOfOtherClientIsPulledFromChangeLog() throws SQLException, OfflineLockException, InvalidDBMSConnectionPropertiesException {
+        BibEntry bibEntry = createExampleBibEntry(1);
+        bibDatabase.insertEntry(bibEntry);
+        long sequence = dbmsProcessor.getLastChangeSequence().orElseThrow();
+
+        DBMSConnection otherConnection = ConnectorTest.getTestDBMSConnection(dbmsType);
+        try {
+            BibEntry modifiedBibEntry = createExampleBibEntry(1)
+                    .withField(StandardField.TITLE, "The micro multiplexer");
+            DBMSProcessor.getProcessorInstance(otherConnection).updateEntry(modifiedBibEntry);
+
+            assertEquals(Set.of(1), Set.copyOf(dbmsProcessor.getChangesSince(sequence).orElseThrow().values()));
+
+            dbmsSynchronizer.synchronizeLocalDatabase();
+
+            assertEquals(List.of(modifiedBibEntry), bibDatabase.getEntries());
+        } finally {
+            otherConnection.getConnection().close();
+        }
+    }
+
+    @Test
+    void changeOfClientWithoutChangeLogIsPulled() throws SQLException {
+        BibEntry bibEntry = createExampleBibEntry(1);
+        bibDatabase.insertEntry(bibEntry);
+
+        // Clients of VersionDBStructure 1 change the tables without writing to the CHANGELOG table
+        dbmsConnection.getConnection().createStatement().executeUpdate(
+                "UPDATE jabref.\"FIELD\" SET \"VALUE\" = 'The micro multiplexer' WHERE \"NAME\" = 'title'");
+        dbmsConnection.getConnection().createStatement().executeUpdate(
+                "UPDATE jabref.\"ENTRY\" SET \"VERSION\" = \"VERSION\" + 1");
+
+        dbmsSynchronizer.synchronizeLocalDatabase();
+
+        assertEquals(Optional.of("The micro multiplexer"), bibDatabase.getEntries().getFirst().getField(StandardField.TITLE));
+    }
+
     @Test
     void updateEntryDoesNotModifyLocalDatabase() throws SQLException, OfflineLockException {
         BibEntry bibEntry = createExampleBibEntry(1);
@@ -0,0 +1,126 @@
+package org.jabref.logic.shared.listener;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.jabref.logic.shared.DBMSProcessor;
+import org.jabref.logic.shared.DBMSSynchronizer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PostgresSQLNotificationListenerTest {
+
+    private static final String OTHER_PROCESSOR_ID = "other-processor";
+
+    private DBMSSynchronizer dbmsSynchronizer;
+    private PGConnection pgConnection;
+    private PostgresSQLNotificationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        dbmsSynchronizer = mock(DBMSSynchronizer.class);
+        pgConnection = mock(PGConnection.class);
+        listener = new PostgresSQLNotificationListener(dbmsSynchronizer, pgConnection);
+    }
+
+    private static PGNotification notification(String payload) {
+        PGNotification notification = mock(PGNotification.class);
+        when(notification.getParameter()).thenReturn(payload);
+        return notification;
+    }
+
+    /**
+     * Delivers the given notifications as one burst and stops the listener afterward
+     */
+    private void runWithBurst(String... payloads) throws SQLException {
+        PGNotification[] notifications = new PGNotification[payloads.length];
+        for (int i = 0; i < payloads.length; i++) {
+            notifications[i] = notification(payloads[i]);
+        }
+        when(pgConnection.getNotifications(anyInt()))
+                .thenReturn(new PGNotification[] {notifications[0]})
+                .thenReturn(List.of(notifications).subList(1, notifications.length).toArray(PGNotification[]::new))
+                .thenAnswer(_ -> {
+                    listener.stop();
+                    return null;
+                });
+        listener.run();
+    }
+
+    @Test
+    void createPayloadContainsProcessorAndEntries() {
+        assertEquals(DBMSProcessor.PROCESSOR_ID + ";1,2,3", PostgresSQLNotificationListener.createPayload(List.of(1, 2, 3)));
+    }
+
+    @Test
+    void createPayloadWithoutEntriesContainsOnlyProcessor() {
+        assertEquals(DBMSProcessor.PROCESSOR_ID, PostgresSQLNotificationListener.createPayload(List.of()));
+    }
+
+    @Test
+    void createPayloadLeavesOutTooManyEntries() {
+        assertEquals(DBMSProcessor.PROCESSOR_ID, PostgresSQLNotificationListener.createPayload(Collections.nCopies(2000, 12345)));
+    }
+
+    @Test
+    void parseSharedIDsOfCreatedPayload() {
+        String payload = PostgresSQLNotificationListener.createPayload(List.of(1, 2, 3));
+
+        assertEquals(Optional.of(Set.of(1, 2, 3)), PostgresSQLNotificationListener.parseSharedIDs(payload.substring(payload.indexOf(';') + 1)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "1,,2", "1,a", "1;2", "99999999999"})
+    void parseSharedIDsOfMalformedPayload(String sharedIDs) {
+        assertTrue(PostgresSQLNotificationListener.parseSharedIDs(sharedIDs).isEmpty());
+    }
+
+    @Test
+    void burstOfNotificationsLeadsToOnePull() throws SQLException {
+        runWithBurst(OTHER_PROCESSOR_ID + ";1,2", OTHER_PROCESSOR_ID + ";2,3", OTHER_PROCESSOR_ID + ";4");
+
+        verify(dbmsSynchronizer, times(1)).pullChanges(Set.of(1, 2, 3, 4));
+        verify(dbmsSynchronizer, never()).pullChanges();
+    }
+
+    @Test
+    void notificationWithoutEntriesInBurstLeadsToPullOfAllChanges() throws SQLException {
+        runWithBurst(OTHER_PROCESSOR_ID + ";1", OTHER_PROCESSOR_ID);
+
+        verify(dbmsSynchronizer, times(1)).pullChanges();
+        verify(dbmsSynchronizer, never()).pullChanges(anySet());
+    }
+
+    @Test
+    void malformedNotificationLeadsToPullOfAllChanges() throws SQLException {
+        runWithBurst(OTHER_PROCESSOR_ID + ";1,a");
+
+        verify(dbmsSynchronizer, times(1)).pullChanges();
+    }
+
+    @Test
+    void notificationsOfThisClientAreIgnored() throws SQLException {
+        runWithBurst(PostgresSQLNotificationListener.createPayload(List.of(1)), DBMSProcessor.PROCESSOR_ID);
+
+        verify(dbmsSynchronizer, never()).pullChanges();
+        verify(dbmsSynchronizer, never()).pullChanges(anySet());
+    }
+}